@@ -0,0 +1,113 @@
+package com.example.supplychainvisualizer.analytics;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Running per-lane shipment aggregates, kept current from {@link ShipmentChangedEvent}s
+ * so the analytics summary reads O(lanes) state instead of scanning every shipment.
+ * {@link #rebuild} replaces the state wholesale, e.g. at startup.
+ */
+@Component
+public class AnalyticsAggregates {
+
+    private record LaneKey(long sourceId, long destinationId) {
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<LaneKey, LaneAggregate> lanes = new HashMap<>();
+
+    // After commit, so a rolled-back write is never counted
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onShipmentChanged(ShipmentChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (ShipmentChangedEvent.Change change : event.getChanges()) {
+                if (change.before() != null) {
+                    apply(lanes, change.before(), -1);
+                }
+                if (change.after() != null) {
+                    apply(lanes, change.after(), 1);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void rebuild(Iterable<LaneAggregate> replacement) {
+        Map<LaneKey, LaneAggregate> rebuilt = index(replacement);
+        lock.writeLock().lock();
+        try {
+            lanes = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns whether the live state matches {@code expected}, e.g. as aggregated by the database.
+     */
+    public boolean matches(Iterable<LaneAggregate> expected) {
+        Map<LaneKey, LaneAggregate> indexed = index(expected);
+        lock.readLock().lock();
+        try {
+            return indexed.equals(lanes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Copies of the current non-empty lane aggregates.
+     */
+    public List<LaneAggregate> lanes() {
+        return lanes(lane -> true);
+    }
+
+    /**
+     * Copies of the current non-empty lane aggregates accepted by {@code filter}.
+     */
+    public List<LaneAggregate> lanes(Predicate<LaneAggregate> filter) {
+        lock.readLock().lock();
+        try {
+            List<LaneAggregate> copies = new ArrayList<>();
+            for (LaneAggregate lane : lanes.values()) {
+                if (filter.test(lane)) {
+                    copies.add(lane.copy());
+                }
+            }
+            return copies;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Map<LaneKey, LaneAggregate> index(Iterable<LaneAggregate> lanes) {
+        Map<LaneKey, LaneAggregate> indexed = new HashMap<>();
+        for (LaneAggregate lane : lanes) {
+            if (!lane.isEmpty()) {
+                indexed.put(new LaneKey(lane.getSourceId(), lane.getDestinationId()), lane.copy());
+            }
+        }
+        return indexed;
+    }
+
+    private static void apply(Map<LaneKey, LaneAggregate> target, ShipmentSnapshot s, int sign) {
+        LaneKey key = new LaneKey(s.sourceId(), s.destinationId());
+        LaneAggregate lane = target.computeIfAbsent(key,
+                k -> new LaneAggregate(k.sourceId(), k.destinationId()));
+        lane.apply(s, sign);
+        if (lane.isEmpty()) {
+            target.remove(key);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.supplychainvisualizer.analytics;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counter bumped after every write that can change an analytics summary.
+ * Writers bump only once the in-memory analytics state reflects the write, so
+ * a summary computed after reading version {@code v} is at least as new as
+ * {@code v}. Tags carry the process start time as well, so a restart never
+ * reuses a tag handed out before it.
+ */
+@Component
+public class AnalyticsVersion {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong version = new AtomicLong();
+
+    public long current() {
+        return version.get();
+    }
+
+    public void bump() {
+        version.incrementAndGet();
+    }
+
+    public String tag(long version) {
+        return epoch + "-" + version;
+    }
+}
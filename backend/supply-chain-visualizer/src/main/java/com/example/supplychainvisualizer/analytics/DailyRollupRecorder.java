@@ -0,0 +1,175 @@
+package com.example.supplychainvisualizer.analytics;
+
+import com.example.supplychainvisualizer.model.ShipmentDailyRollup;
+import com.example.supplychainvisualizer.repository.ShipmentDailyRollupRepository;
+import com.example.supplychainvisualizer.repository.ShipmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Upserts {@link ShipmentDailyRollup} rows from shipment changes. Each change
+ * is folded into per-(day, lane, segment) deltas first, then every affected
+ * row is locked and adjusted once, in key order so concurrent writers cannot
+ * deadlock.
+ */
+@Component
+public class DailyRollupRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(DailyRollupRecorder.class);
+
+    // A second attempt covers two writers racing to insert the same new row
+    private static final int MAX_ATTEMPTS = 2;
+
+    private record RollupKey(LocalDate day, long sourceId, long destinationId,
+                             String sourceType, String destinationType) {
+    }
+
+    private static final Comparator<RollupKey> KEY_ORDER = Comparator
+            .comparing(RollupKey::day)
+            .thenComparingLong(RollupKey::sourceId)
+            .thenComparingLong(RollupKey::destinationId)
+            .thenComparing(RollupKey::sourceType)
+            .thenComparing(RollupKey::destinationType);
+
+    @Autowired
+    private ShipmentDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private ShipmentRepository shipmentRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShipmentWriteGate writeGate;
+
+    // After commit, so a rolled-back write is never counted
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onShipmentChanged(ShipmentChangedEvent event) {
+        Map<RollupKey, LaneAggregate> deltas = new TreeMap<>(KEY_ORDER);
+        for (ShipmentChangedEvent.Change change : event.getChanges()) {
+            if (change.before() != null) {
+                accumulate(deltas, change.before(), -1);
+            }
+            if (change.after() != null) {
+                accumulate(deltas, change.after(), 1);
+            }
+        }
+        deltas.values().removeIf(LaneAggregate::isZero);
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        // Its own transaction: the shipment write's has committed, and a failed upsert must not reach it
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                requiresNew.executeWithoutResult(status -> deltas.forEach(this::applyDelta));
+                return;
+            } catch (DataIntegrityViolationException ex) {
+                if (attempt >= MAX_ATTEMPTS) {
+                    logger.warn("Could not update shipment rollups; POST /api/analytics/rebuild will repair them", ex);
+                    return;
+                }
+            } catch (DataAccessException ex) {
+                // The shipment write itself has already succeeded; don't fail it over derived data
+                logger.warn("Could not update shipment rollups; POST /api/analytics/rebuild will repair them", ex);
+                return;
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() == 0 && shipmentRepository.count() > 0) {
+            logger.info("Shipment rollups are empty; back-filling from the shipments table");
+            rebuild();
+        }
+    }
+
+    /**
+     * Replaces every rollup row with values recomputed from the shipments table.
+     * Shipment commits are held off from the read until the new rows commit, so
+     * a change is never upserted into rows about to be replaced, nor on top of
+     * rows that already count it.
+     */
+    public void rebuild() {
+        writeGate.exclusively(this::replaceRows);
+    }
+
+    private void replaceRows() {
+        Map<RollupKey, LaneAggregate> totals = new TreeMap<>(KEY_ORDER);
+        for (ShipmentSnapshot snapshot : shipmentRepository.findAllSnapshots()) {
+            accumulate(totals, snapshot, 1);
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            rollupRepository.deleteAllInBatch();
+            List<ShipmentDailyRollup> rows = totals.entrySet().stream()
+                    .map(e -> {
+                        ShipmentDailyRollup row = newRow(e.getKey());
+                        add(row, e.getValue());
+                        return row;
+                    })
+                    .toList();
+            rollupRepository.saveAll(rows);
+        });
+    }
+
+    private static void accumulate(Map<RollupKey, LaneAggregate> target, ShipmentSnapshot s, int sign) {
+        LocalDate day = s.rollupDay();
+        if (day == null) {
+            return;
+        }
+        RollupKey key = new RollupKey(day, s.sourceId(), s.destinationId(), s.sourceType(), s.destinationType());
+        target.computeIfAbsent(key, k -> new LaneAggregate(k.sourceId(), k.destinationId())).apply(s, sign);
+    }
+
+    private void applyDelta(RollupKey key, LaneAggregate delta) {
+        ShipmentDailyRollup row = rollupRepository
+                .findForUpdate(key.day(), key.sourceId(), key.destinationId(), key.sourceType(), key.destinationType())
+                .orElseGet(() -> newRow(key));
+        add(row, delta);
+        rollupRepository.saveAndFlush(row);
+    }
+
+    private static ShipmentDailyRollup newRow(RollupKey key) {
+        ShipmentDailyRollup row = new ShipmentDailyRollup();
+        row.setDay(key.day());
+        row.setSourceId(key.sourceId());
+        row.setDestinationId(key.destinationId());
+        row.setSourceType(key.sourceType());
+        row.setDestinationType(key.destinationType());
+        return row;
+    }
+
+    private static void add(ShipmentDailyRollup row, LaneAggregate delta) {
+        row.setShipments(row.getShipments() + delta.getShipments());
+        row.setDelayed(row.getDelayed() + delta.getDelayed());
+        row.setDelivered(row.getDelivered() + delta.getDelivered());
+        row.setOnTime(row.getOnTime() + delta.getOnTime());
+        row.setLeadTimeCount(row.getLeadTimeCount() + delta.getLeadTimeCount());
+        row.setLeadTimeDaysSum(row.getLeadTimeDaysSum() + delta.getLeadTimeDaysSum());
+        row.setSegmentCount(row.getSegmentCount() + delta.getSegmentCount());
+        row.setTargetDaysSum(row.getTargetDaysSum() + delta.getTargetDaysSum());
+        row.setActualDaysSum(row.getActualDaysSum() + delta.getActualDaysSum());
+        LeadTimeHistogram leadTimes = LeadTimeHistogram.fromBytes(row.getLeadTimeHistogram());
+        leadTimes.merge(delta.getLeadTimes());
+        row.setLeadTimeHistogram(leadTimes.isEmpty() ? null : leadTimes.toBytes());
+    }
+}
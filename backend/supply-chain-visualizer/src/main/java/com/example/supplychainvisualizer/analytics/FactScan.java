@@ -0,0 +1,318 @@
+package com.example.supplychainvisualizer.analytics;
+
+import com.example.supplychainvisualizer.util.LongIntHashMap;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Per-lane, per-segment and per-day aggregates over the shipments in a
+ * {@link ShipmentFactStore} whose rollup day (departure, else creation) falls
+ * in a window, computed in a single pass over the fact columns. The pass only
+ * adds into flat {@code long[]} counter blocks indexed by lane, segment and
+ * day; {@link LaneAggregate}s are built once at the end.
+ *
+ * <p>Given a {@link ForkJoinPool}, row ranges are scanned into separate
+ * accumulators in parallel and merged pairwise. Every counter is a sum, so the
+ * result is the same as a sequential scan.
+ */
+public class FactScan {
+
+    /** Counters for one source-type → destination-type segment, as recorded on the shipments. */
+    public record Segment(String sourceType, String destinationType, LaneAggregate totals) {
+    }
+
+    // Counter block layout, matching LaneAggregate.of(..., long[] counters, ...)
+    private static final int SHIPMENTS = 0, DELAYED = 1, DELIVERED = 2, ON_TIME = 3,
+            LEAD_TIME_COUNT = 4, LEAD_TIME_DAYS_SUM = 5, SEGMENT_COUNT = 6, TARGET_DAYS_SUM = 7,
+            ACTUAL_DAYS_SUM = 8, COUNTERS = 9;
+
+    // Lead times below this are counted in flat arrays; longer ones go to a histogram directly
+    private static final int FLAT_LEAD_DAYS = 64;
+
+    // Windows spanning more days than this index days through a hash map instead of an offset
+    private static final int MAX_DENSE_DAYS = 1 << 16;
+
+    // Fewest rows worth a separate accumulator, which allocates counters for every lane
+    static final int MIN_CHUNK_ROWS = 1 << 15;
+
+    private final List<LaneAggregate> lanes;
+    private final List<Segment> segments;
+    private final SortedMap<LocalDate, LaneAggregate> days;
+
+    private FactScan(List<LaneAggregate> lanes, List<Segment> segments, SortedMap<LocalDate, LaneAggregate> days) {
+        this.lanes = lanes;
+        this.segments = segments;
+        this.days = days;
+    }
+
+    public static FactScan over(ShipmentFactStore.Facts facts, LocalDate from, LocalDate to) {
+        return over(facts, from, to, null);
+    }
+
+    /**
+     * Scans on {@code pool}, or on the calling thread when the pool is null or
+     * the store is too small to be worth splitting.
+     */
+    public static FactScan over(ShipmentFactStore.Facts facts, LocalDate from, LocalDate to, ForkJoinPool pool) {
+        Shape shape = new Shape(facts, from, to);
+        int size = facts.size();
+        Accumulator total;
+        if (pool == null || pool.getParallelism() < 2 || size < 2 * MIN_CHUNK_ROWS) {
+            total = new Accumulator(shape).scan(facts, 0, size);
+        } else {
+            int chunk = Math.max(MIN_CHUNK_ROWS, size / (pool.getParallelism() * 4));
+            total = pool.invoke(new ScanTask(facts, shape, 0, size, chunk));
+        }
+        return total.finish(facts);
+    }
+
+    /** Window bounds and counter block sizes shared by every accumulator of one scan. */
+    private static final class Shape {
+        final int fromDay;
+        final int toDay;
+        final int typeCount;
+        final int laneCount;
+        final int segmentCount;
+        final boolean dense;
+        final int dayCount;
+
+        Shape(ShipmentFactStore.Facts facts, LocalDate from, LocalDate to) {
+            fromDay = Math.max(ShipmentFactStore.epochDay(from), facts.minDay());
+            toDay = Math.min(ShipmentFactStore.epochDay(to), facts.maxDay());
+            typeCount = facts.nodeTypes().size();
+            laneCount = facts.laneCount();
+            segmentCount = typeCount * typeCount;
+            dense = toDay >= fromDay && (long) toDay - fromDay < MAX_DENSE_DAYS;
+            dayCount = dense ? toDay - fromDay + 1 : 0;
+        }
+    }
+
+    private static final class ScanTask extends RecursiveTask<Accumulator> {
+        private final ShipmentFactStore.Facts facts;
+        private final Shape shape;
+        private final int start;
+        private final int end;
+        private final int chunk;
+
+        ScanTask(ShipmentFactStore.Facts facts, Shape shape, int start, int end, int chunk) {
+            this.facts = facts;
+            this.shape = shape;
+            this.start = start;
+            this.end = end;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected Accumulator compute() {
+            if (end - start <= chunk) {
+                return new Accumulator(shape).scan(facts, start, end);
+            }
+            int middle = (start + end) >>> 1;
+            ScanTask left = new ScanTask(facts, shape, start, middle, chunk);
+            left.fork();
+            Accumulator right = new ScanTask(facts, shape, middle, end, chunk).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /** Partial sums over a range of rows. */
+    private static final class Accumulator {
+        private final Shape shape;
+        private final long[] laneCounters;
+        private final long[] segmentCounters;
+        private long[] dayCounters;
+        private final long[] laneLeadDays;
+        private final long[] segmentLeadDays;
+        private final LeadTimeHistogram[] laneLongLeadTimes;
+        private final LeadTimeHistogram[] segmentLongLeadTimes;
+
+        // Only used for windows too wide to index densely
+        private final LongIntHashMap sparseSlots;
+        private int[] sparseDays;
+
+        Accumulator(Shape shape) {
+            this.shape = shape;
+            laneCounters = new long[shape.laneCount * COUNTERS];
+            segmentCounters = new long[shape.segmentCount * COUNTERS];
+            dayCounters = new long[Math.max(shape.dayCount, 16) * COUNTERS];
+            laneLeadDays = new long[shape.laneCount * FLAT_LEAD_DAYS];
+            segmentLeadDays = new long[shape.segmentCount * FLAT_LEAD_DAYS];
+            laneLongLeadTimes = new LeadTimeHistogram[shape.laneCount];
+            segmentLongLeadTimes = new LeadTimeHistogram[shape.segmentCount];
+            sparseSlots = shape.dense ? null : new LongIntHashMap(64, -1);
+            sparseDays = shape.dense ? null : new int[16];
+        }
+
+        Accumulator scan(ShipmentFactStore.Facts facts, int start, int end) {
+            int fromDay = shape.fromDay;
+            int toDay = shape.toDay;
+            int typeCount = shape.typeCount;
+            boolean dense = shape.dense;
+
+            int[] laneOf = facts.lanes();
+            byte[] statuses = facts.statuses();
+            byte[] sourceTypes = facts.sourceTypes();
+            byte[] destinationTypes = facts.destinationTypes();
+            int[] departureDays = facts.departureDays();
+            int[] estimatedDays = facts.estimatedDays();
+            int[] actualDays = facts.actualDays();
+            int[] createdDays = facts.createdDays();
+
+            for (int i = start; i < end; i++) {
+                int departure = departureDays[i];
+                int day = departure != ShipmentFactStore.NO_DATE ? departure : createdDays[i];
+                if (day == ShipmentFactStore.NO_DATE || day < fromDay || day > toDay) {
+                    continue;
+                }
+                int lane = laneOf[i];
+                int segment = (sourceTypes[i] & 0xFF) * typeCount + (destinationTypes[i] & 0xFF);
+                int slot = dense ? day - fromDay : sparseSlot(day);
+
+                // Flags are 0/1 so every row takes the same branch-free path through the counters
+                byte status = statuses[i];
+                int estimated = estimatedDays[i];
+                int actual = actualDays[i];
+                long delayed = status == ShipmentFactStore.STATUS_DELAYED ? 1 : 0;
+                long delivered = status == ShipmentFactStore.STATUS_DELIVERED ? 1 : 0;
+                boolean hasEstimated = estimated != ShipmentFactStore.NO_DATE;
+                boolean hasActual = actual != ShipmentFactStore.NO_DATE;
+                long onTime = delivered & (hasEstimated & hasActual & actual <= estimated ? 1 : 0);
+                long hasLeadTime = delivered & (departure != ShipmentFactStore.NO_DATE & hasActual ? 1 : 0);
+                long hasSegment = hasLeadTime & (hasEstimated ? 1 : 0);
+                long leadDays = hasLeadTime * ((long) actual - departure);
+                long targetDays = hasSegment * ((long) estimated - departure);
+
+                count(laneCounters, lane * COUNTERS, delayed, delivered, onTime, hasLeadTime, leadDays, hasSegment, targetDays);
+                count(segmentCounters, segment * COUNTERS, delayed, delivered, onTime, hasLeadTime, leadDays, hasSegment, targetDays);
+                count(dayCounters, slot * COUNTERS, delayed, delivered, onTime, hasLeadTime, leadDays, hasSegment, targetDays);
+
+                if (leadDays >= 0 && leadDays < FLAT_LEAD_DAYS) {
+                    laneLeadDays[lane * FLAT_LEAD_DAYS + (int) leadDays] += hasLeadTime;
+                    segmentLeadDays[segment * FLAT_LEAD_DAYS + (int) leadDays] += hasLeadTime;
+                } else {
+                    histogram(laneLongLeadTimes, lane).add(leadDays, 1);
+                    histogram(segmentLongLeadTimes, segment).add(leadDays, 1);
+                }
+            }
+            return this;
+        }
+
+        Accumulator merge(Accumulator other) {
+            add(laneCounters, other.laneCounters);
+            add(segmentCounters, other.segmentCounters);
+            add(laneLeadDays, other.laneLeadDays);
+            add(segmentLeadDays, other.segmentLeadDays);
+            mergeHistograms(laneLongLeadTimes, other.laneLongLeadTimes);
+            mergeHistograms(segmentLongLeadTimes, other.segmentLongLeadTimes);
+            if (shape.dense) {
+                add(dayCounters, other.dayCounters);
+            } else {
+                // Each accumulator numbers sparse days in the order it met them
+                for (int otherSlot = 0; otherSlot < other.sparseSlots.size(); otherSlot++) {
+                    int base = sparseSlot(other.sparseDays[otherSlot]) * COUNTERS;
+                    for (int c = 0; c < COUNTERS; c++) {
+                        dayCounters[base + c] += other.dayCounters[otherSlot * COUNTERS + c];
+                    }
+                }
+            }
+            return this;
+        }
+
+        FactScan finish(ShipmentFactStore.Facts facts) {
+            List<LaneAggregate> lanes = new ArrayList<>();
+            for (int lane = 0; lane < shape.laneCount; lane++) {
+                if (laneCounters[lane * COUNTERS + SHIPMENTS] > 0) {
+                    lanes.add(LaneAggregate.of(facts.laneSourceIds()[lane], facts.laneDestinationIds()[lane],
+                            laneCounters, lane * COUNTERS, leadTimes(laneLeadDays, lane, laneLongLeadTimes[lane])));
+                }
+            }
+            List<Segment> segments = new ArrayList<>();
+            for (int segment = 0; segment < shape.segmentCount; segment++) {
+                if (segmentCounters[segment * COUNTERS + SHIPMENTS] > 0) {
+                    segments.add(new Segment(facts.nodeTypes().get(segment / shape.typeCount),
+                            facts.nodeTypes().get(segment % shape.typeCount),
+                            LaneAggregate.of(0, 0, segmentCounters, segment * COUNTERS,
+                                    leadTimes(segmentLeadDays, segment, segmentLongLeadTimes[segment]))));
+                }
+            }
+            SortedMap<LocalDate, LaneAggregate> days = new TreeMap<>();
+            int slots = shape.dense ? shape.dayCount : sparseSlots.size();
+            for (int slot = 0; slot < slots; slot++) {
+                if (dayCounters[slot * COUNTERS + SHIPMENTS] > 0) {
+                    int day = shape.dense ? shape.fromDay + slot : sparseDays[slot];
+                    days.put(LocalDate.ofEpochDay(day),
+                            LaneAggregate.of(0, 0, dayCounters, slot * COUNTERS, new LeadTimeHistogram()));
+                }
+            }
+            return new FactScan(lanes, segments, days);
+        }
+
+        private int sparseSlot(int day) {
+            int slot = sparseSlots.get(day);
+            if (slot < 0) {
+                slot = sparseSlots.size();
+                sparseSlots.put(day, slot);
+                if (slot == sparseDays.length) {
+                    sparseDays = Arrays.copyOf(sparseDays, slot * 2);
+                    dayCounters = Arrays.copyOf(dayCounters, slot * 2 * COUNTERS);
+                }
+                sparseDays[slot] = day;
+            }
+            return slot;
+        }
+    }
+
+    private static void count(long[] counters, int base, long delayed, long delivered, long onTime,
+                              long hasLeadTime, long leadDays, long hasSegment, long targetDays) {
+        counters[base + SHIPMENTS]++;
+        counters[base + DELAYED] += delayed;
+        counters[base + DELIVERED] += delivered;
+        counters[base + ON_TIME] += onTime;
+        counters[base + LEAD_TIME_COUNT] += hasLeadTime;
+        counters[base + LEAD_TIME_DAYS_SUM] += leadDays;
+        counters[base + SEGMENT_COUNT] += hasSegment;
+        counters[base + TARGET_DAYS_SUM] += targetDays;
+        counters[base + ACTUAL_DAYS_SUM] += hasSegment * leadDays;
+    }
+
+    private static void add(long[] target, long[] source) {
+        for (int i = 0; i < target.length; i++) {
+            target[i] += source[i];
+        }
+    }
+
+    private static void mergeHistograms(LeadTimeHistogram[] target, LeadTimeHistogram[] source) {
+        for (int i = 0; i < target.length; i++) {
+            if (source[i] != null) {
+                histogram(target, i).merge(source[i]);
+            }
+        }
+    }
+
+    private static LeadTimeHistogram histogram(LeadTimeHistogram[] histograms, int index) {
+        LeadTimeHistogram h = histograms[index];
+        if (h == null) {
+            h = histograms[index] = new LeadTimeHistogram();
+        }
+        return h;
+    }
+
+    private static LeadTimeHistogram leadTimes(long[] flat, int index, LeadTimeHistogram longLeadTimes) {
+        LeadTimeHistogram h = longLeadTimes == null ? new LeadTimeHistogram() : longLeadTimes;
+        for (int days = 0; days < FLAT_LEAD_DAYS; days++) {
+            h.add(days, flat[index * FLAT_LEAD_DAYS + days]);
+        }
+        return h;
+    }
+
+    public List<LaneAggregate> getLanes() { return lanes; }
+    public List<Segment> getSegments() { return segments; }
+    public SortedMap<LocalDate, LaneAggregate> getDays() { return days; }
+}
@@ -0,0 +1,33 @@
+package com.example.supplychainvisualizer.analytics;
+
+import com.example.supplychainvisualizer.exception.BadRequestException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Bucket size for windowed analytics series. Weeks start on Monday.
+ */
+public enum Granularity {
+    DAY, WEEK, MONTH;
+
+    public static Granularity parse(String value) {
+        if (value == null || value.isBlank()) {
+            return DAY;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Unsupported granularity '" + value + "'; use day, week or month");
+        }
+    }
+
+    public LocalDate bucketStart(LocalDate day) {
+        return switch (this) {
+            case DAY -> day;
+            case WEEK -> day.with(DayOfWeek.MONDAY);
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.supplychainvisualizer.analytics;
+
+import com.example.supplychainvisualizer.repository.projection.LaneStatsRow;
+
+import java.util.Objects;
+
+/**
+ * Running counters for every shipment on one source → destination lane.
+ * Shipments are added with {@code sign = 1} and removed with {@code sign = -1},
+ * so an update is a remove of the old snapshot followed by an add of the new.
+ */
+public class LaneAggregate {
+
+    private final long sourceId;
+    private final long destinationId;
+
+    private long shipments;
+    private long delayed;
+    private long delivered;
+    private long onTime;
+
+    // Delivered shipments with departure and actual arrival
+    private long leadTimeCount;
+    private long leadTimeDaysSum;
+    private LeadTimeHistogram leadTimes = new LeadTimeHistogram();
+
+    // Delivered shipments with departure, estimated and actual arrival
+    private long segmentCount;
+    private long targetDaysSum;
+    private long actualDaysSum;
+
+    public LaneAggregate(long sourceId, long destinationId) {
+        this.sourceId = sourceId;
+        this.destinationId = destinationId;
+    }
+
+    /**
+     * Counters from a SQL projection. The lead-time histogram starts empty; callers
+     * fill it from {@link #getLeadTimes()} when they load the distribution too.
+     */
+    public static LaneAggregate of(LaneStatsRow row) {
+        LaneAggregate lane = new LaneAggregate(row.getSourceId(), row.getDestinationId());
+        lane.shipments = row.getShipments();
+        lane.delayed = row.getDelayed();
+        lane.delivered = row.getDelivered();
+        lane.onTime = row.getOnTime();
+        lane.leadTimeCount = row.getLeadTimeCount();
+        lane.leadTimeDaysSum = row.getLeadTimeDaysSum();
+        lane.segmentCount = row.getSegmentCount();
+        lane.targetDaysSum = row.getTargetDaysSum();
+        lane.actualDaysSum = row.getActualDaysSum();
+        return lane;
+    }
+
+    /**
+     * Builds an aggregate from counters laid out as {@code shipments, delayed, delivered,
+     * onTime, leadTimeCount, leadTimeDaysSum, segmentCount, targetDaysSum, actualDaysSum}
+     * starting at {@code offset}.
+     */
+    static LaneAggregate of(long sourceId, long destinationId, long[] counters, int offset, LeadTimeHistogram leadTimes) {
+        LaneAggregate lane = new LaneAggregate(sourceId, destinationId);
+        lane.shipments = counters[offset];
+        lane.delayed = counters[offset + 1];
+        lane.delivered = counters[offset + 2];
+        lane.onTime = counters[offset + 3];
+        lane.leadTimeCount = counters[offset + 4];
+        lane.leadTimeDaysSum = counters[offset + 5];
+        lane.segmentCount = counters[offset + 6];
+        lane.targetDaysSum = counters[offset + 7];
+        lane.actualDaysSum = counters[offset + 8];
+        lane.leadTimes = leadTimes;
+        return lane;
+    }
+
+    public void apply(ShipmentSnapshot s, int sign) {
+        apply(s.isDelayed(), s.isDelivered(), ShipmentFactStore.epochDay(s.departureDate()),
+                ShipmentFactStore.epochDay(s.estimatedArrival()), ShipmentFactStore.epochDay(s.actualArrival()), sign);
+    }
+
+    /**
+     * Same as {@link #apply(ShipmentSnapshot, int)} for a shipment whose dates are
+     * epoch days, {@link ShipmentFactStore#NO_DATE} where unset.
+     */
+    public void apply(boolean isDelayed, boolean isDelivered,
+                      int departureDay, int estimatedDay, int actualDay, int sign) {
+        shipments += sign;
+        if (isDelayed) {
+            delayed += sign;
+        }
+        if (!isDelivered) {
+            return;
+        }
+        delivered += sign;
+        if (actualDay != ShipmentFactStore.NO_DATE && estimatedDay != ShipmentFactStore.NO_DATE
+                && actualDay <= estimatedDay) {
+            onTime += sign;
+        }
+        if (departureDay != ShipmentFactStore.NO_DATE && actualDay != ShipmentFactStore.NO_DATE) {
+            long actual = actualDay - departureDay;
+            leadTimeCount += sign;
+            leadTimeDaysSum += sign * actual;
+            leadTimes.add(actual, sign);
+            if (estimatedDay != ShipmentFactStore.NO_DATE) {
+                segmentCount += sign;
+                targetDaysSum += sign * (long) (estimatedDay - departureDay);
+                actualDaysSum += sign * actual;
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return shipments == 0;
+    }
+
+    /**
+     * True when every counter is zero, e.g. a delta whose removal and addition cancelled out.
+     */
+    public boolean isZero() {
+        return shipments == 0 && delayed == 0 && delivered == 0 && onTime == 0
+                && leadTimeCount == 0 && leadTimeDaysSum == 0
+                && segmentCount == 0 && targetDaysSum == 0 && actualDaysSum == 0
+                && leadTimes.isEmpty();
+    }
+
+    public LaneAggregate copy() {
+        LaneAggregate c = new LaneAggregate(sourceId, destinationId);
+        c.shipments = shipments;
+        c.delayed = delayed;
+        c.delivered = delivered;
+        c.onTime = onTime;
+        c.leadTimeCount = leadTimeCount;
+        c.leadTimeDaysSum = leadTimeDaysSum;
+        c.leadTimes = leadTimes.copy();
+        c.segmentCount = segmentCount;
+        c.targetDaysSum = targetDaysSum;
+        c.actualDaysSum = actualDaysSum;
+        return c;
+    }
+
+    public long getSourceId() { return sourceId; }
+    public long getDestinationId() { return destinationId; }
+    public long getShipments() { return shipments; }
+    public long getDelayed() { return delayed; }
+    public long getDelivered() { return delivered; }
+    public long getOnTime() { return onTime; }
+    public long getLeadTimeCount() { return leadTimeCount; }
+    public long getLeadTimeDaysSum() { return leadTimeDaysSum; }
+    public LeadTimeHistogram getLeadTimes() { return leadTimes; }
+    public long getSegmentCount() { return segmentCount; }
+    public long getTargetDaysSum() { return targetDaysSum; }
+    public long getActualDaysSum() { return actualDaysSum; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LaneAggregate that)) return false;
+        return sourceId == that.sourceId && destinationId == that.destinationId
+                && shipments == that.shipments && delayed == that.delayed
+                && delivered == that.delivered && onTime == that.onTime
+                && leadTimeCount == that.leadTimeCount && leadTimeDaysSum == that.leadTimeDaysSum
+                && segmentCount == that.segmentCount && targetDaysSum == that.targetDaysSum
+                && actualDaysSum == that.actualDaysSum && leadTimes.equals(that.leadTimes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sourceId, destinationId, shipments, delivered, onTime, leadTimeDaysSum);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.supplychainvisualizer.analytics;
+
+import com.example.supplychainvisualizer.util.LongIntHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Online lead-time drift check per lane, fed by shipments as they become
+ * delivered. Each lane keeps a slow exponentially weighted mean and variance
+ * of its lead time (the baseline) and a fast weighted mean (the recent level).
+ * A lane is flagged while the recent level sits more than the configured
+ * number of standard errors from the baseline, EWMA-control-chart style.
+ * Every delivery costs one map lookup and a few multiplications; state lives
+ * in primitive arrays indexed through a {@link LongIntHashMap}. It is not
+ * persisted and rebuilds from the deliveries seen after startup.
+ */
+@Component
+public class LeadTimeDriftDetector {
+
+    /** Current state of a flagged lane; a positive z-score means deliveries are getting slower. */
+    public record LaneDrift(long sourceId, long destinationId, long samples,
+                            double baselineDays, double stdDevDays, double recentDays, double zScore) {
+    }
+
+    // Keeps lanes whose lead time never varies from dividing by a zero deviation
+    private static final double MIN_STD_DEV_DAYS = 0.5;
+
+    private final double baselineAlpha;
+    private final double recentAlpha;
+    private final double zThreshold;
+    private final int minSamples;
+    // Standard deviation of the recent EWMA relative to that of single lead times
+    private final double recentScale;
+
+    private final LongIntHashMap laneIndex = new LongIntHashMap(64, -1);
+    private long[] laneKeys = new long[16];
+    private long[] samples = new long[16];
+    private double[] mean = new double[16];
+    private double[] variance = new double[16];
+    private double[] recent = new double[16];
+    private double[] zScores = new double[16];
+    private int laneCount;
+
+    public LeadTimeDriftDetector(@Value("${app.analytics.drift.baseline-alpha:0.05}") double baselineAlpha,
+                                 @Value("${app.analytics.drift.recent-alpha:0.3}") double recentAlpha,
+                                 @Value("${app.analytics.drift.z-threshold:3.0}") double zThreshold,
+                                 @Value("${app.analytics.drift.min-samples:10}") int minSamples) {
+        this.baselineAlpha = baselineAlpha;
+        this.recentAlpha = recentAlpha;
+        this.zThreshold = zThreshold;
+        this.minSamples = minSamples;
+        this.recentScale = Math.sqrt(recentAlpha / (2 - recentAlpha));
+    }
+
+    // After commit, so a rolled-back write is never counted
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onShipmentChanged(ShipmentChangedEvent event) {
+        for (ShipmentChangedEvent.Change change : event.getChanges()) {
+            ShipmentSnapshot after = change.after();
+            boolean becameDelivered = after != null && after.isDelivered()
+                    && (change.before() == null || !change.before().isDelivered());
+            if (becameDelivered && after.departureDate() != null && after.actualArrival() != null) {
+                observe(after.sourceId(), after.destinationId(),
+                        after.actualArrival().toEpochDay() - after.departureDate().toEpochDay());
+            }
+        }
+    }
+
+    /**
+     * Records one delivery on the lane. Node ids above 32 bits can't be packed into a lane key and are ignored.
+     */
+    public synchronized void observe(long sourceId, long destinationId, double leadTimeDays) {
+        if (sourceId >>> 32 != 0 || destinationId >>> 32 != 0) {
+            return;
+        }
+        long key = sourceId << 32 | destinationId;
+        int lane = laneIndex.get(key);
+        if (lane < 0) {
+            lane = addLane(key);
+            mean[lane] = leadTimeDays;
+            recent[lane] = leadTimeDays;
+            samples[lane] = 1;
+            return;
+        }
+
+        double diff = leadTimeDays - mean[lane];
+        recent[lane] += recentAlpha * (leadTimeDays - recent[lane]);
+        double stdDev = Math.max(Math.sqrt(variance[lane]), MIN_STD_DEV_DAYS);
+        // Scored against the baseline before this delivery moves it
+        zScores[lane] = (recent[lane] - mean[lane]) / (stdDev * recentScale);
+
+        double increment = baselineAlpha * diff;
+        mean[lane] += increment;
+        variance[lane] = (1 - baselineAlpha) * (variance[lane] + diff * increment);
+        samples[lane]++;
+    }
+
+    /**
+     * Lanes whose recent lead time deviates beyond the z-score threshold, largest deviation first.
+     */
+    public synchronized List<LaneDrift> flaggedLanes() {
+        List<LaneDrift> flagged = new ArrayList<>();
+        for (int lane = 0; lane < laneCount; lane++) {
+            if (samples[lane] >= minSamples && Math.abs(zScores[lane]) >= zThreshold) {
+                flagged.add(new LaneDrift(laneKeys[lane] >>> 32, laneKeys[lane] & 0xFFFFFFFFL, samples[lane],
+                        mean[lane], Math.max(Math.sqrt(variance[lane]), MIN_STD_DEV_DAYS),
+                        recent[lane], zScores[lane]));
+            }
+        }
+        flagged.sort(Comparator.comparingDouble((LaneDrift d) -> -Math.abs(d.zScore())));
+        return flagged;
+    }
+
+    private int addLane(long key) {
+        if (laneCount == laneKeys.length) {
+            int capacity = laneCount * 2;
+            laneKeys = Arrays.copyOf(laneKeys, capacity);
+            samples = Arrays.copyOf(samples, capacity);
+            mean = Arrays.copyOf(mean, capacity);
+            variance = Arrays.copyOf(variance, capacity);
+            recent = Arrays.copyOf(recent, capacity);
+            zScores = Arrays.copyOf(zScores, capacity);
+        }
+        laneKeys[laneCount] = key;
+        laneIndex.put(key, laneCount);
+        return laneCount++;
+    }
+}
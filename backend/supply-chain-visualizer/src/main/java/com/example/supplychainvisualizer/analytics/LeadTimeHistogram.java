@@ -0,0 +1,189 @@
+package com.example.supplychainvisualizer.analytics;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Mergeable distribution of whole-day lead times, bucketed HDR-histogram style:
+ * values below {@value #LINEAR_LIMIT} days get a bucket each, larger values share
+ * {@value #SUB_BUCKETS} buckets per power of two (at most ~3% relative error).
+ * Counts can be added and removed, so a histogram follows the same +1/-1 updates
+ * as the counters in {@link LaneAggregate}, and two histograms merge by adding
+ * their buckets. Percentiles are read straight from the buckets.
+ */
+public class LeadTimeHistogram {
+
+    private static final int LINEAR_LIMIT = 64;
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_BITS = Long.numberOfTrailingZeros(LINEAR_LIMIT);
+
+    private static final long[] EMPTY = new long[0];
+
+    private long[] counts = EMPTY;
+    private long total;
+
+    public void add(long days, long count) {
+        if (count == 0) {
+            return;
+        }
+        int index = bucketIndex(days);
+        if (index >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(index + 1, counts.length * 2));
+        }
+        counts[index] += count;
+        total += count;
+    }
+
+    public void merge(LeadTimeHistogram other) {
+        if (other.counts.length > counts.length) {
+            counts = Arrays.copyOf(counts, other.counts.length);
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+    }
+
+    public long getCount() {
+        return total;
+    }
+
+    public boolean isEmpty() {
+        for (long c : counts) {
+            if (c != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The smallest recorded lead time (up to bucket resolution) that at least
+     * {@code percentile}% of the recorded shipments do not exceed, or 0 when empty.
+     */
+    public long valueAtPercentile(double percentile) {
+        if (total <= 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return highestValueIn(i);
+            }
+        }
+        return highestValueIn(counts.length - 1);
+    }
+
+    public LeadTimeHistogram copy() {
+        LeadTimeHistogram c = new LeadTimeHistogram();
+        c.counts = counts.clone();
+        c.total = total;
+        return c;
+    }
+
+    /**
+     * Compact form for storage: (bucket gap, count) varint pairs for the non-empty buckets.
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int previous = -1;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                writeVarLong(out, i - previous);
+                writeVarLong(out, (counts[i] << 1) ^ (counts[i] >> 63));
+                previous = i;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public static LeadTimeHistogram fromBytes(byte[] bytes) {
+        LeadTimeHistogram histogram = new LeadTimeHistogram();
+        if (bytes == null) {
+            return histogram;
+        }
+        int[] position = {0};
+        int index = -1;
+        while (position[0] < bytes.length) {
+            index += (int) readVarLong(bytes, position);
+            long zigzag = readVarLong(bytes, position);
+            long count = (zigzag >>> 1) ^ -(zigzag & 1);
+            if (index >= histogram.counts.length) {
+                histogram.counts = Arrays.copyOf(histogram.counts, Math.max(index + 1, histogram.counts.length * 2));
+            }
+            histogram.counts[index] += count;
+            histogram.total += count;
+        }
+        return histogram;
+    }
+
+    static int bucketIndex(long days) {
+        long v = Math.max(0, days);
+        if (v < LINEAR_LIMIT) {
+            return (int) v;
+        }
+        int msb = 63 - Long.numberOfLeadingZeros(v);
+        int sub = (int) (v >>> (msb - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (msb - LINEAR_BITS) * SUB_BUCKETS + sub;
+    }
+
+    static long highestValueIn(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int msb = (index - LINEAR_LIMIT) / SUB_BUCKETS + LINEAR_BITS;
+        int sub = (index - LINEAR_LIMIT) % SUB_BUCKETS;
+        int shift = msb - SUB_BUCKET_BITS;
+        long lowest = (1L << msb) | ((long) sub << shift);
+        return lowest + (1L << shift) - 1;
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(byte[] bytes, int[] position) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bytes[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LeadTimeHistogram that)) return false;
+        int n = Math.max(counts.length, that.counts.length);
+        for (int i = 0; i < n; i++) {
+            long a = i < counts.length ? counts[i] : 0;
+            long b = i < that.counts.length ? that.counts[i] : 0;
+            if (a != b) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 1;
+        int last = counts.length - 1;
+        while (last >= 0 && counts[last] == 0) {
+            last--;
+        }
+        for (int i = 0; i <= last; i++) {
+            h = 31 * h + Long.hashCode(counts[i]);
+        }
+        return h;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.supplychainvisualizer.analytics;
+
+import java.util.List;
+
+/**
+ * Published by the shipment service after shipments are created, updated or
+ * deleted. Each change carries the snapshot before the write ({@code null} on
+ * create) and after it ({@code null} on delete).
+ */
+public class ShipmentChangedEvent {
+
+    public record Change(ShipmentSnapshot before, ShipmentSnapshot after) {
+    }
+
+    private final List<Change> changes;
+
+    public ShipmentChangedEvent(List<Change> changes) {
+        this.changes = List.copyOf(changes);
+    }
+
+    public static ShipmentChangedEvent created(ShipmentSnapshot after) {
+        return new ShipmentChangedEvent(List.of(new Change(null, after)));
+    }
+
+    public static ShipmentChangedEvent updated(ShipmentSnapshot before, ShipmentSnapshot after) {
+        return new ShipmentChangedEvent(List.of(new Change(before, after)));
+    }
+
+    public static ShipmentChangedEvent deleted(ShipmentSnapshot before) {
+        return new ShipmentChangedEvent(List.of(new Change(before, null)));
+    }
+
+    public List<Change> getChanges() {
+        return changes;
+    }
+}
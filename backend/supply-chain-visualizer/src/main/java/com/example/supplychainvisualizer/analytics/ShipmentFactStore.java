@@ -0,0 +1,272 @@
+package com.example.supplychainvisualizer.analytics;
+
+import com.example.supplychainvisualizer.util.LongIntHashMap;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Analytics-only copy of the shipments table in columnar form: one primitive
+ * array per field, one row per shipment. Dates are epoch days, statuses and
+ * node types are dictionary-encoded bytes, and each row points at a lane
+ * whose source and destination ids are stored once, so scans run as tight
+ * loops without touching entities or {@code LocalDate}s. Loaded from the
+ * shipments table and kept current from {@link ShipmentChangedEvent}s.
+ */
+@Component
+public class ShipmentFactStore {
+
+    /** Epoch day stored for an unset date. */
+    public static final int NO_DATE = Integer.MIN_VALUE;
+
+    public static final byte STATUS_DELIVERED = 0;
+    public static final byte STATUS_DELAYED = 1;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // Byte codes leave room for this many distinct values; later ones share an "other" code
+    private static final int MAX_DICTIONARY_SIZE = 255;
+    private static final String OTHER = "other";
+
+    /**
+     * Read-only view of the columns, valid only inside {@link #read}. Rows
+     * {@code 0 .. size-1} are live; {@code lanes[i]} indexes the lane columns
+     * and the type columns index {@code nodeTypes}. Every row's rollup day
+     * (departure, else creation) lies within {@code [minDay, maxDay]}.
+     */
+    public record Facts(int size,
+                        long[] ids,
+                        int[] lanes,
+                        byte[] statuses,
+                        byte[] sourceTypes,
+                        byte[] destinationTypes,
+                        int[] departureDays,
+                        int[] estimatedDays,
+                        int[] actualDays,
+                        int[] createdDays,
+                        int minDay,
+                        int maxDay,
+                        int laneCount,
+                        long[] laneSourceIds,
+                        long[] laneDestinationIds,
+                        List<String> nodeTypes) {
+    }
+
+    private record LaneKey(long sourceId, long destinationId) {
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Columns columns = new Columns(INITIAL_CAPACITY);
+    private volatile boolean loaded;
+
+    /**
+     * Replaces every row with {@code shipments}.
+     */
+    public void load(Iterable<ShipmentSnapshot> shipments) {
+        Columns replacement = new Columns(INITIAL_CAPACITY);
+        for (ShipmentSnapshot s : shipments) {
+            replacement.upsert(s);
+        }
+        lock.writeLock().lock();
+        try {
+            columns = replacement;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return columns.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // After commit, so a rolled-back write is never counted
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onShipmentChanged(ShipmentChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (ShipmentChangedEvent.Change change : event.getChanges()) {
+                if (change.after() != null) {
+                    columns.upsert(change.after());
+                } else if (change.before() != null && change.before().id() != null) {
+                    columns.remove(change.before().id());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs {@code reader} against the current columns while holding off writers.
+     * The arrays must not be kept or modified once the reader returns.
+     */
+    public <T> T read(Function<Facts, T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.apply(columns.view());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static int epochDay(LocalDate date) {
+        return date == null ? NO_DATE : (int) date.toEpochDay();
+    }
+
+    private static final class Columns {
+        int size;
+        long[] ids;
+        int[] lanes;
+        byte[] statuses;
+        byte[] sourceTypes;
+        byte[] destinationTypes;
+        int[] departureDays;
+        int[] estimatedDays;
+        int[] actualDays;
+        int[] createdDays;
+
+        // Bounds only widen; removing the earliest or latest row leaves them as they were
+        int minDay = Integer.MAX_VALUE;
+        int maxDay = Integer.MIN_VALUE;
+
+        final LongIntHashMap rowById;
+
+        int laneCount;
+        long[] laneSourceIds = new long[16];
+        long[] laneDestinationIds = new long[16];
+        final Map<LaneKey, Integer> laneIndex = new HashMap<>();
+
+        final List<String> statusNames = new ArrayList<>(List.of("delivered", "delayed"));
+        final Map<String, Byte> statusCodes = new HashMap<>(Map.of("delivered", STATUS_DELIVERED, "delayed", STATUS_DELAYED));
+        final List<String> typeNames = new ArrayList<>();
+        final Map<String, Byte> typeCodes = new HashMap<>();
+
+        Columns(int capacity) {
+            ids = new long[capacity];
+            lanes = new int[capacity];
+            statuses = new byte[capacity];
+            sourceTypes = new byte[capacity];
+            destinationTypes = new byte[capacity];
+            departureDays = new int[capacity];
+            estimatedDays = new int[capacity];
+            actualDays = new int[capacity];
+            createdDays = new int[capacity];
+            rowById = new LongIntHashMap(capacity, -1);
+        }
+
+        Facts view() {
+            return new Facts(size, ids, lanes, statuses, sourceTypes, destinationTypes,
+                    departureDays, estimatedDays, actualDays, createdDays, minDay, maxDay,
+                    laneCount, laneSourceIds, laneDestinationIds, Collections.unmodifiableList(typeNames));
+        }
+
+        void upsert(ShipmentSnapshot s) {
+            int row = s.id() == null ? -1 : rowById.get(s.id());
+            if (row < 0) {
+                if (size == ids.length) {
+                    grow();
+                }
+                row = size++;
+                if (s.id() != null) {
+                    rowById.put(s.id(), row);
+                }
+            }
+            ids[row] = s.id() == null ? 0 : s.id();
+            lanes[row] = laneFor(s.sourceId(), s.destinationId());
+            statuses[row] = encode(s.status() == null ? null : s.status().toLowerCase(Locale.ROOT), statusNames, statusCodes);
+            sourceTypes[row] = encode(s.sourceType(), typeNames, typeCodes);
+            destinationTypes[row] = encode(s.destinationType(), typeNames, typeCodes);
+            departureDays[row] = epochDay(s.departureDate());
+            estimatedDays[row] = epochDay(s.estimatedArrival());
+            actualDays[row] = epochDay(s.actualArrival());
+            createdDays[row] = epochDay(s.createdOn());
+            int day = departureDays[row] != NO_DATE ? departureDays[row] : createdDays[row];
+            if (day != NO_DATE) {
+                minDay = Math.min(minDay, day);
+                maxDay = Math.max(maxDay, day);
+            }
+        }
+
+        // Moves the last row into the removed one so live rows stay contiguous
+        void remove(long id) {
+            int row = rowById.remove(id);
+            if (row < 0) {
+                return;
+            }
+            int last = --size;
+            if (row != last) {
+                ids[row] = ids[last];
+                lanes[row] = lanes[last];
+                statuses[row] = statuses[last];
+                sourceTypes[row] = sourceTypes[last];
+                destinationTypes[row] = destinationTypes[last];
+                departureDays[row] = departureDays[last];
+                estimatedDays[row] = estimatedDays[last];
+                actualDays[row] = actualDays[last];
+                createdDays[row] = createdDays[last];
+                rowById.put(ids[row], row);
+            }
+        }
+
+        private int laneFor(long sourceId, long destinationId) {
+            return laneIndex.computeIfAbsent(new LaneKey(sourceId, destinationId), key -> {
+                if (laneCount == laneSourceIds.length) {
+                    laneSourceIds = Arrays.copyOf(laneSourceIds, laneCount * 2);
+                    laneDestinationIds = Arrays.copyOf(laneDestinationIds, laneCount * 2);
+                }
+                laneSourceIds[laneCount] = sourceId;
+                laneDestinationIds[laneCount] = destinationId;
+                return laneCount++;
+            });
+        }
+
+        private static byte encode(String value, List<String> names, Map<String, Byte> codes) {
+            Byte code = codes.get(value);
+            if (code != null) {
+                return code;
+            }
+            String name = names.size() < MAX_DICTIONARY_SIZE - 1 ? value : OTHER;
+            code = codes.get(name);
+            if (code == null) {
+                code = (byte) names.size();
+                names.add(name);
+                codes.put(name, code);
+            }
+            return code;
+        }
+
+        private void grow() {
+            int capacity = ids.length + (ids.length >> 1);
+            ids = Arrays.copyOf(ids, capacity);
+            lanes = Arrays.copyOf(lanes, capacity);
+            statuses = Arrays.copyOf(statuses, capacity);
+            sourceTypes = Arrays.copyOf(sourceTypes, capacity);
+            destinationTypes = Arrays.copyOf(destinationTypes, capacity);
+            departureDays = Arrays.copyOf(departureDays, capacity);
+            estimatedDays = Arrays.copyOf(estimatedDays, capacity);
+            actualDays = Arrays.copyOf(actualDays, capacity);
+            createdDays = Arrays.copyOf(createdDays, capacity);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.supplychainvisualizer.analytics;
+
+import com.example.supplychainvisualizer.model.Shipment;
+
+import java.time.LocalDate;
+
+/**
+ * The analytics-relevant fields of a shipment at one point in time. Captured
+ * before and after each write so aggregates can subtract the old contribution
+ * and add the new one without re-reading the shipment.
+ */
+public record ShipmentSnapshot(
+        Long id,
+        Long sourceId,
+        Long destinationId,
+        String sourceType,
+        String destinationType,
+        String status,
+        LocalDate departureDate,
+        LocalDate estimatedArrival,
+        LocalDate actualArrival,
+        LocalDate createdOn) {
+
+    public static ShipmentSnapshot of(Shipment shipment) {
+        return new ShipmentSnapshot(
+                shipment.getId(),
+                shipment.getSource().getId(),
+                shipment.getDestination().getId(),
+                shipment.getSource().getType(),
+                shipment.getDestination().getType(),
+                shipment.getStatus(),
+                shipment.getDepartureDate(),
+                shipment.getEstimatedArrival(),
+                shipment.getActualArrival(),
+                shipment.getCreatedAt() == null ? null : shipment.getCreatedAt().toLocalDate());
+    }
+
+    public boolean isDelivered() {
+        return "delivered".equalsIgnoreCase(status);
+    }
+
+    public boolean isDelayed() {
+        return "delayed".equalsIgnoreCase(status);
+    }
+
+    /**
+     * The day this shipment is bucketed under in daily rollups: its departure
+     * date, or the day it was recorded when it has not been scheduled yet.
+     */
+    public LocalDate rollupDay() {
+        return departureDate != null ? departureDate : createdOn;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.supplychainvisualizer.analytics;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Keeps shipment commits out of a rebuild of state derived from shipments.
+ * A transaction that publishes a {@link ShipmentChangedEvent} holds the gate
+ * from just before it commits until its after-commit listeners have run;
+ * {@link #exclusively} waits for those and holds off new ones. A rebuild that
+ * reads the shipments table and replaces its state inside it therefore sees
+ * every change either applied before the read or arriving after the swap,
+ * never lost in between or counted twice.
+ */
+@Component
+public class ShipmentWriteGate {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Outside a transaction the listeners run during publishing, so there is nothing to hold
+    @EventListener
+    public void onShipmentChanged(ShipmentChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                lock.readLock().lock();
+                // Registered after every listener's, so among equal orders it completes last
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        lock.readLock().unlock();
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Runs {@code rebuild} with no shipment transaction committing or applying its changes.
+     */
+    public <T> T exclusively(Supplier<T> rebuild) {
+        lock.writeLock().lock();
+        try {
+            return rebuild.get();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void exclusively(Runnable rebuild) {
+        exclusively(() -> {
+            rebuild.run();
+            return null;
+        });
+    }
+}
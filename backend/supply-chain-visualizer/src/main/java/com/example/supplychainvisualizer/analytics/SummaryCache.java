@@ -0,0 +1,68 @@
+package com.example.supplychainvisualizer.analytics;
+
+import com.example.supplychainvisualizer.dto.AnalyticsSummaryDto;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Analytics summaries by query, each valid for one {@link AnalyticsVersion}.
+ * Concurrent misses for the same query and version share one computation: the
+ * first caller computes while the others wait for its result.
+ */
+@Component
+public class SummaryCache {
+
+    /**
+     * One summary request: the shipments it covers (e.g. {@code "all"} or
+     * {@code "source:5"}) and, for windowed summaries, the window and granularity.
+     */
+    public record Key(String scope, LocalDate from, LocalDate to, String granularity) {
+        public static final Key ALL_TIME = new Key("all", null, null, null);
+    }
+
+    // Windowed queries are open-ended, so stale and excess entries are dropped past this size
+    private static final int MAX_ENTRIES = 256;
+
+    private record Entry(long version, CompletableFuture<AnalyticsSummaryDto> summary) {
+    }
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+
+    public AnalyticsSummaryDto get(Key key, long version, Supplier<AnalyticsSummaryDto> compute) {
+        CompletableFuture<AnalyticsSummaryDto> created = new CompletableFuture<>();
+        Entry entry = entries.compute(key, (k, existing) ->
+                existing != null && existing.version() >= version ? existing : new Entry(version, created));
+        if (entry.summary() == created) {
+            try {
+                created.complete(compute.get());
+            } catch (RuntimeException | Error e) {
+                entries.remove(key, entry);
+                created.completeExceptionally(e);
+            }
+            if (entries.size() > MAX_ENTRIES) {
+                evictOlderThan(version);
+            }
+        }
+        try {
+            return entry.summary().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void evictOlderThan(long version) {
+        entries.values().removeIf(e -> e.version() < version);
+        if (entries.size() > MAX_ENTRIES) {
+            entries.clear();
+        }
+    }
+}
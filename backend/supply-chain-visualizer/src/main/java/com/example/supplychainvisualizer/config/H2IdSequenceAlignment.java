@@ -0,0 +1,43 @@
+package com.example.supplychainvisualizer.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * The h2 profile builds its schema with Hibernate instead of Flyway, so a demo
+ * database created while ids were identity columns gets fresh id sequences
+ * starting at 1. Before the app takes traffic, each sequence is moved past the
+ * table's highest id, mirroring what V7 does on Postgres.
+ */
+@Component
+@Profile("h2")
+public class H2IdSequenceAlignment {
+
+    // Must match allocationSize on the entities' @SequenceGenerator
+    static final int ALLOCATION_SIZE = 50;
+
+    private static final List<String> TABLES = List.of(
+            "nodes", "products", "connections", "inventory", "shipments", "shipment_items");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Injected only so this runs after Hibernate has created or updated the schema
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PostConstruct
+    public void alignSequences() {
+        for (String table : TABLES) {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            // The pooled optimizer treats the next value as the top of a block of ALLOCATION_SIZE ids
+            jdbcTemplate.execute("ALTER SEQUENCE " + table + "_id_seq RESTART WITH " + (maxId + ALLOCATION_SIZE));
+        }
+    }
+}
@@ -1,12 +1,26 @@
 package com.example.supplychainvisualizer.controller;
 
 import com.example.supplychainvisualizer.dto.AnalyticsSummaryDto;
+import com.example.supplychainvisualizer.dto.LaneDriftDto;
+import com.example.supplychainvisualizer.dto.response.MessageResponse;
 import com.example.supplychainvisualizer.service.AnalyticsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/analytics")
@@ -16,7 +30,55 @@ public class AnalyticsController {
     private AnalyticsService analyticsService;
 
     @GetMapping("/summary")
-    public ResponseEntity<AnalyticsSummaryDto> getSummary() {
-        return ResponseEntity.ok(analyticsService.getSummary());
+    public ResponseEntity<AnalyticsSummaryDto> getSummary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String granularity,
+            WebRequest request) {
+        return versioned(request, () -> Optional.of(from == null && to == null && granularity == null
+                ? analyticsService.getSummary()
+                : analyticsService.getSummary(from, to, granularity)));
+    }
+
+    @GetMapping("/summary/source/{nodeId:\\d+}")
+    public ResponseEntity<AnalyticsSummaryDto> getSummaryBySource(@PathVariable Long nodeId, WebRequest request) {
+        return versioned(request, () -> analyticsService.getSummaryBySource(nodeId));
+    }
+
+    @GetMapping("/summary/destination/{nodeId:\\d+}")
+    public ResponseEntity<AnalyticsSummaryDto> getSummaryByDestination(@PathVariable Long nodeId, WebRequest request) {
+        return versioned(request, () -> analyticsService.getSummaryByDestination(nodeId));
+    }
+
+    @GetMapping("/summary/product/{productId:\\d+}")
+    public ResponseEntity<AnalyticsSummaryDto> getSummaryByProduct(@PathVariable Long productId, WebRequest request) {
+        return versioned(request, () -> analyticsService.getSummaryByProduct(productId));
+    }
+
+    @GetMapping("/lead-time-drift")
+    public ResponseEntity<List<LaneDriftDto>> getLeadTimeDrift() {
+        return ResponseEntity.ok(analyticsService.getLeadTimeDrift());
+    }
+
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MessageResponse> rebuildAggregates() {
+        boolean consistent = analyticsService.rebuildAggregates();
+        return ResponseEntity.ok(new MessageResponse(consistent
+                ? "Analytics aggregates were consistent; rebuilt from database"
+                : "Analytics aggregates had drifted; rebuilt from database"));
+    }
+
+    // Answers 304 when the client's ETag is current, without computing the summary
+    private ResponseEntity<AnalyticsSummaryDto> versioned(WebRequest request,
+                                                          Supplier<Optional<AnalyticsSummaryDto>> summary) {
+        // Read before the summary, which is then at least as new as the tag
+        String eTag = "\"" + analyticsService.getSummaryVersionTag() + "\"";
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return summary.get()
+                .map(body -> ResponseEntity.ok().eTag(eTag).body(body))
+                .orElse(ResponseEntity.notFound().build());
     }
 }
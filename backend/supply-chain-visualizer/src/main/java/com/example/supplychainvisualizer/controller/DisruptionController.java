@@ -0,0 +1,40 @@
+package com.example.supplychainvisualizer.controller;
+
+import com.example.supplychainvisualizer.dto.DisruptionImpactDto;
+import com.example.supplychainvisualizer.dto.NodeCriticalityDto;
+import com.example.supplychainvisualizer.service.DisruptionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/network/disruptions")
+public class DisruptionController {
+
+    @Autowired
+    private DisruptionService disruptionService;
+
+    /**
+     * What breaks if the given nodes and connections (comma-separated ids) fail:
+     * nodes cut off from every factory and open shipments whose lanes are hit.
+     */
+    @GetMapping
+    public ResponseEntity<DisruptionImpactDto> analyze(
+            @RequestParam(required = false) List<Long> nodeIds,
+            @RequestParam(required = false) List<Long> connectionIds) {
+        return ResponseEntity.ok(disruptionService.analyze(nodeIds, connectionIds));
+    }
+
+    /**
+     * Nodes ranked by how many others lose supply if each fails alone.
+     */
+    @GetMapping("/critical-nodes")
+    public ResponseEntity<List<NodeCriticalityDto>> getCriticalNodes(@RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(disruptionService.rankCriticalNodes(limit));
+    }
+}
@@ -2,10 +2,13 @@ package com.example.supplychainvisualizer.controller;
 
 import com.example.supplychainvisualizer.dto.InventoryDto;
 import com.example.supplychainvisualizer.service.InventoryService;
+import com.example.supplychainvisualizer.service.StockAlertService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -16,6 +19,9 @@ public class InventoryController {
     
     @Autowired
     private InventoryService inventoryService;
+
+    @Autowired
+    private StockAlertService stockAlertService;
     
     @GetMapping
     public ResponseEntity<List<InventoryDto>> getAllInventory() {
@@ -57,4 +63,12 @@ public class InventoryController {
     public ResponseEntity<List<InventoryDto>> getLowStockInventory() {
         return ResponseEntity.ok(inventoryService.getLowStockInventory());
     }
+
+    /**
+     * Server-sent events for stock status changes, so clients needn't poll /low-stock.
+     */
+    @GetMapping(value = "/alerts", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAlerts() {
+        return stockAlertService.subscribe();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,33 @@
+package com.example.supplychainvisualizer.controller;
+
+import com.example.supplychainvisualizer.dto.InventoryHistoryDto;
+import com.example.supplychainvisualizer.service.InventoryHistoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/inventory")
+public class InventoryHistoryController {
+
+    @Autowired
+    private InventoryHistoryService inventoryHistoryService;
+
+    /**
+     * Stock at a node, or of one product there, as it was at {@code at}.
+     */
+    @GetMapping("/history")
+    public ResponseEntity<List<InventoryHistoryDto>> getStockAt(
+            @RequestParam Long nodeId,
+            @RequestParam(required = false) Long productId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.ok(inventoryHistoryService.getStockAt(nodeId, productId, at));
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.supplychainvisualizer.controller;
+
+import com.example.supplychainvisualizer.dto.InventoryImportResultDto;
+import com.example.supplychainvisualizer.service.InventoryImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+@RestController
+@RequestMapping("/api/inventory/import")
+public class InventoryImportController {
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    @Autowired
+    private InventoryImportService inventoryImportService;
+
+    /**
+     * Sets quantities (and thresholds, where given) from a CSV body, read as it
+     * streams in, e.g. a cycle count. Lines that can't be applied are reported
+     * in the response; the rest are still applied.
+     */
+    @PostMapping(consumes = "text/csv")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<InventoryImportResultDto> importCsv(InputStream body) throws IOException {
+        try (Reader reader = new InputStreamReader(body, StandardCharsets.UTF_8)) {
+            return ResponseEntity.ok(inventoryImportService.importCsv(reader));
+        }
+    }
+
+    @PostMapping(consumes = NDJSON)
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<InventoryImportResultDto> importNdjson(InputStream body) throws IOException {
+        try (Reader reader = new InputStreamReader(body, StandardCharsets.UTF_8)) {
+            return ResponseEntity.ok(inventoryImportService.importNdjson(reader));
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.supplychainvisualizer.controller;
+
+import com.example.supplychainvisualizer.dto.ProjectedInventoryDto;
+import com.example.supplychainvisualizer.service.InventoryProjectionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/inventory")
+public class InventoryProjectionController {
+
+    @Autowired
+    private InventoryProjectionService inventoryProjectionService;
+
+    /**
+     * Projected end-of-day stock for the next {@code days} days, counting open
+     * shipments as arriving at their destination on their estimated arrival date.
+     */
+    @GetMapping("/projection")
+    public ResponseEntity<List<ProjectedInventoryDto>> getProjection(
+            @RequestParam(required = false) Integer days,
+            @RequestParam(required = false) Long nodeId,
+            @RequestParam(required = false) Long productId) {
+        return ResponseEntity.ok(inventoryProjectionService.getProjection(days, nodeId, productId));
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.supplychainvisualizer.controller;
+
+import com.example.supplychainvisualizer.dto.AvailabilityDto;
+import com.example.supplychainvisualizer.dto.ReservationDto;
+import com.example.supplychainvisualizer.service.ReservationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/inventory")
+public class ReservationController {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    /**
+     * Available-to-promise for a product at a node: on hand, less held
+     * reservations, plus inbound shipments in transit.
+     */
+    @GetMapping("/atp")
+    public ResponseEntity<AvailabilityDto> getAvailability(@RequestParam Long nodeId, @RequestParam Long productId) {
+        return ResponseEntity.ok(reservationService.getAvailability(nodeId, productId));
+    }
+
+    @GetMapping("/reservations/{id:\\d+}")
+    public ResponseEntity<ReservationDto> getReservation(@PathVariable Long id) {
+        return reservationService.getReservation(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Holds stock until the reservation is committed, released or expires;
+     * 409 when less than the requested quantity is available.
+     */
+    @PostMapping("/reservations")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<ReservationDto> reserve(@Valid @RequestBody ReservationDto reservationDto) {
+        return ResponseEntity.ok(reservationService.reserve(reservationDto));
+    }
+
+    @PostMapping("/reservations/{id:\\d+}/commit")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<ReservationDto> commit(@PathVariable Long id) {
+        return reservationService.commit(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/reservations/{id:\\d+}/release")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<ReservationDto> release(@PathVariable Long id) {
+        return reservationService.release(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
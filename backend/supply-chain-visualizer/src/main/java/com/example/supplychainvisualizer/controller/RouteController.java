@@ -0,0 +1,57 @@
+package com.example.supplychainvisualizer.controller;
+
+import com.example.supplychainvisualizer.dto.ParetoRoutesDto;
+import com.example.supplychainvisualizer.dto.RouteDto;
+import com.example.supplychainvisualizer.service.RouteService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/routes")
+public class RouteController {
+
+    @Autowired
+    private RouteService routeService;
+
+    /**
+     * Cheapest, fastest or shortest route from one node to another over active
+     * connections; 404 when the destination can't be reached.
+     */
+    @GetMapping
+    public ResponseEntity<RouteDto> getRoute(
+            @RequestParam Long from,
+            @RequestParam Long to,
+            @RequestParam(required = false) String weight) {
+        return routeService.findRoute(from, to, weight)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * The {@code k} best loopless routes from one node to another, best first,
+     * for planning around a lane that is down; empty when there is none.
+     */
+    @GetMapping("/alternatives")
+    public ResponseEntity<List<RouteDto>> getAlternatives(
+            @RequestParam Long from,
+            @RequestParam Long to,
+            @RequestParam(required = false) String weight,
+            @RequestParam(required = false) Integer k) {
+        return ResponseEntity.ok(routeService.findAlternatives(from, to, weight, k));
+    }
+
+    /**
+     * Every route that no other beats on cost, travel time and distance at
+     * once, cheapest first, flagged truncated when the search ran out of budget.
+     */
+    @GetMapping("/pareto")
+    public ResponseEntity<ParetoRoutesDto> getParetoRoutes(@RequestParam Long from, @RequestParam Long to) {
+        return ResponseEntity.ok(routeService.findParetoRoutes(from, to));
+    }
+}
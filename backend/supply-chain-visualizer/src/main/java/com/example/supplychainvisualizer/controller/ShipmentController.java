@@ -1,12 +1,17 @@
 package com.example.supplychainvisualizer.controller;
 
+import com.example.supplychainvisualizer.dto.ShipmentBatchResultDto;
 import com.example.supplychainvisualizer.dto.ShipmentDto;
+import com.example.supplychainvisualizer.dto.ShipmentFilter;
+import com.example.supplychainvisualizer.dto.ShipmentPageDto;
 import com.example.supplychainvisualizer.service.ShipmentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import jakarta.validation.Valid;
 
@@ -17,12 +22,32 @@ import java.util.List;
 @RequestMapping("/api/shipments")
 public class ShipmentController {
     
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
     @Autowired
     private ShipmentService shipmentService;
     
+    /**
+     * Lists shipments matching the given filters, one keyset page at a time. The
+     * body is the page itself; when more rows follow, the cursor for the next page
+     * is returned in {@code X-Next-Cursor} and as a {@code Link: rel="next"} URL.
+     */
     @GetMapping
-    public ResponseEntity<List<ShipmentDto>> getAllShipments() {
-        return ResponseEntity.ok(shipmentService.getAllShipments());
+    public ResponseEntity<List<ShipmentDto>> getShipments(
+            ShipmentFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        ShipmentPageDto page = shipmentService.getShipments(filter, cursor, limit);
+        if (page.getNextCursor() == null) {
+            return ResponseEntity.ok(page.getItems());
+        }
+        String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("cursor", page.getNextCursor())
+                .toUriString();
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, page.getNextCursor())
+                .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+                .body(page.getItems());
     }
     
     @GetMapping("/{id:\\d+}")
@@ -38,6 +63,16 @@ public class ShipmentController {
         return ResponseEntity.ok(shipmentService.createShipment(shipmentDto));
     }
     
+    /**
+     * Creates many shipments in one request. Rows that fail validation are
+     * reported by index in the response; the rest are still created.
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<ShipmentBatchResultDto> createShipments(@RequestBody List<ShipmentDto> shipmentDtos) {
+        return ResponseEntity.ok(shipmentService.createShipments(shipmentDtos));
+    }
+    
     @PutMapping("/{id:\\d+}")
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
     public ResponseEntity<ShipmentDto> updateShipment(@PathVariable Long id, @Valid @RequestBody ShipmentDto shipmentDto) {
@@ -64,26 +99,39 @@ public class ShipmentController {
     }
     
     @GetMapping("/source/{sourceId}")
-    public ResponseEntity<List<ShipmentDto>> getShipmentsBySource(@PathVariable Long sourceId) {
-        return ResponseEntity.ok(shipmentService.getShipmentsBySource(sourceId));
+    public ResponseEntity<List<ShipmentDto>> getShipmentsBySource(
+            @PathVariable Long sourceId, ShipmentFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        filter.setSourceId(sourceId);
+        return getShipments(filter, cursor, limit);
     }
     
     @GetMapping("/destination/{destinationId}")
-    public ResponseEntity<List<ShipmentDto>> getShipmentsByDestination(@PathVariable Long destinationId) {
-        return ResponseEntity.ok(shipmentService.getShipmentsByDestination(destinationId));
+    public ResponseEntity<List<ShipmentDto>> getShipmentsByDestination(
+            @PathVariable Long destinationId, ShipmentFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        filter.setDestinationId(destinationId);
+        return getShipments(filter, cursor, limit);
     }
     
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<ShipmentDto>> getShipmentsByStatus(@PathVariable String status) {
-        return ResponseEntity.ok(shipmentService.getShipmentsByStatus(status));
+    public ResponseEntity<List<ShipmentDto>> getShipmentsByStatus(
+            @PathVariable String status, ShipmentFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        filter.setStatus(status);
+        return getShipments(filter, cursor, limit);
     }
     
     @GetMapping("/date-range")
     public ResponseEntity<List<ShipmentDto>> getShipmentsByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
-            @RequestParam(defaultValue = "departure") String dateType) {
-        
-        return ResponseEntity.ok(shipmentService.getShipmentsByDateRange(startDate, endDate, dateType));
+            ShipmentFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return getShipments(filter, cursor, limit);
     }
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.example.supplychainvisualizer.dto;
+
+import java.time.LocalDate;
+
+/**
+ * An open shipment hit by a disruption. {@code reason} is {@code source_failed},
+ * {@code destination_failed} or {@code no_route} when its destination can no
+ * longer be reached from its source.
+ */
+public class AffectedShipmentDto {
+    private Long shipmentId;
+    private Long sourceId;
+    private Long destinationId;
+    private String status;
+    private LocalDate estimatedArrival;
+    private String reason;
+
+    // Getters and setters
+    public Long getShipmentId() {
+        return shipmentId;
+    }
+
+    public void setShipmentId(Long shipmentId) {
+        this.shipmentId = shipmentId;
+    }
+
+    public Long getSourceId() {
+        return sourceId;
+    }
+
+    public void setSourceId(Long sourceId) {
+        this.sourceId = sourceId;
+    }
+
+    public Long getDestinationId() {
+        return destinationId;
+    }
+
+    public void setDestinationId(Long destinationId) {
+        this.destinationId = destinationId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDate getEstimatedArrival() {
+        return estimatedArrival;
+    }
+
+    public void setEstimatedArrival(LocalDate estimatedArrival) {
+        this.estimatedArrival = estimatedArrival;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.supplychainvisualizer.dto;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public class AnalyticsSummaryDto {
@@ -11,6 +12,10 @@ public class AnalyticsSummaryDto {
     private int deliveredShipments;
     private List<LaneSlaDto> slaByLane;
     private List<SegmentLeadTimeDto> leadTimeBySegment;
+    private List<PeriodDto> series;
+    private LeadTimePercentilesDto leadTimePercentiles;
+    private List<LeadTimePercentilesDto> leadTimePercentilesByLane;
+    private List<LeadTimePercentilesDto> leadTimePercentilesBySegment;
 
     public static class LaneSlaDto {
         private String lane;
@@ -44,6 +49,54 @@ public class AnalyticsSummaryDto {
         public String getVariance() { return variance; }
     }
 
+    public static class PeriodDto {
+        private LocalDate periodStart;
+        private long totalShipments;
+        private long deliveredShipments;
+        private double onTimeDeliveryRate;
+        private double avgLeadTimeDays;
+        private double exceptionRate;
+
+        public PeriodDto(LocalDate periodStart, long totalShipments, long deliveredShipments,
+                         double onTimeDeliveryRate, double avgLeadTimeDays, double exceptionRate) {
+            this.periodStart = periodStart;
+            this.totalShipments = totalShipments;
+            this.deliveredShipments = deliveredShipments;
+            this.onTimeDeliveryRate = onTimeDeliveryRate;
+            this.avgLeadTimeDays = avgLeadTimeDays;
+            this.exceptionRate = exceptionRate;
+        }
+
+        public LocalDate getPeriodStart() { return periodStart; }
+        public long getTotalShipments() { return totalShipments; }
+        public long getDeliveredShipments() { return deliveredShipments; }
+        public double getOnTimeDeliveryRate() { return onTimeDeliveryRate; }
+        public double getAvgLeadTimeDays() { return avgLeadTimeDays; }
+        public double getExceptionRate() { return exceptionRate; }
+    }
+
+    public static class LeadTimePercentilesDto {
+        private String label;
+        private long count;
+        private long p50;
+        private long p90;
+        private long p99;
+
+        public LeadTimePercentilesDto(String label, long count, long p50, long p90, long p99) {
+            this.label = label;
+            this.count = count;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+        }
+
+        public String getLabel() { return label; }
+        public long getCount() { return count; }
+        public long getP50() { return p50; }
+        public long getP90() { return p90; }
+        public long getP99() { return p99; }
+    }
+
     public double getOnTimeDeliveryRate() { return onTimeDeliveryRate; }
     public void setOnTimeDeliveryRate(double v) { this.onTimeDeliveryRate = v; }
 
@@ -64,4 +117,16 @@ public class AnalyticsSummaryDto {
 
     public List<SegmentLeadTimeDto> getLeadTimeBySegment() { return leadTimeBySegment; }
     public void setLeadTimeBySegment(List<SegmentLeadTimeDto> v) { this.leadTimeBySegment = v; }
+
+    public List<PeriodDto> getSeries() { return series; }
+    public void setSeries(List<PeriodDto> v) { this.series = v; }
+
+    public LeadTimePercentilesDto getLeadTimePercentiles() { return leadTimePercentiles; }
+    public void setLeadTimePercentiles(LeadTimePercentilesDto v) { this.leadTimePercentiles = v; }
+
+    public List<LeadTimePercentilesDto> getLeadTimePercentilesByLane() { return leadTimePercentilesByLane; }
+    public void setLeadTimePercentilesByLane(List<LeadTimePercentilesDto> v) { this.leadTimePercentilesByLane = v; }
+
+    public List<LeadTimePercentilesDto> getLeadTimePercentilesBySegment() { return leadTimePercentilesBySegment; }
+    public void setLeadTimePercentilesBySegment(List<LeadTimePercentilesDto> v) { this.leadTimePercentilesBySegment = v; }
 }
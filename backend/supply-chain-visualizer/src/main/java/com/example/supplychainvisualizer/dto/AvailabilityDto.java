@@ -0,0 +1,63 @@
+package com.example.supplychainvisualizer.dto;
+
+/**
+ * Available-to-promise for a product at a node: on hand, less what held
+ * reservations set aside, plus what shipments in transit are bringing.
+ */
+public class AvailabilityDto {
+    private Long nodeId;
+    private Long productId;
+    private Integer onHand;
+    private Integer reserved;
+    private Integer inbound;
+    private Integer available;
+
+    // Getters and setters
+    public Long getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(Long nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getOnHand() {
+        return onHand;
+    }
+
+    public void setOnHand(Integer onHand) {
+        this.onHand = onHand;
+    }
+
+    public Integer getReserved() {
+        return reserved;
+    }
+
+    public void setReserved(Integer reserved) {
+        this.reserved = reserved;
+    }
+
+    public Integer getInbound() {
+        return inbound;
+    }
+
+    public void setInbound(Integer inbound) {
+        this.inbound = inbound;
+    }
+
+    public Integer getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(Integer available) {
+        this.available = available;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.supplychainvisualizer.dto;
+
+import java.util.List;
+
+/**
+ * What fails if the given nodes and connections go down: the nodes that no
+ * longer get supply from any factory, and the open shipments whose lanes are
+ * affected.
+ */
+public class DisruptionImpactDto {
+    private List<Long> failedNodeIds;
+    private List<Long> failedConnectionIds;
+    private List<NodeDto> disconnectedNodes;
+    private List<AffectedShipmentDto> affectedShipments;
+
+    // Getters and setters
+    public List<Long> getFailedNodeIds() {
+        return failedNodeIds;
+    }
+
+    public void setFailedNodeIds(List<Long> failedNodeIds) {
+        this.failedNodeIds = failedNodeIds;
+    }
+
+    public List<Long> getFailedConnectionIds() {
+        return failedConnectionIds;
+    }
+
+    public void setFailedConnectionIds(List<Long> failedConnectionIds) {
+        this.failedConnectionIds = failedConnectionIds;
+    }
+
+    public List<NodeDto> getDisconnectedNodes() {
+        return disconnectedNodes;
+    }
+
+    public void setDisconnectedNodes(List<NodeDto> disconnectedNodes) {
+        this.disconnectedNodes = disconnectedNodes;
+    }
+
+    public List<AffectedShipmentDto> getAffectedShipments() {
+        return affectedShipments;
+    }
+
+    public void setAffectedShipments(List<AffectedShipmentDto> affectedShipments) {
+        this.affectedShipments = affectedShipments;
+    }
+}
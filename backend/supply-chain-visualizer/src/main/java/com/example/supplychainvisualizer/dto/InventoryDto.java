@@ -25,6 +25,9 @@ public class InventoryDto {
     private String status;
 
     private java.time.LocalDateTime updatedAt;
+
+    // When set on an update, must match the stored row or the update is rejected
+    private Long version;
     
     // Getters and setters
     public Long getId() {
@@ -106,4 +109,12 @@ public class InventoryDto {
     public void setUpdatedAt(java.time.LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
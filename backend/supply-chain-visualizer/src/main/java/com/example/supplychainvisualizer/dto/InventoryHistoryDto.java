@@ -0,0 +1,74 @@
+package com.example.supplychainvisualizer.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Quantity of a product at a node as of {@code at}, rebuilt from the snapshot
+ * taken at {@code snapshotTakenAt} plus the {@code movements} applied after it.
+ */
+public class InventoryHistoryDto {
+    private Long nodeId;
+    private Long productId;
+    private String productName;
+    private LocalDateTime at;
+    private Integer quantity;
+    private LocalDateTime snapshotTakenAt;
+    private Long movements;
+
+    // Getters and setters
+    public Long getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(Long nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public LocalDateTime getAt() {
+        return at;
+    }
+
+    public void setAt(LocalDateTime at) {
+        this.at = at;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public LocalDateTime getSnapshotTakenAt() {
+        return snapshotTakenAt;
+    }
+
+    public void setSnapshotTakenAt(LocalDateTime snapshotTakenAt) {
+        this.snapshotTakenAt = snapshotTakenAt;
+    }
+
+    public Long getMovements() {
+        return movements;
+    }
+
+    public void setMovements(Long movements) {
+        this.movements = movements;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.supplychainvisualizer.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk inventory import: how many rows were created, updated and
+ * rejected, and why rejected lines were rejected, up to a reporting limit.
+ */
+public class InventoryImportResultDto {
+    private int created;
+    private int updated;
+    private int rejected;
+    private List<Rejection> rejections;
+
+    public static class Rejection {
+        private long line;
+        private String error;
+
+        public Rejection(long line, String error) {
+            this.line = line;
+            this.error = error;
+        }
+
+        public long getLine() { return line; }
+        public String getError() { return error; }
+    }
+
+    public InventoryImportResultDto(int created, int updated, int rejected, List<Rejection> rejections) {
+        this.created = created;
+        this.updated = updated;
+        this.rejected = rejected;
+        this.rejections = rejections;
+    }
+
+    public int getCreated() { return created; }
+    public int getUpdated() { return updated; }
+    public int getRejected() { return rejected; }
+    public List<Rejection> getRejections() { return rejections; }
+}
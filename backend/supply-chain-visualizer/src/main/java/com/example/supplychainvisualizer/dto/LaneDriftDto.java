@@ -0,0 +1,89 @@
+package com.example.supplychainvisualizer.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class LaneDriftDto {
+    private Long sourceId;
+
+    private Long destinationId;
+
+    private String lane;
+
+    private long samples;
+
+    private double baselineDays;
+
+    private double stdDevDays;
+
+    private double recentDays;
+
+    // Positive when deliveries on the lane are getting slower
+    private double zScore;
+
+    // Getters and setters
+    public Long getSourceId() {
+        return sourceId;
+    }
+
+    public void setSourceId(Long sourceId) {
+        this.sourceId = sourceId;
+    }
+
+    public Long getDestinationId() {
+        return destinationId;
+    }
+
+    public void setDestinationId(Long destinationId) {
+        this.destinationId = destinationId;
+    }
+
+    public String getLane() {
+        return lane;
+    }
+
+    public void setLane(String lane) {
+        this.lane = lane;
+    }
+
+    public long getSamples() {
+        return samples;
+    }
+
+    public void setSamples(long samples) {
+        this.samples = samples;
+    }
+
+    public double getBaselineDays() {
+        return baselineDays;
+    }
+
+    public void setBaselineDays(double baselineDays) {
+        this.baselineDays = baselineDays;
+    }
+
+    public double getStdDevDays() {
+        return stdDevDays;
+    }
+
+    public void setStdDevDays(double stdDevDays) {
+        this.stdDevDays = stdDevDays;
+    }
+
+    public double getRecentDays() {
+        return recentDays;
+    }
+
+    public void setRecentDays(double recentDays) {
+        this.recentDays = recentDays;
+    }
+
+    // Bean naming would otherwise serialize this as "zscore"
+    @JsonProperty("zScore")
+    public double getZScore() {
+        return zScore;
+    }
+
+    public void setZScore(double zScore) {
+        this.zScore = zScore;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.supplychainvisualizer.dto;
+
+/**
+ * How many other nodes lose supply from every factory if this node fails on
+ * its own.
+ */
+public class NodeCriticalityDto {
+    private Long nodeId;
+    private String nodeName;
+    private String nodeType;
+    private Integer disconnectedCount;
+
+    // Getters and setters
+    public Long getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(Long nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public String getNodeName() {
+        return nodeName;
+    }
+
+    public void setNodeName(String nodeName) {
+        this.nodeName = nodeName;
+    }
+
+    public String getNodeType() {
+        return nodeType;
+    }
+
+    public void setNodeType(String nodeType) {
+        this.nodeType = nodeType;
+    }
+
+    public Integer getDisconnectedCount() {
+        return disconnectedCount;
+    }
+
+    public void setDisconnectedCount(Integer disconnectedCount) {
+        this.disconnectedCount = disconnectedCount;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.supplychainvisualizer.dto;
+
+import java.util.List;
+
+/**
+ * The routes between two nodes that trade cost, travel time and distance off
+ * against each other, cheapest first. When {@code truncated} is set the search
+ * hit its label or time budget, and better tradeoffs may exist.
+ */
+public class ParetoRoutesDto {
+    private Long sourceId;
+    private Long targetId;
+    private boolean truncated;
+    private List<RouteDto> routes;
+
+    // Getters and setters
+    public Long getSourceId() {
+        return sourceId;
+    }
+
+    public void setSourceId(Long sourceId) {
+        this.sourceId = sourceId;
+    }
+
+    public Long getTargetId() {
+        return targetId;
+    }
+
+    public void setTargetId(Long targetId) {
+        this.targetId = targetId;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public void setTruncated(boolean truncated) {
+        this.truncated = truncated;
+    }
+
+    public List<RouteDto> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(List<RouteDto> routes) {
+        this.routes = routes;
+    }
+}
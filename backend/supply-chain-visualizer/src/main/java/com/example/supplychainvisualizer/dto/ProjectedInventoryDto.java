@@ -0,0 +1,102 @@
+package com.example.supplychainvisualizer.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Projected stock of a product at a node: the balance at the end of each day
+ * from {@code startDate}, counting open shipments as arriving on their
+ * estimated arrival date.
+ */
+public class ProjectedInventoryDto {
+    private Long nodeId;
+    private String nodeName;
+    private Long productId;
+    private String productName;
+    private Integer onHand;
+    private Integer minThreshold;
+    private Integer maxThreshold;
+    private LocalDate startDate;
+    private int[] balances;
+    private LocalDate belowMinimumOn;
+
+    // Getters and setters
+    public Long getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(Long nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public String getNodeName() {
+        return nodeName;
+    }
+
+    public void setNodeName(String nodeName) {
+        this.nodeName = nodeName;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public Integer getOnHand() {
+        return onHand;
+    }
+
+    public void setOnHand(Integer onHand) {
+        this.onHand = onHand;
+    }
+
+    public Integer getMinThreshold() {
+        return minThreshold;
+    }
+
+    public void setMinThreshold(Integer minThreshold) {
+        this.minThreshold = minThreshold;
+    }
+
+    public Integer getMaxThreshold() {
+        return maxThreshold;
+    }
+
+    public void setMaxThreshold(Integer maxThreshold) {
+        this.maxThreshold = maxThreshold;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public int[] getBalances() {
+        return balances;
+    }
+
+    public void setBalances(int[] balances) {
+        this.balances = balances;
+    }
+
+    public LocalDate getBelowMinimumOn() {
+        return belowMinimumOn;
+    }
+
+    public void setBelowMinimumOn(LocalDate belowMinimumOn) {
+        this.belowMinimumOn = belowMinimumOn;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.supplychainvisualizer.dto;
+
+import java.util.List;
+
+/**
+ * A route between two nodes: the connections it takes in order, the nodes it
+ * passes through, and its totals. A total is null when a connection on the
+ * route doesn't record that value; {@code totalWeight} is the one the route
+ * was chosen by.
+ */
+public class RouteDto {
+    private Long sourceId;
+    private Long targetId;
+    private String weight;
+    private Double totalWeight;
+    private Double totalCost;
+    private Integer totalTravelTime;
+    private Double totalDistance;
+    private List<Long> nodeIds;
+    private List<ConnectionDto> connections;
+
+    // Getters and setters
+    public Long getSourceId() {
+        return sourceId;
+    }
+
+    public void setSourceId(Long sourceId) {
+        this.sourceId = sourceId;
+    }
+
+    public Long getTargetId() {
+        return targetId;
+    }
+
+    public void setTargetId(Long targetId) {
+        this.targetId = targetId;
+    }
+
+    public String getWeight() {
+        return weight;
+    }
+
+    public void setWeight(String weight) {
+        this.weight = weight;
+    }
+
+    public Double getTotalWeight() {
+        return totalWeight;
+    }
+
+    public void setTotalWeight(Double totalWeight) {
+        this.totalWeight = totalWeight;
+    }
+
+    public Double getTotalCost() {
+        return totalCost;
+    }
+
+    public void setTotalCost(Double totalCost) {
+        this.totalCost = totalCost;
+    }
+
+    public Integer getTotalTravelTime() {
+        return totalTravelTime;
+    }
+
+    public void setTotalTravelTime(Integer totalTravelTime) {
+        this.totalTravelTime = totalTravelTime;
+    }
+
+    public Double getTotalDistance() {
+        return totalDistance;
+    }
+
+    public void setTotalDistance(Double totalDistance) {
+        this.totalDistance = totalDistance;
+    }
+
+    public List<Long> getNodeIds() {
+        return nodeIds;
+    }
+
+    public void setNodeIds(List<Long> nodeIds) {
+        this.nodeIds = nodeIds;
+    }
+
+    public List<ConnectionDto> getConnections() {
+        return connections;
+    }
+
+    public void setConnections(List<ConnectionDto> connections) {
+        this.connections = connections;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.supplychainvisualizer.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk shipment create: one row per submitted shipment, in
+ * submission order, carrying either the new shipment id or why it was rejected.
+ */
+public class ShipmentBatchResultDto {
+    private int created;
+    private int failed;
+    private List<RowResult> results;
+
+    public static class RowResult {
+        private int index;
+        private Long id;
+        private String error;
+
+        public RowResult(int index, Long id, String error) {
+            this.index = index;
+            this.id = id;
+            this.error = error;
+        }
+
+        public int getIndex() { return index; }
+        public Long getId() { return id; }
+        public String getError() { return error; }
+    }
+
+    public ShipmentBatchResultDto(List<RowResult> results) {
+        this.results = results;
+        for (RowResult row : results) {
+            if (row.getError() == null) {
+                created++;
+            } else {
+                failed++;
+            }
+        }
+    }
+
+    public int getCreated() { return created; }
+    public int getFailed() { return failed; }
+    public List<RowResult> getResults() { return results; }
+}
@@ -0,0 +1,26 @@
+package com.example.supplychainvisualizer.dto;
+
+import java.util.List;
+
+/**
+ * One page of a shipment listing. {@code nextCursor} continues the listing
+ * after the last item and is {@code null} on the last page.
+ */
+public class ShipmentPageDto {
+    private List<ShipmentDto> items;
+
+    private String nextCursor;
+
+    public ShipmentPageDto(List<ShipmentDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<ShipmentDto> getItems() {
+        return items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.supplychainvisualizer.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * An inventory row that moved to a new stock status (critical, low, optimal
+ * or excess). {@code previousStatus} is null in the snapshot sent when a
+ * client subscribes.
+ */
+public class StockAlertDto {
+    private Long inventoryId;
+    private Long nodeId;
+    private String nodeName;
+    private Long productId;
+    private String productName;
+    private Integer quantity;
+    private Integer minThreshold;
+    private Integer maxThreshold;
+    private String previousStatus;
+    private String status;
+    private LocalDateTime changedAt;
+
+    // Getters and setters
+    public Long getInventoryId() {
+        return inventoryId;
+    }
+
+    public void setInventoryId(Long inventoryId) {
+        this.inventoryId = inventoryId;
+    }
+
+    public Long getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(Long nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public String getNodeName() {
+        return nodeName;
+    }
+
+    public void setNodeName(String nodeName) {
+        this.nodeName = nodeName;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public Integer getMinThreshold() {
+        return minThreshold;
+    }
+
+    public void setMinThreshold(Integer minThreshold) {
+        this.minThreshold = minThreshold;
+    }
+
+    public Integer getMaxThreshold() {
+        return maxThreshold;
+    }
+
+    public void setMaxThreshold(Integer maxThreshold) {
+        this.maxThreshold = maxThreshold;
+    }
+
+    public String getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public void setPreviousStatus(String previousStatus) {
+        this.previousStatus = previousStatus;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(LocalDateTime changedAt) {
+        this.changedAt = changedAt;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.supplychainvisualizer.exception;
+
+/**
+ * Thrown by services for request parameters that are well-typed but invalid
+ * together (e.g. an inverted date range); mapped to a 400 with the message.
+ */
+public class BadRequestException extends RuntimeException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.supplychainvisualizer.exception;
+
+/**
+ * Thrown by services when a valid request can't be carried out against the
+ * current state (e.g. too little stock to reserve); mapped to a 409 with the message.
+ */
+public class ConflictException extends RuntimeException {
+
+    public ConflictException(String message) {
+        super(message);
+    }
+}
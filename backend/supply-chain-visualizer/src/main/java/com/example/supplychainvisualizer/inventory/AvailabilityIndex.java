@@ -0,0 +1,258 @@
+package com.example.supplychainvisualizer.inventory;
+
+import com.example.supplychainvisualizer.analytics.ShipmentChangedEvent;
+import com.example.supplychainvisualizer.analytics.ShipmentSnapshot;
+import com.example.supplychainvisualizer.repository.InventoryReservationRepository;
+import com.example.supplychainvisualizer.repository.ShipmentItemRepository;
+import com.example.supplychainvisualizer.repository.projection.InboundItemRow;
+import com.example.supplychainvisualizer.repository.projection.ReservedQuantityRow;
+import com.example.supplychainvisualizer.util.LongIntHashMap;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Available-to-promise per (node, product): the quantity on hand in the
+ * {@link InventoryLedger}, less what held reservations set aside, plus what
+ * shipments in transit are bringing to the node. Reserved and inbound totals
+ * are kept in memory in primitive maps split across lock stripes, so a check
+ * costs a few hash lookups and never touches the database. Reserved totals
+ * change with {@link #tryReserve} and {@link #release}; inbound totals follow
+ * {@link ShipmentChangedEvent}s once the shipment change has committed. Both
+ * are loaded from the database on startup.
+ */
+@Component
+public class AvailabilityIndex {
+
+    /** Shipment statuses, lower-cased, whose items count as inbound at the destination. */
+    public static final Set<String> INBOUND_STATUSES = Set.of("in_transit", "delayed");
+
+    private static final int STRIPES = 64;
+
+    /**
+     * Available-to-promise and its parts for one (node, product) as of the moment it was read.
+     */
+    public record Availability(long nodeId, long productId, int onHand, int reserved, int inbound) {
+        public int available() {
+            return onHand - reserved + inbound;
+        }
+    }
+
+    // A shipment's contribution to its destination's inbound totals, kept so it
+    // can be withdrawn when the shipment arrives, changes destination or is deleted
+    private record Inbound(long destinationId, long[] productIds, int[] quantities) {
+    }
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Autowired
+    private InventoryReservationRepository reservationRepository;
+
+    @Autowired
+    private ShipmentItemRepository shipmentItemRepository;
+
+    // Each stripe's maps hold the keys that hash to it and are guarded by its lock
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final LongIntHashMap[] reserved = new LongIntHashMap[STRIPES];
+    private final LongIntHashMap[] inbound = new LongIntHashMap[STRIPES];
+
+    // Guarded by itself; shipment changes are applied one event at a time
+    private final Map<Long, Inbound> inboundByShipment = new HashMap<>();
+
+    public AvailabilityIndex() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+            reserved[i] = new LongIntHashMap(16, 0);
+            inbound[i] = new LongIntHashMap(16, 0);
+        }
+    }
+
+    /**
+     * Rebuilds reserved totals from held reservations and inbound totals from
+     * shipments in transit.
+     */
+    @PostConstruct
+    public void reload() {
+        synchronized (inboundByShipment) {
+            Map<Long, Inbound> shipments = collectInbound(
+                    shipmentItemRepository.findItemsByShipmentStatus(INBOUND_STATUSES));
+            List<ReservedQuantityRow> held = reservationRepository.sumHeldByNodeAndProduct();
+            lockAll();
+            try {
+                for (int i = 0; i < STRIPES; i++) {
+                    reserved[i].clear();
+                    inbound[i].clear();
+                }
+                for (ReservedQuantityRow row : held) {
+                    long key = InventoryLedger.key(row.getNodeId(), row.getProductId());
+                    reserved[stripeIndex(key)].addTo(key, Math.toIntExact(row.getQuantity()));
+                }
+                inboundByShipment.clear();
+                inboundByShipment.putAll(shipments);
+                for (Inbound shipment : shipments.values()) {
+                    update(shipment, 1);
+                }
+            } finally {
+                unlockAll();
+            }
+        }
+    }
+
+    public Availability get(long nodeId, long productId) {
+        long key = InventoryLedger.key(nodeId, productId);
+        int stripe = stripeIndex(key);
+        stripes[stripe].lock();
+        try {
+            return read(key, stripe);
+        } finally {
+            stripes[stripe].unlock();
+        }
+    }
+
+    /**
+     * Sets {@code quantity} aside if at least that much is available, atomically
+     * with respect to other reservations of the same product at the node.
+     *
+     * @return false, reserving nothing, when less is available
+     */
+    public boolean tryReserve(long nodeId, long productId, int quantity) {
+        long key = InventoryLedger.key(nodeId, productId);
+        int stripe = stripeIndex(key);
+        stripes[stripe].lock();
+        try {
+            if (read(key, stripe).available() < quantity) {
+                return false;
+            }
+            reserved[stripe].addTo(key, quantity);
+            return true;
+        } finally {
+            stripes[stripe].unlock();
+        }
+    }
+
+    /**
+     * Returns {@code quantity} set aside by {@link #tryReserve} to the available stock.
+     */
+    public void release(long nodeId, long productId, int quantity) {
+        long key = InventoryLedger.key(nodeId, productId);
+        int stripe = stripeIndex(key);
+        stripes[stripe].lock();
+        try {
+            addTo(reserved[stripe], key, -quantity);
+        } finally {
+            stripes[stripe].unlock();
+        }
+    }
+
+    // After commit, so a rolled-back batch never counts as inbound and the items it reads are visible
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onShipmentChanged(ShipmentChangedEvent event) {
+        synchronized (inboundByShipment) {
+            List<Long> newlyInbound = new ArrayList<>();
+            for (ShipmentChangedEvent.Change change : event.getChanges()) {
+                ShipmentSnapshot before = change.before();
+                ShipmentSnapshot after = change.after();
+                Long id = after != null ? after.id() : before != null ? before.id() : null;
+                if (id == null) {
+                    continue;
+                }
+                Inbound current = inboundByShipment.get(id);
+                if (after == null || !isInbound(after.status())) {
+                    if (current != null) {
+                        inboundByShipment.remove(id);
+                        update(current, -1);
+                    }
+                } else if (current == null) {
+                    newlyInbound.add(id);
+                } else if (current.destinationId() != after.destinationId()) {
+                    // Items don't change after a shipment is created, only where they are going
+                    Inbound redirected = new Inbound(after.destinationId(), current.productIds(), current.quantities());
+                    inboundByShipment.put(id, redirected);
+                    update(current, -1);
+                    update(redirected, 1);
+                }
+            }
+            if (!newlyInbound.isEmpty()) {
+                Map<Long, Inbound> shipments = collectInbound(shipmentItemRepository.findItemsByShipmentIds(newlyInbound));
+                inboundByShipment.putAll(shipments);
+                for (Inbound shipment : shipments.values()) {
+                    update(shipment, 1);
+                }
+            }
+        }
+    }
+
+    public static boolean isInbound(String status) {
+        return status != null && INBOUND_STATUSES.contains(status.toLowerCase(Locale.ROOT));
+    }
+
+    private Availability read(long key, int stripe) {
+        int onHand = inventoryLedger.quantity(InventoryLedger.nodeId(key), InventoryLedger.productId(key));
+        return new Availability(InventoryLedger.nodeId(key), InventoryLedger.productId(key),
+                onHand, reserved[stripe].get(key), inbound[stripe].get(key));
+    }
+
+    // Stripe locks are reentrant, so reload can call this while holding all of them
+    private void update(Inbound shipment, int sign) {
+        for (int i = 0; i < shipment.productIds().length; i++) {
+            long key = InventoryLedger.key(shipment.destinationId(), shipment.productIds()[i]);
+            int stripe = stripeIndex(key);
+            stripes[stripe].lock();
+            try {
+                addTo(inbound[stripe], key, sign * shipment.quantities()[i]);
+            } finally {
+                stripes[stripe].unlock();
+            }
+        }
+    }
+
+    private static void addTo(LongIntHashMap totals, long key, int delta) {
+        if (totals.addTo(key, delta) == 0) {
+            totals.remove(key);
+        }
+    }
+
+    private static Map<Long, Inbound> collectInbound(List<InboundItemRow> rows) {
+        Map<Long, List<InboundItemRow>> byShipment = new HashMap<>();
+        for (InboundItemRow row : rows) {
+            byShipment.computeIfAbsent(row.getShipmentId(), id -> new ArrayList<>()).add(row);
+        }
+        Map<Long, Inbound> shipments = new HashMap<>(byShipment.size() * 2);
+        byShipment.forEach((id, items) -> {
+            long[] productIds = new long[items.size()];
+            int[] quantities = new int[items.size()];
+            for (int i = 0; i < items.size(); i++) {
+                productIds[i] = items.get(i).getProductId();
+                quantities[i] = items.get(i).getQuantity();
+            }
+            shipments.put(id, new Inbound(items.get(0).getDestinationId(), productIds, quantities));
+        });
+        return shipments;
+    }
+
+    private void lockAll() {
+        for (ReentrantLock stripe : stripes) {
+            stripe.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int i = STRIPES - 1; i >= 0; i--) {
+            stripes[i].unlock();
+        }
+    }
+
+    private static int stripeIndex(long key) {
+        return Long.hashCode(key * 0x9E3779B97F4A7C15L) & (STRIPES - 1);
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.supplychainvisualizer.inventory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only, fsynced log of inventory changes that have not reached the
+ * database yet. Records are fixed-size and carry a CRC, so a record torn by a
+ * crash mid-write is recognised and dropped on recovery; it was never
+ * acknowledged to a caller. The log is split into segments named by their
+ * first sequence number: the ledger rotates to a new segment when it drains
+ * its pending changes and deletes the closed ones once those changes are
+ * committed. Appends from concurrent writers are serialized, each batch of
+ * records written and forced as a unit. Records are also kept in memory, with
+ * their sequence numbers, until their segment is deleted, so the ledger can
+ * write them to the movement history along with the changes they carry.
+ */
+class InventoryJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryJournal.class);
+
+    /** Threshold value recorded for an unset threshold. */
+    static final int NO_THRESHOLD = Integer.MIN_VALUE;
+
+    // sequence, row id, node id, product id, delta, min, max, version, updated-at, crc
+    static final int RECORD_BYTES = 8 + 8 + 8 + 8 + 4 + 4 + 4 + 8 + 8 + 4;
+
+    private static final String PREFIX = "inventory-";
+    private static final String SUFFIX = ".journal";
+
+    /**
+     * One change to a row: {@code delta} is added to its quantity, the other
+     * fields are its state after the change. {@code updatedAt} is the local
+     * date-time as epoch milliseconds read at UTC.
+     */
+    record Entry(long sequence, long rowId, long nodeId, long productId, int delta,
+                 int minThreshold, int maxThreshold, long version, long updatedAt) {
+    }
+
+    private final Path directory;
+    private final ByteBuffer buffer = ByteBuffer.allocate(RECORD_BYTES * 64);
+    private final List<Path> closedSegments = new ArrayList<>();
+    private List<Entry> segmentEntries = new ArrayList<>();
+    private final List<Entry> closedEntries = new ArrayList<>();
+    private FileChannel segment;
+    private Path segmentPath;
+    private long nextSequence = 1;
+
+    InventoryJournal(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create inventory journal directory " + directory, e);
+        }
+    }
+
+    /**
+     * Reads every intact record left in the directory by a previous run, in sequence order.
+     */
+    synchronized List<Entry> recover() {
+        List<Entry> entries = new ArrayList<>();
+        for (Path path : segments()) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+                while (true) {
+                    record.clear();
+                    while (record.hasRemaining() && channel.read(record) > 0) {
+                        // keep reading until the record is complete or the file ends
+                    }
+                    if (record.hasRemaining()) {
+                        break;
+                    }
+                    record.flip();
+                    Entry entry = decode(record);
+                    if (entry == null) {
+                        break;
+                    }
+                    entries.add(entry);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read inventory journal " + path, e);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Deletes the segments read by {@link #recover} and starts a new one at {@code nextSequence}.
+     */
+    synchronized void start(long nextSequence) {
+        for (Path path : segments()) {
+            delete(path);
+        }
+        this.nextSequence = nextSequence;
+        openSegment();
+    }
+
+    /**
+     * Writes {@code entries} with consecutive sequence numbers and forces them to
+     * disk before returning. The entries' own sequence numbers are ignored.
+     */
+    synchronized void append(List<Entry> entries) {
+        long start = nextSequence;
+        long length = -1;
+        try {
+            length = segment.size();
+            for (Entry entry : entries) {
+                if (buffer.remaining() < RECORD_BYTES) {
+                    drainBuffer();
+                }
+                encode(buffer, nextSequence++, entry);
+            }
+            drainBuffer();
+            segment.force(false);
+        } catch (IOException e) {
+            // The caller won't apply these changes, so recovery mustn't replay them either
+            buffer.clear();
+            nextSequence = start;
+            if (length >= 0) {
+                try {
+                    segment.truncate(length);
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw new UncheckedIOException("Cannot write inventory journal " + segmentPath, e);
+        }
+        long sequence = start;
+        for (Entry entry : entries) {
+            segmentEntries.add(new Entry(sequence++, entry.rowId(), entry.nodeId(), entry.productId(), entry.delta(),
+                    entry.minThreshold(), entry.maxThreshold(), entry.version(), entry.updatedAt()));
+        }
+    }
+
+    /**
+     * Sequence number of the last record written.
+     */
+    synchronized long lastSequence() {
+        return nextSequence - 1;
+    }
+
+    /**
+     * Closes the current segment, keeping it until {@link #deleteClosed}, and
+     * starts a new one for records written from now on.
+     */
+    synchronized void rotate() {
+        closeSegment();
+        closedSegments.add(segmentPath);
+        closedEntries.addAll(segmentEntries);
+        segmentEntries = new ArrayList<>();
+        openSegment();
+    }
+
+    /**
+     * Deletes every segment closed by {@link #rotate}; call once their records are committed.
+     * Their records are forgotten first, so a segment that can't be deleted is
+     * only left on disk, where recovery skips it as already checkpointed.
+     */
+    synchronized void deleteClosed() {
+        List<Path> paths = new ArrayList<>(closedSegments);
+        closedSegments.clear();
+        closedEntries.clear();
+        for (Path path : paths) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                logger.warn("Could not delete inventory journal {}; it is deleted on the next start", path, e);
+            }
+        }
+    }
+
+    /**
+     * Whether any record has been written since the last {@link #deleteClosed}.
+     */
+    synchronized boolean hasEntries() {
+        return !segmentEntries.isEmpty() || !closedEntries.isEmpty();
+    }
+
+    /**
+     * Every record written since the last {@link #deleteClosed}, in sequence order.
+     */
+    synchronized List<Entry> pendingEntries() {
+        List<Entry> entries = new ArrayList<>(closedEntries);
+        entries.addAll(segmentEntries);
+        return entries;
+    }
+
+    /**
+     * Records of the segments closed by {@link #rotate} and not yet deleted, in sequence order.
+     */
+    synchronized List<Entry> closedEntries() {
+        return new ArrayList<>(closedEntries);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (segment != null) {
+            closeSegment();
+        }
+    }
+
+    private void openSegment() {
+        segmentPath = directory.resolve(String.format("%s%020d%s", PREFIX, nextSequence, SUFFIX));
+        try {
+            segment = FileChannel.open(segmentPath,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open inventory journal " + segmentPath, e);
+        }
+    }
+
+    private void closeSegment() {
+        try {
+            segment.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close inventory journal " + segmentPath, e);
+        }
+    }
+
+    private void drainBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            segment.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // Zero-padded names sort in sequence order
+    private List<Path> segments() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list inventory journal directory " + directory, e);
+        }
+    }
+
+    private static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot delete inventory journal " + path, e);
+        }
+    }
+
+    private static void encode(ByteBuffer out, long sequence, Entry entry) {
+        int start = out.position();
+        out.putLong(sequence)
+                .putLong(entry.rowId())
+                .putLong(entry.nodeId())
+                .putLong(entry.productId())
+                .putInt(entry.delta())
+                .putInt(entry.minThreshold())
+                .putInt(entry.maxThreshold())
+                .putLong(entry.version())
+                .putLong(entry.updatedAt());
+        CRC32 crc = new CRC32();
+        crc.update(out.array(), start, RECORD_BYTES - 4);
+        out.putInt((int) crc.getValue());
+    }
+
+    // Returns null for a record whose checksum doesn't match
+    private static Entry decode(ByteBuffer in) {
+        CRC32 crc = new CRC32();
+        crc.update(in.array(), 0, RECORD_BYTES - 4);
+        if ((int) crc.getValue() != in.getInt(RECORD_BYTES - 4)) {
+            return null;
+        }
+        return new Entry(in.getLong(), in.getLong(), in.getLong(), in.getLong(),
+                in.getInt(), in.getInt(), in.getInt(), in.getLong(), in.getLong());
+    }
+}
@@ -0,0 +1,1046 @@
+package com.example.supplychainvisualizer.inventory;
+
+import com.example.supplychainvisualizer.model.Inventory;
+import com.example.supplychainvisualizer.model.InventoryJournalCheckpoint;
+import com.example.supplychainvisualizer.model.Node;
+import com.example.supplychainvisualizer.model.Product;
+import com.example.supplychainvisualizer.repository.InventoryJournalCheckpointRepository;
+import com.example.supplychainvisualizer.repository.InventoryRepository;
+import com.example.supplychainvisualizer.repository.NodeRepository;
+import com.example.supplychainvisualizer.repository.ProductRepository;
+import com.example.supplychainvisualizer.util.LongIntHashMap;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process copy of the inventory table that serves every inventory read and
+ * write. Rows live in parallel primitive arrays indexed by a map from packed
+ * (node id, product id) keys, so listings and status checks never touch the
+ * database. A change is made under the lock stripes of the keys it touches:
+ * it is appended to the {@link InventoryJournal} and forced to disk, then
+ * applied in memory, so an acknowledged change survives a crash. Changes
+ * accumulate per row and a background thread writes the net result of each
+ * dirty row to the inventory table in one JDBC batch every flush interval,
+ * together with the journal position it covers. On startup, journaled changes
+ * past that position are replayed before the table is loaded. Changes that move
+ * rows to another {@link StockStatus} publish a {@link StockStatusChangedEvent}.
+ * <p>
+ * Each write also appends the quantity changes it covers, one per journal
+ * record, to the inventory movement history, and once the history has grown by
+ * {@code app.inventory.history.snapshot-interval} movements since the last
+ * snapshot, copies the inventory table into a new one. Both happen in the
+ * write's transaction, so the history matches the table at every checkpoint.
+ * <p>
+ * The ledger assumes it is the only writer of the inventory table, which holds
+ * while a single instance of the application runs against the database.
+ */
+@Component
+public class InventoryLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryLedger.class);
+
+    private static final int STRIPES = 64;
+    private static final int MISSING = -1;
+    private static final int INITIAL_CAPACITY = 256;
+    private static final int FLUSH_BATCH_SIZE = 500;
+
+    private static final String FLUSH_SQL = "UPDATE inventory SET quantity = quantity + ?, min_threshold = ?, " +
+            "max_threshold = ?, version = ?, updated_at = ? WHERE id = ?";
+    // Movements are keyed by journal sequence; one already written by an earlier attempt is left alone
+    private static final String MOVEMENT_POSTGRES_SQL = "INSERT INTO inventory_movements (id, node_id, product_id, " +
+            "delta, moved_at) VALUES (?, ?, ?, ?, ?) ON CONFLICT (id) DO NOTHING";
+    private static final String MOVEMENT_MERGE_SQL = "MERGE INTO inventory_movements t USING (VALUES (CAST(? AS BIGINT), " +
+            "CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS INTEGER), CAST(? AS TIMESTAMP(6)))) " +
+            "s (id, node_id, product_id, delta, moved_at) ON t.id = s.id WHEN NOT MATCHED THEN " +
+            "INSERT (id, node_id, product_id, delta, moved_at) VALUES (s.id, s.node_id, s.product_id, s.delta, s.moved_at)";
+    private static final String SNAPSHOT_SQL = "INSERT INTO inventory_snapshots (last_movement_id, taken_at) VALUES (?, ?)";
+    // Creates missing rows at zero in one statement per batch, leaving existing ones alone
+    private static final String CREATE_ROWS_POSTGRES_SQL = "INSERT INTO inventory (node_id, product_id, quantity, " +
+            "version, created_at, updated_at) VALUES (?, ?, 0, 0, ?, ?) ON CONFLICT (node_id, product_id) DO NOTHING";
+    private static final String CREATE_ROWS_MERGE_SQL = "MERGE INTO inventory t USING (VALUES (CAST(? AS BIGINT), " +
+            "CAST(? AS BIGINT))) s (node_id, product_id) ON t.node_id = s.node_id AND t.product_id = s.product_id " +
+            "WHEN NOT MATCHED THEN INSERT (id, node_id, product_id, quantity, version, created_at, updated_at) " +
+            "VALUES (NEXT VALUE FOR inventory_id_seq, s.node_id, s.product_id, 0, 0, ?, ?)";
+    // Completed with one "(?, ?)" per pair and a closing parenthesis
+    private static final String ROW_IDS_SQL = "SELECT id FROM inventory WHERE (node_id, product_id) IN (";
+    private static final String SNAPSHOT_ROWS_SQL = "INSERT INTO inventory_snapshot_rows (snapshot_id, node_id, " +
+            "product_id, quantity) SELECT ?, node_id, product_id, quantity FROM inventory";
+
+    /**
+     * A row as of the moment it was read.
+     */
+    public record Row(long id, long nodeId, String nodeName, long productId, String productName,
+                      int quantity, Integer minThreshold, Integer maxThreshold,
+                      long version, LocalDateTime updatedAt) {
+    }
+
+    /**
+     * Adds {@code delta} to the quantity of a product held at a node.
+     */
+    public record Adjustment(long nodeId, long productId, int delta) {
+    }
+
+    /**
+     * Sets the quantity of a product held at a node, and its thresholds where
+     * they are not null.
+     */
+    public record Count(long nodeId, long productId, int quantity, Integer minThreshold, Integer maxThreshold) {
+    }
+
+    /**
+     * A quantity change journaled but not yet in the movement history; its id
+     * is the one it will be written with.
+     */
+    public record Movement(long id, long productId, int delta, LocalDateTime movedAt) {
+    }
+
+    // Computes the state of one slot after a change, without applying it
+    private interface Change {
+        InventoryJournal.Entry next(Slots slots, int slot, long key);
+    }
+
+    private interface SlotFilter {
+        boolean test(Slots slots, int slot);
+    }
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private NodeRepository nodeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryJournalCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.inventory.ledger.journal-dir:data/inventory-journal}")
+    private String journalDir;
+
+    @Value("${app.inventory.ledger.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${app.inventory.history.snapshot-interval:10000}")
+    private long snapshotInterval;
+
+    // Adding or removing rows and draining changes for a flush take the write lock, never
+    // across a database call; reads and changes take the read lock plus the stripe of every
+    // key they touch. Writing to the table, deleting rows and reloading take flushLock
+    private final ReentrantReadWriteLock structure = new ReentrantReadWriteLock();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private Slots slots = new Slots(INITIAL_CAPACITY);
+    // Movement id the latest snapshot was taken after, -1 before the first; guarded by flushLock
+    private long lastSnapshot = -1;
+    private volatile Boolean postgres;
+    private InventoryJournal journal;
+    private ScheduledExecutorService flusher;
+
+    public InventoryLedger() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        journal = new InventoryJournal(Path.of(journalDir));
+        Long snapshot = transactionTemplate.execute(status -> jdbcTemplate.queryForObject(
+                "SELECT MAX(last_movement_id) FROM inventory_snapshots", Long.class));
+        lastSnapshot = snapshot == null ? -1 : snapshot;
+        recover();
+        if (lastSnapshot < 0) {
+            // History starts from the stock already in the table
+            long checkpoint = journal.lastSequence();
+            transactionTemplate.executeWithoutResult(status -> snapshot(checkpoint));
+            lastSnapshot = checkpoint;
+        }
+        reload();
+        flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "inventory-ledger-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("Could not write inventory changes on shutdown; they will be replayed from the journal", e);
+        }
+        journal.close();
+    }
+
+    public List<Row> all() {
+        return collect((s, slot) -> true);
+    }
+
+    public List<Row> byNode(long nodeId) {
+        return collect((s, slot) -> nodeId(s.keys[slot]) == nodeId);
+    }
+
+    public List<Row> byProduct(long productId) {
+        return collect((s, slot) -> productId(s.keys[slot]) == productId);
+    }
+
+    /**
+     * Rows at or below their minimum threshold.
+     */
+    public List<Row> lowStock() {
+        return collect((s, slot) -> s.minThresholds[slot] != InventoryJournal.NO_THRESHOLD
+                && s.quantities[slot] <= s.minThresholds[slot]);
+    }
+
+    /**
+     * Rows whose status is anything but {@link StockStatus#OPTIMAL}.
+     */
+    public List<Row> alerting() {
+        return collect((s, slot) -> s.status(slot) != StockStatus.OPTIMAL);
+    }
+
+    public Optional<Row> byId(long rowId) {
+        structure.readLock().lock();
+        try {
+            Slots s = slots;
+            int slot = s.byRowId.get(rowId);
+            if (slot == MISSING) {
+                return Optional.empty();
+            }
+            ReentrantLock stripe = stripe(s.keys[slot]);
+            stripe.lock();
+            try {
+                return Optional.of(s.row(slot));
+            } finally {
+                stripe.unlock();
+            }
+        } finally {
+            structure.readLock().unlock();
+        }
+    }
+
+    /**
+     * Quantity of a product held at a node, 0 when there is no row.
+     */
+    public int quantity(long nodeId, long productId) {
+        long key = key(nodeId, productId);
+        structure.readLock().lock();
+        try {
+            Slots s = slots;
+            int slot = s.byKey.get(key);
+            if (slot == MISSING) {
+                return 0;
+            }
+            ReentrantLock stripe = stripe(key);
+            stripe.lock();
+            try {
+                return s.quantities[slot];
+            } finally {
+                stripe.unlock();
+            }
+        } finally {
+            structure.readLock().unlock();
+        }
+    }
+
+    /**
+     * Quantity changes at a node that the next flush writes to the movement
+     * history, in id order. Every movement of the node with a lower id than
+     * the first is already there.
+     */
+    public List<Movement> pendingMovements(long nodeId) {
+        return journal.pendingEntries().stream()
+                .filter(entry -> entry.nodeId() == nodeId && entry.delta() != 0)
+                .map(entry -> new Movement(entry.sequence(), entry.productId(), entry.delta(),
+                        fromMillis(entry.updatedAt())))
+                .toList();
+    }
+
+    /**
+     * Applies every adjustment as one journaled change, creating rows at zero
+     * quantity where there are none. Adjustments of the same row are summed.
+     *
+     * @throws IllegalArgumentException if a node or product doesn't exist
+     */
+    public void adjust(List<Adjustment> adjustments) {
+        LongIntHashMap deltas = new LongIntHashMap(adjustments.size(), 0);
+        for (Adjustment adjustment : adjustments) {
+            deltas.addTo(key(adjustment.nodeId(), adjustment.productId()), adjustment.delta());
+        }
+        long[] keys = new long[deltas.size()];
+        int[] count = new int[1];
+        deltas.forEach((key, delta) -> {
+            if (delta != 0) {
+                keys[count[0]++] = key;
+            }
+        });
+        if (count[0] == 0) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        change(Arrays.copyOf(keys, count[0]), (s, slot, key) -> s.entry(slot, deltas.get(key),
+                s.minThresholds[slot], s.maxThresholds[slot], now));
+    }
+
+    /**
+     * Sets a row's quantity and thresholds, creating it if there is none.
+     *
+     * @param expectedVersion when not null, the row's current version, or the
+     *                        update is rejected because the row changed since it was read
+     * @throws IllegalArgumentException if the node or product doesn't exist
+     */
+    public Row update(long nodeId, long productId, int quantity, Integer minThreshold, Integer maxThreshold,
+                      Long expectedVersion) {
+        LocalDateTime now = LocalDateTime.now();
+        return change(new long[]{key(nodeId, productId)}, (s, slot, key) -> {
+            if (expectedVersion != null && expectedVersion != s.versions[slot]) {
+                throw new ObjectOptimisticLockingFailureException(Inventory.class, s.rowIds[slot]);
+            }
+            return s.entry(slot, quantity - s.quantities[slot], packThreshold(minThreshold), packThreshold(maxThreshold), now);
+        }).get(0);
+    }
+
+    /**
+     * Applies every count as one journaled change. Missing rows are first
+     * created together in one batch, {@code INSERT ... ON CONFLICT DO NOTHING}
+     * on PostgreSQL and a {@code MERGE} elsewhere, rather than one by one.
+     *
+     * @param counts at most one per (node, product), of nodes and products that exist
+     * @return how many of the rows had to be created
+     */
+    public int count(List<Count> counts) {
+        if (counts.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Count> byKey = new LinkedHashMap<>(counts.size() * 2);
+        for (Count count : counts) {
+            if (byKey.put(key(count.nodeId(), count.productId()), count) != null) {
+                throw new IllegalArgumentException("More than one count of product " + count.productId()
+                        + " at node " + count.nodeId());
+            }
+        }
+        long[] keys = byKey.keySet().stream().mapToLong(Long::longValue).toArray();
+        int created = ensureRows(keys);
+        LocalDateTime now = LocalDateTime.now();
+        change(keys, (s, slot, key) -> {
+            Count count = byKey.get(key);
+            return s.entry(slot, count.quantity() - s.quantities[slot],
+                    count.minThreshold() == null ? s.minThresholds[slot] : count.minThreshold(),
+                    count.maxThreshold() == null ? s.maxThresholds[slot] : count.maxThreshold(), now);
+        });
+        return created;
+    }
+
+    /**
+     * Deletes a row from the ledger and the table; its unwritten changes are
+     * dropped. Its stock leaves the movement history as one journaled movement
+     * of minus its quantity, written by the next flush.
+     */
+    public boolean delete(long rowId) {
+        // Keeps reload and other deletes out, so the row stays in the ledger until removed below
+        flushLock.lock();
+        try {
+            structure.readLock().lock();
+            try {
+                if (slots.byRowId.get(rowId) == MISSING) {
+                    return false;
+                }
+            } finally {
+                structure.readLock().unlock();
+            }
+            transactionTemplate.executeWithoutResult(status -> inventoryRepository.deleteById(rowId));
+            // Changes made to the row meanwhile are in its quantity, so the movement takes them out too
+            structure.writeLock().lock();
+            try {
+                int slot = slots.byRowId.get(rowId);
+                try {
+                    if (slots.quantities[slot] != 0) {
+                        journal.append(List.of(slots.entry(slot, -slots.quantities[slot], slots.minThresholds[slot],
+                                slots.maxThresholds[slot], LocalDateTime.now())));
+                    }
+                } finally {
+                    slots.remove(slot);
+                }
+                return true;
+            } finally {
+                structure.writeLock().unlock();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public void renameNode(long nodeId, String name) {
+        rename((s, slot) -> nodeId(s.keys[slot]) == nodeId, name, true);
+    }
+
+    public void renameProduct(long productId, String name) {
+        rename((s, slot) -> productId(s.keys[slot]) == productId, name, false);
+    }
+
+    /**
+     * Writes every row changed since the last flush to the inventory table in
+     * one transaction. On failure the changes stay pending and journaled.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<InventoryJournal.Entry> batch;
+            long checkpoint;
+            structure.writeLock().lock();
+            try {
+                batch = slots.drain();
+                if (batch.isEmpty() && !journal.hasEntries()) {
+                    return;
+                }
+                checkpoint = journal.lastSequence();
+                journal.rotate();
+            } finally {
+                structure.writeLock().unlock();
+            }
+            try {
+                write(batch, journal.closedEntries(), checkpoint);
+            } catch (RuntimeException e) {
+                structure.writeLock().lock();
+                try {
+                    slots.restore(batch);
+                } finally {
+                    structure.writeLock().unlock();
+                }
+                throw e;
+            }
+            journal.deleteClosed();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes pending changes, then replaces the ledger's rows with the inventory table's.
+     */
+    public void reload() {
+        // Holding flushLock keeps the table as read: nothing else flushes to it or deletes from it meanwhile
+        flushLock.lock();
+        try {
+            flush();
+            while (true) {
+                int known;
+                structure.readLock().lock();
+                try {
+                    known = slots.size;
+                } finally {
+                    structure.readLock().unlock();
+                }
+                List<Inventory> rows = transactionTemplate.execute(status -> inventoryRepository.findAll());
+                structure.writeLock().lock();
+                try {
+                    if (slots.size != known) {
+                        // A row was created while reading and the read may have missed it
+                        continue;
+                    }
+                    Slots replacement = new Slots(Math.max(INITIAL_CAPACITY, rows.size()));
+                    for (Inventory row : rows) {
+                        replacement.add(row);
+                    }
+                    replacement.carryOver(slots);
+                    slots = replacement;
+                    return;
+                } finally {
+                    structure.writeLock().unlock();
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Status transitions are published once every lock is released
+    private List<Row> change(long[] keys, Change change) {
+        List<StockStatusChangedEvent.Transition> transitions = new ArrayList<>();
+        List<Row> rows = apply(keys, change, transitions);
+        if (!transitions.isEmpty()) {
+            eventPublisher.publishEvent(new StockStatusChangedEvent(transitions));
+        }
+        return rows;
+    }
+
+    // Keys must be distinct
+    private List<Row> apply(long[] keys, Change change, List<StockStatusChangedEvent.Transition> transitions) {
+        Arrays.sort(keys);
+        int[] stripeOrder = stripeOrder(keys);
+        while (true) {
+            for (long key : keys) {
+                ensureRow(key);
+            }
+            structure.readLock().lock();
+            try {
+                Slots s = slots;
+                int[] slotOf = new int[keys.length];
+                boolean present = true;
+                for (int i = 0; i < keys.length; i++) {
+                    slotOf[i] = s.byKey.get(keys[i]);
+                    present &= slotOf[i] != MISSING;
+                }
+                if (!present) {
+                    // Deleted or reloaded since ensureRow; create it again
+                    continue;
+                }
+                for (int stripe : stripeOrder) {
+                    stripes[stripe].lock();
+                }
+                try {
+                    List<InventoryJournal.Entry> entries = new ArrayList<>(keys.length);
+                    for (int i = 0; i < keys.length; i++) {
+                        entries.add(change.next(s, slotOf[i], keys[i]));
+                    }
+                    journal.append(entries);
+                    List<Row> rows = new ArrayList<>(keys.length);
+                    for (int i = 0; i < keys.length; i++) {
+                        StockStatus before = s.status(slotOf[i]);
+                        s.apply(slotOf[i], entries.get(i));
+                        Row row = s.row(slotOf[i]);
+                        rows.add(row);
+                        StockStatus after = StockStatus.of(row);
+                        if (after != before) {
+                            transitions.add(new StockStatusChangedEvent.Transition(row, before, after));
+                        }
+                    }
+                    return rows;
+                } finally {
+                    for (int i = stripeOrder.length - 1; i >= 0; i--) {
+                        stripes[stripeOrder[i]].unlock();
+                    }
+                }
+            } finally {
+                structure.readLock().unlock();
+            }
+        }
+    }
+
+    private void ensureRow(long key) {
+        structure.readLock().lock();
+        try {
+            if (slots.byKey.containsKey(key)) {
+                return;
+            }
+        } finally {
+            structure.readLock().unlock();
+        }
+        Inventory row = findOrCreateRow(nodeId(key), productId(key));
+        structure.writeLock().lock();
+        try {
+            if (!slots.byKey.containsKey(key)) {
+                slots.add(row);
+            }
+        } finally {
+            structure.writeLock().unlock();
+        }
+    }
+
+    // Bulk form of ensureRow: creates what is missing in one committed batch and returns how
+    // many rows it inserted, leaving out those another writer created first
+    private int ensureRows(long[] keys) {
+        List<Long> missing = new ArrayList<>();
+        structure.readLock().lock();
+        try {
+            for (long key : keys) {
+                if (!slots.byKey.containsKey(key)) {
+                    missing.add(key);
+                }
+            }
+        } finally {
+            structure.readLock().unlock();
+        }
+        if (missing.isEmpty()) {
+            return 0;
+        }
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        LocalDateTime now = LocalDateTime.now();
+        int[] created = new int[1];
+        List<Inventory> rows = requiresNew.execute(status -> {
+            int[][] counts = jdbcTemplate.batchUpdate(createRowsSql(), missing, FLUSH_BATCH_SIZE, (ps, key) -> {
+                ps.setLong(1, nodeId(key));
+                ps.setLong(2, productId(key));
+                ps.setObject(3, now);
+                ps.setObject(4, now);
+            });
+            for (int[] batch : counts) {
+                for (int count : batch) {
+                    created[0] += Math.max(count, 0);
+                }
+            }
+            return inventoryRepository.findByIdIn(rowIds(missing));
+        });
+        structure.writeLock().lock();
+        try {
+            for (Inventory row : rows) {
+                if (!slots.byKey.containsKey(key(row.getNode().getId(), row.getProduct().getId()))) {
+                    slots.add(row);
+                }
+            }
+        } finally {
+            structure.writeLock().unlock();
+        }
+        return created[0];
+    }
+
+    // Ids of the rows of exactly these (node, product) pairs, looked up a batch of pairs at a time
+    private List<Long> rowIds(List<Long> keys) {
+        List<Long> ids = new ArrayList<>(keys.size());
+        for (int from = 0; from < keys.size(); from += FLUSH_BATCH_SIZE) {
+            List<Long> chunk = keys.subList(from, Math.min(from + FLUSH_BATCH_SIZE, keys.size()));
+            String pairs = String.join(", ", Collections.nCopies(chunk.size(), "(?, ?)"));
+            Object[] args = new Object[chunk.size() * 2];
+            for (int i = 0; i < chunk.size(); i++) {
+                args[2 * i] = nodeId(chunk.get(i));
+                args[2 * i + 1] = productId(chunk.get(i));
+            }
+            ids.addAll(jdbcTemplate.queryForList(ROW_IDS_SQL + pairs + ")", Long.class, args));
+        }
+        return ids;
+    }
+
+    private String createRowsSql() {
+        return isPostgres() ? CREATE_ROWS_POSTGRES_SQL : CREATE_ROWS_MERGE_SQL;
+    }
+
+    private String movementSql() {
+        return isPostgres() ? MOVEMENT_POSTGRES_SQL : MOVEMENT_MERGE_SQL;
+    }
+
+    private boolean isPostgres() {
+        if (postgres == null) {
+            String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            postgres = "PostgreSQL".equals(database);
+        }
+        return postgres;
+    }
+
+    // Committed on its own so the row exists before changes to it are journaled; losing a
+    // race to create it (unique violation) means the other creator's row is used instead
+    private Inventory findOrCreateRow(long nodeId, long productId) {
+        TransactionTemplate requiresNew = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        Inventory existing = requiresNew.execute(status ->
+                inventoryRepository.findByNodeIdAndProductId(nodeId, productId).orElse(null));
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            return requiresNew.execute(status -> {
+                Node node = nodeRepository.findById(nodeId)
+                        .orElseThrow(() -> new IllegalArgumentException("Unknown node " + nodeId));
+                Product product = productRepository.findById(productId)
+                        .orElseThrow(() -> new IllegalArgumentException("Unknown product " + productId));
+                Inventory inventory = new Inventory();
+                inventory.setNode(node);
+                inventory.setProduct(product);
+                inventory.setQuantity(0);
+                return inventoryRepository.saveAndFlush(inventory);
+            });
+        } catch (DataIntegrityViolationException e) {
+            return requiresNew.execute(status ->
+                    inventoryRepository.findByNodeIdAndProductId(nodeId, productId).orElseThrow());
+        }
+    }
+
+    private void recover() {
+        List<InventoryJournal.Entry> entries = journal.recover();
+        long checkpoint = transactionTemplate.execute(status -> checkpointRepository
+                .findById(InventoryJournalCheckpoint.ID)
+                .map(InventoryJournalCheckpoint::getLastSequence)
+                .orElse(0L));
+        long last = checkpoint;
+        // Net change per row: deltas add up, the rest is taken from the row's latest version
+        Map<Long, InventoryJournal.Entry> replay = new LinkedHashMap<>();
+        List<InventoryJournal.Entry> movements = new ArrayList<>();
+        for (InventoryJournal.Entry entry : entries) {
+            last = Math.max(last, entry.sequence());
+            if (entry.sequence() <= checkpoint) {
+                continue;
+            }
+            movements.add(entry);
+            replay.merge(entry.rowId(), entry, (a, b) -> {
+                InventoryJournal.Entry latest = a.version() >= b.version() ? a : b;
+                return new InventoryJournal.Entry(latest.sequence(), latest.rowId(), latest.nodeId(),
+                        latest.productId(), a.delta() + b.delta(), latest.minThreshold(), latest.maxThreshold(),
+                        latest.version(), latest.updatedAt());
+            });
+        }
+        if (!replay.isEmpty()) {
+            write(new ArrayList<>(replay.values()), movements, last);
+            logger.info("Replayed inventory journal: {} changes to {} rows", entries.size(), replay.size());
+        }
+        journal.start(last + 1);
+    }
+
+    // Caller holds flushLock, or is start() before the flusher runs
+    private void write(List<InventoryJournal.Entry> batch, List<InventoryJournal.Entry> journaled, long checkpoint) {
+        List<InventoryJournal.Entry> movements = journaled.stream().filter(entry -> entry.delta() != 0).toList();
+        boolean snapshotDue = checkpoint - lastSnapshot >= snapshotInterval;
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch, FLUSH_BATCH_SIZE, (ps, entry) -> {
+                ps.setInt(1, entry.delta());
+                setThreshold(ps, 2, entry.minThreshold());
+                setThreshold(ps, 3, entry.maxThreshold());
+                ps.setLong(4, entry.version());
+                ps.setObject(5, fromMillis(entry.updatedAt()));
+                ps.setLong(6, entry.rowId());
+            });
+            InventoryJournalCheckpoint position = checkpointRepository.findById(InventoryJournalCheckpoint.ID)
+                    .orElseGet(InventoryJournalCheckpoint::new);
+            position.setLastSequence(checkpoint);
+            checkpointRepository.save(position);
+            jdbcTemplate.batchUpdate(movementSql(), movements, FLUSH_BATCH_SIZE, (ps, entry) -> {
+                ps.setLong(1, entry.sequence());
+                ps.setLong(2, entry.nodeId());
+                ps.setLong(3, entry.productId());
+                ps.setInt(4, entry.delta());
+                ps.setObject(5, fromMillis(entry.updatedAt()));
+            });
+            if (snapshotDue) {
+                // The updates above bring the table to the checkpoint, nothing past it
+                snapshot(checkpoint);
+            }
+        });
+        if (snapshotDue) {
+            lastSnapshot = checkpoint;
+        }
+    }
+
+    // Copies the inventory table as of movement lastMovementId; runs in the caller's transaction
+    private void snapshot(long lastMovementId) {
+        jdbcTemplate.update(SNAPSHOT_SQL, lastMovementId, LocalDateTime.now());
+        jdbcTemplate.update(SNAPSHOT_ROWS_SQL, lastMovementId);
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            logger.warn("Could not write inventory changes to the database; they stay journaled and will be retried", e);
+        }
+    }
+
+    private List<Row> collect(SlotFilter filter) {
+        List<Row> rows = new ArrayList<>();
+        structure.readLock().lock();
+        try {
+            Slots s = slots;
+            for (int slot = 0; slot < s.size; slot++) {
+                ReentrantLock stripe = stripe(s.keys[slot]);
+                stripe.lock();
+                try {
+                    if (filter.test(s, slot)) {
+                        rows.add(s.row(slot));
+                    }
+                } finally {
+                    stripe.unlock();
+                }
+            }
+        } finally {
+            structure.readLock().unlock();
+        }
+        rows.sort(Comparator.comparingLong(Row::id));
+        return rows;
+    }
+
+    private void rename(SlotFilter filter, String name, boolean node) {
+        structure.readLock().lock();
+        try {
+            Slots s = slots;
+            for (int slot = 0; slot < s.size; slot++) {
+                if (filter.test(s, slot)) {
+                    ReentrantLock stripe = stripe(s.keys[slot]);
+                    stripe.lock();
+                    try {
+                        (node ? s.nodeNames : s.productNames)[slot] = name;
+                    } finally {
+                        stripe.unlock();
+                    }
+                }
+            }
+        } finally {
+            structure.readLock().unlock();
+        }
+    }
+
+    private ReentrantLock stripe(long key) {
+        return stripes[stripeIndex(key)];
+    }
+
+    private static int stripeIndex(long key) {
+        return Long.hashCode(key * 0x9E3779B97F4A7C15L) & (STRIPES - 1);
+    }
+
+    // Distinct stripes of the keys in ascending order, the order every writer locks them in
+    private static int[] stripeOrder(long[] keys) {
+        boolean[] used = new boolean[STRIPES];
+        int count = 0;
+        for (long key : keys) {
+            int stripe = stripeIndex(key);
+            if (!used[stripe]) {
+                used[stripe] = true;
+                count++;
+            }
+        }
+        int[] order = new int[count];
+        for (int stripe = 0, i = 0; stripe < STRIPES; stripe++) {
+            if (used[stripe]) {
+                order[i++] = stripe;
+            }
+        }
+        return order;
+    }
+
+    // Ids are positive and below 2^31, so the packed key is never negative
+    static long key(long nodeId, long productId) {
+        if (nodeId <= 0 || nodeId > Integer.MAX_VALUE || productId <= 0 || productId > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Inventory ids out of range: node " + nodeId + ", product " + productId);
+        }
+        return nodeId << 32 | productId;
+    }
+
+    static long nodeId(long key) {
+        return key >>> 32;
+    }
+
+    static long productId(long key) {
+        return key & 0xFFFFFFFFL;
+    }
+
+    private static int packThreshold(Integer value) {
+        return value == null ? InventoryJournal.NO_THRESHOLD : value;
+    }
+
+    private static Integer unpackThreshold(int value) {
+        return value == InventoryJournal.NO_THRESHOLD ? null : value;
+    }
+
+    private static void setThreshold(PreparedStatement ps, int index, int value) throws SQLException {
+        if (value == InventoryJournal.NO_THRESHOLD) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, value);
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime fromMillis(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    private static final class Slots {
+        final LongIntHashMap byKey;
+        final LongIntHashMap byRowId;
+        int size;
+        long[] keys;
+        long[] rowIds;
+        String[] nodeNames;
+        String[] productNames;
+        int[] quantities;
+        int[] minThresholds;
+        int[] maxThresholds;
+        long[] versions;
+        LocalDateTime[] updatedAts;
+        // Net quantity change and latest state not yet written to the table
+        int[] pendingDeltas;
+        boolean[] dirty;
+
+        Slots(int capacity) {
+            byKey = new LongIntHashMap(capacity, MISSING);
+            byRowId = new LongIntHashMap(capacity, MISSING);
+            keys = new long[capacity];
+            rowIds = new long[capacity];
+            nodeNames = new String[capacity];
+            productNames = new String[capacity];
+            quantities = new int[capacity];
+            minThresholds = new int[capacity];
+            maxThresholds = new int[capacity];
+            versions = new long[capacity];
+            updatedAts = new LocalDateTime[capacity];
+            pendingDeltas = new int[capacity];
+            dirty = new boolean[capacity];
+        }
+
+        void add(Inventory row) {
+            if (size == keys.length) {
+                grow(keys.length * 2);
+            }
+            int slot = size++;
+            keys[slot] = key(row.getNode().getId(), row.getProduct().getId());
+            rowIds[slot] = row.getId();
+            nodeNames[slot] = row.getNode().getName();
+            productNames[slot] = row.getProduct().getName();
+            quantities[slot] = row.getQuantity() == null ? 0 : row.getQuantity();
+            minThresholds[slot] = packThreshold(row.getMinThreshold());
+            maxThresholds[slot] = packThreshold(row.getMaxThreshold());
+            versions[slot] = row.getVersion() == null ? 0 : row.getVersion();
+            updatedAts[slot] = row.getUpdatedAt();
+            pendingDeltas[slot] = 0;
+            dirty[slot] = false;
+            byKey.put(keys[slot], slot);
+            byRowId.put(rowIds[slot], slot);
+        }
+
+        // Moves the last slot into the hole
+        void remove(int slot) {
+            byKey.remove(keys[slot]);
+            byRowId.remove(rowIds[slot]);
+            int last = --size;
+            if (slot != last) {
+                keys[slot] = keys[last];
+                rowIds[slot] = rowIds[last];
+                nodeNames[slot] = nodeNames[last];
+                productNames[slot] = productNames[last];
+                quantities[slot] = quantities[last];
+                minThresholds[slot] = minThresholds[last];
+                maxThresholds[slot] = maxThresholds[last];
+                versions[slot] = versions[last];
+                updatedAts[slot] = updatedAts[last];
+                pendingDeltas[slot] = pendingDeltas[last];
+                dirty[slot] = dirty[last];
+                byKey.put(keys[slot], slot);
+                byRowId.put(rowIds[slot], slot);
+            }
+            nodeNames[last] = null;
+            productNames[last] = null;
+            updatedAts[last] = null;
+        }
+
+        InventoryJournal.Entry entry(int slot, int delta, int minThreshold, int maxThreshold, LocalDateTime now) {
+            return new InventoryJournal.Entry(0, rowIds[slot], nodeId(keys[slot]), productId(keys[slot]), delta,
+                    minThreshold, maxThreshold, versions[slot] + 1, toMillis(now));
+        }
+
+        void apply(int slot, InventoryJournal.Entry entry) {
+            quantities[slot] += entry.delta();
+            pendingDeltas[slot] += entry.delta();
+            minThresholds[slot] = entry.minThreshold();
+            maxThresholds[slot] = entry.maxThreshold();
+            versions[slot] = entry.version();
+            updatedAts[slot] = fromMillis(entry.updatedAt());
+            dirty[slot] = true;
+        }
+
+        StockStatus status(int slot) {
+            return StockStatus.of(quantities[slot], unpackThreshold(minThresholds[slot]),
+                    unpackThreshold(maxThresholds[slot]));
+        }
+
+        Row row(int slot) {
+            return new Row(rowIds[slot], nodeId(keys[slot]), nodeNames[slot], productId(keys[slot]),
+                    productNames[slot], quantities[slot], unpackThreshold(minThresholds[slot]),
+                    unpackThreshold(maxThresholds[slot]), versions[slot], updatedAts[slot]);
+        }
+
+        // Takes the net change of every dirty slot and marks it clean
+        List<InventoryJournal.Entry> drain() {
+            List<InventoryJournal.Entry> batch = new ArrayList<>();
+            for (int slot = 0; slot < size; slot++) {
+                if (dirty[slot]) {
+                    batch.add(new InventoryJournal.Entry(0, rowIds[slot], nodeId(keys[slot]), productId(keys[slot]),
+                            pendingDeltas[slot], minThresholds[slot], maxThresholds[slot], versions[slot],
+                            toMillis(updatedAts[slot])));
+                    pendingDeltas[slot] = 0;
+                    dirty[slot] = false;
+                }
+            }
+            return batch;
+        }
+
+        // Takes over the changes made to rows of another copy since its last flush
+        void carryOver(Slots from) {
+            for (int slot = 0; slot < from.size; slot++) {
+                int to = from.dirty[slot] ? byRowId.get(from.rowIds[slot]) : MISSING;
+                if (to != MISSING) {
+                    quantities[to] += from.pendingDeltas[slot];
+                    pendingDeltas[to] = from.pendingDeltas[slot];
+                    minThresholds[to] = from.minThresholds[slot];
+                    maxThresholds[to] = from.maxThresholds[slot];
+                    versions[to] = from.versions[slot];
+                    updatedAts[to] = from.updatedAts[slot];
+                    dirty[to] = true;
+                }
+            }
+        }
+
+        // Puts back a drained batch that could not be written; the slots' own state is as new or newer
+        void restore(List<InventoryJournal.Entry> batch) {
+            for (InventoryJournal.Entry entry : batch) {
+                int slot = byRowId.get(entry.rowId());
+                if (slot != MISSING) {
+                    pendingDeltas[slot] += entry.delta();
+                    dirty[slot] = true;
+                }
+            }
+        }
+
+        private void grow(int capacity) {
+            keys = Arrays.copyOf(keys, capacity);
+            rowIds = Arrays.copyOf(rowIds, capacity);
+            nodeNames = Arrays.copyOf(nodeNames, capacity);
+            productNames = Arrays.copyOf(productNames, capacity);
+            quantities = Arrays.copyOf(quantities, capacity);
+            minThresholds = Arrays.copyOf(minThresholds, capacity);
+            maxThresholds = Arrays.copyOf(maxThresholds, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            updatedAts = Arrays.copyOf(updatedAts, capacity);
+            pendingDeltas = Arrays.copyOf(pendingDeltas, capacity);
+            dirty = Arrays.copyOf(dirty, capacity);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.supplychainvisualizer.inventory;
+
+import com.example.supplychainvisualizer.analytics.ShipmentChangedEvent;
+import com.example.supplychainvisualizer.analytics.ShipmentSnapshot;
+import com.example.supplychainvisualizer.repository.ShipmentItemRepository;
+import com.example.supplychainvisualizer.repository.projection.InboundItemRow;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Day-by-day projected stock per (node, product): today's quantity on hand in
+ * the {@link InventoryLedger} plus what open shipments deliver on their
+ * estimated arrival day. Source stock leaves inventory when a shipment is
+ * created, so pending outbound shipments are already out of the source's
+ * quantity and count here only as arrivals at their destination. Shipments
+ * due before today are counted as arriving today; those with no estimated
+ * arrival aren't projected.
+ * <p>
+ * Arrivals are kept per (node, product) as a short array of (day, quantity)
+ * sorted by day and are adjusted per shipment from {@link ShipmentChangedEvent}s,
+ * so a projection only folds each schedule into prefix sums over the horizon.
+ */
+@Component
+public class InventoryProjection {
+
+    /** Shipment statuses, lower-cased, whose items are still to arrive. */
+    public static final Set<String> OPEN_STATUSES = Set.of("pending", "in_transit", "delayed");
+
+    /**
+     * Projected end-of-day balances for one (node, product), {@code balances[i]}
+     * being day {@code i} from the first day projected. {@code row} is the
+     * inventory row the projection starts from, null when stock is only on its way.
+     */
+    public record Projection(long nodeId, long productId, InventoryLedger.Row row, int[] balances) {
+        public int onHand() {
+            return row == null ? 0 : row.quantity();
+        }
+    }
+
+    // A shipment's arrival, kept so it can be withdrawn or moved when the shipment changes
+    private record Arrival(long destinationId, int day, long[] productIds, int[] quantities) {
+    }
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Autowired
+    private ShipmentItemRepository shipmentItemRepository;
+
+    // Guards schedules; arrivals is confined to event handling, which is serialized on it
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Schedule> schedules = new HashMap<>();
+    private final Map<Long, Arrival> arrivals = new HashMap<>();
+
+    @PostConstruct
+    public void reload() {
+        synchronized (arrivals) {
+            Map<Long, Arrival> open = collectArrivals(shipmentItemRepository.findItemsByShipmentStatus(OPEN_STATUSES));
+            lock.writeLock().lock();
+            try {
+                schedules.clear();
+                arrivals.clear();
+                arrivals.putAll(open);
+                for (Arrival arrival : open.values()) {
+                    schedule(arrival, 1);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Projects {@code days} days from {@code start} for every (node, product)
+     * with stock or arrivals, optionally only at one node and/or of one product.
+     */
+    public List<Projection> project(LocalDate start, int days, Long nodeId, Long productId) {
+        int startDay = (int) start.toEpochDay();
+        List<InventoryLedger.Row> rows = nodeId != null ? inventoryLedger.byNode(nodeId)
+                : productId != null ? inventoryLedger.byProduct(productId)
+                : inventoryLedger.all();
+        List<Projection> projections = new ArrayList<>(rows.size());
+        Set<Long> projected = new HashSet<>(rows.size() * 2);
+        lock.readLock().lock();
+        try {
+            for (InventoryLedger.Row row : rows) {
+                if (productId != null && row.productId() != productId) {
+                    continue;
+                }
+                long key = InventoryLedger.key(row.nodeId(), row.productId());
+                projected.add(key);
+                projections.add(new Projection(row.nodeId(), row.productId(), row,
+                        balances(row.quantity(), schedules.get(key), startDay, days)));
+            }
+            for (Map.Entry<Long, Schedule> entry : schedules.entrySet()) {
+                long key = entry.getKey();
+                if (projected.contains(key)
+                        || (nodeId != null && InventoryLedger.nodeId(key) != nodeId)
+                        || (productId != null && InventoryLedger.productId(key) != productId)) {
+                    continue;
+                }
+                projections.add(new Projection(InventoryLedger.nodeId(key), InventoryLedger.productId(key), null,
+                        balances(0, entry.getValue(), startDay, days)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return projections;
+    }
+
+    // After commit, so a rolled-back batch is never projected and the items it reads are visible
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onShipmentChanged(ShipmentChangedEvent event) {
+        synchronized (arrivals) {
+            List<Long> opened = new ArrayList<>();
+            lock.writeLock().lock();
+            try {
+                for (ShipmentChangedEvent.Change change : event.getChanges()) {
+                    ShipmentSnapshot before = change.before();
+                    ShipmentSnapshot after = change.after();
+                    Long id = after != null ? after.id() : before != null ? before.id() : null;
+                    if (id == null) {
+                        continue;
+                    }
+                    Arrival current = arrivals.get(id);
+                    if (after == null || !isOpen(after.status()) || after.estimatedArrival() == null) {
+                        if (current != null) {
+                            arrivals.remove(id);
+                            schedule(current, -1);
+                        }
+                    } else if (current == null) {
+                        opened.add(id);
+                    } else {
+                        int day = (int) after.estimatedArrival().toEpochDay();
+                        if (current.destinationId() != after.destinationId() || current.day() != day) {
+                            // Items don't change after a shipment is created, only where and when they arrive
+                            Arrival moved = new Arrival(after.destinationId(), day, current.productIds(), current.quantities());
+                            arrivals.put(id, moved);
+                            schedule(current, -1);
+                            schedule(moved, 1);
+                        }
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!opened.isEmpty()) {
+                Map<Long, Arrival> loaded = collectArrivals(shipmentItemRepository.findItemsByShipmentIds(opened));
+                lock.writeLock().lock();
+                try {
+                    arrivals.putAll(loaded);
+                    for (Arrival arrival : loaded.values()) {
+                        schedule(arrival, 1);
+                    }
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    public static boolean isOpen(String status) {
+        return status != null && OPEN_STATUSES.contains(status.toLowerCase(Locale.ROOT));
+    }
+
+    // Caller holds the write lock
+    private void schedule(Arrival arrival, int sign) {
+        for (int i = 0; i < arrival.productIds().length; i++) {
+            long key = InventoryLedger.key(arrival.destinationId(), arrival.productIds()[i]);
+            Schedule schedule = schedules.computeIfAbsent(key, k -> new Schedule());
+            schedule.add(arrival.day(), sign * arrival.quantities()[i]);
+            if (schedule.size == 0) {
+                schedules.remove(key);
+            }
+        }
+    }
+
+    private static int[] balances(int onHand, Schedule schedule, int startDay, int days) {
+        int[] balances = new int[days];
+        if (schedule != null) {
+            // Quantity arriving on each day, overdue arrivals on the first
+            for (int i = 0; i < schedule.size && schedule.days[i] < startDay + days; i++) {
+                balances[Math.max(0, schedule.days[i] - startDay)] += schedule.quantities[i];
+            }
+        }
+        int running = onHand;
+        for (int d = 0; d < days; d++) {
+            running += balances[d];
+            balances[d] = running;
+        }
+        return balances;
+    }
+
+    // Shipments without an estimated arrival are left out
+    private static Map<Long, Arrival> collectArrivals(List<InboundItemRow> rows) {
+        Map<Long, List<InboundItemRow>> byShipment = new HashMap<>();
+        for (InboundItemRow row : rows) {
+            if (row.getEstimatedArrival() != null) {
+                byShipment.computeIfAbsent(row.getShipmentId(), id -> new ArrayList<>()).add(row);
+            }
+        }
+        Map<Long, Arrival> shipments = new HashMap<>(byShipment.size() * 2);
+        byShipment.forEach((id, items) -> {
+            long[] productIds = new long[items.size()];
+            int[] quantities = new int[items.size()];
+            for (int i = 0; i < items.size(); i++) {
+                productIds[i] = items.get(i).getProductId();
+                quantities[i] = items.get(i).getQuantity();
+            }
+            InboundItemRow first = items.get(0);
+            shipments.put(id, new Arrival(first.getDestinationId(), (int) first.getEstimatedArrival().toEpochDay(),
+                    productIds, quantities));
+        });
+        return shipments;
+    }
+
+    /**
+     * Net quantity arriving per epoch day at one (node, product), sorted by day,
+     * without zero entries.
+     */
+    static final class Schedule {
+        int size;
+        int[] days = new int[4];
+        int[] quantities = new int[4];
+
+        void add(int day, int quantity) {
+            int at = Arrays.binarySearch(days, 0, size, day);
+            if (at >= 0) {
+                quantities[at] += quantity;
+                if (quantities[at] == 0) {
+                    System.arraycopy(days, at + 1, days, at, size - at - 1);
+                    System.arraycopy(quantities, at + 1, quantities, at, size - at - 1);
+                    size--;
+                }
+                return;
+            }
+            if (quantity == 0) {
+                return;
+            }
+            int insert = -at - 1;
+            if (size == days.length) {
+                days = Arrays.copyOf(days, size * 2);
+                quantities = Arrays.copyOf(quantities, size * 2);
+            }
+            System.arraycopy(days, insert, days, insert + 1, size - insert);
+            System.arraycopy(quantities, insert, quantities, insert + 1, size - insert);
+            days[insert] = day;
+            quantities[insert] = quantity;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.supplychainvisualizer.inventory;
+
+import java.util.Locale;
+
+/**
+ * Where a row's quantity sits relative to its thresholds: nothing left,
+ * at or below the minimum, at or above the maximum, or in between.
+ */
+public enum StockStatus {
+    CRITICAL, LOW, OPTIMAL, EXCESS;
+
+    public static StockStatus of(int quantity, Integer minThreshold, Integer maxThreshold) {
+        if (quantity <= 0) {
+            return CRITICAL;
+        }
+        if (minThreshold != null && quantity <= minThreshold) {
+            return LOW;
+        }
+        if (maxThreshold != null && quantity >= maxThreshold) {
+            return EXCESS;
+        }
+        return OPTIMAL;
+    }
+
+    public static StockStatus of(InventoryLedger.Row row) {
+        return of(row.quantity(), row.minThreshold(), row.maxThreshold());
+    }
+
+    /** Lower-case name, as used in DTOs and alert event names. */
+    public String label() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.supplychainvisualizer.inventory;
+
+import java.util.List;
+
+/**
+ * Published by the {@link InventoryLedger} after a change moves rows from one
+ * {@link StockStatus} to another, e.g. an adjustment taking a row to or below
+ * its minimum. Changes that leave a row's status alone publish nothing.
+ */
+public class StockStatusChangedEvent {
+
+    /**
+     * One row's move, with the row as of right after the change.
+     */
+    public record Transition(InventoryLedger.Row row, StockStatus previous, StockStatus current) {
+    }
+
+    private final List<Transition> transitions;
+
+    public StockStatusChangedEvent(List<Transition> transitions) {
+        this.transitions = List.copyOf(transitions);
+    }
+
+    public List<Transition> getTransitions() {
+        return transitions;
+    }
+}
@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 @EntityListeners(AuditingEntityListener.class)
 public class Connection {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "connections_id")
+    @SequenceGenerator(name = "connections_id", sequenceName = "connections_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -5,14 +5,17 @@ import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "inventory")
+@Table(name = "inventory", uniqueConstraints =
+        @UniqueConstraint(name = "uq_inventory_node_product", columnNames = {"node_id", "product_id"}))
 @EntityListeners(AuditingEntityListener.class)
 public class Inventory {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_id")
+    @SequenceGenerator(name = "inventory_id", sequenceName = "inventory_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -30,6 +33,12 @@ public class Inventory {
 
     private Integer maxThreshold;
 
+    // Guards manual edits; assigned by the inventory ledger and written with its flushes
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version = 0L;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -87,6 +96,14 @@ public class Inventory {
         this.maxThreshold = maxThreshold;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,36 @@
+package com.example.supplychainvisualizer.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Highest inventory journal sequence whose changes are in the inventory table.
+ * Written in the same transaction as those changes, so replaying the journal
+ * after a crash skips what was already applied. A single row, id 1.
+ */
+@Entity
+@Table(name = "inventory_journal_checkpoint")
+public class InventoryJournalCheckpoint {
+    public static final int ID = 1;
+
+    @Id
+    private Integer id = ID;
+
+    @Column(name = "last_sequence", nullable = false)
+    private long lastSequence;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public void setLastSequence(long lastSequence) {
+        this.lastSequence = lastSequence;
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.supplychainvisualizer.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One change to the quantity of a product at a node, appended when the
+ * inventory ledger writes its journaled changes and never updated. The id is
+ * the change's inventory journal sequence, so movements are ordered as they
+ * were applied. Threshold-only edits move no stock and aren't recorded.
+ */
+@Entity
+@Table(name = "inventory_movements", indexes =
+        @Index(name = "idx_inventory_movements_node_product", columnList = "node_id, product_id, id"))
+public class InventoryMovement {
+    @Id
+    private Long id;
+
+    @Column(name = "node_id", nullable = false)
+    private Long nodeId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer delta;
+
+    @Column(name = "moved_at", nullable = false)
+    private LocalDateTime movedAt;
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(Long nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getDelta() {
+        return delta;
+    }
+
+    public void setDelta(Integer delta) {
+        this.delta = delta;
+    }
+
+    public LocalDateTime getMovedAt() {
+        return movedAt;
+    }
+
+    public void setMovedAt(LocalDateTime movedAt) {
+        this.movedAt = movedAt;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.supplychainvisualizer.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint of every inventory quantity after the movement
+ * {@code lastMovementId}; its rows are {@link InventorySnapshotRow}s. Stock at
+ * an earlier time is the nearest snapshot taken by then plus the movements
+ * after it, so a lookup reads at most one snapshot interval of movements.
+ */
+@Entity
+@Table(name = "inventory_snapshots", indexes =
+        @Index(name = "idx_inventory_snapshots_taken_at", columnList = "taken_at"))
+public class InventorySnapshot {
+    @Id
+    @Column(name = "last_movement_id")
+    private Long lastMovementId;
+
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+
+    // Getters and setters
+    public Long getLastMovementId() {
+        return lastMovementId;
+    }
+
+    public void setLastMovementId(Long lastMovementId) {
+        this.lastMovementId = lastMovementId;
+    }
+
+    public LocalDateTime getTakenAt() {
+        return takenAt;
+    }
+
+    public void setTakenAt(LocalDateTime takenAt) {
+        this.takenAt = takenAt;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.supplychainvisualizer.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Quantity of a product at a node in an {@link InventorySnapshot}. Rows are
+ * copied from the inventory table in bulk, so they hold ids rather than references.
+ */
+@Entity
+@Table(name = "inventory_snapshot_rows",
+        uniqueConstraints = @UniqueConstraint(name = "uk_inventory_snapshot_rows_key",
+                columnNames = {"snapshot_id", "node_id", "product_id"}))
+public class InventorySnapshotRow {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "snapshot_id", nullable = false)
+    private Long snapshotId;
+
+    @Column(name = "node_id", nullable = false)
+    private Long nodeId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getSnapshotId() {
+        return snapshotId;
+    }
+
+    public void setSnapshotId(Long snapshotId) {
+        this.snapshotId = snapshotId;
+    }
+
+    public Long getNodeId() {
+        return nodeId;
+    }
+
+    public void setNodeId(Long nodeId) {
+        this.nodeId = nodeId;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+}
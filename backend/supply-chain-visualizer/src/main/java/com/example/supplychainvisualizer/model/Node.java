@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
 @EntityListeners(AuditingEntityListener.class)
 public class Node {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "nodes_id")
+    @SequenceGenerator(name = "nodes_id", sequenceName = "nodes_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -11,11 +11,16 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "shipments")
+@Table(name = "shipments", indexes = {
+        @Index(name = "idx_shipments_source", columnList = "source_id"),
+        @Index(name = "idx_shipments_destination", columnList = "destination_id"),
+        @Index(name = "idx_shipments_departure", columnList = "departure_date, id"),
+        @Index(name = "idx_shipments_status", columnList = "status, id")})
 @EntityListeners(AuditingEntityListener.class)
 public class Shipment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shipments_id")
+    @SequenceGenerator(name = "shipments_id", sequenceName = "shipments_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -35,8 +40,7 @@ public class Shipment {
 
     private LocalDate actualArrival;
 
-    @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
-    @JoinColumn(name = "shipment_id")
+    @OneToMany(mappedBy = "shipment", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<ShipmentItem> items = new HashSet<>();
 
     @CreatedDate
@@ -3,10 +3,13 @@ package com.example.supplychainvisualizer.model;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "shipment_items")
+@Table(name = "shipment_items", indexes = {
+        @Index(name = "idx_shipment_items_shipment", columnList = "shipment_id"),
+        @Index(name = "idx_shipment_items_product", columnList = "product_id, shipment_id")})
 public class ShipmentItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "shipment_items_id")
+    @SequenceGenerator(name = "shipment_items_id", sequenceName = "shipment_items_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -0,0 +1,470 @@
+package com.example.supplychainvisualizer.network;
+
+import com.example.supplychainvisualizer.repository.ConnectionRepository;
+import com.example.supplychainvisualizer.repository.NodeRepository;
+import com.example.supplychainvisualizer.repository.projection.ConnectionRow;
+import com.example.supplychainvisualizer.repository.projection.NodeRow;
+import com.example.supplychainvisualizer.util.LongIntHashMap;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * In-memory copy of the connections table as a directed graph in compressed
+ * sparse row form, so connection listings and route searches never touch the
+ * database. Every node gets a dense index, with its type and coordinates for
+ * route heuristics; each node's outgoing and incoming edges are a contiguous
+ * range of an edge index array, and edge attributes live in parallel
+ * primitive arrays.
+ * <p>
+ * A {@link Snapshot} is immutable: readers take the current one and use it
+ * without locking. Connection and node writes build the next snapshot from the
+ * current one in memory, O(nodes + edges), and publish it once their
+ * transaction commits. Both are edited by hand, so this is far cheaper overall
+ * than reading the tables per request.
+ */
+@Component
+public class ConnectionGraph {
+
+    /**
+     * One connection. Unknown distance, travel time or cost are null.
+     */
+    public record Edge(long id, long sourceId, long targetId, String transportationType, Double distance,
+                       Integer travelTime, Double costPerUnit, String status) {
+    }
+
+    /**
+     * What the graph knows of a node. Coordinates are null for a node only
+     * known from a connection.
+     */
+    public record Location(long id, String type, String status, Double latitude, Double longitude) {
+    }
+
+    /** Mean Earth radius used for great-circle distances. */
+    public static final double EARTH_RADIUS_KM = 6371.0088;
+
+    @Autowired
+    private ConnectionRepository connectionRepository;
+
+    @Autowired
+    private NodeRepository nodeRepository;
+
+    private volatile Snapshot snapshot = Snapshot.build(List.of(), List.of());
+
+    @PostConstruct
+    public synchronized void reload() {
+        List<Location> locations = new ArrayList<>();
+        for (NodeRow row : nodeRepository.findAllRows()) {
+            locations.add(new Location(row.getId(), row.getType(), row.getStatus(), row.getLatitude(), row.getLongitude()));
+        }
+        List<Edge> edges = new ArrayList<>();
+        for (ConnectionRow row : connectionRepository.findAllRows()) {
+            edges.add(new Edge(row.getId(), row.getSourceId(), row.getTargetId(), row.getTransportationType(),
+                    row.getDistance(), row.getTravelTime(), row.getCostPerUnit(), row.getStatus()));
+        }
+        snapshot = Snapshot.build(locations, edges);
+    }
+
+    /**
+     * The graph as of now; it doesn't change after it is returned.
+     */
+    public Snapshot snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Adds a connection or replaces the one with its id, once the surrounding
+     * transaction commits, or now when there is none.
+     */
+    public void put(Edge edge) {
+        afterCommit(() -> applyEdge(edge, edge.id()));
+    }
+
+    /**
+     * Removes a connection, once the surrounding transaction commits.
+     */
+    public void remove(long id) {
+        afterCommit(() -> applyEdge(null, id));
+    }
+
+    /**
+     * Adds a node or replaces the one with its id, once the surrounding
+     * transaction commits, or now when there is none.
+     */
+    public void putNode(Location location) {
+        afterCommit(() -> applyNode(location, location.id()));
+    }
+
+    /**
+     * Removes a node, once the surrounding transaction commits. A node still
+     * referenced by a connection stays, without its location.
+     */
+    public void removeNode(long id) {
+        afterCommit(() -> applyNode(null, id));
+    }
+
+    private synchronized void applyEdge(Edge replacement, long id) {
+        Snapshot current = snapshot;
+        List<Edge> edges = new ArrayList<>(current.edgeCount + 1);
+        for (int e = 0; e < current.edgeCount; e++) {
+            if (current.edgeIds[e] != id) {
+                edges.add(current.edge(e));
+            }
+        }
+        if (replacement != null) {
+            edges.add(replacement);
+        }
+        edges.sort(Comparator.comparingLong(Edge::id));
+        snapshot = Snapshot.build(current.locations(), edges);
+    }
+
+    private synchronized void applyNode(Location replacement, long id) {
+        Snapshot current = snapshot;
+        List<Location> locations = new ArrayList<>(current.nodeCount + 1);
+        for (Location location : current.locations()) {
+            if (location.id() != id) {
+                locations.add(location);
+            }
+        }
+        if (replacement != null) {
+            locations.add(replacement);
+        }
+        locations.sort(Comparator.comparingLong(Location::id));
+        List<Edge> edges = new ArrayList<>(current.edgeCount);
+        for (int e = 0; e < current.edgeCount; e++) {
+            edges.add(current.edge(e));
+        }
+        snapshot = Snapshot.build(locations, edges);
+    }
+
+    /**
+     * Great-circle distance in kilometres between two points given in degrees.
+     */
+    public static double greatCircleKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double dLatitude = Math.toRadians(latitude2 - latitude1);
+        double dLongitude = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(dLatitude / 2) * Math.sin(dLatitude / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.sin(dLongitude / 2) * Math.sin(dLongitude / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    /**
+     * Immutable connection graph. Node indexes run from 0 to {@code nodeCount},
+     * known nodes in id order, then any only known from a connection; edge
+     * indexes from 0 to {@code edgeCount} in connection id order. The outgoing
+     * edges of node {@code n} are {@code outEdges[outOffsets[n]]} up to
+     * {@code outEdges[outOffsets[n + 1]]}, likewise incoming ones.
+     * <p>
+     * For routing, each {@link RouteWeight} has a weight per edge, NaN where the
+     * edge can't be used: the connection isn't active, or its value is unknown
+     * or negative.
+     */
+    public static final class Snapshot {
+        /** Travel time recorded for a connection without one. */
+        public static final int NO_TRAVEL_TIME = -1;
+        /** Index returned for an unknown node or connection id. */
+        public static final int MISSING = -1;
+
+        /** Connection and node status that carries goods. */
+        public static final String ACTIVE = "active";
+
+        final int nodeCount;
+        final long[] nodeIds;
+        final LongIntHashMap nodeIndex;
+        final String[] nodeTypes;
+        final String[] nodeStatuses;
+        final double[] latitudes;   // NaN when unknown
+        final double[] longitudes;  // NaN when unknown
+        // Radians and cosine of latitude, so route heuristics skip most of the trigonometry
+        private final double[] latitudeRadians;
+        private final double[] longitudeRadians;
+        private final double[] latitudeCosines;
+
+        final int edgeCount;
+        final long[] edgeIds;
+        final LongIntHashMap edgeIndex;
+        final int[] sources;
+        final int[] targets;
+        final double[] distances;   // NaN when unknown
+        final int[] travelTimes;    // NO_TRAVEL_TIME when unknown
+        final double[] costs;       // NaN when unknown
+        final String[] transportationTypes;
+        final String[] statuses;
+        final boolean[] activeEdges;
+
+        final int[] outOffsets;
+        final int[] outEdges;
+        final int[] inOffsets;
+        final int[] inEdges;
+
+        // Indexed by RouteWeight ordinal
+        private final double[][] weights = new double[RouteWeight.values().length][];
+        private final double[] heuristicScales = new double[RouteWeight.values().length];
+
+        // Edges must be sorted by id
+        private Snapshot(List<Location> locations, List<Edge> edges) {
+            edgeCount = edges.size();
+            edgeIds = new long[edgeCount];
+            edgeIndex = new LongIntHashMap(edgeCount, MISSING);
+            sources = new int[edgeCount];
+            targets = new int[edgeCount];
+            distances = new double[edgeCount];
+            travelTimes = new int[edgeCount];
+            costs = new double[edgeCount];
+            transportationTypes = new String[edgeCount];
+            statuses = new String[edgeCount];
+
+            LongIntHashMap nodes = new LongIntHashMap(locations.size() + edgeCount, MISSING);
+            long[] ids = new long[Math.max(16, locations.size() + edgeCount)];
+            int count = 0;
+            for (Location location : locations) {
+                nodes.put(location.id(), count);
+                ids[count++] = location.id();
+            }
+            for (int e = 0; e < edgeCount; e++) {
+                Edge edge = edges.get(e);
+                for (long nodeId : new long[]{edge.sourceId(), edge.targetId()}) {
+                    if (!nodes.containsKey(nodeId)) {
+                        if (count == ids.length) {
+                            ids = Arrays.copyOf(ids, count * 2);
+                        }
+                        nodes.put(nodeId, count);
+                        ids[count++] = nodeId;
+                    }
+                }
+                edgeIds[e] = edge.id();
+                edgeIndex.put(edge.id(), e);
+                sources[e] = nodes.get(edge.sourceId());
+                targets[e] = nodes.get(edge.targetId());
+                distances[e] = edge.distance() == null ? Double.NaN : edge.distance();
+                travelTimes[e] = edge.travelTime() == null ? NO_TRAVEL_TIME : edge.travelTime();
+                costs[e] = edge.costPerUnit() == null ? Double.NaN : edge.costPerUnit();
+                transportationTypes[e] = edge.transportationType();
+                statuses[e] = edge.status();
+            }
+            activeEdges = new boolean[edgeCount];
+            for (int e = 0; e < edgeCount; e++) {
+                activeEdges[e] = isActive(statuses[e]);
+            }
+            nodeCount = count;
+            nodeIds = Arrays.copyOf(ids, count);
+            nodeIndex = nodes;
+            nodeTypes = new String[nodeCount];
+            nodeStatuses = new String[nodeCount];
+            latitudes = new double[nodeCount];
+            longitudes = new double[nodeCount];
+            Arrays.fill(latitudes, Double.NaN);
+            Arrays.fill(longitudes, Double.NaN);
+            for (int n = 0; n < locations.size(); n++) {
+                Location location = locations.get(n);
+                nodeTypes[n] = location.type();
+                nodeStatuses[n] = location.status();
+                latitudes[n] = location.latitude() == null ? Double.NaN : location.latitude();
+                longitudes[n] = location.longitude() == null ? Double.NaN : location.longitude();
+            }
+            latitudeRadians = new double[nodeCount];
+            longitudeRadians = new double[nodeCount];
+            latitudeCosines = new double[nodeCount];
+            for (int n = 0; n < nodeCount; n++) {
+                latitudeRadians[n] = Math.toRadians(latitudes[n]);
+                longitudeRadians[n] = Math.toRadians(longitudes[n]);
+                latitudeCosines[n] = Math.cos(latitudeRadians[n]);
+            }
+
+            outOffsets = new int[nodeCount + 1];
+            outEdges = new int[edgeCount];
+            inOffsets = new int[nodeCount + 1];
+            inEdges = new int[edgeCount];
+            bucket(sources, outOffsets, outEdges);
+            bucket(targets, inOffsets, inEdges);
+
+            for (RouteWeight weight : RouteWeight.values()) {
+                double[] edgeWeights = new double[edgeCount];
+                for (int e = 0; e < edgeCount; e++) {
+                    double value = switch (weight) {
+                        case COST -> costs[e];
+                        case TIME -> travelTimes[e] == NO_TRAVEL_TIME ? Double.NaN : travelTimes[e];
+                        case DISTANCE -> distances[e];
+                    };
+                    boolean usable = value >= 0 && activeEdges[e];
+                    edgeWeights[e] = usable ? value : Double.NaN;
+                }
+                weights[weight.ordinal()] = edgeWeights;
+                heuristicScales[weight.ordinal()] = heuristicScale(edgeWeights);
+            }
+        }
+
+        static Snapshot build(List<Location> locations, List<Edge> edges) {
+            return new Snapshot(locations, edges);
+        }
+
+        static boolean isActive(String status) {
+            return status != null && ACTIVE.equals(status.toLowerCase(Locale.ROOT));
+        }
+
+        /*
+         * The largest s with weight(e) >= s * greatCircle(e) on every usable
+         * edge. By the triangle inequality any path from n to t then weighs at
+         * least s * greatCircle(n, t), so that is an admissible and consistent
+         * A* heuristic whatever units the weight is in. Zero, and so plain
+         * Dijkstra, when an edge has an endpoint without coordinates.
+         */
+        private double heuristicScale(double[] edgeWeights) {
+            double scale = Double.POSITIVE_INFINITY;
+            for (int e = 0; e < edgeCount; e++) {
+                if (Double.isNaN(edgeWeights[e])) {
+                    continue;
+                }
+                double km = greatCircleKm(sources[e], targets[e]);
+                if (Double.isNaN(km)) {
+                    return 0;
+                }
+                if (km > 0) {
+                    scale = Math.min(scale, edgeWeights[e] / km);
+                }
+            }
+            // Shaved so rounding never makes the bound exceed a path's weight
+            return Double.isInfinite(scale) ? 0 : scale * (1 - 1e-9);
+        }
+
+        /**
+         * Great-circle distance between two node indexes, NaN when either has no coordinates.
+         */
+        double greatCircleKm(int from, int to) {
+            double sinLatitude = Math.sin((latitudeRadians[to] - latitudeRadians[from]) / 2);
+            double sinLongitude = Math.sin((longitudeRadians[to] - longitudeRadians[from]) / 2);
+            double a = sinLatitude * sinLatitude
+                    + latitudeCosines[from] * latitudeCosines[to] * sinLongitude * sinLongitude;
+            return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+        }
+
+        double[] weights(RouteWeight weight) {
+            return weights[weight.ordinal()];
+        }
+
+        double heuristicScale(RouteWeight weight) {
+            return heuristicScales[weight.ordinal()];
+        }
+
+        List<Location> locations() {
+            List<Location> locations = new ArrayList<>(nodeCount);
+            for (int n = 0; n < nodeCount; n++) {
+                locations.add(new Location(nodeIds[n], nodeTypes[n], nodeStatuses[n],
+                        Double.isNaN(latitudes[n]) ? null : latitudes[n],
+                        Double.isNaN(longitudes[n]) ? null : longitudes[n]));
+            }
+            return locations;
+        }
+
+        // Counting sort of edge indexes by endpoint; edges keep their id order within a node
+        private void bucket(int[] endpoints, int[] offsets, int[] bucketed) {
+            for (int e = 0; e < edgeCount; e++) {
+                offsets[endpoints[e] + 1]++;
+            }
+            for (int n = 0; n < nodeCount; n++) {
+                offsets[n + 1] += offsets[n];
+            }
+            int[] next = Arrays.copyOf(offsets, nodeCount);
+            for (int e = 0; e < edgeCount; e++) {
+                bucketed[next[endpoints[e]]++] = e;
+            }
+        }
+
+        public int nodeCount() {
+            return nodeCount;
+        }
+
+        public int edgeCount() {
+            return edgeCount;
+        }
+
+        /**
+         * Dense index of a node, {@link #MISSING} when the graph doesn't know it.
+         */
+        public int nodeIndex(long nodeId) {
+            return nodeIndex.get(nodeId);
+        }
+
+        public long nodeId(int node) {
+            return nodeIds[node];
+        }
+
+        public Optional<Edge> byId(long id) {
+            int e = edgeIndex.get(id);
+            return e == MISSING ? Optional.empty() : Optional.of(edge(e));
+        }
+
+        public List<Edge> all() {
+            List<Edge> all = new ArrayList<>(edgeCount);
+            for (int e = 0; e < edgeCount; e++) {
+                all.add(edge(e));
+            }
+            return all;
+        }
+
+        public List<Edge> outgoing(long nodeId) {
+            return collect(nodeId, outOffsets, outEdges);
+        }
+
+        public List<Edge> incoming(long nodeId) {
+            return collect(nodeId, inOffsets, inEdges);
+        }
+
+        public List<Edge> between(long sourceId, long targetId) {
+            int source = nodeIndex(sourceId);
+            int target = nodeIndex(targetId);
+            List<Edge> edges = new ArrayList<>();
+            if (source == MISSING || target == MISSING) {
+                return edges;
+            }
+            for (int i = outOffsets[source]; i < outOffsets[source + 1]; i++) {
+                if (targets[outEdges[i]] == target) {
+                    edges.add(edge(outEdges[i]));
+                }
+            }
+            return edges;
+        }
+
+        Edge edge(int e) {
+            return new Edge(edgeIds[e], nodeIds[sources[e]], nodeIds[targets[e]], transportationTypes[e],
+                    Double.isNaN(distances[e]) ? null : distances[e],
+                    travelTimes[e] == NO_TRAVEL_TIME ? null : travelTimes[e],
+                    Double.isNaN(costs[e]) ? null : costs[e], statuses[e]);
+        }
+
+        private List<Edge> collect(long nodeId, int[] offsets, int[] bucketed) {
+            int node = nodeIndex(nodeId);
+            if (node == MISSING) {
+                return new ArrayList<>();
+            }
+            List<Edge> edges = new ArrayList<>(offsets[node + 1] - offsets[node]);
+            for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+                edges.add(edge(bucketed[i]));
+            }
+            return edges;
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.example.supplychainvisualizer.network;
+
+import com.example.supplychainvisualizer.util.LongIntHashMap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * What loses supply when nodes or connections fail. A node has supply while
+ * it can be reached from an up factory over active connections through up
+ * nodes; nodes whose status isn't active are down already, so a failure only
+ * counts for what it takes away.
+ * <p>
+ * Reachability is bit-parallel: each node holds a {@code long} whose bits are
+ * separate scenarios, and a worklist pass ORs a node's bits into its
+ * neighbours', masked by the bits in which the connection and the neighbour
+ * are up. One pass answers up to 64 scenarios at once: before and after a
+ * failure, 32 shipment origins before and after, or 64 single-node failures in
+ * a sweep of the whole network.
+ */
+@Component
+public class DisruptionAnalyzer {
+
+    /** Node type that supplies the network. */
+    public static final String FACTORY = "factory";
+
+    /**
+     * How many nodes lose supply if one node fails, the node itself not counted.
+     */
+    public record Criticality(long nodeId, int disconnected) {
+    }
+
+    private record Sweep(ConnectionGraph.Snapshot graph, List<Criticality> ranking) {
+    }
+
+    // The graph changes only when connections or nodes are edited, so the last sweep usually still holds
+    private volatile Sweep lastSweep;
+
+    /**
+     * Ids of the nodes that had supply and lose it when the given nodes and
+     * connections fail, the failed nodes not included.
+     */
+    public List<Long> disconnected(ConnectionGraph.Snapshot graph, Collection<Long> failedNodeIds,
+                                   Collection<Long> failedConnectionIds) {
+        boolean[] failedNodes = nodeMask(graph, failedNodeIds);
+        boolean[] failedEdges = edgeMask(graph, failedConnectionIds);
+        // Bit 0 is the network as it is, bit 1 with the failures
+        long[] nodeUp = new long[graph.nodeCount];
+        for (int n = 0; n < graph.nodeCount; n++) {
+            nodeUp[n] = isUp(graph, n) ? (failedNodes[n] ? 1L : 3L) : 0L;
+        }
+        long[] edgeUp = new long[graph.edgeCount];
+        for (int e = 0; e < graph.edgeCount; e++) {
+            edgeUp[e] = graph.activeEdges[e] ? (failedEdges[e] ? 1L : 3L) : 0L;
+        }
+        long[] reach = new Propagation(graph.nodeCount).run(graph, nodeUp, edgeUp, factories(graph), -1L);
+        List<Long> disconnected = new ArrayList<>();
+        for (int n = 0; n < graph.nodeCount; n++) {
+            if (reach[n] == 1L && !failedNodes[n]) {
+                disconnected.add(graph.nodeIds[n]);
+            }
+        }
+        return disconnected;
+    }
+
+    /**
+     * For each lane, given as parallel arrays of source and destination node
+     * ids, whether its destination could be reached from its source over
+     * active connections before the failures and can't be after.
+     */
+    public boolean[] lanesCut(ConnectionGraph.Snapshot graph, Collection<Long> failedNodeIds,
+                              Collection<Long> failedConnectionIds, long[] sourceIds, long[] destinationIds) {
+        boolean[] failedNodes = nodeMask(graph, failedNodeIds);
+        boolean[] failedEdges = edgeMask(graph, failedConnectionIds);
+        boolean[] cut = new boolean[sourceIds.length];
+        // Distinct origins, 32 per pass: bit j is origin j as things are, bit 32 + j with the failures
+        LongIntHashMap originOf = new LongIntHashMap(sourceIds.length, ConnectionGraph.Snapshot.MISSING);
+        int[] origins = new int[sourceIds.length];
+        int originCount = 0;
+        for (long sourceId : sourceIds) {
+            int source = graph.nodeIndex(sourceId);
+            if (source != ConnectionGraph.Snapshot.MISSING && !originOf.containsKey(source)) {
+                originOf.put(source, originCount);
+                origins[originCount++] = source;
+            }
+        }
+        long before = 0xFFFFFFFFL;
+        long[] nodeUp = new long[graph.nodeCount];
+        for (int n = 0; n < graph.nodeCount; n++) {
+            nodeUp[n] = isUp(graph, n) ? (failedNodes[n] ? before : -1L) : 0L;
+        }
+        long[] edgeUp = new long[graph.edgeCount];
+        for (int e = 0; e < graph.edgeCount; e++) {
+            edgeUp[e] = graph.activeEdges[e] ? (failedEdges[e] ? before : -1L) : 0L;
+        }
+        Propagation propagation = new Propagation(graph.nodeCount);
+        for (int from = 0; from < originCount; from += 32) {
+            int batch = Math.min(32, originCount - from);
+            int[] sources = Arrays.copyOfRange(origins, from, from + batch);
+            long[] bits = new long[batch];
+            for (int j = 0; j < batch; j++) {
+                bits[j] = (1L << j) | (1L << (32 + j));
+            }
+            long[] reach = propagation.run(graph, nodeUp, edgeUp, sources, bits);
+            for (int lane = 0; lane < sourceIds.length; lane++) {
+                int source = graph.nodeIndex(sourceIds[lane]);
+                int destination = graph.nodeIndex(destinationIds[lane]);
+                int j = source == ConnectionGraph.Snapshot.MISSING ? -1 : originOf.get(source) - from;
+                if (j >= 0 && j < batch && destination != ConnectionGraph.Snapshot.MISSING) {
+                    long reached = reach[destination];
+                    cut[lane] = (reached & (1L << j)) != 0 && (reached & (1L << (32 + j))) == 0;
+                }
+            }
+        }
+        return cut;
+    }
+
+    /**
+     * Every node whose failure on its own takes supply away from another node,
+     * most damaging first.
+     */
+    public List<Criticality> sweep(ConnectionGraph.Snapshot graph) {
+        Sweep last = lastSweep;
+        if (last != null && last.graph() == graph) {
+            return last.ranking();
+        }
+        int[] factories = factories(graph);
+        long[] nodeUp = new long[graph.nodeCount];
+        for (int n = 0; n < graph.nodeCount; n++) {
+            nodeUp[n] = isUp(graph, n) ? -1L : 0L;
+        }
+        long[] edgeUp = new long[graph.edgeCount];
+        for (int e = 0; e < graph.edgeCount; e++) {
+            edgeUp[e] = graph.activeEdges[e] ? -1L : 0L;
+        }
+        Propagation propagation = new Propagation(graph.nodeCount);
+        long[] supplied = propagation.run(graph, nodeUp, edgeUp, factories, -1L).clone();
+
+        // Only a node with supply can take supply from others by failing
+        int[] candidates = new int[graph.nodeCount];
+        int candidateCount = 0;
+        for (int n = 0; n < graph.nodeCount; n++) {
+            if (supplied[n] != 0) {
+                candidates[candidateCount++] = n;
+            }
+        }
+        int[] disconnected = new int[candidateCount];
+        long[] batchUp = nodeUp.clone();
+        for (int from = 0; from < candidateCount; from += 64) {
+            int batch = Math.min(64, candidateCount - from);
+            // Candidate from + j is down in scenario j only
+            for (int j = 0; j < batch; j++) {
+                batchUp[candidates[from + j]] = ~(1L << j);
+            }
+            long all = batch == 64 ? -1L : (1L << batch) - 1;
+            long[] reach = propagation.run(graph, batchUp, edgeUp, factories, all);
+            for (int n = 0; n < graph.nodeCount; n++) {
+                if (supplied[n] == 0) {
+                    continue;
+                }
+                long lost = ~reach[n] & all;
+                while (lost != 0) {
+                    int j = Long.numberOfTrailingZeros(lost);
+                    lost &= lost - 1;
+                    if (candidates[from + j] != n) {
+                        disconnected[from + j]++;
+                    }
+                }
+            }
+            for (int j = 0; j < batch; j++) {
+                batchUp[candidates[from + j]] = nodeUp[candidates[from + j]];
+            }
+        }
+        List<Criticality> ranking = new ArrayList<>();
+        for (int c = 0; c < candidateCount; c++) {
+            if (disconnected[c] > 0) {
+                ranking.add(new Criticality(graph.nodeIds[candidates[c]], disconnected[c]));
+            }
+        }
+        ranking.sort(Comparator.comparingInt(Criticality::disconnected).reversed()
+                .thenComparingLong(Criticality::nodeId));
+        List<Criticality> result = List.copyOf(ranking);
+        lastSweep = new Sweep(graph, result);
+        return result;
+    }
+
+    private static boolean isUp(ConnectionGraph.Snapshot graph, int node) {
+        // A node only known from a connection has no status of its own
+        return graph.nodeStatuses[node] == null || ConnectionGraph.Snapshot.isActive(graph.nodeStatuses[node]);
+    }
+
+    private static int[] factories(ConnectionGraph.Snapshot graph) {
+        int[] factories = new int[graph.nodeCount];
+        int count = 0;
+        for (int n = 0; n < graph.nodeCount; n++) {
+            if (graph.nodeTypes[n] != null && FACTORY.equals(graph.nodeTypes[n].toLowerCase(Locale.ROOT))) {
+                factories[count++] = n;
+            }
+        }
+        return Arrays.copyOf(factories, count);
+    }
+
+    private static boolean[] nodeMask(ConnectionGraph.Snapshot graph, Collection<Long> nodeIds) {
+        boolean[] mask = new boolean[graph.nodeCount];
+        for (Long id : nodeIds) {
+            int n = graph.nodeIndex(id);
+            if (n != ConnectionGraph.Snapshot.MISSING) {
+                mask[n] = true;
+            }
+        }
+        return mask;
+    }
+
+    private static boolean[] edgeMask(ConnectionGraph.Snapshot graph, Collection<Long> connectionIds) {
+        boolean[] mask = new boolean[graph.edgeCount];
+        for (Long id : connectionIds) {
+            int e = graph.edgeIndex.get(id);
+            if (e != ConnectionGraph.Snapshot.MISSING) {
+                mask[e] = true;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Worklist reachability over per-node scenario bits. A node is queued at
+     * most once at a time and again only when it gains bits, so a pass is at
+     * worst 64 visits per edge and usually close to one.
+     */
+    private static final class Propagation {
+        private final long[] reach;
+        private final long[] queued;
+        private final int[] queue;
+
+        Propagation(int nodeCount) {
+            reach = new long[nodeCount];
+            queued = new long[(nodeCount + 63) >>> 6];
+            queue = new int[Math.max(1, nodeCount)];
+        }
+
+        // Sources start with sourceBits where they are up; the array returned is reused by the next run
+        long[] run(ConnectionGraph.Snapshot graph, long[] nodeUp, long[] edgeUp, int[] sources, long sourceBits) {
+            long[] bits = new long[sources.length];
+            Arrays.fill(bits, sourceBits);
+            return run(graph, nodeUp, edgeUp, sources, bits);
+        }
+
+        long[] run(ConnectionGraph.Snapshot graph, long[] nodeUp, long[] edgeUp, int[] sources, long[] sourceBits) {
+            Arrays.fill(reach, 0L);
+            int head = 0;
+            int size = 0;
+            for (int i = 0; i < sources.length; i++) {
+                int source = sources[i];
+                long gained = sourceBits[i] & nodeUp[source] & ~reach[source];
+                if (gained != 0) {
+                    reach[source] |= gained;
+                    if (!isQueued(source)) {
+                        setQueued(source, true);
+                        queue[(head + size++) % queue.length] = source;
+                    }
+                }
+            }
+            while (size > 0) {
+                int node = queue[head];
+                head = (head + 1) % queue.length;
+                size--;
+                setQueued(node, false);
+                long bits = reach[node];
+                for (int i = graph.outOffsets[node]; i < graph.outOffsets[node + 1]; i++) {
+                    int edge = graph.outEdges[i];
+                    int next = graph.targets[edge];
+                    long gained = bits & edgeUp[edge] & nodeUp[next] & ~reach[next];
+                    if (gained != 0) {
+                        reach[next] |= gained;
+                        if (!isQueued(next)) {
+                            setQueued(next, true);
+                            queue[(head + size++) % queue.length] = next;
+                        }
+                    }
+                }
+            }
+            return reach;
+        }
+
+        private boolean isQueued(int node) {
+            return (queued[node >>> 6] & (1L << node)) != 0;
+        }
+
+        private void setQueued(int node, boolean value) {
+            if (value) {
+                queued[node >>> 6] |= 1L << node;
+            } else {
+                queued[node >>> 6] &= ~(1L << node);
+            }
+        }
+    }
+}
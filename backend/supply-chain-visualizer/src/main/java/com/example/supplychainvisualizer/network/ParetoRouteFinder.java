@@ -0,0 +1,286 @@
+package com.example.supplychainvisualizer.network;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Routes between two nodes that trade cost, travel time and distance off
+ * against each other: every route on the Pareto frontier, none of which is
+ * at least as good on all three and better on one than another.
+ * <p>
+ * This is multi-objective A* label setting (Martins' algorithm with bounds).
+ * A label is a partial route's three totals at a node. Labels are expanded in
+ * lexicographic order of totals plus per-criterion great-circle lower bounds
+ * to the destination, so a label taken off the queue is never dominated later.
+ * A new label is dropped when a label at its node is at least as good on all
+ * three, or a route already found is at least as good as the label plus its
+ * lower bounds; otherwise it evicts the labels at its node it dominates. Only
+ * active connections that record all three values can be used.
+ * <p>
+ * Frontiers can grow exponentially, so each node keeps at most
+ * {@code maxLabelsPerNode} labels and the search stops after
+ * {@code budgetMillis}; either cut marks the result truncated, meaning the
+ * routes returned are non-dominated among those found but the frontier may be
+ * incomplete.
+ */
+@Component
+public class ParetoRouteFinder {
+
+    private static final int COST = 0;
+    private static final int TIME = 1;
+    private static final int DISTANCE = 2;
+
+    /**
+     * Non-dominated routes ordered by cost, then time, then distance.
+     */
+    public record Frontier(List<List<ConnectionGraph.Edge>> routes, boolean truncated) {
+    }
+
+    public Frontier frontier(ConnectionGraph.Snapshot graph, long sourceId, long targetId, int maxLabelsPerNode,
+                             long budgetMillis) {
+        int source = graph.nodeIndex(sourceId);
+        int target = graph.nodeIndex(targetId);
+        if (source == ConnectionGraph.Snapshot.MISSING || target == ConnectionGraph.Snapshot.MISSING) {
+            return new Frontier(List.of(), false);
+        }
+        Search search = new Search(graph, target, maxLabelsPerNode, System.nanoTime() + budgetMillis * 1_000_000);
+        search.run(source);
+
+        Integer[] labels = new Integer[search.bagSize[target]];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = search.bags[target][i];
+        }
+        Arrays.sort(labels, Comparator.<Integer>comparingDouble(l -> search.totals[COST][l])
+                .thenComparingDouble(l -> search.totals[TIME][l])
+                .thenComparingDouble(l -> search.totals[DISTANCE][l]));
+        List<List<ConnectionGraph.Edge>> routes = new ArrayList<>(labels.length);
+        for (int label : labels) {
+            List<ConnectionGraph.Edge> edges = new ArrayList<>();
+            for (int l = label; search.edge[l] != -1; l = search.previous[l]) {
+                edges.add(graph.edge(search.edge[l]));
+            }
+            Collections.reverse(edges);
+            routes.add(edges);
+        }
+        return new Frontier(routes, search.truncated);
+    }
+
+    // One query's labels, in growable parallel arrays indexed by label
+    private static final class Search {
+        private static final int CLOCK_CHECK_INTERVAL = 1024;
+
+        final ConnectionGraph.Snapshot graph;
+        final int target;
+        final int maxLabelsPerNode;
+        final long deadline;
+        final double[][] weights = new double[3][];
+        final double[] scales = new double[3];
+        boolean truncated;
+
+        // Great-circle km to target per node, NaN until computed
+        final double[] km;
+
+        int labelCount;
+        int[] node = new int[256];
+        int[] previous = new int[256];
+        int[] edge = new int[256];
+        boolean[] dead = new boolean[256];
+        final double[][] totals = {new double[256], new double[256], new double[256]};
+        final double[][] keys = {new double[256], new double[256], new double[256]};
+
+        // Non-dominated labels per node
+        final int[][] bags;
+        final int[] bagSize;
+
+        int heapSize;
+        int[] heap = new int[256];
+
+        Search(ConnectionGraph.Snapshot graph, int target, int maxLabelsPerNode, long deadline) {
+            this.graph = graph;
+            this.target = target;
+            this.maxLabelsPerNode = maxLabelsPerNode;
+            this.deadline = deadline;
+            RouteWeight[] criteria = {RouteWeight.COST, RouteWeight.TIME, RouteWeight.DISTANCE};
+            for (int c = 0; c < 3; c++) {
+                weights[c] = graph.weights(criteria[c]);
+                scales[c] = graph.heuristicScale(criteria[c]);
+            }
+            km = new double[graph.nodeCount];
+            Arrays.fill(km, Double.NaN);
+            bags = new int[graph.nodeCount][];
+            bagSize = new int[graph.nodeCount];
+        }
+
+        void run(int source) {
+            offer(source, -1, -1, 0, 0, 0);
+            int popped = 0;
+            while (heapSize > 0) {
+                if (++popped % CLOCK_CHECK_INTERVAL == 0 && System.nanoTime() > deadline) {
+                    truncated = true;
+                    return;
+                }
+                int label = pop();
+                if (dead[label]) {
+                    continue;
+                }
+                int at = node[label];
+                if (at == target) {
+                    continue;
+                }
+                for (int i = graph.outOffsets[at]; i < graph.outOffsets[at + 1]; i++) {
+                    int e = graph.outEdges[i];
+                    double cost = weights[COST][e];
+                    double time = weights[TIME][e];
+                    double distance = weights[DISTANCE][e];
+                    if (Double.isNaN(cost) || Double.isNaN(time) || Double.isNaN(distance)) {
+                        continue;
+                    }
+                    offer(graph.targets[e], label, e, totals[COST][label] + cost, totals[TIME][label] + time,
+                            totals[DISTANCE][label] + distance);
+                }
+            }
+        }
+
+        private void offer(int at, int from, int viaEdge, double cost, double time, double distance) {
+            double toTarget = kmToTarget(at);
+            double keyCost = cost + scales[COST] * toTarget;
+            double keyTime = time + scales[TIME] * toTarget;
+            double keyDistance = distance + scales[DISTANCE] * toTarget;
+            // Can't beat a route already found, even with no further cost
+            if (coveredBy(target, keyCost, keyTime, keyDistance)) {
+                return;
+            }
+            if (coveredBy(at, cost, time, distance)) {
+                return;
+            }
+            int evicted = evictDominated(at, cost, time, distance);
+            if (evicted == 0 && bagSize[at] == maxLabelsPerNode) {
+                truncated = true;
+                return;
+            }
+            int label = newLabel(at, from, viaEdge, cost, time, distance, keyCost, keyTime, keyDistance);
+            if (bags[at] == null) {
+                bags[at] = new int[Math.min(4, maxLabelsPerNode)];
+            } else if (bagSize[at] == bags[at].length) {
+                bags[at] = Arrays.copyOf(bags[at], Math.min(bags[at].length * 2, maxLabelsPerNode));
+            }
+            bags[at][bagSize[at]++] = label;
+            push(label);
+        }
+
+        // Whether a label at the node is at least as good on all three
+        private boolean coveredBy(int at, double cost, double time, double distance) {
+            for (int i = 0; i < bagSize[at]; i++) {
+                int l = bags[at][i];
+                if (totals[COST][l] <= cost && totals[TIME][l] <= time && totals[DISTANCE][l] <= distance) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int evictDominated(int at, double cost, double time, double distance) {
+            int kept = 0;
+            for (int i = 0; i < bagSize[at]; i++) {
+                int l = bags[at][i];
+                if (cost <= totals[COST][l] && time <= totals[TIME][l] && distance <= totals[DISTANCE][l]) {
+                    dead[l] = true;
+                } else {
+                    bags[at][kept++] = l;
+                }
+            }
+            int evicted = bagSize[at] - kept;
+            bagSize[at] = kept;
+            return evicted;
+        }
+
+        private double kmToTarget(int at) {
+            if (Double.isNaN(km[at])) {
+                double distance = graph.greatCircleKm(at, target);
+                km[at] = Double.isNaN(distance) ? 0 : distance;
+            }
+            return km[at];
+        }
+
+        private int newLabel(int at, int from, int viaEdge, double cost, double time, double distance,
+                             double keyCost, double keyTime, double keyDistance) {
+            if (labelCount == node.length) {
+                int capacity = labelCount * 2;
+                node = Arrays.copyOf(node, capacity);
+                previous = Arrays.copyOf(previous, capacity);
+                edge = Arrays.copyOf(edge, capacity);
+                dead = Arrays.copyOf(dead, capacity);
+                for (int c = 0; c < 3; c++) {
+                    totals[c] = Arrays.copyOf(totals[c], capacity);
+                    keys[c] = Arrays.copyOf(keys[c], capacity);
+                }
+            }
+            int label = labelCount++;
+            node[label] = at;
+            previous[label] = from;
+            edge[label] = viaEdge;
+            totals[COST][label] = cost;
+            totals[TIME][label] = time;
+            totals[DISTANCE][label] = distance;
+            keys[COST][label] = keyCost;
+            keys[TIME][label] = keyTime;
+            keys[DISTANCE][label] = keyDistance;
+            return label;
+        }
+
+        // Binary min-heap of labels in lexicographic key order; evicted labels stay until popped
+        private boolean before(int a, int b) {
+            for (int c = 0; c < 3; c++) {
+                if (keys[c][a] != keys[c][b]) {
+                    return keys[c][a] < keys[c][b];
+                }
+            }
+            return false;
+        }
+
+        private void push(int label) {
+            if (heapSize == heap.length) {
+                heap = Arrays.copyOf(heap, heapSize * 2);
+            }
+            int slot = heapSize++;
+            while (slot > 0) {
+                int parent = (slot - 1) >>> 1;
+                if (!before(label, heap[parent])) {
+                    break;
+                }
+                heap[slot] = heap[parent];
+                slot = parent;
+            }
+            heap[slot] = label;
+        }
+
+        private int pop() {
+            int top = heap[0];
+            int last = heap[--heapSize];
+            int slot = 0;
+            while (true) {
+                int child = 2 * slot + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && before(heap[child + 1], heap[child])) {
+                    child++;
+                }
+                if (!before(heap[child], last)) {
+                    break;
+                }
+                heap[slot] = heap[child];
+                slot = child;
+            }
+            if (heapSize > 0) {
+                heap[slot] = last;
+            }
+            return top;
+        }
+    }
+}
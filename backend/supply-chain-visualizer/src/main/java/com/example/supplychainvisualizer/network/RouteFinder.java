@@ -0,0 +1,440 @@
+package com.example.supplychainvisualizer.network;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Least-weight routes over a {@link ConnectionGraph.Snapshot} by A*, guided by
+ * the great-circle distance to the destination scaled so it never overestimates
+ * (see the snapshot's heuristic scale); with no usable scale it is Dijkstra.
+ * <p>
+ * A search touches only primitive arrays: an indexed binary heap with
+ * decrease-key and per-node distance, parent edge and heuristic, all held in
+ * per-thread scratch that grows with the graph and is reset by bumping a
+ * generation stamp rather than clearing it.
+ */
+@Component
+public class RouteFinder {
+
+    /**
+     * A route as the connections it takes, in order, and their total weight.
+     * No connections when source and destination are the same node.
+     */
+    public record Route(List<ConnectionGraph.Edge> edges, double weight) {
+    }
+
+    /*
+     * The reverse tree for alternatives stops once it has settled every node
+     * within this factor of the best route's weight, which covers the spur
+     * nodes of all but far worse routes.
+     */
+    private static final double TREE_STRETCH = 1.5;
+
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * The least-weight route between two nodes over active connections, empty
+     * when the destination can't be reached or either node isn't in the graph.
+     */
+    public Optional<Route> shortest(ConnectionGraph.Snapshot graph, long sourceId, long targetId, RouteWeight weight) {
+        int source = graph.nodeIndex(sourceId);
+        int target = graph.nodeIndex(targetId);
+        if (source == ConnectionGraph.Snapshot.MISSING || target == ConnectionGraph.Snapshot.MISSING) {
+            return Optional.empty();
+        }
+        Scratch s = scratch.get();
+        s.blocking = false;
+        double total = search(graph, source, target, graph.weights(weight), graph.heuristicScale(weight), null, s);
+        if (Double.isInfinite(total)) {
+            return Optional.empty();
+        }
+        List<ConnectionGraph.Edge> edges = new ArrayList<>();
+        for (int node = target; node != source; node = graph.sources[s.parent[node]]) {
+            edges.add(graph.edge(s.parent[node]));
+        }
+        Collections.reverse(edges);
+        return Optional.of(new Route(edges, total));
+    }
+
+    /**
+     * Up to {@code k} loopless routes between two nodes over active connections,
+     * least weight first (Yen's algorithm with Lawler's deviation pruning).
+     * <p>
+     * One reverse shortest-path tree from the destination serves every
+     * iteration. Its distances stay lower bounds however many connections a
+     * spur search blocks, so each spur search is A* guided by them, and a spur
+     * node whose tree path avoids everything blocked takes that path without
+     * searching at all. The tree only grows a little past the source: nodes it
+     * didn't settle are at least as far from the destination as the last one
+     * it did, which still makes a consistent bound.
+     */
+    public List<Route> alternatives(ConnectionGraph.Snapshot graph, long sourceId, long targetId, RouteWeight weight,
+                                    int k) {
+        int source = graph.nodeIndex(sourceId);
+        int target = graph.nodeIndex(targetId);
+        List<Route> routes = new ArrayList<>();
+        if (k < 1 || source == ConnectionGraph.Snapshot.MISSING || target == ConnectionGraph.Snapshot.MISSING) {
+            return routes;
+        }
+        double[] weights = graph.weights(weight);
+        double scale = graph.heuristicScale(weight);
+        Scratch s = scratch.get();
+        s.blocking = false;
+        double[] toTarget = new double[graph.nodeCount];
+        int[] towardTarget = new int[graph.nodeCount];
+        reverseTree(graph, source, target, weights, s, toTarget, towardTarget);
+        if (towardTarget[source] == -1 && source != target) {
+            return routes;
+        }
+
+        List<Path> accepted = new ArrayList<>();
+        PriorityQueue<Path> candidates = new PriorityQueue<>((a, b) -> Double.compare(a.weight, b.weight));
+        Set<Path> found = new HashSet<>();
+        Path first = new Path(treePath(graph, source, target, towardTarget), toTarget[source], 0);
+        candidates.add(first);
+        found.add(first);
+        while (accepted.size() < k && !candidates.isEmpty()) {
+            Path path = candidates.poll();
+            accepted.add(path);
+            if (accepted.size() == k) {
+                break;
+            }
+            // Deviations before path.deviation were already tried from the route it branched off
+            double rootWeight = 0;
+            for (int i = 0; i < path.deviation; i++) {
+                rootWeight += weights[path.edges[i]];
+            }
+            for (int i = path.deviation; i < path.edges.length; i++) {
+                int spur = graph.sources[path.edges[i]];
+                s.clearBlocks(graph.nodeCount, graph.edgeCount);
+                for (int j = 0; j < i; j++) {
+                    s.blockedNode[graph.sources[path.edges[j]]] = s.blockStamp;
+                }
+                for (Path other : accepted) {
+                    if (other.edges.length > i && Arrays.equals(other.edges, 0, i, path.edges, 0, i)) {
+                        s.blockedEdge[other.edges[i]] = s.blockStamp;
+                    }
+                }
+                int[] spurEdges = spurPath(graph, spur, target, weights, scale, toTarget, towardTarget, s);
+                if (spurEdges != null) {
+                    int[] edges = Arrays.copyOf(path.edges, i + spurEdges.length);
+                    System.arraycopy(spurEdges, 0, edges, i, spurEdges.length);
+                    double total = rootWeight;
+                    for (int edge : spurEdges) {
+                        total += weights[edge];
+                    }
+                    Path candidate = new Path(edges, total, i);
+                    if (found.add(candidate)) {
+                        candidates.add(candidate);
+                    }
+                }
+                rootWeight += weights[path.edges[i]];
+            }
+        }
+        for (Path path : accepted) {
+            List<ConnectionGraph.Edge> edges = new ArrayList<>(path.edges.length);
+            for (int edge : path.edges) {
+                edges.add(graph.edge(edge));
+            }
+            routes.add(new Route(edges, path.weight));
+        }
+        return routes;
+    }
+
+    // Edge indexes from spur to target avoiding the blocked nodes and edges, null when there is no way
+    private int[] spurPath(ConnectionGraph.Snapshot graph, int spur, int target, double[] weights, double scale,
+                           double[] toTarget, int[] towardTarget, Scratch s) {
+        if (Double.isInfinite(toTarget[spur])) {
+            return null;
+        }
+        boolean treeUsable = true;
+        for (int node = spur; node != target && treeUsable; ) {
+            int edge = towardTarget[node];
+            treeUsable = edge != -1
+                    && s.blockedEdge[edge] != s.blockStamp && s.blockedNode[graph.targets[edge]] != s.blockStamp;
+            node = treeUsable ? graph.targets[edge] : node;
+        }
+        if (treeUsable) {
+            return treePath(graph, spur, target, towardTarget);
+        }
+        s.blocking = true;
+        try {
+            if (Double.isInfinite(search(graph, spur, target, weights, scale, toTarget, s))) {
+                return null;
+            }
+        } finally {
+            s.blocking = false;
+        }
+        int length = 0;
+        for (int node = target; node != spur; node = graph.sources[s.parent[node]]) {
+            length++;
+        }
+        int[] edges = new int[length];
+        for (int node = target; node != spur; node = graph.sources[s.parent[node]]) {
+            edges[--length] = s.parent[node];
+        }
+        return edges;
+    }
+
+    private static int[] treePath(ConnectionGraph.Snapshot graph, int from, int target, int[] towardTarget) {
+        int length = 0;
+        for (int node = from; node != target; node = graph.targets[towardTarget[node]]) {
+            length++;
+        }
+        int[] edges = new int[length];
+        int i = 0;
+        for (int node = from; node != target; node = graph.targets[towardTarget[node]]) {
+            edges[i++] = towardTarget[node];
+        }
+        return edges;
+    }
+
+    /*
+     * Dijkstra backwards from target over incoming edges until it has settled
+     * every node within TREE_STRETCH of source's distance. For a settled node
+     * toTarget[n] is the least weight from n to target and towardTarget[n] the
+     * first edge of that route; any other node gets -1 and, as its bound, the
+     * distance settled up to, or infinity when the search ran out of nodes.
+     */
+    private static void reverseTree(ConnectionGraph.Snapshot graph, int source, int target, double[] weights,
+                                    Scratch s, double[] toTarget, int[] towardTarget) {
+        s.begin(graph.nodeCount);
+        s.reach(target, 0, -1, 0);
+        double settledTo = 0;
+        double stopAt = Double.POSITIVE_INFINITY;
+        boolean stopped = false;
+        while (s.heapSize > 0) {
+            int node = s.pop();
+            s.closed[node] = s.stamp;
+            settledTo = s.distance[node];
+            if (node == source) {
+                stopAt = settledTo * TREE_STRETCH;
+            }
+            if (settledTo > stopAt) {
+                stopped = true;
+                break;
+            }
+            for (int i = graph.inOffsets[node]; i < graph.inOffsets[node + 1]; i++) {
+                int edge = graph.inEdges[i];
+                double edgeWeight = weights[edge];
+                int previous = graph.sources[edge];
+                if (Double.isNaN(edgeWeight) || s.closed[previous] == s.stamp) {
+                    continue;
+                }
+                double distance = s.distance[node] + edgeWeight;
+                if (s.seen[previous] != s.stamp) {
+                    s.reach(previous, distance, edge, 0);
+                } else if (distance < s.distance[previous]) {
+                    s.improve(previous, distance, edge);
+                }
+            }
+        }
+        double beyond = stopped ? settledTo : Double.POSITIVE_INFINITY;
+        for (int n = 0; n < graph.nodeCount; n++) {
+            boolean settled = s.closed[n] == s.stamp;
+            toTarget[n] = settled ? s.distance[n] : beyond;
+            towardTarget[n] = settled ? s.parent[n] : -1;
+        }
+    }
+
+    /*
+     * Leaves the route in s.parent; infinity when target can't be reached. The
+     * heuristic is bound[n] when given, else scale times the great-circle
+     * distance. With s.blocking, blocked nodes and edges are left out.
+     */
+    double search(ConnectionGraph.Snapshot graph, int source, int target, double[] weights, double scale,
+                  double[] bound, Scratch s) {
+        s.begin(graph.nodeCount);
+        s.reach(source, 0, -1, estimate(graph, source, target, scale, bound));
+        while (s.heapSize > 0) {
+            int node = s.pop();
+            if (node == target) {
+                return s.distance[node];
+            }
+            s.closed[node] = s.stamp;
+            for (int i = graph.outOffsets[node]; i < graph.outOffsets[node + 1]; i++) {
+                int edge = graph.outEdges[i];
+                double edgeWeight = weights[edge];
+                int next = graph.targets[edge];
+                if (Double.isNaN(edgeWeight) || s.closed[next] == s.stamp
+                        || (s.blocking && (s.blockedEdge[edge] == s.blockStamp || s.blockedNode[next] == s.blockStamp))) {
+                    continue;
+                }
+                double distance = s.distance[node] + edgeWeight;
+                if (s.seen[next] != s.stamp) {
+                    double nextEstimate = estimate(graph, next, target, scale, bound);
+                    if (Double.isInfinite(nextEstimate)) {
+                        continue;
+                    }
+                    s.reach(next, distance, edge, nextEstimate);
+                } else if (distance < s.distance[next]) {
+                    s.improve(next, distance, edge);
+                }
+            }
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    // Both estimates are consistent, so the larger is too
+    private static double estimate(ConnectionGraph.Snapshot graph, int node, int target, double scale, double[] bound) {
+        double estimate = 0;
+        if (scale > 0) {
+            double km = graph.greatCircleKm(node, target);
+            estimate = Double.isNaN(km) ? 0 : scale * km;
+        }
+        return bound == null ? estimate : Math.max(estimate, bound[node]);
+    }
+
+    // A route in edge indexes; equal when it takes the same edges
+    private record Path(int[] edges, double weight, int deviation) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Path other && Arrays.equals(edges, other.edges);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(edges);
+        }
+    }
+
+    /**
+     * Search state for one thread. A node's entries are valid only while its
+     * {@code seen} stamp matches the current one; likewise nodes and edges are
+     * blocked only while their stamp matches {@code blockStamp}.
+     */
+    static final class Scratch {
+        int stamp;
+        int[] seen = new int[0];
+        int[] closed = new int[0];
+        double[] distance = new double[0];
+        double[] estimate = new double[0];
+        int[] parent = new int[0];
+
+        // Binary min-heap of nodes keyed by distance + estimate; position[node] is its slot
+        int heapSize;
+        int[] heap = new int[0];
+        double[] key = new double[0];
+        int[] position = new int[0];
+
+        boolean blocking;
+        int blockStamp;
+        int[] blockedNode = new int[0];
+        int[] blockedEdge = new int[0];
+
+        void begin(int nodeCount) {
+            if (seen.length < nodeCount) {
+                int capacity = Math.max(nodeCount, seen.length * 2);
+                seen = new int[capacity];
+                closed = new int[capacity];
+                distance = new double[capacity];
+                estimate = new double[capacity];
+                parent = new int[capacity];
+                heap = new int[capacity];
+                key = new double[capacity];
+                position = new int[capacity];
+                stamp = 0;
+            }
+            if (++stamp == Integer.MAX_VALUE) {
+                Arrays.fill(seen, 0);
+                Arrays.fill(closed, 0);
+                stamp = 1;
+            }
+            heapSize = 0;
+        }
+
+        void clearBlocks(int nodeCount, int edgeCount) {
+            if (blockedNode.length < nodeCount || blockedEdge.length < edgeCount) {
+                blockedNode = new int[Math.max(nodeCount, blockedNode.length)];
+                blockedEdge = new int[Math.max(edgeCount, blockedEdge.length)];
+                blockStamp = 0;
+            }
+            if (++blockStamp == Integer.MAX_VALUE) {
+                Arrays.fill(blockedNode, 0);
+                Arrays.fill(blockedEdge, 0);
+                blockStamp = 1;
+            }
+        }
+
+        void reach(int node, double nodeDistance, int edge, double nodeEstimate) {
+            seen[node] = stamp;
+            distance[node] = nodeDistance;
+            estimate[node] = nodeEstimate;
+            parent[node] = edge;
+            heap[heapSize] = node;
+            key[heapSize] = nodeDistance + nodeEstimate;
+            position[node] = heapSize;
+            up(heapSize++);
+        }
+
+        void improve(int node, double nodeDistance, int edge) {
+            distance[node] = nodeDistance;
+            parent[node] = edge;
+            int slot = position[node];
+            key[slot] = nodeDistance + estimate[node];
+            up(slot);
+        }
+
+        int pop() {
+            int top = heap[0];
+            heapSize--;
+            if (heapSize > 0) {
+                move(heapSize, 0);
+                down(0);
+            }
+            return top;
+        }
+
+        private void up(int slot) {
+            int node = heap[slot];
+            double nodeKey = key[slot];
+            while (slot > 0) {
+                int parentSlot = (slot - 1) >>> 1;
+                if (key[parentSlot] <= nodeKey) {
+                    break;
+                }
+                move(parentSlot, slot);
+                slot = parentSlot;
+            }
+            place(node, nodeKey, slot);
+        }
+
+        private void down(int slot) {
+            int node = heap[slot];
+            double nodeKey = key[slot];
+            while (true) {
+                int child = 2 * slot + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && key[child + 1] < key[child]) {
+                    child++;
+                }
+                if (key[child] >= nodeKey) {
+                    break;
+                }
+                move(child, slot);
+                slot = child;
+            }
+            place(node, nodeKey, slot);
+        }
+
+        private void move(int from, int to) {
+            place(heap[from], key[from], to);
+        }
+
+        private void place(int node, double nodeKey, int slot) {
+            heap[slot] = node;
+            key[slot] = nodeKey;
+            position[node] = slot;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.supplychainvisualizer.network;
+
+import java.util.Locale;
+
+/**
+ * What a route minimizes: the sum of its connections' cost per unit, travel
+ * time or distance.
+ */
+public enum RouteWeight {
+    COST,
+    TIME,
+    DISTANCE;
+
+    /**
+     * The weight named case-insensitively, or null for an unknown name.
+     */
+    public static RouteWeight parse(String name) {
+        for (RouteWeight weight : values()) {
+            if (weight.name().equals(name.toUpperCase(Locale.ROOT))) {
+                return weight;
+            }
+        }
+        return null;
+    }
+}
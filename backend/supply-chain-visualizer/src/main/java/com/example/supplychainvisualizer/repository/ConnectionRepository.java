@@ -2,7 +2,9 @@ package com.example.supplychainvisualizer.repository;
 
 import com.example.supplychainvisualizer.model.Connection;
 import com.example.supplychainvisualizer.model.Node;
+import com.example.supplychainvisualizer.repository.projection.ConnectionRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,4 +15,10 @@ public interface ConnectionRepository extends JpaRepository<Connection, Long> {
     List<Connection> findByTarget(Node target);
     List<Connection> findBySourceAndTarget(Node source, Node target);
     List<Connection> findByStatus(String status);
+
+    // Loads the connection graph in one query, ordered so each node's edges come out by id
+    @Query("SELECT c.id AS id, c.source.id AS sourceId, c.target.id AS targetId, " +
+           "c.transportationType AS transportationType, c.distance AS distance, c.travelTime AS travelTime, " +
+           "c.costPerUnit AS costPerUnit, c.status AS status FROM Connection c ORDER BY c.id")
+    List<ConnectionRow> findAllRows();
 }
\ No newline at end of file
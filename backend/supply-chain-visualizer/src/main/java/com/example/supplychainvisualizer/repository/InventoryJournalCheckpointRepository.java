@@ -0,0 +1,9 @@
+package com.example.supplychainvisualizer.repository;
+
+import com.example.supplychainvisualizer.model.InventoryJournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface InventoryJournalCheckpointRepository extends JpaRepository<InventoryJournalCheckpoint, Integer> {
+}
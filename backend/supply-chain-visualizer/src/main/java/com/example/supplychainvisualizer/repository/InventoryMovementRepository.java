@@ -0,0 +1,36 @@
+package com.example.supplychainvisualizer.repository;
+
+import com.example.supplychainvisualizer.model.InventoryMovement;
+import com.example.supplychainvisualizer.repository.projection.MovementTotalRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface InventoryMovementRepository extends JpaRepository<InventoryMovement, Long> {
+
+    // Both read a range of idx_inventory_movements_node_product between the snapshot's
+    // last movement and the first one the ledger has yet to write
+    @Query("SELECT m.productId AS productId, SUM(m.delta) AS delta, COUNT(m) AS movements " +
+           "FROM InventoryMovement m WHERE m.nodeId = :nodeId AND m.id > :afterId AND m.id < :beforeId " +
+           "AND m.movedAt <= :at " +
+           "GROUP BY m.productId")
+    List<MovementTotalRow> sumByProductBetween(@Param("nodeId") Long nodeId,
+                                               @Param("afterId") Long afterId,
+                                               @Param("beforeId") Long beforeId,
+                                               @Param("at") LocalDateTime at);
+
+    @Query("SELECT m.productId AS productId, SUM(m.delta) AS delta, COUNT(m) AS movements " +
+           "FROM InventoryMovement m WHERE m.nodeId = :nodeId AND m.productId = :productId " +
+           "AND m.id > :afterId AND m.id < :beforeId AND m.movedAt <= :at " +
+           "GROUP BY m.productId")
+    List<MovementTotalRow> sumForProductBetween(@Param("nodeId") Long nodeId,
+                                                @Param("productId") Long productId,
+                                                @Param("afterId") Long afterId,
+                                                @Param("beforeId") Long beforeId,
+                                                @Param("at") LocalDateTime at);
+}
@@ -3,21 +3,39 @@ package com.example.supplychainvisualizer.repository;
 import com.example.supplychainvisualizer.model.Inventory;
 import com.example.supplychainvisualizer.model.Node;
 import com.example.supplychainvisualizer.model.Product;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface InventoryRepository extends JpaRepository<Inventory, Long> {
+    // Listings load node and product in the same query rather than one select each
+    @Override
+    @EntityGraph(attributePaths = {"node", "product"})
+    List<Inventory> findAll();
+
+    @EntityGraph(attributePaths = {"node", "product"})
     List<Inventory> findByNode(Node node);
     
+    @EntityGraph(attributePaths = {"node", "product"})
     List<Inventory> findByProduct(Product product);
     
     Optional<Inventory> findByNodeAndProduct(Node node, Product product);
+
+    @EntityGraph(attributePaths = {"node", "product"})
+    Optional<Inventory> findByNodeIdAndProductId(Long nodeId, Long productId);
+
+    // Reads back rows created in bulk, by the ids found for their (node, product) pairs
+    @EntityGraph(attributePaths = {"node", "product"})
+    List<Inventory> findByIdIn(Collection<Long> ids);
     
-    @Query("SELECT i FROM Inventory i WHERE i.quantity <= i.minThreshold AND i.minThreshold IS NOT NULL")
+    // Ad-hoc reads of the table; served on Postgres by the partial index idx_inventory_low_stock (V11)
+    @EntityGraph(attributePaths = {"node", "product"})
+    @Query("SELECT i FROM Inventory i WHERE i.minThreshold IS NOT NULL AND i.quantity <= i.minThreshold")
     List<Inventory> findLowStock();
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.example.supplychainvisualizer.repository;
+
+import com.example.supplychainvisualizer.model.InventoryReservation;
+import com.example.supplychainvisualizer.repository.projection.ReservedQuantityRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface InventoryReservationRepository extends JpaRepository<InventoryReservation, Long> {
+
+    @Query("SELECT r.node.id AS nodeId, r.product.id AS productId, SUM(r.quantity) AS quantity " +
+           "FROM InventoryReservation r WHERE r.status = 'held' " +
+           "GROUP BY r.node.id, r.product.id")
+    List<ReservedQuantityRow> sumHeldByNodeAndProduct();
+
+    List<InventoryReservation> findByStatusAndExpiresAtLessThanEqual(String status, LocalDateTime expiresAt);
+
+    /**
+     * Moves a held reservation to {@code status}. Returns 0 when it is no longer
+     * held, so of two callers finishing the same reservation only one succeeds.
+     */
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE InventoryReservation r SET r.status = :status, r.updatedAt = :now " +
+           "WHERE r.id = :id AND r.status = 'held'")
+    int finishHeld(@Param("id") Long id, @Param("status") String status, @Param("now") LocalDateTime now);
+}
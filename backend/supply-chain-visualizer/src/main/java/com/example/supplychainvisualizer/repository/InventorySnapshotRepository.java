@@ -0,0 +1,16 @@
+package com.example.supplychainvisualizer.repository;
+
+import com.example.supplychainvisualizer.model.InventorySnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface InventorySnapshotRepository extends JpaRepository<InventorySnapshot, Long> {
+
+    Optional<InventorySnapshot> findFirstByTakenAtLessThanEqualOrderByLastMovementIdDesc(LocalDateTime at);
+
+    Optional<InventorySnapshot> findFirstByOrderByLastMovementIdAsc();
+}
@@ -0,0 +1,15 @@
+package com.example.supplychainvisualizer.repository;
+
+import com.example.supplychainvisualizer.model.InventorySnapshotRow;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface InventorySnapshotRowRepository extends JpaRepository<InventorySnapshotRow, Long> {
+
+    List<InventorySnapshotRow> findBySnapshotIdAndNodeId(Long snapshotId, Long nodeId);
+
+    List<InventorySnapshotRow> findBySnapshotIdAndNodeIdAndProductId(Long snapshotId, Long nodeId, Long productId);
+}
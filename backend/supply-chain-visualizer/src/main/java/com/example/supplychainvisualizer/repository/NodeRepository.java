@@ -1,7 +1,9 @@
 package com.example.supplychainvisualizer.repository;
 
 import com.example.supplychainvisualizer.model.Node;
+import com.example.supplychainvisualizer.repository.projection.NodeRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,4 +12,8 @@ import java.util.List;
 public interface NodeRepository extends JpaRepository<Node, Long> {
     List<Node> findByStatus(String status);
     List<Node> findByType(String type);
+
+    @Query("SELECT n.id AS id, n.type AS type, n.status AS status, n.latitude AS latitude, " +
+           "n.longitude AS longitude FROM Node n ORDER BY n.id")
+    List<NodeRow> findAllRows();
 }
\ No newline at end of file
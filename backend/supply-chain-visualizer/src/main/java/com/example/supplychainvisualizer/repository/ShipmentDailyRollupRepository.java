@@ -0,0 +1,58 @@
+package com.example.supplychainvisualizer.repository;
+
+import com.example.supplychainvisualizer.model.ShipmentDailyRollup;
+import com.example.supplychainvisualizer.repository.projection.DailyStatsRow;
+import com.example.supplychainvisualizer.repository.projection.LaneStatsRow;
+import com.example.supplychainvisualizer.repository.projection.SegmentStatsRow;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ShipmentDailyRollupRepository extends JpaRepository<ShipmentDailyRollup, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM ShipmentDailyRollup r WHERE r.day = :day " +
+           "AND r.sourceId = :sourceId AND r.destinationId = :destinationId " +
+           "AND r.sourceType = :sourceType AND r.destinationType = :destinationType")
+    Optional<ShipmentDailyRollup> findForUpdate(
+            @Param("day") LocalDate day,
+            @Param("sourceId") Long sourceId,
+            @Param("destinationId") Long destinationId,
+            @Param("sourceType") String sourceType,
+            @Param("destinationType") String destinationType);
+
+    @Query("SELECT r.sourceId AS sourceId, r.destinationId AS destinationId, " +
+           "SUM(r.shipments) AS shipments, SUM(r.delayed) AS delayed, " +
+           "SUM(r.delivered) AS delivered, SUM(r.onTime) AS onTime, " +
+           "SUM(r.leadTimeCount) AS leadTimeCount, SUM(r.leadTimeDaysSum) AS leadTimeDaysSum, " +
+           "SUM(r.segmentCount) AS segmentCount, SUM(r.targetDaysSum) AS targetDaysSum, " +
+           "SUM(r.actualDaysSum) AS actualDaysSum " +
+           "FROM ShipmentDailyRollup r WHERE r.day BETWEEN :from AND :to " +
+           "GROUP BY r.sourceId, r.destinationId")
+    List<LaneStatsRow> summarizeLanesBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT r.sourceType AS sourceType, r.destinationType AS destinationType, " +
+           "SUM(r.segmentCount) AS delivered, SUM(r.onTime) AS onTime, " +
+           "SUM(r.targetDaysSum) AS targetDaysSum, SUM(r.actualDaysSum) AS actualDaysSum " +
+           "FROM ShipmentDailyRollup r WHERE r.day BETWEEN :from AND :to " +
+           "GROUP BY r.sourceType, r.destinationType " +
+           "HAVING SUM(r.segmentCount) > 0")
+    List<SegmentStatsRow> summarizeSegmentsBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT r.day AS day, SUM(r.shipments) AS shipments, SUM(r.delayed) AS delayed, " +
+           "SUM(r.delivered) AS delivered, SUM(r.onTime) AS onTime, " +
+           "SUM(r.leadTimeCount) AS leadTimeCount, SUM(r.leadTimeDaysSum) AS leadTimeDaysSum " +
+           "FROM ShipmentDailyRollup r WHERE r.day BETWEEN :from AND :to " +
+           "GROUP BY r.day ORDER BY r.day")
+    List<DailyStatsRow> summarizeDaysBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    List<ShipmentDailyRollup> findByDayBetweenAndLeadTimeCountGreaterThan(LocalDate from, LocalDate to, long leadTimeCount);
+}
@@ -3,13 +3,29 @@ package com.example.supplychainvisualizer.repository;
 import com.example.supplychainvisualizer.model.Product;
 import com.example.supplychainvisualizer.model.Shipment;
 import com.example.supplychainvisualizer.model.ShipmentItem;
+import com.example.supplychainvisualizer.repository.projection.InboundItemRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ShipmentItemRepository extends JpaRepository<ShipmentItem, Long> {
     List<ShipmentItem> findByShipment(Shipment shipment);
     List<ShipmentItem> findByProduct(Product product);
-}
\ No newline at end of file
+
+    String INBOUND_ITEM_SELECT =
+           "SELECT s.id AS shipmentId, s.destination.id AS destinationId, s.estimatedArrival AS estimatedArrival, " +
+           "i.product.id AS productId, i.quantity AS quantity " +
+           "FROM ShipmentItem i JOIN i.shipment s ";
+
+    /** Items of every shipment whose lower-cased status is in {@code statuses}. */
+    @Query(INBOUND_ITEM_SELECT + "WHERE LOWER(s.status) IN :statuses")
+    List<InboundItemRow> findItemsByShipmentStatus(@Param("statuses") Collection<String> statuses);
+
+    @Query(INBOUND_ITEM_SELECT + "WHERE s.id IN :shipmentIds")
+    List<InboundItemRow> findItemsByShipmentIds(@Param("shipmentIds") Collection<Long> shipmentIds);
+}
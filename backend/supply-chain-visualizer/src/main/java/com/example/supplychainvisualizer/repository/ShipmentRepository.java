@@ -1,27 +1,113 @@
 package com.example.supplychainvisualizer.repository;
 
-import com.example.supplychainvisualizer.model.Node;
+import com.example.supplychainvisualizer.analytics.ShipmentSnapshot;
 import com.example.supplychainvisualizer.model.Shipment;
+import com.example.supplychainvisualizer.repository.projection.LaneStatsRow;
+import com.example.supplychainvisualizer.repository.projection.LeadTimeCountRow;
+import com.example.supplychainvisualizer.repository.projection.SegmentStatsRow;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface ShipmentRepository extends JpaRepository<Shipment, Long> {
-    List<Shipment> findBySource(Node source);
-    List<Shipment> findByDestination(Node destination);
-    List<Shipment> findByStatus(String status);
-    
-    @Query("SELECT s FROM Shipment s WHERE " +
-           "(:dateType = 'departure' AND s.departureDate BETWEEN :startDate AND :endDate) OR " +
-           "(:dateType = 'estimated' AND s.estimatedArrival BETWEEN :startDate AND :endDate) OR " +
-           "(:dateType = 'actual' AND s.actualArrival BETWEEN :startDate AND :endDate)")
-    List<Shipment> findByDateRange(
-            @Param("startDate") LocalDate startDate,
-            @Param("endDate") LocalDate endDate,
-            @Param("dateType") String dateType);
-}
\ No newline at end of file
+public interface ShipmentRepository extends JpaRepository<Shipment, Long>, JpaSpecificationExecutor<Shipment> {
+
+    /**
+     * Loads the items and their products of the given shipments in one query. Called
+     * within the transaction that loaded the shipments, it fills in their item
+     * collections so mapping a page of shipments doesn't select items per shipment.
+     */
+    @Query("SELECT s FROM Shipment s LEFT JOIN FETCH s.items i LEFT JOIN FETCH i.product WHERE s.id IN :ids")
+    List<Shipment> fetchItems(@Param("ids") Collection<Long> ids);
+
+    // Day spans use HQL duration arithmetic ("by day") so the same query runs on Postgres and H2
+    String LANE_STATS_SELECT =
+           "SELECT s.source.id AS sourceId, s.destination.id AS destinationId, " +
+           "COUNT(s) AS shipments, " +
+           "SUM(CASE WHEN LOWER(s.status) = 'delayed' THEN 1 ELSE 0 END) AS delayed, " +
+           "SUM(CASE WHEN LOWER(s.status) = 'delivered' THEN 1 ELSE 0 END) AS delivered, " +
+           "SUM(CASE WHEN LOWER(s.status) = 'delivered' AND s.actualArrival <= s.estimatedArrival " +
+           "    THEN 1 ELSE 0 END) AS onTime, " +
+           "SUM(CASE WHEN LOWER(s.status) = 'delivered' AND s.departureDate IS NOT NULL " +
+           "    AND s.actualArrival IS NOT NULL THEN 1 ELSE 0 END) AS leadTimeCount, " +
+           "SUM(CASE WHEN LOWER(s.status) = 'delivered' AND s.departureDate IS NOT NULL " +
+           "    AND s.actualArrival IS NOT NULL " +
+           "    THEN (s.actualArrival - s.departureDate) BY DAY ELSE 0 END) AS leadTimeDaysSum, " +
+           "SUM(CASE WHEN LOWER(s.status) = 'delivered' AND s.departureDate IS NOT NULL " +
+           "    AND s.estimatedArrival IS NOT NULL AND s.actualArrival IS NOT NULL " +
+           "    THEN 1 ELSE 0 END) AS segmentCount, " +
+           "SUM(CASE WHEN LOWER(s.status) = 'delivered' AND s.departureDate IS NOT NULL " +
+           "    AND s.estimatedArrival IS NOT NULL AND s.actualArrival IS NOT NULL " +
+           "    THEN (s.estimatedArrival - s.departureDate) BY DAY ELSE 0 END) AS targetDaysSum, " +
+           "SUM(CASE WHEN LOWER(s.status) = 'delivered' AND s.departureDate IS NOT NULL " +
+           "    AND s.estimatedArrival IS NOT NULL AND s.actualArrival IS NOT NULL " +
+           "    THEN (s.actualArrival - s.departureDate) BY DAY ELSE 0 END) AS actualDaysSum ";
+
+    String LEAD_TIME_COUNTS_SELECT =
+           "SELECT s.source.id AS sourceId, s.destination.id AS destinationId, " +
+           "(s.actualArrival - s.departureDate) BY DAY AS leadTimeDays, COUNT(s) AS shipments ";
+
+    String DELIVERED_WITH_LEAD_TIME =
+           "LOWER(s.status) = 'delivered' AND s.departureDate IS NOT NULL AND s.actualArrival IS NOT NULL ";
+
+    String GROUP_BY_LANE_AND_LEAD_TIME =
+           "GROUP BY s.source.id, s.destination.id, (s.actualArrival - s.departureDate) BY DAY";
+
+    // Matches shipments carrying the product through the shipment_items (product_id, shipment_id) index
+    String CARRIES_PRODUCT =
+           "s.id IN (SELECT i.shipment.id FROM ShipmentItem i WHERE i.product.id = :productId) ";
+
+    @Query(LANE_STATS_SELECT +
+           "FROM Shipment s " +
+           "GROUP BY s.source.id, s.destination.id")
+    List<LaneStatsRow> summarizeLanes();
+
+    @Query("SELECT src.type AS sourceType, dst.type AS destinationType, " +
+           "COUNT(s) AS delivered, " +
+           "SUM(CASE WHEN s.actualArrival <= s.estimatedArrival THEN 1 ELSE 0 END) AS onTime, " +
+           "SUM((s.estimatedArrival - s.departureDate) BY DAY) AS targetDaysSum, " +
+           "SUM((s.actualArrival - s.departureDate) BY DAY) AS actualDaysSum " +
+           "FROM Shipment s JOIN s.source src JOIN s.destination dst " +
+           "WHERE LOWER(s.status) = 'delivered' AND s.departureDate IS NOT NULL " +
+           "AND s.estimatedArrival IS NOT NULL AND s.actualArrival IS NOT NULL " +
+           "GROUP BY src.type, dst.type")
+    List<SegmentStatsRow> summarizeSegments();
+
+    @Query(LEAD_TIME_COUNTS_SELECT +
+           "FROM Shipment s " +
+           "WHERE " + DELIVERED_WITH_LEAD_TIME +
+           GROUP_BY_LANE_AND_LEAD_TIME)
+    List<LeadTimeCountRow> countLeadTimesByLane();
+
+    /** Same as {@link #summarizeLanes()} over the shipments carrying {@code productId}. */
+    @Query(LANE_STATS_SELECT +
+           "FROM Shipment s " +
+           "WHERE " + CARRIES_PRODUCT +
+           "GROUP BY s.source.id, s.destination.id")
+    List<LaneStatsRow> summarizeLanesForProduct(@Param("productId") Long productId);
+
+    /** Same as {@link #countLeadTimesByLane()} over the shipments carrying {@code productId}. */
+    @Query(LEAD_TIME_COUNTS_SELECT +
+           "FROM Shipment s " +
+           "WHERE " + DELIVERED_WITH_LEAD_TIME + "AND " + CARRIES_PRODUCT +
+           GROUP_BY_LANE_AND_LEAD_TIME)
+    List<LeadTimeCountRow> countLeadTimesByLaneForProduct(@Param("productId") Long productId);
+
+    String SNAPSHOT_SELECT =
+           "SELECT new com.example.supplychainvisualizer.analytics.ShipmentSnapshot(" +
+           "s.id, src.id, dst.id, src.type, dst.type, s.status, " +
+           "s.departureDate, s.estimatedArrival, s.actualArrival, CAST(s.createdAt AS LocalDate)) " +
+           "FROM Shipment s JOIN s.source src JOIN s.destination dst ";
+
+    @Query(SNAPSHOT_SELECT)
+    List<ShipmentSnapshot> findAllSnapshots();
+
+    /** Snapshots of every shipment whose lower-cased status is in {@code statuses}. */
+    @Query(SNAPSHOT_SELECT + "WHERE LOWER(s.status) IN :statuses")
+    List<ShipmentSnapshot> findSnapshotsByStatus(@Param("statuses") Collection<String> statuses);
+}
@@ -0,0 +1,106 @@
+package com.example.supplychainvisualizer.repository;
+
+import com.example.supplychainvisualizer.dto.ShipmentFilter;
+import com.example.supplychainvisualizer.model.Shipment;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria for shipment listings: the filters of a {@link ShipmentFilter} and
+ * keyset conditions that continue a listing after a given row. Each keyset
+ * condition matches the sort it is paired with, so the next page is an index
+ * range scan rather than an offset that re-reads every earlier row.
+ */
+public final class ShipmentSpecifications {
+
+    public static final Sort BY_ID = Sort.by("id");
+
+    private ShipmentSpecifications() {
+    }
+
+    /**
+     * Shipments matching every filter that is set; {@code dateAttribute} is the
+     * entity attribute the date range applies to.
+     */
+    public static Specification<Shipment> matching(ShipmentFilter filter, String dateAttribute) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), filter.getStatus()));
+            }
+            if (filter.getSourceId() != null) {
+                predicates.add(cb.equal(root.get("source").get("id"), filter.getSourceId()));
+            }
+            if (filter.getDestinationId() != null) {
+                predicates.add(cb.equal(root.get("destination").get("id"), filter.getDestinationId()));
+            }
+            Path<LocalDate> date = root.get(dateAttribute);
+            if (filter.getStartDate() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(date, filter.getStartDate()));
+            }
+            if (filter.getEndDate() != null) {
+                predicates.add(cb.lessThanOrEqualTo(date, filter.getEndDate()));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Orders by departure date, then id, with unscheduled shipments (no departure
+     * date) last. Applied as part of the criteria query rather than as a {@link Sort}
+     * because Spring Data cannot pass null precedence through to Hibernate; query with
+     * an unsorted {@link Sort} so this ordering is kept.
+     */
+    public static Specification<Shipment> orderedByDeparture() {
+        return (root, query, cb) -> {
+            HibernateCriteriaBuilder hcb = (HibernateCriteriaBuilder) cb;
+            query.orderBy(hcb.asc(root.get("departureDate"), false), hcb.asc(root.get("id")));
+            return null;
+        };
+    }
+
+    /**
+     * Loads each shipment's source and destination nodes in the listing query itself
+     * instead of one select per node afterwards. Count queries are left alone, since
+     * they cannot fetch.
+     */
+    public static Specification<Shipment> withEndpoints() {
+        return (root, query, cb) -> {
+            if (query.getResultType() != Long.class && query.getResultType() != long.class) {
+                root.fetch("source");
+                root.fetch("destination");
+            }
+            return null;
+        };
+    }
+
+    /** Rows after {@code id} in {@link #BY_ID} order. */
+    public static Specification<Shipment> afterId(long id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
+    /**
+     * Rows after ({@code departureDate}, {@code id}) in {@link #orderedByDeparture()} order;
+     * a {@code null} date means the cursor is already among the unscheduled rows.
+     */
+    public static Specification<Shipment> afterDeparture(LocalDate departureDate, long id) {
+        return (root, query, cb) -> {
+            Path<LocalDate> date = root.get("departureDate");
+            Path<Long> rowId = root.get("id");
+            if (departureDate == null) {
+                return cb.and(cb.isNull(date), cb.greaterThan(rowId, id));
+            }
+            return cb.or(
+                    cb.greaterThan(date, departureDate),
+                    cb.and(cb.equal(date, departureDate), cb.greaterThan(rowId, id)),
+                    cb.isNull(date));
+        };
+    }
+}
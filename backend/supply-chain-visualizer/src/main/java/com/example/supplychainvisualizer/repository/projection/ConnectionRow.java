@@ -0,0 +1,15 @@
+package com.example.supplychainvisualizer.repository.projection;
+
+/**
+ * A connection with its endpoints as ids, read without loading the nodes.
+ */
+public interface ConnectionRow {
+    Long getId();
+    Long getSourceId();
+    Long getTargetId();
+    String getTransportationType();
+    Double getDistance();
+    Integer getTravelTime();
+    Double getCostPerUnit();
+    String getStatus();
+}
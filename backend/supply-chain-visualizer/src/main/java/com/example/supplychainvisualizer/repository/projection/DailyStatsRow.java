@@ -0,0 +1,16 @@
+package com.example.supplychainvisualizer.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Network-wide shipment counters for one rollup day.
+ */
+public interface DailyStatsRow {
+    LocalDate getDay();
+    Long getShipments();
+    Long getDelayed();
+    Long getDelivered();
+    Long getOnTime();
+    Long getLeadTimeCount();
+    Long getLeadTimeDaysSum();
+}
@@ -0,0 +1,14 @@
+package com.example.supplychainvisualizer.repository.projection;
+
+import java.time.LocalDate;
+
+/**
+ * One item of a shipment on its way to its destination node.
+ */
+public interface InboundItemRow {
+    Long getShipmentId();
+    Long getDestinationId();
+    LocalDate getEstimatedArrival();
+    Long getProductId();
+    Integer getQuantity();
+}
@@ -0,0 +1,19 @@
+package com.example.supplychainvisualizer.repository.projection;
+
+/**
+ * One source → destination lane aggregated in SQL. Day sums are the
+ * departure-to-arrival spans of the shipments counted alongside them.
+ */
+public interface LaneStatsRow {
+    Long getSourceId();
+    Long getDestinationId();
+    Long getShipments();
+    Long getDelayed();
+    Long getDelivered();
+    Long getOnTime();
+    Long getLeadTimeCount();
+    Long getLeadTimeDaysSum();
+    Long getSegmentCount();
+    Long getTargetDaysSum();
+    Long getActualDaysSum();
+}
@@ -0,0 +1,12 @@
+package com.example.supplychainvisualizer.repository.projection;
+
+/**
+ * Number of delivered shipments on one lane that took exactly
+ * {@code leadTimeDays} from departure to actual arrival.
+ */
+public interface LeadTimeCountRow {
+    Long getSourceId();
+    Long getDestinationId();
+    Long getLeadTimeDays();
+    Long getShipments();
+}
@@ -0,0 +1,10 @@
+package com.example.supplychainvisualizer.repository.projection;
+
+/**
+ * Net quantity change of a product at a node over a range of movements, and how many there were.
+ */
+public interface MovementTotalRow {
+    Long getProductId();
+    Long getDelta();
+    Long getMovements();
+}
@@ -0,0 +1,12 @@
+package com.example.supplychainvisualizer.repository.projection;
+
+/**
+ * What the connection graph keeps of a node: where it is and what it is.
+ */
+public interface NodeRow {
+    Long getId();
+    String getType();
+    String getStatus();
+    Double getLatitude();
+    Double getLongitude();
+}
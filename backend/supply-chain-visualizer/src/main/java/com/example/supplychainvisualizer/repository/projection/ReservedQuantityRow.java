@@ -0,0 +1,10 @@
+package com.example.supplychainvisualizer.repository.projection;
+
+/**
+ * Total quantity of a product held by reservations at a node.
+ */
+public interface ReservedQuantityRow {
+    Long getNodeId();
+    Long getProductId();
+    Long getQuantity();
+}
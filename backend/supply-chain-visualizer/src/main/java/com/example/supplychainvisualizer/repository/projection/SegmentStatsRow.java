@@ -0,0 +1,14 @@
+package com.example.supplychainvisualizer.repository.projection;
+
+/**
+ * Delivered shipments with complete dates, aggregated in SQL per
+ * source-type → destination-type segment.
+ */
+public interface SegmentStatsRow {
+    String getSourceType();
+    String getDestinationType();
+    Long getDelivered();
+    Long getOnTime();
+    Long getTargetDaysSum();
+    Long getActualDaysSum();
+}
@@ -1,7 +1,45 @@
 package com.example.supplychainvisualizer.service;
 
 import com.example.supplychainvisualizer.dto.AnalyticsSummaryDto;
+import com.example.supplychainvisualizer.dto.LaneDriftDto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
 
 public interface AnalyticsService {
+    /**
+     * Identifies the analytics state summaries are computed from; it changes
+     * after every write that can change a summary.
+     */
+    String getSummaryVersionTag();
+
     AnalyticsSummaryDto getSummary();
+
+    /**
+     * Summary over shipments departing within [from, to] (either end may be
+     * open), with a series bucketed by {@code granularity}: day, week or month.
+     */
+    AnalyticsSummaryDto getSummary(LocalDate from, LocalDate to, String granularity);
+
+    /** Summary over shipments leaving {@code nodeId}; empty if there is no such node. */
+    Optional<AnalyticsSummaryDto> getSummaryBySource(Long nodeId);
+
+    /** Summary over shipments arriving at {@code nodeId}; empty if there is no such node. */
+    Optional<AnalyticsSummaryDto> getSummaryByDestination(Long nodeId);
+
+    /** Summary over shipments carrying {@code productId}; empty if there is no such product. */
+    Optional<AnalyticsSummaryDto> getSummaryByProduct(Long productId);
+
+    /**
+     * Lanes whose recent lead time has drifted from their baseline, as tracked
+     * from deliveries since startup; largest deviation first.
+     */
+    List<LaneDriftDto> getLeadTimeDrift();
+
+    /**
+     * Rebuilds the running aggregates and daily rollups from the shipments
+     * table and returns whether the live aggregates already matched it.
+     */
+    boolean rebuildAggregates();
 }
@@ -0,0 +1,22 @@
+package com.example.supplychainvisualizer.service;
+
+import com.example.supplychainvisualizer.dto.DisruptionImpactDto;
+import com.example.supplychainvisualizer.dto.NodeCriticalityDto;
+
+import java.util.List;
+
+public interface DisruptionService {
+    /**
+     * Nodes cut off from every factory and open shipments whose lanes break
+     * if the given nodes and connections fail.
+     *
+     * @throws com.example.supplychainvisualizer.exception.BadRequestException for an unknown node or connection
+     */
+    DisruptionImpactDto analyze(List<Long> nodeIds, List<Long> connectionIds);
+
+    /**
+     * Every node whose failure alone would cut another node off from supply,
+     * most damaging first, at most {@code limit} of them when given.
+     */
+    List<NodeCriticalityDto> rankCriticalNodes(Integer limit);
+}
@@ -0,0 +1,18 @@
+package com.example.supplychainvisualizer.service;
+
+import com.example.supplychainvisualizer.dto.InventoryHistoryDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface InventoryHistoryService {
+    /**
+     * Quantity of every product at a node, or of one product when
+     * {@code productId} is given, as of {@code at}. Products the node held
+     * none of and had no movements of by then are left out.
+     *
+     * @throws com.example.supplychainvisualizer.exception.BadRequestException if {@code at}
+     *         is in the future or before the inventory history starts
+     */
+    List<InventoryHistoryDto> getStockAt(Long nodeId, Long productId, LocalDateTime at);
+}
@@ -0,0 +1,21 @@
+package com.example.supplychainvisualizer.service;
+
+import com.example.supplychainvisualizer.dto.InventoryImportResultDto;
+
+import java.io.Reader;
+
+public interface InventoryImportService {
+    /**
+     * Sets inventory quantities from CSV with a header row naming the columns
+     * {@code nodeId}, {@code productId}, {@code quantity} and optionally
+     * {@code minThreshold} and {@code maxThreshold}. Rows are read and applied
+     * in chunks, so memory use doesn't grow with the size of the import.
+     *
+     * @throws com.example.supplychainvisualizer.exception.BadRequestException if the header lacks a required column
+     */
+    InventoryImportResultDto importCsv(Reader csv);
+    /**
+     * Same as {@link #importCsv} for one JSON object per line with the same fields.
+     */
+    InventoryImportResultDto importNdjson(Reader ndjson);
+}
@@ -0,0 +1,15 @@
+package com.example.supplychainvisualizer.service;
+
+import com.example.supplychainvisualizer.dto.ProjectedInventoryDto;
+
+import java.util.List;
+
+public interface InventoryProjectionService {
+    /**
+     * Day-by-day projected stock for the next {@code days} days, starting today,
+     * across the network or only at one node and/or of one product.
+     *
+     * @throws com.example.supplychainvisualizer.exception.BadRequestException if days is out of range
+     */
+    List<ProjectedInventoryDto> getProjection(Integer days, Long nodeId, Long productId);
+}
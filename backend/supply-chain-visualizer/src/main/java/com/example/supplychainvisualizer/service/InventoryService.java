@@ -1,6 +1,7 @@
 package com.example.supplychainvisualizer.service;
 
 import com.example.supplychainvisualizer.dto.InventoryDto;
+import com.example.supplychainvisualizer.inventory.InventoryLedger;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,4 +14,14 @@ public interface InventoryService {
     List<InventoryDto> getInventoryByNode(Long nodeId);
     List<InventoryDto> getInventoryByProduct(Long productId);
     List<InventoryDto> getLowStockInventory();
+    /**
+     * Adds {@code delta} to the quantity held at a node, atomically with respect to
+     * concurrent adjustments, creating the inventory row at zero if there is none.
+     * Called inside a transaction, the adjustment is made once it commits.
+     */
+    void adjustQuantity(Long nodeId, Long productId, int delta);
+    /**
+     * Makes several adjustments as one durable change; see {@link #adjustQuantity}.
+     */
+    void adjustQuantities(List<InventoryLedger.Adjustment> adjustments);
 }
\ No newline at end of file
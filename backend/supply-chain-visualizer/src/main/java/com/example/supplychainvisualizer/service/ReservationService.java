@@ -0,0 +1,37 @@
+package com.example.supplychainvisualizer.service;
+
+import com.example.supplychainvisualizer.dto.AvailabilityDto;
+import com.example.supplychainvisualizer.dto.ReservationDto;
+
+import java.util.Optional;
+
+public interface ReservationService {
+    /**
+     * Available-to-promise for a product at a node, answered from memory.
+     */
+    AvailabilityDto getAvailability(Long nodeId, Long productId);
+    Optional<ReservationDto> getReservation(Long id);
+    /**
+     * Holds stock for the caller until the reservation is committed, released
+     * or expires.
+     *
+     * @throws com.example.supplychainvisualizer.exception.ConflictException if less is available
+     */
+    ReservationDto reserve(ReservationDto reservationDto);
+    /**
+     * Takes a held reservation's quantity out of the node's inventory.
+     *
+     * @throws com.example.supplychainvisualizer.exception.ConflictException if it is no longer held
+     */
+    Optional<ReservationDto> commit(Long id);
+    /**
+     * Returns a held reservation's quantity to the available stock.
+     *
+     * @throws com.example.supplychainvisualizer.exception.ConflictException if it is no longer held
+     */
+    Optional<ReservationDto> release(Long id);
+    /**
+     * Expires every held reservation past its expiry time and returns how many there were.
+     */
+    int expireOverdue();
+}
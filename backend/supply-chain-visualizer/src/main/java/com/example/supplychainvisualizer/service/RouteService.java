@@ -0,0 +1,35 @@
+package com.example.supplychainvisualizer.service;
+
+import com.example.supplychainvisualizer.dto.ParetoRoutesDto;
+import com.example.supplychainvisualizer.dto.RouteDto;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface RouteService {
+    /**
+     * The least-weight route from one node to another over active connections,
+     * by {@code cost} (the default), {@code time} or {@code distance}; empty when
+     * there is none.
+     *
+     * @throws com.example.supplychainvisualizer.exception.BadRequestException for an unknown node or weight
+     */
+    Optional<RouteDto> findRoute(Long sourceId, Long targetId, String weight);
+
+    /**
+     * Up to {@code k} loopless routes from one node to another over active
+     * connections, best first, by the same weights as {@link #findRoute}.
+     *
+     * @throws com.example.supplychainvisualizer.exception.BadRequestException for an unknown node or weight, or k out of range
+     */
+    List<RouteDto> findAlternatives(Long sourceId, Long targetId, String weight, Integer k);
+
+    /**
+     * Every route from one node to another over active connections that no
+     * other route beats on cost, travel time and distance at once, as far as
+     * the search budget allows.
+     *
+     * @throws com.example.supplychainvisualizer.exception.BadRequestException for an unknown node
+     */
+    ParetoRoutesDto findParetoRoutes(Long sourceId, Long targetId);
+}
@@ -1,20 +1,28 @@
 package com.example.supplychainvisualizer.service;
 
+import com.example.supplychainvisualizer.dto.ShipmentBatchResultDto;
 import com.example.supplychainvisualizer.dto.ShipmentDto;
+import com.example.supplychainvisualizer.dto.ShipmentFilter;
+import com.example.supplychainvisualizer.dto.ShipmentPageDto;
 
-import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 public interface ShipmentService {
-    List<ShipmentDto> getAllShipments();
+    /**
+     * One page of the shipments matching {@code filter}, continuing after
+     * {@code cursor} (null for the first page). {@code limit} defaults to the
+     * configured page size and may not exceed the configured maximum.
+     */
+    ShipmentPageDto getShipments(ShipmentFilter filter, String cursor, Integer limit);
     Optional<ShipmentDto> getShipmentById(Long id);
     ShipmentDto createShipment(ShipmentDto shipmentDto);
+    /**
+     * Creates every valid shipment in {@code shipmentDtos} in one transaction.
+     * Invalid rows are reported in the result rather than failing the batch.
+     */
+    ShipmentBatchResultDto createShipments(List<ShipmentDto> shipmentDtos);
     Optional<ShipmentDto> updateShipment(Long id, ShipmentDto shipmentDto);
     boolean deleteShipment(Long id);
     Optional<ShipmentDto> updateShipmentStatus(Long id, String status);
-    List<ShipmentDto> getShipmentsBySource(Long sourceId);
-    List<ShipmentDto> getShipmentsByDestination(Long destinationId);
-    List<ShipmentDto> getShipmentsByStatus(String status);
-    List<ShipmentDto> getShipmentsByDateRange(LocalDate startDate, LocalDate endDate, String dateType);
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package com.example.supplychainvisualizer.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface StockAlertService {
+    /**
+     * Opens a stream that first sends a {@code snapshot} event listing every row
+     * that isn't optimal, then one event per status change, named after the new
+     * status ({@code critical}, {@code low}, {@code optimal} or {@code excess}).
+     */
+    SseEmitter subscribe();
+}
@@ -1,101 +1,389 @@
 package com.example.supplychainvisualizer.service.impl;
 
+import com.example.supplychainvisualizer.analytics.AnalyticsAggregates;
+import com.example.supplychainvisualizer.analytics.AnalyticsVersion;
+import com.example.supplychainvisualizer.analytics.DailyRollupRecorder;
+import com.example.supplychainvisualizer.analytics.FactScan;
+import com.example.supplychainvisualizer.analytics.Granularity;
+import com.example.supplychainvisualizer.analytics.LaneAggregate;
+import com.example.supplychainvisualizer.analytics.LeadTimeDriftDetector;
+import com.example.supplychainvisualizer.analytics.LeadTimeHistogram;
+import com.example.supplychainvisualizer.analytics.ShipmentFactStore;
+import com.example.supplychainvisualizer.analytics.ShipmentWriteGate;
+import com.example.supplychainvisualizer.analytics.SummaryCache;
 import com.example.supplychainvisualizer.dto.AnalyticsSummaryDto;
-import com.example.supplychainvisualizer.model.Shipment;
+import com.example.supplychainvisualizer.dto.LaneDriftDto;
+import com.example.supplychainvisualizer.exception.BadRequestException;
+import com.example.supplychainvisualizer.model.Node;
+import com.example.supplychainvisualizer.model.ShipmentDailyRollup;
+import com.example.supplychainvisualizer.repository.NodeRepository;
+import com.example.supplychainvisualizer.repository.ProductRepository;
+import com.example.supplychainvisualizer.repository.ShipmentDailyRollupRepository;
 import com.example.supplychainvisualizer.repository.ShipmentRepository;
+import com.example.supplychainvisualizer.repository.projection.DailyStatsRow;
+import com.example.supplychainvisualizer.repository.projection.LaneStatsRow;
+import com.example.supplychainvisualizer.repository.projection.LeadTimeCountRow;
+import com.example.supplychainvisualizer.repository.projection.SegmentStatsRow;
 import com.example.supplychainvisualizer.service.AnalyticsService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
-import java.time.temporal.ChronoUnit;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class AnalyticsServiceImpl implements AnalyticsService {
 
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsServiceImpl.class);
+
+    // Open ends of a window are clamped to dates every supported database can bind
+    private static final LocalDate EARLIEST = LocalDate.of(1970, 1, 1);
+    private static final LocalDate LATEST = LocalDate.of(9999, 12, 31);
+
     @Autowired
     private ShipmentRepository shipmentRepository;
 
+    @Autowired
+    private ShipmentDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private NodeRepository nodeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private AnalyticsAggregates aggregates;
+
+    @Autowired
+    private DailyRollupRecorder rollupRecorder;
+
+    @Autowired
+    private ShipmentFactStore factStore;
+
+    @Autowired
+    private ShipmentWriteGate writeGate;
+
+    @Autowired
+    private AnalyticsVersion analyticsVersion;
+
+    @Autowired
+    private SummaryCache summaryCache;
+
+    @Autowired
+    private LeadTimeDriftDetector driftDetector;
+
+    // Splits windowed scans across the common fork/join pool. Off by default: the split has only
+    // been timed on a single core, where it costs time (see FactScanBenchmarkTest)
+    @Value("${app.analytics.parallel-scan:false}")
+    private boolean parallelScan;
+
+    // Reads and swaps with shipment commits held off, so none is lost or counted twice
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAggregates() {
+        writeGate.exclusively(() -> {
+            aggregates.rebuild(loadLanes());
+            factStore.load(shipmentRepository.findAllSnapshots());
+        });
+        analyticsVersion.bump();
+    }
+
+    @Override
+    public boolean rebuildAggregates() {
+        boolean consistent = writeGate.exclusively(() -> {
+            List<LaneAggregate> lanes = loadLanes();
+            List<LaneAggregate> live = aggregates.lanes();
+            // Cross-checks the per-segment day sums against the database's own grouping by node type
+            boolean matched = aggregates.matches(lanes)
+                    && segmentsByNodeType(live, loadLaneNodes(live))
+                            .equals(segmentsFromRows(shipmentRepository.summarizeSegments()));
+            if (!matched) {
+                logger.warn("Analytics aggregates drifted from the shipments table; rebuilding");
+            }
+            aggregates.rebuild(lanes);
+            factStore.load(shipmentRepository.findAllSnapshots());
+            rollupRecorder.rebuild();
+            return matched;
+        });
+        analyticsVersion.bump();
+        return consistent;
+    }
+
+    @Override
+    public String getSummaryVersionTag() {
+        return analyticsVersion.tag(analyticsVersion.current());
+    }
+
     @Override
     public AnalyticsSummaryDto getSummary() {
-        List<Shipment> all = shipmentRepository.findAll();
+        return summaryCache.get(SummaryCache.Key.ALL_TIME, analyticsVersion.current(),
+                () -> computeSummary(aggregates.lanes()));
+    }
 
-        List<Shipment> delivered = all.stream()
-                .filter(s -> "delivered".equalsIgnoreCase(s.getStatus()))
-                .collect(Collectors.toList());
+    @Override
+    public Optional<AnalyticsSummaryDto> getSummaryBySource(Long nodeId) {
+        if (!nodeRepository.existsById(nodeId)) {
+            return Optional.empty();
+        }
+        return Optional.of(summaryCache.get(new SummaryCache.Key("source:" + nodeId, null, null, null),
+                analyticsVersion.current(),
+                () -> computeSummary(aggregates.lanes(lane -> lane.getSourceId() == nodeId))));
+    }
 
-        List<Shipment> delayed = all.stream()
-                .filter(s -> "delayed".equalsIgnoreCase(s.getStatus()))
+    @Override
+    public Optional<AnalyticsSummaryDto> getSummaryByDestination(Long nodeId) {
+        if (!nodeRepository.existsById(nodeId)) {
+            return Optional.empty();
+        }
+        return Optional.of(summaryCache.get(new SummaryCache.Key("destination:" + nodeId, null, null, null),
+                analyticsVersion.current(),
+                () -> computeSummary(aggregates.lanes(lane -> lane.getDestinationId() == nodeId))));
+    }
+
+    @Override
+    public Optional<AnalyticsSummaryDto> getSummaryByProduct(Long productId) {
+        if (!productRepository.existsById(productId)) {
+            return Optional.empty();
+        }
+        // Lane aggregates don't know what shipments carry, so products are grouped in SQL
+        return Optional.of(summaryCache.get(new SummaryCache.Key("product:" + productId, null, null, null),
+                analyticsVersion.current(),
+                () -> computeSummary(loadLanes(shipmentRepository.summarizeLanesForProduct(productId),
+                        shipmentRepository.countLeadTimesByLaneForProduct(productId)))));
+    }
+
+    @Override
+    public AnalyticsSummaryDto getSummary(LocalDate from, LocalDate to, String granularity) {
+        LocalDate start = from == null ? EARLIEST : from;
+        LocalDate end = to == null ? LATEST : to;
+        if (start.isAfter(end)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        Granularity bucket = Granularity.parse(granularity);
+        return summaryCache.get(new SummaryCache.Key("all", start, end, bucket.name()), analyticsVersion.current(),
+                () -> computeSummary(start, end, bucket));
+    }
+
+    @Override
+    public List<LaneDriftDto> getLeadTimeDrift() {
+        List<LeadTimeDriftDetector.LaneDrift> flagged = driftDetector.flaggedLanes();
+        Set<Long> ids = new HashSet<>();
+        for (LeadTimeDriftDetector.LaneDrift drift : flagged) {
+            ids.add(drift.sourceId());
+            ids.add(drift.destinationId());
+        }
+        Map<Long, Node> nodes = ids.isEmpty() ? Map.of() : nodeRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Node::getId, Function.identity()));
+        return flagged.stream().map(drift -> {
+            LaneDriftDto dto = new LaneDriftDto();
+            dto.setSourceId(drift.sourceId());
+            dto.setDestinationId(drift.destinationId());
+            dto.setLane(nodeName(nodes, drift.sourceId()) + " → " + nodeName(nodes, drift.destinationId()));
+            dto.setSamples(drift.samples());
+            dto.setBaselineDays(round1(drift.baselineDays()));
+            dto.setStdDevDays(round1(drift.stdDevDays()));
+            dto.setRecentDays(round1(drift.recentDays()));
+            dto.setZScore(round1(drift.zScore()));
+            return dto;
+        }).collect(Collectors.toList());
+    }
+
+    private AnalyticsSummaryDto computeSummary(List<LaneAggregate> lanes) {
+        Map<Long, Node> nodes = loadLaneNodes(lanes);
+        Map<String, LeadTimeHistogram> segmentLeadTimes = new TreeMap<>();
+        for (LaneAggregate lane : lanes) {
+            mergeLeadTimes(segmentLeadTimes,
+                    segmentLabel(nodeType(nodes, lane.getSourceId()), nodeType(nodes, lane.getDestinationId())),
+                    lane.getLeadTimes());
+        }
+        return summarize(lanes, nodes, segmentsByNodeType(lanes, nodes), segmentLeadTimes);
+    }
+
+    private AnalyticsSummaryDto computeSummary(LocalDate start, LocalDate end, Granularity bucket) {
+        if (factStore.isLoaded()) {
+            ForkJoinPool pool = parallelScan ? ForkJoinPool.commonPool() : null;
+            return summarizeScan(factStore.read(facts -> FactScan.over(facts, start, end, pool)), bucket);
+        }
+
+        // Until the fact store has loaded, sum the persisted daily rollups instead
+        List<LaneAggregate> lanes = rollupRepository.summarizeLanesBetween(start, end).stream()
+                .map(LaneAggregate::of)
                 .collect(Collectors.toList());
 
-        long onTimeCount = delivered.stream()
-                .filter(s -> s.getActualArrival() != null && s.getEstimatedArrival() != null
-                        && !s.getActualArrival().isAfter(s.getEstimatedArrival()))
-                .count();
+        // Histograms don't sum in SQL; merge the per-day ones of the rows in the window instead
+        Map<LaneKey, LaneAggregate> lanesByKey = new HashMap<>();
+        for (LaneAggregate lane : lanes) {
+            lanesByKey.put(new LaneKey(lane.getSourceId(), lane.getDestinationId()), lane);
+        }
+        Map<String, LeadTimeHistogram> segmentLeadTimes = new TreeMap<>();
+        for (ShipmentDailyRollup row : rollupRepository.findByDayBetweenAndLeadTimeCountGreaterThan(start, end, 0)) {
+            LeadTimeHistogram leadTimes = LeadTimeHistogram.fromBytes(row.getLeadTimeHistogram());
+            LaneAggregate lane = lanesByKey.get(new LaneKey(row.getSourceId(), row.getDestinationId()));
+            if (lane != null) {
+                lane.getLeadTimes().merge(leadTimes);
+            }
+            mergeLeadTimes(segmentLeadTimes, segmentLabel(row.getSourceType(), row.getDestinationType()), leadTimes);
+        }
 
-        double onTimeRate = delivered.isEmpty() ? 0
-                : round1((double) onTimeCount / delivered.size() * 100);
+        // Segments use the node types recorded on the rollup rows rather than today's node types
+        AnalyticsSummaryDto dto = summarize(lanes, loadLaneNodes(lanes),
+                segmentsFromRows(rollupRepository.summarizeSegmentsBetween(start, end)), segmentLeadTimes);
+        Map<LocalDate, long[]> days = new TreeMap<>();
+        for (DailyStatsRow day : rollupRepository.summarizeDaysBetween(start, end)) {
+            days.put(day.getDay(), new long[]{day.getShipments(), day.getDelayed(), day.getDelivered(),
+                    day.getOnTime(), day.getLeadTimeCount(), day.getLeadTimeDaysSum()});
+        }
+        dto.setSeries(computeSeries(days, bucket));
+        return dto;
+    }
 
-        OptionalDouble avgLeadTimeOpt = delivered.stream()
-                .filter(s -> s.getActualArrival() != null && s.getDepartureDate() != null)
-                .mapToLong(s -> ChronoUnit.DAYS.between(s.getDepartureDate(), s.getActualArrival()))
-                .average();
+    private AnalyticsSummaryDto summarizeScan(FactScan scan, Granularity bucket) {
+        Map<String, SegmentTotals> segments = new TreeMap<>();
+        Map<String, LeadTimeHistogram> segmentLeadTimes = new TreeMap<>();
+        for (FactScan.Segment segment : scan.getSegments()) {
+            String label = segmentLabel(segment.sourceType(), segment.destinationType());
+            LaneAggregate totals = segment.totals();
+            if (totals.getSegmentCount() > 0) {
+                segments.merge(label,
+                        new SegmentTotals(totals.getSegmentCount(), totals.getTargetDaysSum(), totals.getActualDaysSum()),
+                        SegmentTotals::plus);
+            }
+            mergeLeadTimes(segmentLeadTimes, label, totals.getLeadTimes());
+        }
 
-        double exceptionRate = all.isEmpty() ? 0
-                : round1((double) delayed.size() / all.size() * 100);
+        List<LaneAggregate> lanes = scan.getLanes();
+        AnalyticsSummaryDto dto = summarize(lanes, loadLaneNodes(lanes), segments, segmentLeadTimes);
+        Map<LocalDate, long[]> days = new TreeMap<>();
+        scan.getDays().forEach((day, totals) -> days.put(day, new long[]{totals.getShipments(), totals.getDelayed(),
+                totals.getDelivered(), totals.getOnTime(), totals.getLeadTimeCount(), totals.getLeadTimeDaysSum()}));
+        dto.setSeries(computeSeries(days, bucket));
+        return dto;
+    }
 
-        List<AnalyticsSummaryDto.LaneSlaDto> slaByLane = computeSlaByLane(delivered);
-        List<AnalyticsSummaryDto.SegmentLeadTimeDto> leadTimeBySegment = computeLeadTimeBySegment(delivered);
+    private AnalyticsSummaryDto summarize(List<LaneAggregate> lanes, Map<Long, Node> nodes,
+                                          Map<String, SegmentTotals> segments,
+                                          Map<String, LeadTimeHistogram> segmentLeadTimes) {
+        long total = 0, delayed = 0, delivered = 0, onTime = 0, leadTimeCount = 0, leadTimeSum = 0;
+        LeadTimeHistogram leadTimes = new LeadTimeHistogram();
+        for (LaneAggregate lane : lanes) {
+            leadTimes.merge(lane.getLeadTimes());
+            total += lane.getShipments();
+            delayed += lane.getDelayed();
+            delivered += lane.getDelivered();
+            onTime += lane.getOnTime();
+            leadTimeCount += lane.getLeadTimeCount();
+            leadTimeSum += lane.getLeadTimeDaysSum();
+        }
 
         AnalyticsSummaryDto dto = new AnalyticsSummaryDto();
-        dto.setOnTimeDeliveryRate(onTimeRate);
-        dto.setAvgLeadTimeDays(round1(avgLeadTimeOpt.orElse(0)));
-        dto.setExceptionRate(exceptionRate);
-        dto.setTotalShipments(all.size());
-        dto.setDeliveredShipments(delivered.size());
-        dto.setSlaByLane(slaByLane);
-        dto.setLeadTimeBySegment(leadTimeBySegment);
+        dto.setOnTimeDeliveryRate(percent(onTime, delivered));
+        dto.setAvgLeadTimeDays(leadTimeCount == 0 ? 0 : round1((double) leadTimeSum / leadTimeCount));
+        dto.setExceptionRate(percent(delayed, total));
+        dto.setTotalShipments((int) total);
+        dto.setDeliveredShipments((int) delivered);
+        dto.setSlaByLane(computeSlaByLane(lanes, nodes));
+        dto.setLeadTimeBySegment(computeLeadTimeBySegment(segments));
+        dto.setLeadTimePercentiles(percentiles("All lanes", leadTimes));
+        dto.setLeadTimePercentilesByLane(lanes.stream()
+                .filter(lane -> lane.getLeadTimes().getCount() > 0)
+                .map(lane -> percentiles(
+                        nodeName(nodes, lane.getSourceId()) + " → " + nodeName(nodes, lane.getDestinationId()),
+                        lane.getLeadTimes()))
+                .sorted(Comparator.comparing(AnalyticsSummaryDto.LeadTimePercentilesDto::getLabel))
+                .collect(Collectors.toList()));
+        dto.setLeadTimePercentilesBySegment(segmentLeadTimes.entrySet().stream()
+                .filter(e -> e.getValue().getCount() > 0)
+                .map(e -> percentiles(e.getKey(), e.getValue()))
+                .collect(Collectors.toList()));
         return dto;
     }
 
-    private List<AnalyticsSummaryDto.LaneSlaDto> computeSlaByLane(List<Shipment> delivered) {
-        Map<String, long[]> laneMap = new LinkedHashMap<>();
-        for (Shipment s : delivered) {
-            String lane = s.getSource().getName() + " → " + s.getDestination().getName();
-            laneMap.computeIfAbsent(lane, k -> new long[]{0, 0});
-            laneMap.get(lane)[0]++;
-            if (s.getActualArrival() != null && s.getEstimatedArrival() != null
-                    && !s.getActualArrival().isAfter(s.getEstimatedArrival())) {
-                laneMap.get(lane)[1]++;
+    private List<LaneAggregate> loadLanes() {
+        return loadLanes(shipmentRepository.summarizeLanes(), shipmentRepository.countLeadTimesByLane());
+    }
+
+    private static List<LaneAggregate> loadLanes(List<LaneStatsRow> laneRows, List<LeadTimeCountRow> leadTimeRows) {
+        Map<LaneKey, LaneAggregate> lanes = new HashMap<>();
+        laneRows.forEach(row ->
+                lanes.put(new LaneKey(row.getSourceId(), row.getDestinationId()), LaneAggregate.of(row)));
+        for (LeadTimeCountRow row : leadTimeRows) {
+            LaneAggregate lane = lanes.get(new LaneKey(row.getSourceId(), row.getDestinationId()));
+            if (lane != null) {
+                lane.getLeadTimes().add(row.getLeadTimeDays(), row.getShipments());
             }
         }
-        return laneMap.entrySet().stream()
-                .map(e -> {
-                    double rate = e.getValue()[0] == 0 ? 0
-                            : round1((double) e.getValue()[1] / e.getValue()[0] * 100);
-                    return new AnalyticsSummaryDto.LaneSlaDto(e.getKey(), rate);
+        return new ArrayList<>(lanes.values());
+    }
+
+    private record LaneKey(long sourceId, long destinationId) {
+    }
+
+    private record SegmentTotals(long count, long targetDaysSum, long actualDaysSum) {
+        SegmentTotals plus(SegmentTotals other) {
+            return new SegmentTotals(count + other.count,
+                    targetDaysSum + other.targetDaysSum, actualDaysSum + other.actualDaysSum);
+        }
+    }
+
+    private Map<String, SegmentTotals> segmentsByNodeType(List<LaneAggregate> lanes, Map<Long, Node> nodes) {
+        Map<String, SegmentTotals> segments = new TreeMap<>();
+        for (LaneAggregate lane : lanes) {
+            if (lane.getSegmentCount() > 0) {
+                segments.merge(segmentLabel(nodeType(nodes, lane.getSourceId()), nodeType(nodes, lane.getDestinationId())),
+                        new SegmentTotals(lane.getSegmentCount(), lane.getTargetDaysSum(), lane.getActualDaysSum()),
+                        SegmentTotals::plus);
+            }
+        }
+        return segments;
+    }
+
+    private Map<String, SegmentTotals> segmentsFromRows(List<SegmentStatsRow> rows) {
+        Map<String, SegmentTotals> segments = new TreeMap<>();
+        for (SegmentStatsRow row : rows) {
+            segments.merge(segmentLabel(row.getSourceType(), row.getDestinationType()),
+                    new SegmentTotals(row.getDelivered(), row.getTargetDaysSum(), row.getActualDaysSum()),
+                    SegmentTotals::plus);
+        }
+        return segments;
+    }
+
+    private Map<Long, Node> loadLaneNodes(List<LaneAggregate> lanes) {
+        Set<Long> ids = new HashSet<>();
+        for (LaneAggregate lane : lanes) {
+            ids.add(lane.getSourceId());
+            ids.add(lane.getDestinationId());
+        }
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return nodeRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Node::getId, Function.identity()));
+    }
+
+    private List<AnalyticsSummaryDto.LaneSlaDto> computeSlaByLane(List<LaneAggregate> lanes, Map<Long, Node> nodes) {
+        return lanes.stream()
+                .filter(lane -> lane.getDelivered() > 0)
+                .map(lane -> {
+                    String name = nodeName(nodes, lane.getSourceId()) + " → " + nodeName(nodes, lane.getDestinationId());
+                    return new AnalyticsSummaryDto.LaneSlaDto(name, percent(lane.getOnTime(), lane.getDelivered()));
                 })
+                .sorted(Comparator.comparing(AnalyticsSummaryDto.LaneSlaDto::getLane))
                 .collect(Collectors.toList());
     }
 
-    private List<AnalyticsSummaryDto.SegmentLeadTimeDto> computeLeadTimeBySegment(List<Shipment> delivered) {
-        Map<String, List<long[]>> segmentMap = new LinkedHashMap<>();
-        for (Shipment s : delivered) {
-            if (s.getDepartureDate() == null || s.getEstimatedArrival() == null || s.getActualArrival() == null) {
-                continue;
-            }
-            String srcType = capitalize(s.getSource().getType());
-            String dstType = capitalize(s.getDestination().getType());
-            String segment = srcType + " → " + dstType;
-            long target = ChronoUnit.DAYS.between(s.getDepartureDate(), s.getEstimatedArrival());
-            long actual = ChronoUnit.DAYS.between(s.getDepartureDate(), s.getActualArrival());
-            segmentMap.computeIfAbsent(segment, k -> new ArrayList<>()).add(new long[]{target, actual});
-        }
-        return segmentMap.entrySet().stream()
+    private List<AnalyticsSummaryDto.SegmentLeadTimeDto> computeLeadTimeBySegment(Map<String, SegmentTotals> segments) {
+        return segments.entrySet().stream()
                 .map(e -> {
-                    double avgTarget = e.getValue().stream().mapToLong(a -> a[0]).average().orElse(0);
-                    double avgActual = e.getValue().stream().mapToLong(a -> a[1]).average().orElse(0);
+                    double avgTarget = (double) e.getValue().targetDaysSum() / e.getValue().count();
+                    double avgActual = (double) e.getValue().actualDaysSum() / e.getValue().count();
                     double variance = avgActual - avgTarget;
                     String varianceStr = (variance >= 0 ? "+" : "") + String.format("%.1f", variance);
                     return new AnalyticsSummaryDto.SegmentLeadTimeDto(
@@ -104,6 +392,53 @@ public class AnalyticsServiceImpl implements AnalyticsService {
                 .collect(Collectors.toList());
     }
 
+    // days and periods map to {shipments, delayed, delivered, onTime, leadTimeCount, leadTimeDaysSum}
+    private List<AnalyticsSummaryDto.PeriodDto> computeSeries(Map<LocalDate, long[]> days, Granularity granularity) {
+        Map<LocalDate, long[]> periods = new TreeMap<>();
+        days.forEach((day, counters) -> {
+            long[] acc = periods.computeIfAbsent(granularity.bucketStart(day), k -> new long[6]);
+            for (int i = 0; i < acc.length; i++) {
+                acc[i] += counters[i];
+            }
+        });
+        return periods.entrySet().stream()
+                .map(e -> {
+                    long[] acc = e.getValue();
+                    return new AnalyticsSummaryDto.PeriodDto(e.getKey(), acc[0], acc[2],
+                            percent(acc[3], acc[2]),
+                            acc[4] == 0 ? 0 : round1((double) acc[5] / acc[4]),
+                            percent(acc[1], acc[0]));
+                })
+                .collect(Collectors.toList());
+    }
+
+    private static void mergeLeadTimes(Map<String, LeadTimeHistogram> target, String label, LeadTimeHistogram leadTimes) {
+        target.computeIfAbsent(label, k -> new LeadTimeHistogram()).merge(leadTimes);
+    }
+
+    private static AnalyticsSummaryDto.LeadTimePercentilesDto percentiles(String label, LeadTimeHistogram leadTimes) {
+        return new AnalyticsSummaryDto.LeadTimePercentilesDto(label, leadTimes.getCount(),
+                leadTimes.valueAtPercentile(50), leadTimes.valueAtPercentile(90), leadTimes.valueAtPercentile(99));
+    }
+
+    private static String segmentLabel(String sourceType, String destinationType) {
+        return capitalize(sourceType) + " → " + capitalize(destinationType);
+    }
+
+    private static String nodeName(Map<Long, Node> nodes, long id) {
+        Node node = nodes.get(id);
+        return node == null ? "Node " + id : node.getName();
+    }
+
+    private static String nodeType(Map<Long, Node> nodes, long id) {
+        Node node = nodes.get(id);
+        return node == null ? "unknown" : node.getType();
+    }
+
+    private static double percent(long part, long whole) {
+        return whole == 0 ? 0 : round1((double) part / whole * 100);
+    }
+
     private static double round1(double v) {
         return Math.round(v * 10.0) / 10.0;
     }
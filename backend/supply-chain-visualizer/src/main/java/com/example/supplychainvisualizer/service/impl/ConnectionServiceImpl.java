@@ -1,53 +1,119 @@
 package com.example.supplychainvisualizer.service.impl;
 
 import com.example.supplychainvisualizer.dto.ConnectionDto;
+import com.example.supplychainvisualizer.exception.BadRequestException;
+import com.example.supplychainvisualizer.model.Connection;
+import com.example.supplychainvisualizer.model.Node;
+import com.example.supplychainvisualizer.network.ConnectionGraph;
+import com.example.supplychainvisualizer.repository.ConnectionRepository;
+import com.example.supplychainvisualizer.repository.NodeRepository;
 import com.example.supplychainvisualizer.service.ConnectionService;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
 @Service
 public class ConnectionServiceImpl implements ConnectionService {
 
+    @Autowired
+    private ConnectionRepository connectionRepository;
+
+    @Autowired
+    private NodeRepository nodeRepository;
+
+    // Reads are answered from the in-memory graph; writes go to the table, then the graph
+    @Autowired
+    private ConnectionGraph connectionGraph;
+
     @Override
     public List<ConnectionDto> getAllConnections() {
-        return new ArrayList<>();
+        return toDtos(connectionGraph.snapshot().all());
     }
 
     @Override
     public Optional<ConnectionDto> getConnectionById(Long id) {
-        return Optional.empty();
+        return connectionGraph.snapshot().byId(id).map(this::convertToDto);
     }
 
     @Override
     public ConnectionDto createConnection(ConnectionDto connectionDto) {
-        return connectionDto;
+        Connection connection = new Connection();
+        copyToEntity(connectionDto, connection);
+        Connection savedConnection = connectionRepository.save(connection);
+        connectionGraph.put(toEdge(savedConnection));
+        return convertToDto(toEdge(savedConnection));
     }
 
     @Override
     public Optional<ConnectionDto> updateConnection(Long id, ConnectionDto connectionDto) {
-        return Optional.empty();
+        return connectionRepository.findById(id).map(existingConnection -> {
+            copyToEntity(connectionDto, existingConnection);
+            Connection updatedConnection = connectionRepository.save(existingConnection);
+            connectionGraph.put(toEdge(updatedConnection));
+            return convertToDto(toEdge(updatedConnection));
+        });
     }
 
     @Override
     public boolean deleteConnection(Long id) {
-        return false;
+        return connectionRepository.findById(id).map(connection -> {
+            connectionRepository.delete(connection);
+            connectionGraph.remove(id);
+            return true;
+        }).orElse(false);
     }
 
     @Override
     public List<ConnectionDto> getConnectionsBySource(Long sourceId) {
-        return new ArrayList<>();
+        return toDtos(connectionGraph.snapshot().outgoing(sourceId));
     }
 
     @Override
     public List<ConnectionDto> getConnectionsByTarget(Long targetId) {
-        return new ArrayList<>();
+        return toDtos(connectionGraph.snapshot().incoming(targetId));
     }
 
     @Override
     public List<ConnectionDto> getConnectionsBySourceAndTarget(Long sourceId, Long targetId) {
-        return new ArrayList<>();
+        return toDtos(connectionGraph.snapshot().between(sourceId, targetId));
+    }
+
+    private void copyToEntity(ConnectionDto connectionDto, Connection connection) {
+        Node source = nodeRepository.findById(connectionDto.getSourceId())
+                .orElseThrow(() -> new BadRequestException("Unknown node " + connectionDto.getSourceId()));
+        Node target = nodeRepository.findById(connectionDto.getTargetId())
+                .orElseThrow(() -> new BadRequestException("Unknown node " + connectionDto.getTargetId()));
+        connection.setSource(source);
+        connection.setTarget(target);
+        connection.setTransportationType(connectionDto.getTransportationType());
+        connection.setDistance(connectionDto.getDistance());
+        connection.setTravelTime(connectionDto.getTravelTime());
+        connection.setCostPerUnit(connectionDto.getCostPerUnit());
+        connection.setStatus(connectionDto.getStatus() == null ? "active" : connectionDto.getStatus());
+    }
+
+    private static ConnectionGraph.Edge toEdge(Connection connection) {
+        return new ConnectionGraph.Edge(connection.getId(), connection.getSource().getId(),
+                connection.getTarget().getId(), connection.getTransportationType(), connection.getDistance(),
+                connection.getTravelTime(), connection.getCostPerUnit(), connection.getStatus());
+    }
+
+    private List<ConnectionDto> toDtos(List<ConnectionGraph.Edge> edges) {
+        return edges.stream().map(this::convertToDto).toList();
+    }
+
+    private ConnectionDto convertToDto(ConnectionGraph.Edge edge) {
+        ConnectionDto connectionDto = new ConnectionDto();
+        connectionDto.setId(edge.id());
+        connectionDto.setSourceId(edge.sourceId());
+        connectionDto.setTargetId(edge.targetId());
+        connectionDto.setTransportationType(edge.transportationType());
+        connectionDto.setDistance(edge.distance());
+        connectionDto.setTravelTime(edge.travelTime());
+        connectionDto.setCostPerUnit(edge.costPerUnit());
+        connectionDto.setStatus(edge.status());
+        return connectionDto;
     }
-}
\ No newline at end of file
+}
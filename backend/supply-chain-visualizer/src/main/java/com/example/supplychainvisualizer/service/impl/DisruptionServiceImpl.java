@@ -0,0 +1,139 @@
+package com.example.supplychainvisualizer.service.impl;
+
+import com.example.supplychainvisualizer.analytics.ShipmentSnapshot;
+import com.example.supplychainvisualizer.dto.AffectedShipmentDto;
+import com.example.supplychainvisualizer.dto.DisruptionImpactDto;
+import com.example.supplychainvisualizer.dto.NodeCriticalityDto;
+import com.example.supplychainvisualizer.dto.NodeDto;
+import com.example.supplychainvisualizer.exception.BadRequestException;
+import com.example.supplychainvisualizer.inventory.InventoryProjection;
+import com.example.supplychainvisualizer.model.Node;
+import com.example.supplychainvisualizer.network.ConnectionGraph;
+import com.example.supplychainvisualizer.network.DisruptionAnalyzer;
+import com.example.supplychainvisualizer.repository.NodeRepository;
+import com.example.supplychainvisualizer.repository.ShipmentRepository;
+import com.example.supplychainvisualizer.service.DisruptionService;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class DisruptionServiceImpl implements DisruptionService {
+
+    @Autowired
+    private ConnectionGraph connectionGraph;
+
+    @Autowired
+    private DisruptionAnalyzer disruptionAnalyzer;
+
+    @Autowired
+    private NodeRepository nodeRepository;
+
+    @Autowired
+    private ShipmentRepository shipmentRepository;
+
+    @Override
+    public DisruptionImpactDto analyze(List<Long> nodeIds, List<Long> connectionIds) {
+        ConnectionGraph.Snapshot graph = connectionGraph.snapshot();
+        Set<Long> failedNodes = new LinkedHashSet<>(nodeIds == null ? List.of() : nodeIds);
+        Set<Long> failedConnections = new LinkedHashSet<>(connectionIds == null ? List.of() : connectionIds);
+        for (Long nodeId : failedNodes) {
+            if (graph.nodeIndex(nodeId) == ConnectionGraph.Snapshot.MISSING) {
+                throw new BadRequestException("Unknown node " + nodeId);
+            }
+        }
+        for (Long connectionId : failedConnections) {
+            if (graph.byId(connectionId).isEmpty()) {
+                throw new BadRequestException("Unknown connection " + connectionId);
+            }
+        }
+
+        List<Long> disconnected = disruptionAnalyzer.disconnected(graph, failedNodes, failedConnections);
+        List<NodeDto> disconnectedNodes = new ArrayList<>(disconnected.size());
+        if (!disconnected.isEmpty()) {
+            nodeRepository.findAllById(disconnected).forEach(node -> disconnectedNodes.add(convertToDto(node)));
+        }
+
+        // Open shipments haven't arrived yet, so any of them may still need their lane
+        List<ShipmentSnapshot> open = shipmentRepository.findSnapshotsByStatus(InventoryProjection.OPEN_STATUSES);
+        long[] sourceIds = new long[open.size()];
+        long[] destinationIds = new long[open.size()];
+        for (int i = 0; i < open.size(); i++) {
+            sourceIds[i] = open.get(i).sourceId();
+            destinationIds[i] = open.get(i).destinationId();
+        }
+        boolean[] cut = disruptionAnalyzer.lanesCut(graph, failedNodes, failedConnections, sourceIds, destinationIds);
+        List<AffectedShipmentDto> affected = new ArrayList<>();
+        for (int i = 0; i < open.size(); i++) {
+            ShipmentSnapshot shipment = open.get(i);
+            String reason = failedNodes.contains(shipment.sourceId()) ? "source_failed"
+                    : failedNodes.contains(shipment.destinationId()) ? "destination_failed"
+                    : cut[i] ? "no_route"
+                    : null;
+            if (reason != null) {
+                affected.add(convertToDto(shipment, reason));
+            }
+        }
+
+        DisruptionImpactDto impactDto = new DisruptionImpactDto();
+        impactDto.setFailedNodeIds(new ArrayList<>(failedNodes));
+        impactDto.setFailedConnectionIds(new ArrayList<>(failedConnections));
+        impactDto.setDisconnectedNodes(disconnectedNodes);
+        impactDto.setAffectedShipments(affected);
+        return impactDto;
+    }
+
+    @Override
+    public List<NodeCriticalityDto> rankCriticalNodes(Integer limit) {
+        if (limit != null && limit < 1) {
+            throw new BadRequestException("limit must be at least 1");
+        }
+        List<DisruptionAnalyzer.Criticality> ranking = disruptionAnalyzer.sweep(connectionGraph.snapshot());
+        if (limit != null && ranking.size() > limit) {
+            ranking = ranking.subList(0, limit);
+        }
+        Map<Long, Node> nodes = new HashMap<>();
+        if (!ranking.isEmpty()) {
+            nodeRepository.findAllById(ranking.stream().map(DisruptionAnalyzer.Criticality::nodeId).toList())
+                    .forEach(node -> nodes.put(node.getId(), node));
+        }
+        return ranking.stream()
+                .map(criticality -> convertToDto(criticality, nodes.get(criticality.nodeId())))
+                .toList();
+    }
+
+    private NodeDto convertToDto(Node node) {
+        NodeDto nodeDto = new NodeDto();
+        BeanUtils.copyProperties(node, nodeDto);
+        return nodeDto;
+    }
+
+    private AffectedShipmentDto convertToDto(ShipmentSnapshot shipment, String reason) {
+        AffectedShipmentDto affectedDto = new AffectedShipmentDto();
+        affectedDto.setShipmentId(shipment.id());
+        affectedDto.setSourceId(shipment.sourceId());
+        affectedDto.setDestinationId(shipment.destinationId());
+        affectedDto.setStatus(shipment.status());
+        affectedDto.setEstimatedArrival(shipment.estimatedArrival());
+        affectedDto.setReason(reason);
+        return affectedDto;
+    }
+
+    private NodeCriticalityDto convertToDto(DisruptionAnalyzer.Criticality criticality, Node node) {
+        NodeCriticalityDto criticalityDto = new NodeCriticalityDto();
+        criticalityDto.setNodeId(criticality.nodeId());
+        criticalityDto.setDisconnectedCount(criticality.disconnected());
+        if (node != null) {
+            criticalityDto.setNodeName(node.getName());
+            criticalityDto.setNodeType(node.getType());
+        }
+        return criticalityDto;
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.supplychainvisualizer.service.impl;
+
+import com.example.supplychainvisualizer.dto.InventoryHistoryDto;
+import com.example.supplychainvisualizer.exception.BadRequestException;
+import com.example.supplychainvisualizer.inventory.InventoryLedger;
+import com.example.supplychainvisualizer.model.InventorySnapshot;
+import com.example.supplychainvisualizer.model.InventorySnapshotRow;
+import com.example.supplychainvisualizer.repository.InventoryMovementRepository;
+import com.example.supplychainvisualizer.repository.InventorySnapshotRepository;
+import com.example.supplychainvisualizer.repository.InventorySnapshotRowRepository;
+import com.example.supplychainvisualizer.repository.ProductRepository;
+import com.example.supplychainvisualizer.repository.projection.MovementTotalRow;
+import com.example.supplychainvisualizer.service.InventoryHistoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+public class InventoryHistoryServiceImpl implements InventoryHistoryService {
+
+    @Autowired
+    private InventorySnapshotRepository snapshotRepository;
+
+    @Autowired
+    private InventorySnapshotRowRepository snapshotRowRepository;
+
+    @Autowired
+    private InventoryMovementRepository movementRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    // Movements reach the history table when the ledger writes them; until then it holds them
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Override
+    public List<InventoryHistoryDto> getStockAt(Long nodeId, Long productId, LocalDateTime at) {
+        if (at.isAfter(LocalDateTime.now())) {
+            throw new BadRequestException("at must not be in the future");
+        }
+        return readStockAt(nodeId, productId, at);
+    }
+
+    // History is append-only, so the reads below need no shared transaction to agree. The
+    // ledger's pending movements are taken first: those written while the table is read
+    // have ids at or past the first of them, which the table reads leave out
+    private List<InventoryHistoryDto> readStockAt(Long nodeId, Long productId, LocalDateTime at) {
+        List<InventoryLedger.Movement> pending = inventoryLedger.pendingMovements(nodeId);
+        long beforeId = pending.isEmpty() ? Long.MAX_VALUE : pending.get(0).id();
+        InventorySnapshot snapshot = snapshotRepository.findFirstByTakenAtLessThanEqualOrderByLastMovementIdDesc(at)
+                .orElseThrow(() -> new BadRequestException(snapshotRepository.findFirstByOrderByLastMovementIdAsc()
+                        .map(first -> "Inventory history starts at " + first.getTakenAt())
+                        .orElse("There is no inventory history yet")));
+
+        List<InventorySnapshotRow> base = productId == null
+                ? snapshotRowRepository.findBySnapshotIdAndNodeId(snapshot.getLastMovementId(), nodeId)
+                : snapshotRowRepository.findBySnapshotIdAndNodeIdAndProductId(snapshot.getLastMovementId(), nodeId, productId);
+        List<MovementTotalRow> since = productId == null
+                ? movementRepository.sumByProductBetween(nodeId, snapshot.getLastMovementId(), beforeId, at)
+                : movementRepository.sumForProductBetween(nodeId, productId, snapshot.getLastMovementId(), beforeId, at);
+
+        // Snapshot quantity plus the movements after it, per product in id order
+        Map<Long, InventoryHistoryDto> byProduct = new TreeMap<>();
+        for (InventorySnapshotRow row : base) {
+            InventoryHistoryDto historyDto = newDto(nodeId, row.getProductId(), at, snapshot);
+            historyDto.setQuantity(row.getQuantity());
+            byProduct.put(row.getProductId(), historyDto);
+        }
+        for (MovementTotalRow total : since) {
+            InventoryHistoryDto historyDto = byProduct.computeIfAbsent(total.getProductId(),
+                    id -> newDto(nodeId, id, at, snapshot));
+            historyDto.setQuantity(historyDto.getQuantity() + total.getDelta().intValue());
+            historyDto.setMovements(total.getMovements());
+        }
+        for (InventoryLedger.Movement movement : pending) {
+            if (movement.id() > snapshot.getLastMovementId() && !movement.movedAt().isAfter(at)
+                    && (productId == null || movement.productId() == productId)) {
+                InventoryHistoryDto historyDto = byProduct.computeIfAbsent(movement.productId(),
+                        id -> newDto(nodeId, id, at, snapshot));
+                historyDto.setQuantity(historyDto.getQuantity() + movement.delta());
+                historyDto.setMovements(historyDto.getMovements() + 1);
+            }
+        }
+
+        Map<Long, String> productNames = new HashMap<>();
+        productRepository.findAllById(byProduct.keySet())
+                .forEach(product -> productNames.put(product.getId(), product.getName()));
+        byProduct.values().forEach(historyDto -> historyDto.setProductName(productNames.get(historyDto.getProductId())));
+        return List.copyOf(byProduct.values());
+    }
+
+    private static InventoryHistoryDto newDto(Long nodeId, Long productId, LocalDateTime at, InventorySnapshot snapshot) {
+        InventoryHistoryDto historyDto = new InventoryHistoryDto();
+        historyDto.setNodeId(nodeId);
+        historyDto.setProductId(productId);
+        historyDto.setAt(at);
+        historyDto.setQuantity(0);
+        historyDto.setMovements(0L);
+        historyDto.setSnapshotTakenAt(snapshot.getTakenAt());
+        return historyDto;
+    }
+}
@@ -0,0 +1,223 @@
+package com.example.supplychainvisualizer.service.impl;
+
+import com.example.supplychainvisualizer.dto.InventoryDto;
+import com.example.supplychainvisualizer.dto.InventoryImportResultDto;
+import com.example.supplychainvisualizer.exception.BadRequestException;
+import com.example.supplychainvisualizer.inventory.InventoryLedger;
+import com.example.supplychainvisualizer.model.Node;
+import com.example.supplychainvisualizer.model.Product;
+import com.example.supplychainvisualizer.repository.NodeRepository;
+import com.example.supplychainvisualizer.repository.ProductRepository;
+import com.example.supplychainvisualizer.service.InventoryImportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class InventoryImportServiceImpl implements InventoryImportService {
+
+    private static final String[] COLUMNS = {"nodeid", "productid", "quantity", "minthreshold", "maxthreshold"};
+    private static final int REQUIRED_COLUMNS = 3;
+
+    // Quantities go through the ledger like every other inventory change, a chunk per journal write
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Autowired
+    private NodeRepository nodeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.inventory.import.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.inventory.import.max-reported-rejections:100}")
+    private int maxReportedRejections;
+
+    @Override
+    public InventoryImportResultDto importCsv(Reader csv) {
+        BufferedReader lines = new BufferedReader(csv);
+        String header = readLine(lines);
+        if (header == null) {
+            throw new BadRequestException("CSV must start with a header row");
+        }
+        // Column position of each of COLUMNS, -1 when absent; names match ignoring case and underscores
+        int[] positions = new int[COLUMNS.length];
+        Arrays.fill(positions, -1);
+        String[] names = header.split(",", -1);
+        for (int i = 0; i < names.length; i++) {
+            String name = names[i].trim().replace("_", "").toLowerCase(Locale.ROOT);
+            for (int c = 0; c < COLUMNS.length; c++) {
+                if (COLUMNS[c].equals(name)) {
+                    positions[c] = i;
+                }
+            }
+        }
+        for (int c = 0; c < REQUIRED_COLUMNS; c++) {
+            if (positions[c] < 0) {
+                throw new BadRequestException("CSV header must name nodeId, productId and quantity");
+            }
+        }
+
+        Import run = new Import();
+        long lineNumber = 1;
+        String line;
+        while ((line = readLine(lines)) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            String[] fields = line.split(",", -1);
+            Long[] values = new Long[COLUMNS.length];
+            try {
+                for (int c = 0; c < COLUMNS.length; c++) {
+                    String field = positions[c] < 0 || positions[c] >= fields.length ? "" : fields[positions[c]].trim();
+                    values[c] = field.isEmpty() ? null : Long.valueOf(field);
+                }
+            } catch (NumberFormatException e) {
+                run.reject(lineNumber, "Fields must be whole numbers");
+                continue;
+            }
+            run.add(lineNumber, values[0], values[1], values[2], values[3], values[4]);
+        }
+        return run.finish();
+    }
+
+    @Override
+    public InventoryImportResultDto importNdjson(Reader ndjson) {
+        BufferedReader lines = new BufferedReader(ndjson);
+        Import run = new Import();
+        long lineNumber = 0;
+        String line;
+        while ((line = readLine(lines)) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            InventoryDto dto;
+            try {
+                dto = objectMapper.readValue(line, InventoryDto.class);
+            } catch (JsonProcessingException e) {
+                run.reject(lineNumber, "Not a JSON inventory object");
+                continue;
+            }
+            run.add(lineNumber, dto.getNodeId(), dto.getProductId(), toLong(dto.getQuantity()),
+                    toLong(dto.getMinThreshold()), toLong(dto.getMaxThreshold()));
+        }
+        return run.finish();
+    }
+
+    private static String readLine(BufferedReader lines) {
+        try {
+            return lines.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read inventory import", e);
+        }
+    }
+
+    private static Long toLong(Integer value) {
+        return value == null ? null : value.longValue();
+    }
+
+    private record Pending(long line, InventoryLedger.Count count) {
+    }
+
+    // One import's running totals and the chunk of rows not yet applied
+    private final class Import {
+        private final List<Pending> chunk = new ArrayList<>();
+        private final Set<List<Long>> chunkKeys = new HashSet<>();
+        private final List<InventoryImportResultDto.Rejection> rejections = new ArrayList<>();
+        private int created;
+        private int updated;
+        private int rejected;
+
+        void add(long line, Long nodeId, Long productId, Long quantity, Long minThreshold, Long maxThreshold) {
+            if (nodeId == null || productId == null || quantity == null) {
+                reject(line, "nodeId, productId and quantity are required");
+                return;
+            }
+            if (nodeId < 1 || nodeId > Integer.MAX_VALUE || productId < 1 || productId > Integer.MAX_VALUE) {
+                reject(line, "nodeId and productId must be between 1 and " + Integer.MAX_VALUE);
+                return;
+            }
+            if (!isCount(quantity) || (minThreshold != null && !isCount(minThreshold))
+                    || (maxThreshold != null && !isCount(maxThreshold))) {
+                reject(line, "quantity and thresholds must be between 0 and " + Integer.MAX_VALUE);
+                return;
+            }
+            // A later count of the same row within a chunk is applied after the earlier one
+            if (!chunkKeys.add(List.of(nodeId, productId))) {
+                apply();
+                chunkKeys.add(List.of(nodeId, productId));
+            }
+            chunk.add(new Pending(line, new InventoryLedger.Count(nodeId, productId, quantity.intValue(),
+                    minThreshold == null ? null : minThreshold.intValue(),
+                    maxThreshold == null ? null : maxThreshold.intValue())));
+            if (chunk.size() >= chunkSize) {
+                apply();
+            }
+        }
+
+        void reject(long line, String error) {
+            rejected++;
+            if (rejections.size() < maxReportedRejections) {
+                rejections.add(new InventoryImportResultDto.Rejection(line, error));
+            }
+        }
+
+        InventoryImportResultDto finish() {
+            apply();
+            return new InventoryImportResultDto(created, updated, rejected, rejections);
+        }
+
+        // Checks the chunk's nodes and products in one query each, then sets its quantities in one ledger change
+        private void apply() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            Set<Long> nodeIds = chunk.stream().map(p -> p.count().nodeId()).collect(Collectors.toSet());
+            Set<Long> productIds = chunk.stream().map(p -> p.count().productId()).collect(Collectors.toSet());
+            Set<Long> nodes = nodeRepository.findAllById(nodeIds).stream().map(Node::getId).collect(Collectors.toSet());
+            Set<Long> products = productRepository.findAllById(productIds).stream().map(Product::getId)
+                    .collect(Collectors.toSet());
+            List<InventoryLedger.Count> counts = new ArrayList<>(chunk.size());
+            for (Pending pending : chunk) {
+                InventoryLedger.Count count = pending.count();
+                if (!nodes.contains(count.nodeId())) {
+                    reject(pending.line(), "Unknown node " + count.nodeId());
+                } else if (!products.contains(count.productId())) {
+                    reject(pending.line(), "Unknown product " + count.productId());
+                } else {
+                    counts.add(count);
+                }
+            }
+            int createdRows = inventoryLedger.count(counts);
+            created += createdRows;
+            updated += counts.size() - createdRows;
+            chunk.clear();
+            chunkKeys.clear();
+        }
+
+        private static boolean isCount(long value) {
+            return value >= 0 && value <= Integer.MAX_VALUE;
+        }
+    }
+}
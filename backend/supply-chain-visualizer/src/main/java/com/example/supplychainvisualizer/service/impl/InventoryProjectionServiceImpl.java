@@ -0,0 +1,98 @@
+package com.example.supplychainvisualizer.service.impl;
+
+import com.example.supplychainvisualizer.dto.ProjectedInventoryDto;
+import com.example.supplychainvisualizer.exception.BadRequestException;
+import com.example.supplychainvisualizer.inventory.InventoryLedger;
+import com.example.supplychainvisualizer.inventory.InventoryProjection;
+import com.example.supplychainvisualizer.repository.NodeRepository;
+import com.example.supplychainvisualizer.repository.ProductRepository;
+import com.example.supplychainvisualizer.service.InventoryProjectionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+public class InventoryProjectionServiceImpl implements InventoryProjectionService {
+
+    @Autowired
+    private InventoryProjection inventoryProjection;
+
+    @Autowired
+    private NodeRepository nodeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Value("${app.inventory.projection.default-days:14}")
+    private int defaultDays;
+
+    @Value("${app.inventory.projection.max-days:90}")
+    private int maxDays;
+
+    @Override
+    public List<ProjectedInventoryDto> getProjection(Integer days, Long nodeId, Long productId) {
+        int horizon = days == null ? defaultDays : days;
+        if (horizon < 1 || horizon > maxDays) {
+            throw new BadRequestException("days must be between 1 and " + maxDays);
+        }
+        LocalDate today = LocalDate.now();
+        List<InventoryProjection.Projection> projections = inventoryProjection.project(today, horizon, nodeId, productId);
+
+        // Stock that is only on its way has no inventory row to take names from
+        Set<Long> nodeIds = new HashSet<>();
+        Set<Long> productIds = new HashSet<>();
+        for (InventoryProjection.Projection projection : projections) {
+            if (projection.row() == null) {
+                nodeIds.add(projection.nodeId());
+                productIds.add(projection.productId());
+            }
+        }
+        Map<Long, String> nodeNames = new HashMap<>();
+        Map<Long, String> productNames = new HashMap<>();
+        if (!nodeIds.isEmpty()) {
+            nodeRepository.findAllById(nodeIds).forEach(node -> nodeNames.put(node.getId(), node.getName()));
+            productRepository.findAllById(productIds).forEach(product -> productNames.put(product.getId(), product.getName()));
+        }
+
+        return projections.stream()
+                .map(projection -> convertToDto(projection, today, nodeNames, productNames))
+                .toList();
+    }
+
+    private ProjectedInventoryDto convertToDto(InventoryProjection.Projection projection, LocalDate startDate,
+                                               Map<Long, String> nodeNames, Map<Long, String> productNames) {
+        InventoryLedger.Row row = projection.row();
+        ProjectedInventoryDto projectedDto = new ProjectedInventoryDto();
+        projectedDto.setNodeId(projection.nodeId());
+        projectedDto.setProductId(projection.productId());
+        projectedDto.setOnHand(projection.onHand());
+        projectedDto.setStartDate(startDate);
+        projectedDto.setBalances(projection.balances());
+        if (row != null) {
+            projectedDto.setNodeName(row.nodeName());
+            projectedDto.setProductName(row.productName());
+            projectedDto.setMinThreshold(row.minThreshold());
+            projectedDto.setMaxThreshold(row.maxThreshold());
+            if (row.minThreshold() != null) {
+                int[] balances = projection.balances();
+                for (int d = 0; d < balances.length; d++) {
+                    if (balances[d] <= row.minThreshold()) {
+                        projectedDto.setBelowMinimumOn(startDate.plusDays(d));
+                        break;
+                    }
+                }
+            }
+        } else {
+            projectedDto.setNodeName(nodeNames.get(projection.nodeId()));
+            projectedDto.setProductName(productNames.get(projection.productId()));
+        }
+        return projectedDto;
+    }
+}
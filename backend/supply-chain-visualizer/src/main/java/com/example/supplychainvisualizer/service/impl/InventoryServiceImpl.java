@@ -1,15 +1,15 @@
 package com.example.supplychainvisualizer.service.impl;
 
 import com.example.supplychainvisualizer.dto.InventoryDto;
-import com.example.supplychainvisualizer.model.Inventory;
-import com.example.supplychainvisualizer.model.Node;
-import com.example.supplychainvisualizer.model.Product;
-import com.example.supplychainvisualizer.repository.InventoryRepository;
+import com.example.supplychainvisualizer.inventory.InventoryLedger;
+import com.example.supplychainvisualizer.inventory.StockStatus;
 import com.example.supplychainvisualizer.repository.NodeRepository;
 import com.example.supplychainvisualizer.repository.ProductRepository;
 import com.example.supplychainvisualizer.service.InventoryService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.Optional;
@@ -18,8 +18,9 @@ import java.util.stream.Collectors;
 @Service
 public class InventoryServiceImpl implements InventoryService {
 
+    // Serves every read and write; the inventory table is its write-behind copy
     @Autowired
-    private InventoryRepository inventoryRepository;
+    private InventoryLedger inventoryLedger;
 
     @Autowired
     private NodeRepository nodeRepository;
@@ -29,115 +30,101 @@ public class InventoryServiceImpl implements InventoryService {
 
     @Override
     public List<InventoryDto> getAllInventory() {
-        return inventoryRepository.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(inventoryLedger.all());
     }
 
     @Override
     public Optional<InventoryDto> getInventoryById(Long id) {
-        return inventoryRepository.findById(id).map(this::convertToDto);
+        return inventoryLedger.byId(id).map(this::convertToDto);
     }
 
     @Override
     public InventoryDto createOrUpdateInventory(InventoryDto inventoryDto) {
-        Optional<Node> nodeOpt = nodeRepository.findById(inventoryDto.getNodeId());
-        Optional<Product> productOpt = productRepository.findById(inventoryDto.getProductId());
-        
-        if (nodeOpt.isPresent() && productOpt.isPresent()) {
-            Node node = nodeOpt.get();
-            Product product = productOpt.get();
-            
-            // Check if inventory record already exists
-            Optional<Inventory> existingInventory = inventoryRepository
-                .findByNodeAndProduct(node, product);
-            
-            Inventory inventory;
-            if (existingInventory.isPresent()) {
-                // Update existing inventory
-                inventory = existingInventory.get();
-                inventory.setQuantity(inventoryDto.getQuantity());
-                inventory.setMinThreshold(inventoryDto.getMinThreshold());
-                inventory.setMaxThreshold(inventoryDto.getMaxThreshold());
-            } else {
-                // Create new inventory
-                inventory = new Inventory();
-                inventory.setNode(node);
-                inventory.setProduct(product);
-                inventory.setQuantity(inventoryDto.getQuantity());
-                inventory.setMinThreshold(inventoryDto.getMinThreshold());
-                inventory.setMaxThreshold(inventoryDto.getMaxThreshold());
-            }
-            
-            Inventory savedInventory = inventoryRepository.save(inventory);
-            return convertToDto(savedInventory);
+        if (!nodeRepository.existsById(inventoryDto.getNodeId())
+                || !productRepository.existsById(inventoryDto.getProductId())) {
+            return inventoryDto; // Return original DTO if node or product not found
         }
-        
-        return inventoryDto; // Return original DTO if node or product not found
+        InventoryLedger.Row row = inventoryLedger.update(inventoryDto.getNodeId(), inventoryDto.getProductId(),
+                inventoryDto.getQuantity(), inventoryDto.getMinThreshold(), inventoryDto.getMaxThreshold(),
+                inventoryDto.getVersion());
+        return convertToDto(row);
     }
 
     @Override
     public boolean deleteInventory(Long id) {
-        return inventoryRepository.findById(id).map(inventory -> {
-            inventoryRepository.delete(inventory);
-            return true;
-        }).orElse(false);
+        return inventoryLedger.delete(id);
     }
 
     @Override
     public List<InventoryDto> getInventoryByNode(Long nodeId) {
-        return nodeRepository.findById(nodeId)
-                .map(node -> inventoryRepository.findByNode(node).stream()
-                        .map(this::convertToDto)
-                        .collect(Collectors.toList()))
-                .orElse(List.of());
+        return toDtos(inventoryLedger.byNode(nodeId));
     }
 
     @Override
     public List<InventoryDto> getInventoryByProduct(Long productId) {
-        return productRepository.findById(productId)
-                .map(product -> inventoryRepository.findByProduct(product).stream()
-                        .map(this::convertToDto)
-                        .collect(Collectors.toList()))
-                .orElse(List.of());
+        return toDtos(inventoryLedger.byProduct(productId));
     }
 
     @Override
     public List<InventoryDto> getLowStockInventory() {
-        return inventoryRepository.findLowStock().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return toDtos(inventoryLedger.lowStock());
     }
     
-    private InventoryDto convertToDto(Inventory inventory) {
-        InventoryDto inventoryDto = new InventoryDto();
-        inventoryDto.setId(inventory.getId());
-        inventoryDto.setNodeId(inventory.getNode().getId());
-        inventoryDto.setNodeName(inventory.getNode().getName());  
-        inventoryDto.setProductId(inventory.getProduct().getId());
-        inventoryDto.setProductName(inventory.getProduct().getName());  
-        inventoryDto.setQuantity(inventory.getQuantity());
-        inventoryDto.setMinThreshold(inventory.getMinThreshold());
-        inventoryDto.setMaxThreshold(inventory.getMaxThreshold());
-        inventoryDto.setStatus(computeStatus(inventory));
-        inventoryDto.setUpdatedAt(inventory.getUpdatedAt());
-        return inventoryDto;
+    @Override
+    public void adjustQuantity(Long nodeId, Long productId, int delta) {
+        adjustQuantities(List.of(new InventoryLedger.Adjustment(nodeId, productId, delta)));
     }
 
-    private String computeStatus(Inventory inventory) {
-        int quantity = inventory.getQuantity() == null ? 0 : inventory.getQuantity();
-        Integer min = inventory.getMinThreshold();
-        Integer max = inventory.getMaxThreshold();
-
-        if (quantity <= 0) {
-            return "critical";
-        }
-        if (min != null && quantity <= min) {
-            return "low";
+    @Override
+    public void adjustQuantities(List<InventoryLedger.Adjustment> adjustments) {
+        if (adjustments.isEmpty()) {
+            return;
         }
-        if (max != null && quantity >= max) {
-            return "excess";
+        // Inside a transaction the stock moves as the caller's writes commit: journaled just before,
+        // so a crash after the commit loses nothing, and moved back should the commit then fail
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean applied;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    inventoryLedger.adjust(adjustments);
+                    applied = true;
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (applied && status == STATUS_ROLLED_BACK) {
+                        inventoryLedger.adjust(adjustments.stream()
+                                .map(a -> new InventoryLedger.Adjustment(a.nodeId(), a.productId(), -a.delta()))
+                                .toList());
+                    }
+                }
+            });
+        } else {
+            inventoryLedger.adjust(adjustments);
         }
-        return "optimal";
+    }
+
+    private List<InventoryDto> toDtos(List<InventoryLedger.Row> rows) {
+        return rows.stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    private InventoryDto convertToDto(InventoryLedger.Row row) {
+        InventoryDto inventoryDto = new InventoryDto();
+        inventoryDto.setId(row.id());
+        inventoryDto.setNodeId(row.nodeId());
+        inventoryDto.setNodeName(row.nodeName());
+        inventoryDto.setProductId(row.productId());
+        inventoryDto.setProductName(row.productName());
+        inventoryDto.setQuantity(row.quantity());
+        inventoryDto.setMinThreshold(row.minThreshold());
+        inventoryDto.setMaxThreshold(row.maxThreshold());
+        inventoryDto.setStatus(StockStatus.of(row).label());
+        inventoryDto.setUpdatedAt(row.updatedAt());
+        inventoryDto.setVersion(row.version());
+        return inventoryDto;
     }
 }
@@ -1,7 +1,10 @@
 package com.example.supplychainvisualizer.service.impl;
 
+import com.example.supplychainvisualizer.analytics.AnalyticsVersion;
 import com.example.supplychainvisualizer.dto.NodeDto;
+import com.example.supplychainvisualizer.inventory.InventoryLedger;
 import com.example.supplychainvisualizer.model.Node;
+import com.example.supplychainvisualizer.network.ConnectionGraph;
 import com.example.supplychainvisualizer.repository.NodeRepository;
 import com.example.supplychainvisualizer.service.NodeService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,6 +21,18 @@ public class NodeServiceImpl implements NodeService {
     @Autowired
     private NodeRepository nodeRepository;
 
+    // Analytics summaries label lanes and segments with node names and types
+    @Autowired
+    private AnalyticsVersion analyticsVersion;
+
+    // Inventory listings carry node names from the in-memory ledger
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    // Routing reads node coordinates and types from the in-memory graph
+    @Autowired
+    private ConnectionGraph connectionGraph;
+
     @Override
     public List<NodeDto> getAllNodes() {
         return nodeRepository.findAll().stream()
@@ -34,6 +49,7 @@ public class NodeServiceImpl implements NodeService {
     public NodeDto createNode(NodeDto nodeDto) {
         Node node = convertToEntity(nodeDto);
         Node savedNode = nodeRepository.save(node);
+        connectionGraph.putNode(toLocation(savedNode));
         return convertToDto(savedNode);
     }
 
@@ -44,6 +60,9 @@ public class NodeServiceImpl implements NodeService {
             nodeDto.setId(id);
             BeanUtils.copyProperties(nodeDto, existingNode, "id", "createdAt");
             Node updatedNode = nodeRepository.save(existingNode);
+            analyticsVersion.bump();
+            inventoryLedger.renameNode(id, updatedNode.getName());
+            connectionGraph.putNode(toLocation(updatedNode));
             return convertToDto(updatedNode);
         });
     }
@@ -52,6 +71,8 @@ public class NodeServiceImpl implements NodeService {
     public boolean deleteNode(Long id) {
         return nodeRepository.findById(id).map(node -> {
             nodeRepository.delete(node);
+            analyticsVersion.bump();
+            connectionGraph.removeNode(id);
             return true;
         }).orElse(false);
     }
@@ -76,6 +97,11 @@ public class NodeServiceImpl implements NodeService {
         return nodeDto;
     }
 
+    private static ConnectionGraph.Location toLocation(Node node) {
+        return new ConnectionGraph.Location(node.getId(), node.getType(), node.getStatus(),
+                node.getLatitude(), node.getLongitude());
+    }
+
     private Node convertToEntity(NodeDto nodeDto) {
         Node node = new Node();
         node.setName(nodeDto.getName());
@@ -1,6 +1,7 @@
 package com.example.supplychainvisualizer.service.impl;
 
 import com.example.supplychainvisualizer.dto.ProductDto;
+import com.example.supplychainvisualizer.inventory.InventoryLedger;
 import com.example.supplychainvisualizer.model.Product;
 import com.example.supplychainvisualizer.repository.ProductRepository;
 import com.example.supplychainvisualizer.service.ProductService;
@@ -18,6 +19,10 @@ public class ProductServiceImpl implements ProductService {
     @Autowired
     private ProductRepository productRepository;
 
+    // Inventory listings carry product names from the in-memory ledger
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
     @Override
     public List<ProductDto> getAllProducts() {
         return productRepository.findAll().stream()
@@ -44,6 +49,7 @@ public class ProductServiceImpl implements ProductService {
             productDto.setId(id);
             BeanUtils.copyProperties(productDto, existingProduct, "id", "createdAt");
             Product updatedProduct = productRepository.save(existingProduct);
+            inventoryLedger.renameProduct(id, updatedProduct.getName());
             return convertToDto(updatedProduct);
         });
     }
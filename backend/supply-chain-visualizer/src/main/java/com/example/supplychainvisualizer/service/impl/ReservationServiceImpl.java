@@ -0,0 +1,224 @@
+package com.example.supplychainvisualizer.service.impl;
+
+import com.example.supplychainvisualizer.dto.AvailabilityDto;
+import com.example.supplychainvisualizer.dto.ReservationDto;
+import com.example.supplychainvisualizer.exception.BadRequestException;
+import com.example.supplychainvisualizer.exception.ConflictException;
+import com.example.supplychainvisualizer.inventory.AvailabilityIndex;
+import com.example.supplychainvisualizer.model.InventoryReservation;
+import com.example.supplychainvisualizer.model.Node;
+import com.example.supplychainvisualizer.model.Product;
+import com.example.supplychainvisualizer.repository.InventoryReservationRepository;
+import com.example.supplychainvisualizer.repository.NodeRepository;
+import com.example.supplychainvisualizer.repository.ProductRepository;
+import com.example.supplychainvisualizer.service.InventoryService;
+import com.example.supplychainvisualizer.service.ReservationService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class ReservationServiceImpl implements ReservationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationServiceImpl.class);
+
+    @Autowired
+    private InventoryReservationRepository reservationRepository;
+
+    @Autowired
+    private NodeRepository nodeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    // Reserved and inbound totals; kept in step with every hold that starts or ends here
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Value("${app.inventory.reservations.default-ttl-seconds:900}")
+    private long defaultTtlSeconds;
+
+    @Value("${app.inventory.reservations.max-ttl-seconds:86400}")
+    private long maxTtlSeconds;
+
+    @Value("${app.inventory.reservations.expiry-interval-ms:5000}")
+    private long expiryIntervalMs;
+
+    private ScheduledExecutorService expirer;
+
+    @PostConstruct
+    public void start() {
+        expirer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "inventory-reservation-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        expirer.scheduleWithFixedDelay(this::expireQuietly, expiryIntervalMs, expiryIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        expirer.shutdown();
+        expirer.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public AvailabilityDto getAvailability(Long nodeId, Long productId) {
+        try {
+            return convertToDto(availabilityIndex.get(nodeId, productId));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("nodeId and productId must be between 1 and " + Integer.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public Optional<ReservationDto> getReservation(Long id) {
+        return reservationRepository.findById(id).map(this::convertToDto);
+    }
+
+    @Override
+    public ReservationDto reserve(ReservationDto reservationDto) {
+        long ttlSeconds = reservationDto.getTtlSeconds() != null ? reservationDto.getTtlSeconds() : defaultTtlSeconds;
+        if (ttlSeconds <= 0 || ttlSeconds > maxTtlSeconds) {
+            throw new BadRequestException("ttlSeconds must be between 1 and " + maxTtlSeconds);
+        }
+        Node node = nodeRepository.findById(reservationDto.getNodeId())
+                .orElseThrow(() -> new BadRequestException("Unknown node " + reservationDto.getNodeId()));
+        Product product = productRepository.findById(reservationDto.getProductId())
+                .orElseThrow(() -> new BadRequestException("Unknown product " + reservationDto.getProductId()));
+        int quantity = reservationDto.getQuantity();
+
+        if (!availabilityIndex.tryReserve(node.getId(), product.getId(), quantity)) {
+            int available = availabilityIndex.get(node.getId(), product.getId()).available();
+            throw new ConflictException("Only " + Math.max(available, 0) + " of " + product.getName()
+                    + " available at " + node.getName() + ", " + quantity + " requested");
+        }
+        InventoryReservation reservation = new InventoryReservation();
+        reservation.setNode(node);
+        reservation.setProduct(product);
+        reservation.setQuantity(quantity);
+        reservation.setReference(reservationDto.getReference());
+        reservation.setExpiresAt(LocalDateTime.now().plusSeconds(ttlSeconds));
+        try {
+            return convertToDto(reservationRepository.save(reservation));
+        } catch (RuntimeException e) {
+            availabilityIndex.release(node.getId(), product.getId(), quantity);
+            throw e;
+        }
+    }
+
+    @Override
+    @Transactional
+    public Optional<ReservationDto> commit(Long id) {
+        return reservationRepository.findById(id).map(reservation -> {
+            LocalDateTime now = LocalDateTime.now();
+            if (InventoryReservation.HELD.equals(reservation.getStatus()) && !reservation.getExpiresAt().isAfter(now)) {
+                // The expiry sweep will release it
+                throw new ConflictException("Reservation " + id + " expired at " + reservation.getExpiresAt());
+            }
+            finishHeld(reservation, InventoryReservation.COMMITTED, now);
+            // Registered first, so stock leaves inventory before the hold on it is lifted
+            inventoryService.adjustQuantity(reservation.getNode().getId(), reservation.getProduct().getId(),
+                    -reservation.getQuantity());
+            releaseAfterCommit(reservation);
+            return convertToDto(reservation);
+        });
+    }
+
+    @Override
+    @Transactional
+    public Optional<ReservationDto> release(Long id) {
+        return reservationRepository.findById(id).map(reservation -> {
+            finishHeld(reservation, InventoryReservation.RELEASED, LocalDateTime.now());
+            releaseAfterCommit(reservation);
+            return convertToDto(reservation);
+        });
+    }
+
+    @Override
+    public int expireOverdue() {
+        LocalDateTime now = LocalDateTime.now();
+        int expired = 0;
+        for (InventoryReservation reservation
+                : reservationRepository.findByStatusAndExpiresAtLessThanEqual(InventoryReservation.HELD, now)) {
+            // Skips any committed or released since they were read
+            if (reservationRepository.finishHeld(reservation.getId(), InventoryReservation.EXPIRED, now) == 1) {
+                availabilityIndex.release(reservation.getNode().getId(), reservation.getProduct().getId(),
+                        reservation.getQuantity());
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    private void expireQuietly() {
+        try {
+            expireOverdue();
+        } catch (RuntimeException e) {
+            logger.warn("Could not expire overdue inventory reservations; will retry", e);
+        }
+    }
+
+    private void finishHeld(InventoryReservation reservation, String status, LocalDateTime now) {
+        if (reservationRepository.finishHeld(reservation.getId(), status, now) == 0) {
+            throw new ConflictException("Reservation " + reservation.getId() + " is no longer held");
+        }
+        reservation.setStatus(status);
+    }
+
+    private void releaseAfterCommit(InventoryReservation reservation) {
+        long nodeId = reservation.getNode().getId();
+        long productId = reservation.getProduct().getId();
+        int quantity = reservation.getQuantity();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    availabilityIndex.release(nodeId, productId, quantity);
+                }
+            });
+        } else {
+            availabilityIndex.release(nodeId, productId, quantity);
+        }
+    }
+
+    private AvailabilityDto convertToDto(AvailabilityIndex.Availability availability) {
+        AvailabilityDto availabilityDto = new AvailabilityDto();
+        availabilityDto.setNodeId(availability.nodeId());
+        availabilityDto.setProductId(availability.productId());
+        availabilityDto.setOnHand(availability.onHand());
+        availabilityDto.setReserved(availability.reserved());
+        availabilityDto.setInbound(availability.inbound());
+        availabilityDto.setAvailable(availability.available());
+        return availabilityDto;
+    }
+
+    private ReservationDto convertToDto(InventoryReservation reservation) {
+        ReservationDto reservationDto = new ReservationDto();
+        reservationDto.setId(reservation.getId());
+        reservationDto.setNodeId(reservation.getNode().getId());
+        reservationDto.setProductId(reservation.getProduct().getId());
+        reservationDto.setQuantity(reservation.getQuantity());
+        reservationDto.setReference(reservation.getReference());
+        reservationDto.setStatus(reservation.getStatus());
+        reservationDto.setExpiresAt(reservation.getExpiresAt());
+        reservationDto.setCreatedAt(reservation.getCreatedAt());
+        return reservationDto;
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.supplychainvisualizer.service.impl;
+
+import com.example.supplychainvisualizer.dto.ConnectionDto;
+import com.example.supplychainvisualizer.dto.ParetoRoutesDto;
+import com.example.supplychainvisualizer.dto.RouteDto;
+import com.example.supplychainvisualizer.exception.BadRequestException;
+import com.example.supplychainvisualizer.network.ConnectionGraph;
+import com.example.supplychainvisualizer.network.ParetoRouteFinder;
+import com.example.supplychainvisualizer.network.RouteFinder;
+import com.example.supplychainvisualizer.network.RouteWeight;
+import com.example.supplychainvisualizer.service.RouteService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+@Service
+public class RouteServiceImpl implements RouteService {
+
+    @Autowired
+    private ConnectionGraph connectionGraph;
+
+    @Autowired
+    private RouteFinder routeFinder;
+
+    @Autowired
+    private ParetoRouteFinder paretoRouteFinder;
+
+    @Value("${app.routing.alternatives.default-k:3}")
+    private int defaultAlternatives;
+
+    @Value("${app.routing.alternatives.max-k:10}")
+    private int maxAlternatives;
+
+    @Value("${app.routing.pareto.max-labels-per-node:20}")
+    private int maxLabelsPerNode;
+
+    @Value("${app.routing.pareto.time-budget-ms:200}")
+    private long paretoBudgetMs;
+
+    @Override
+    public Optional<RouteDto> findRoute(Long sourceId, Long targetId, String weight) {
+        RouteWeight routeWeight = parseWeight(weight);
+        ConnectionGraph.Snapshot graph = connectionGraph.snapshot();
+        requireNode(graph, sourceId);
+        requireNode(graph, targetId);
+        return routeFinder.shortest(graph, sourceId, targetId, routeWeight)
+                .map(route -> convertToDto(sourceId, targetId, routeWeight, route.weight(), route.edges()));
+    }
+
+    @Override
+    public List<RouteDto> findAlternatives(Long sourceId, Long targetId, String weight, Integer k) {
+        int count = k == null ? defaultAlternatives : k;
+        if (count < 1 || count > maxAlternatives) {
+            throw new BadRequestException("k must be between 1 and " + maxAlternatives);
+        }
+        RouteWeight routeWeight = parseWeight(weight);
+        ConnectionGraph.Snapshot graph = connectionGraph.snapshot();
+        requireNode(graph, sourceId);
+        requireNode(graph, targetId);
+        return routeFinder.alternatives(graph, sourceId, targetId, routeWeight, count).stream()
+                .map(route -> convertToDto(sourceId, targetId, routeWeight, route.weight(), route.edges()))
+                .toList();
+    }
+
+    @Override
+    public ParetoRoutesDto findParetoRoutes(Long sourceId, Long targetId) {
+        ConnectionGraph.Snapshot graph = connectionGraph.snapshot();
+        requireNode(graph, sourceId);
+        requireNode(graph, targetId);
+        ParetoRouteFinder.Frontier frontier =
+                paretoRouteFinder.frontier(graph, sourceId, targetId, maxLabelsPerNode, paretoBudgetMs);
+        ParetoRoutesDto paretoDto = new ParetoRoutesDto();
+        paretoDto.setSourceId(sourceId);
+        paretoDto.setTargetId(targetId);
+        paretoDto.setTruncated(frontier.truncated());
+        paretoDto.setRoutes(frontier.routes().stream()
+                .map(edges -> convertToDto(sourceId, targetId, null, null, edges))
+                .toList());
+        return paretoDto;
+    }
+
+    private static RouteWeight parseWeight(String weight) {
+        if (weight == null) {
+            return RouteWeight.COST;
+        }
+        RouteWeight routeWeight = RouteWeight.parse(weight);
+        if (routeWeight == null) {
+            throw new BadRequestException("weight must be cost, time or distance");
+        }
+        return routeWeight;
+    }
+
+    private static void requireNode(ConnectionGraph.Snapshot graph, Long nodeId) {
+        if (graph.nodeIndex(nodeId) == ConnectionGraph.Snapshot.MISSING) {
+            throw new BadRequestException("Unknown node " + nodeId);
+        }
+    }
+
+    // Weight and total weight are null for a route not chosen by a single weight
+    private RouteDto convertToDto(Long sourceId, Long targetId, RouteWeight weight, Double totalWeight,
+                                  List<ConnectionGraph.Edge> edges) {
+        List<Long> nodeIds = new ArrayList<>();
+        List<ConnectionDto> connections = new ArrayList<>();
+        nodeIds.add(sourceId);
+        Double totalCost = 0.0;
+        Integer totalTravelTime = 0;
+        Double totalDistance = 0.0;
+        for (ConnectionGraph.Edge edge : edges) {
+            nodeIds.add(edge.targetId());
+            connections.add(convertToDto(edge));
+            totalCost = edge.costPerUnit() == null || totalCost == null ? null : totalCost + edge.costPerUnit();
+            totalTravelTime = edge.travelTime() == null || totalTravelTime == null ? null : totalTravelTime + edge.travelTime();
+            totalDistance = edge.distance() == null || totalDistance == null ? null : totalDistance + edge.distance();
+        }
+        RouteDto routeDto = new RouteDto();
+        routeDto.setSourceId(sourceId);
+        routeDto.setTargetId(targetId);
+        routeDto.setWeight(weight == null ? null : weight.name().toLowerCase(Locale.ROOT));
+        routeDto.setTotalWeight(totalWeight);
+        routeDto.setTotalCost(totalCost);
+        routeDto.setTotalTravelTime(totalTravelTime);
+        routeDto.setTotalDistance(totalDistance);
+        routeDto.setNodeIds(nodeIds);
+        routeDto.setConnections(connections);
+        return routeDto;
+    }
+
+    private ConnectionDto convertToDto(ConnectionGraph.Edge edge) {
+        ConnectionDto connectionDto = new ConnectionDto();
+        connectionDto.setId(edge.id());
+        connectionDto.setSourceId(edge.sourceId());
+        connectionDto.setTargetId(edge.targetId());
+        connectionDto.setTransportationType(edge.transportationType());
+        connectionDto.setDistance(edge.distance());
+        connectionDto.setTravelTime(edge.travelTime());
+        connectionDto.setCostPerUnit(edge.costPerUnit());
+        connectionDto.setStatus(edge.status());
+        return connectionDto;
+    }
+}
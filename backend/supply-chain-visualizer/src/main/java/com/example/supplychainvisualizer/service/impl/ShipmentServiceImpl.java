@@ -1,26 +1,48 @@
 package com.example.supplychainvisualizer.service.impl;
 
+import com.example.supplychainvisualizer.analytics.AnalyticsVersion;
+import com.example.supplychainvisualizer.analytics.ShipmentChangedEvent;
+import com.example.supplychainvisualizer.analytics.ShipmentSnapshot;
+import com.example.supplychainvisualizer.dto.ShipmentBatchResultDto;
 import com.example.supplychainvisualizer.dto.ShipmentDto;
+import com.example.supplychainvisualizer.dto.ShipmentFilter;
 import com.example.supplychainvisualizer.dto.ShipmentItemDto;
+import com.example.supplychainvisualizer.dto.ShipmentPageDto;
+import com.example.supplychainvisualizer.exception.BadRequestException;
+import com.example.supplychainvisualizer.inventory.InventoryLedger;
 import com.example.supplychainvisualizer.model.Node;
 import com.example.supplychainvisualizer.model.Product;
-import com.example.supplychainvisualizer.model.Inventory;
 import com.example.supplychainvisualizer.model.Shipment;
 import com.example.supplychainvisualizer.model.ShipmentItem;
-import com.example.supplychainvisualizer.repository.InventoryRepository;
 import com.example.supplychainvisualizer.repository.NodeRepository;
 import com.example.supplychainvisualizer.repository.ProductRepository;
 import com.example.supplychainvisualizer.repository.ShipmentRepository;
+import com.example.supplychainvisualizer.repository.ShipmentSpecifications;
+import com.example.supplychainvisualizer.service.InventoryService;
 import com.example.supplychainvisualizer.service.ShipmentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -36,13 +58,60 @@ public class ShipmentServiceImpl implements ShipmentService {
     private ProductRepository productRepository;
 
     @Autowired
-    private InventoryRepository inventoryRepository;
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private AnalyticsVersion analyticsVersion;
+
+    @Value("${app.shipments.default-page-size:500}")
+    private int defaultPageSize;
+
+    @Value("${app.shipments.max-page-size:1000}")
+    private int maxPageSize;
+
+    @Value("${app.shipments.max-batch-size:5000}")
+    private int maxBatchSize;
+
+    private static final Map<String, String> DATE_ATTRIBUTES = Map.of(
+            "departure", "departureDate", "estimated", "estimatedArrival", "actual", "actualArrival");
 
     @Override
-    public List<ShipmentDto> getAllShipments() {
-        return shipmentRepository.findAll().stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public ShipmentPageDto getShipments(ShipmentFilter filter, String cursor, Integer limit) {
+        int pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize < 1 || pageSize > maxPageSize) {
+            throw new BadRequestException("'limit' must be between 1 and " + maxPageSize);
+        }
+        String dateAttribute = DATE_ATTRIBUTES.get(filter.getDateType());
+        if (dateAttribute == null) {
+            throw new BadRequestException("'dateType' must be one of " + DATE_ATTRIBUTES.keySet());
+        }
+        boolean byDeparture = "departureDate".equals(filter.getSort());
+        if (!byDeparture && !"id".equals(filter.getSort())) {
+            throw new BadRequestException("'sort' must be 'id' or 'departureDate'");
+        }
+
+        Specification<Shipment> spec = ShipmentSpecifications.matching(filter, dateAttribute)
+                .and(ShipmentSpecifications.withEndpoints());
+        if (cursor != null) {
+            spec = spec.and(afterCursor(cursor, byDeparture));
+        }
+        if (byDeparture) {
+            spec = spec.and(ShipmentSpecifications.orderedByDeparture());
+        }
+        Sort sort = byDeparture ? Sort.unsorted() : ShipmentSpecifications.BY_ID;
+        // One extra row tells whether another page follows without a count query
+        List<Shipment> rows = shipmentRepository.findBy(spec, query -> query.sortBy(sort).limit(pageSize + 1).all());
+
+        List<Shipment> page = rows.size() > pageSize ? rows.subList(0, pageSize) : rows;
+        String nextCursor = rows.size() > pageSize ? encodeCursor(page.get(pageSize - 1), byDeparture) : null;
+        if (!page.isEmpty()) {
+            shipmentRepository.fetchItems(page.stream().map(Shipment::getId).collect(Collectors.toList()));
+        }
+        return new ShipmentPageDto(page.stream().map(this::convertToDto).collect(Collectors.toList()), nextCursor);
     }
 
     @Override
@@ -51,6 +120,7 @@ public class ShipmentServiceImpl implements ShipmentService {
     }
 
     @Override
+    @Transactional
     public ShipmentDto createShipment(ShipmentDto shipmentDto) {
         Optional<Node> sourceOpt = nodeRepository.findById(shipmentDto.getSourceId());
         Optional<Node> destinationOpt = nodeRepository.findById(shipmentDto.getDestinationId());
@@ -77,7 +147,7 @@ public class ShipmentServiceImpl implements ShipmentService {
                         item.setShipment(shipment);
                         items.add(item);
                         // Decrement source inventory when a shipment is created
-                        adjustInventory(sourceOpt.get(), productOpt.get(), -itemDto.getQuantity());
+                        inventoryService.adjustQuantity(sourceOpt.get().getId(), productOpt.get().getId(), -itemDto.getQuantity());
                     }
                 }
                 
@@ -85,6 +155,7 @@ public class ShipmentServiceImpl implements ShipmentService {
             }
             
             Shipment savedShipment = shipmentRepository.save(shipment);
+            publish(ShipmentChangedEvent.created(ShipmentSnapshot.of(savedShipment)));
             return convertToDto(savedShipment);
         }
         
@@ -92,12 +163,96 @@ public class ShipmentServiceImpl implements ShipmentService {
     }
 
     @Override
+    @Transactional
+    public ShipmentBatchResultDto createShipments(List<ShipmentDto> shipmentDtos) {
+        if (shipmentDtos == null || shipmentDtos.isEmpty()) {
+            throw new BadRequestException("Batch must contain at least one shipment");
+        }
+        if (shipmentDtos.size() > maxBatchSize) {
+            throw new BadRequestException("Batch may contain at most " + maxBatchSize + " shipments");
+        }
+
+        // Every node and product the batch mentions, in two queries
+        Set<Long> nodeIds = new HashSet<>();
+        Set<Long> productIds = new HashSet<>();
+        for (ShipmentDto dto : shipmentDtos) {
+            if (dto == null) {
+                continue;
+            }
+            addIfPresent(nodeIds, dto.getSourceId());
+            addIfPresent(nodeIds, dto.getDestinationId());
+            if (dto.getItems() != null) {
+                for (ShipmentItemDto item : dto.getItems()) {
+                    addIfPresent(productIds, item == null ? null : item.getProductId());
+                }
+            }
+        }
+        Map<Long, Node> nodes = nodeRepository.findAllById(nodeIds).stream()
+                .collect(Collectors.toMap(Node::getId, Function.identity()));
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        ShipmentBatchResultDto.RowResult[] results = new ShipmentBatchResultDto.RowResult[shipmentDtos.size()];
+        List<Shipment> accepted = new ArrayList<>();
+        List<Integer> acceptedRows = new ArrayList<>();
+        Map<NodeProduct, Integer> inventoryDeltas = new HashMap<>();
+        for (int row = 0; row < shipmentDtos.size(); row++) {
+            ShipmentDto dto = shipmentDtos.get(row);
+            String error = rejectionReason(dto, nodes, products);
+            if (error != null) {
+                results[row] = new ShipmentBatchResultDto.RowResult(row, null, error);
+                continue;
+            }
+            Shipment shipment = new Shipment();
+            shipment.setSource(nodes.get(dto.getSourceId()));
+            shipment.setDestination(nodes.get(dto.getDestinationId()));
+            shipment.setStatus(dto.getStatus());
+            shipment.setDepartureDate(dto.getDepartureDate());
+            shipment.setEstimatedArrival(dto.getEstimatedArrival());
+            shipment.setActualArrival(dto.getActualArrival());
+            if (dto.getItems() != null) {
+                for (ShipmentItemDto itemDto : dto.getItems()) {
+                    ShipmentItem item = new ShipmentItem();
+                    item.setProduct(products.get(itemDto.getProductId()));
+                    item.setQuantity(itemDto.getQuantity());
+                    item.setShipment(shipment);
+                    shipment.getItems().add(item);
+                    // Source stock leaves once per (node, product), however many lines ship it
+                    inventoryDeltas.merge(new NodeProduct(dto.getSourceId(), itemDto.getProductId()),
+                            -itemDto.getQuantity(), Integer::sum);
+                }
+            }
+            accepted.add(shipment);
+            acceptedRows.add(row);
+        }
+
+        if (!accepted.isEmpty()) {
+            // Inserts go out in JDBC batches of hibernate.jdbc.batch_size when the ids allow it
+            List<Shipment> saved = shipmentRepository.saveAll(accepted);
+            applyInventoryDeltas(inventoryDeltas);
+            shipmentRepository.flush();
+
+            List<ShipmentChangedEvent.Change> changes = new ArrayList<>(saved.size());
+            for (int i = 0; i < saved.size(); i++) {
+                Shipment shipment = saved.get(i);
+                int row = acceptedRows.get(i);
+                results[row] = new ShipmentBatchResultDto.RowResult(row, shipment.getId(), null);
+                changes.add(new ShipmentChangedEvent.Change(null, ShipmentSnapshot.of(shipment)));
+            }
+            publish(new ShipmentChangedEvent(changes));
+        }
+        return new ShipmentBatchResultDto(Arrays.asList(results));
+    }
+
+    @Override
+    @Transactional
     public Optional<ShipmentDto> updateShipment(Long id, ShipmentDto shipmentDto) {
         return shipmentRepository.findById(id).map(existingShipment -> {
             Optional<Node> sourceOpt = nodeRepository.findById(shipmentDto.getSourceId());
             Optional<Node> destinationOpt = nodeRepository.findById(shipmentDto.getDestinationId());
             
             if (sourceOpt.isPresent() && destinationOpt.isPresent()) {
+                ShipmentSnapshot before = ShipmentSnapshot.of(existingShipment);
                 existingShipment.setSource(sourceOpt.get());
                 existingShipment.setDestination(destinationOpt.get());
                 existingShipment.setStatus(shipmentDto.getStatus());
@@ -109,6 +264,7 @@ public class ShipmentServiceImpl implements ShipmentService {
                 // For simplicity, you might want to implement this logic separately
                 
                 Shipment updatedShipment = shipmentRepository.save(existingShipment);
+                publish(ShipmentChangedEvent.updated(before, ShipmentSnapshot.of(updatedShipment)));
                 return convertToDto(updatedShipment);
             }
             
@@ -117,16 +273,21 @@ public class ShipmentServiceImpl implements ShipmentService {
     }
 
     @Override
+    @Transactional
     public boolean deleteShipment(Long id) {
         return shipmentRepository.findById(id).map(shipment -> {
+            ShipmentSnapshot before = ShipmentSnapshot.of(shipment);
             shipmentRepository.delete(shipment);
+            publish(ShipmentChangedEvent.deleted(before));
             return true;
         }).orElse(false);
     }
 
     @Override
+    @Transactional
     public Optional<ShipmentDto> updateShipmentStatus(Long id, String status) {
         return shipmentRepository.findById(id).map(shipment -> {
+            ShipmentSnapshot before = ShipmentSnapshot.of(shipment);
             String previousStatus = shipment.getStatus();
             shipment.setStatus(status);
 
@@ -134,60 +295,97 @@ public class ShipmentServiceImpl implements ShipmentService {
                     && "delivered".equalsIgnoreCase(status)) {
                 // Increment destination inventory once when delivered
                 for (ShipmentItem item : shipment.getItems()) {
-                    adjustInventory(shipment.getDestination(), item.getProduct(), item.getQuantity());
+                    inventoryService.adjustQuantity(shipment.getDestination().getId(), item.getProduct().getId(), item.getQuantity());
                 }
             }
             Shipment updatedShipment = shipmentRepository.save(shipment);
+            publish(ShipmentChangedEvent.updated(before, ShipmentSnapshot.of(updatedShipment)));
             return convertToDto(updatedShipment);
         });
     }
 
-    private void adjustInventory(Node node, Product product, int delta) {
-        Inventory inventory = inventoryRepository
-                .findByNodeAndProduct(node, product)
-                .orElseGet(() -> {
-                    Inventory created = new Inventory();
-                    created.setNode(node);
-                    created.setProduct(product);
-                    created.setQuantity(0);
-                    return created;
-                });
-
-        int currentQty = inventory.getQuantity() == null ? 0 : inventory.getQuantity();
-        inventory.setQuantity(currentQty + delta);
-        inventoryRepository.save(inventory);
+    private record NodeProduct(long nodeId, long productId) {
     }
 
-    @Override
-    public List<ShipmentDto> getShipmentsBySource(Long sourceId) {
-        return nodeRepository.findById(sourceId)
-                .map(node -> shipmentRepository.findBySource(node).stream()
-                        .map(this::convertToDto)
-                        .collect(Collectors.toList()))
-                .orElse(new ArrayList<>());
+    // Analytics listeners apply the change once it commits; the version moves after them, so a
+    // summary cached under it never reflects a write that is still open or was rolled back
+    private void publish(ShipmentChangedEvent event) {
+        eventPublisher.publishEvent(event);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    analyticsVersion.bump();
+                }
+            });
+        } else {
+            analyticsVersion.bump();
+        }
     }
 
-    @Override
-    public List<ShipmentDto> getShipmentsByDestination(Long destinationId) {
-        return nodeRepository.findById(destinationId)
-                .map(node -> shipmentRepository.findByDestination(node).stream()
-                        .map(this::convertToDto)
-                        .collect(Collectors.toList()))
-                .orElse(new ArrayList<>());
+    private static void addIfPresent(Set<Long> ids, Long id) {
+        if (id != null) {
+            ids.add(id);
+        }
     }
 
-    @Override
-    public List<ShipmentDto> getShipmentsByStatus(String status) {
-        return shipmentRepository.findByStatus(status).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    private static String rejectionReason(ShipmentDto dto, Map<Long, Node> nodes, Map<Long, Product> products) {
+        if (dto == null) {
+            return "Shipment is empty";
+        }
+        if (dto.getSourceId() == null || dto.getDestinationId() == null) {
+            return "sourceId and destinationId are required";
+        }
+        if (!nodes.containsKey(dto.getSourceId())) {
+            return "Unknown source node " + dto.getSourceId();
+        }
+        if (!nodes.containsKey(dto.getDestinationId())) {
+            return "Unknown destination node " + dto.getDestinationId();
+        }
+        if (dto.getItems() != null) {
+            for (ShipmentItemDto item : dto.getItems()) {
+                if (item == null || item.getProductId() == null || item.getQuantity() == null) {
+                    return "Every item needs a productId and quantity";
+                }
+                if (!products.containsKey(item.getProductId())) {
+                    return "Unknown product " + item.getProductId();
+                }
+                if (item.getQuantity() <= 0) {
+                    return "Item quantity must be positive";
+                }
+            }
+        }
+        return null;
     }
 
-    @Override
-    public List<ShipmentDto> getShipmentsByDateRange(LocalDate startDate, LocalDate endDate, String dateType) {
-        return shipmentRepository.findByDateRange(startDate, endDate, dateType).stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    private void applyInventoryDeltas(Map<NodeProduct, Integer> deltas) {
+        List<InventoryLedger.Adjustment> adjustments = new ArrayList<>(deltas.size());
+        deltas.forEach((key, delta) -> adjustments.add(new InventoryLedger.Adjustment(key.nodeId(), key.productId(), delta)));
+        inventoryService.adjustQuantities(adjustments);
+    }
+
+    // Cursors are opaque to clients: "i.<id>" or "d.<departure epoch day, empty if unset>.<id>", base64url-encoded
+    private static String encodeCursor(Shipment last, boolean byDeparture) {
+        String raw = byDeparture
+                ? "d." + (last.getDepartureDate() == null ? "" : last.getDepartureDate().toEpochDay()) + "." + last.getId()
+                : "i." + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Specification<Shipment> afterCursor(String cursor, boolean byDeparture) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\.", -1);
+            if (byDeparture && parts.length == 3 && parts[0].equals("d")) {
+                LocalDate departure = parts[1].isEmpty() ? null : LocalDate.ofEpochDay(Long.parseLong(parts[1]));
+                return ShipmentSpecifications.afterDeparture(departure, Long.parseLong(parts[2]));
+            }
+            if (!byDeparture && parts.length == 2 && parts[0].equals("i")) {
+                return ShipmentSpecifications.afterId(Long.parseLong(parts[1]));
+            }
+        } catch (IllegalArgumentException | DateTimeException e) {
+            // Reported below like any other cursor that doesn't fit the sort
+        }
+        throw new BadRequestException("'cursor' is invalid or belongs to a different sort");
     }
 
     private ShipmentDto convertToDto(Shipment shipment) {
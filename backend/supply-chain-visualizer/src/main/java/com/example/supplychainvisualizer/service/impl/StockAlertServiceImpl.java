@@ -0,0 +1,122 @@
+package com.example.supplychainvisualizer.service.impl;
+
+import com.example.supplychainvisualizer.dto.StockAlertDto;
+import com.example.supplychainvisualizer.inventory.InventoryLedger;
+import com.example.supplychainvisualizer.inventory.StockStatus;
+import com.example.supplychainvisualizer.inventory.StockStatusChangedEvent;
+import com.example.supplychainvisualizer.service.StockAlertService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class StockAlertServiceImpl implements StockAlertService {
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Value("${app.inventory.alerts.stream-timeout-ms:1800000}")
+    private long streamTimeoutMs;
+
+    @Value("${app.inventory.alerts.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+
+    // Every send runs here, in order, so a slow client never holds up the inventory change that caused it
+    private ScheduledExecutorService sender;
+
+    @PostConstruct
+    public void start() {
+        sender = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "stock-alerts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Comment lines keep idle streams from being closed by proxies
+        sender.scheduleWithFixedDelay(() -> broadcast(SseEmitter.event().comment("heartbeat")),
+                heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        sender.shutdown();
+        sender.awaitTermination(10, TimeUnit.SECONDS);
+        subscribers.forEach(SseEmitter::complete);
+        subscribers.clear();
+    }
+
+    @Override
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onError(error -> subscribers.remove(emitter));
+        // Reading the snapshot on the sender thread orders it before any change published after the read
+        sender.execute(() -> {
+            List<StockAlertDto> snapshot = inventoryLedger.alerting().stream()
+                    .map(row -> convertToDto(row, null, StockStatus.of(row)))
+                    .toList();
+            if (send(emitter, SseEmitter.event().name("snapshot").data(snapshot))) {
+                subscribers.add(emitter);
+            }
+        });
+        return emitter;
+    }
+
+    @EventListener
+    public void onStockStatusChanged(StockStatusChangedEvent event) {
+        List<StockAlertDto> alerts = event.getTransitions().stream()
+                .map(t -> convertToDto(t.row(), t.previous(), t.current()))
+                .toList();
+        sender.execute(() -> {
+            for (StockAlertDto alert : alerts) {
+                broadcast(SseEmitter.event().name(alert.getStatus()).data(alert));
+            }
+        });
+    }
+
+    private void broadcast(SseEmitter.SseEventBuilder event) {
+        for (SseEmitter emitter : subscribers) {
+            send(emitter, event);
+        }
+    }
+
+    // Drops a subscriber whose connection has gone
+    private boolean send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(emitter);
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private StockAlertDto convertToDto(InventoryLedger.Row row, StockStatus previous, StockStatus current) {
+        StockAlertDto alertDto = new StockAlertDto();
+        alertDto.setInventoryId(row.id());
+        alertDto.setNodeId(row.nodeId());
+        alertDto.setNodeName(row.nodeName());
+        alertDto.setProductId(row.productId());
+        alertDto.setProductName(row.productName());
+        alertDto.setQuantity(row.quantity());
+        alertDto.setMinThreshold(row.minThreshold());
+        alertDto.setMaxThreshold(row.maxThreshold());
+        alertDto.setPreviousStatus(previous == null ? null : previous.label());
+        alertDto.setStatus(current.label());
+        alertDto.setChangedAt(row.updatedAt());
+        return alertDto;
+    }
+}
@@ -0,0 +1,21 @@
+-- Stock held for a caller until it is committed (shipped out of inventory),
+-- released, or expires. Held rows count against available-to-promise; the
+-- expiry sweep finds overdue ones through the (status, expires_at) index.
+
+CREATE SEQUENCE inventory_reservations_id_seq INCREMENT BY 50;
+
+CREATE TABLE inventory_reservations (
+    id         bigint PRIMARY KEY DEFAULT nextval('inventory_reservations_id_seq'),
+    node_id    bigint NOT NULL REFERENCES nodes (id),
+    product_id bigint NOT NULL REFERENCES products (id),
+    quantity   integer NOT NULL,
+    status     varchar(255) NOT NULL,
+    reference  varchar(255),
+    expires_at timestamp(6) NOT NULL,
+    created_at timestamp(6) NOT NULL,
+    updated_at timestamp(6)
+);
+
+ALTER SEQUENCE inventory_reservations_id_seq OWNED BY inventory_reservations.id;
+
+CREATE INDEX idx_inventory_reservations_status_expiry ON inventory_reservations (status, expires_at);
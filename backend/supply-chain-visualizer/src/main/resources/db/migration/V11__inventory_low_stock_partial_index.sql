@@ -0,0 +1,10 @@
+-- Low stock is detected by the inventory ledger as quantities change and
+-- streamed to clients, so the table is only asked for it ad hoc
+-- (InventoryRepository.findLowStock). This index holds just the rows at or
+-- below their minimum, so that query reads those rather than the whole table.
+-- Its predicate matches the query's WHERE clause so the planner can use it.
+-- Because quantity is in the predicate, ledger flushes that change quantity
+-- can't be HOT updates, but a flush writes each changed row at most once.
+
+CREATE INDEX idx_inventory_low_stock ON inventory (node_id, product_id)
+    WHERE min_threshold IS NOT NULL AND quantity <= min_threshold;
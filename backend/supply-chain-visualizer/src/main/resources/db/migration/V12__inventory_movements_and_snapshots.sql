@@ -0,0 +1,33 @@
+-- Inventory history. Every quantity change the inventory ledger writes is
+-- appended to inventory_movements in the same transaction as the change,
+-- keyed by its journal sequence. Every so many movements the flush also
+-- copies the whole inventory table into a snapshot, so stock at a past time
+-- is the nearest earlier snapshot plus the movements after it rather than a
+-- replay of the full history. Movements and snapshots outlive the nodes and
+-- products they mention, so they carry plain ids.
+
+CREATE TABLE inventory_movements (
+    id         bigint PRIMARY KEY,
+    node_id    bigint NOT NULL,
+    product_id bigint NOT NULL,
+    delta      integer NOT NULL,
+    moved_at   timestamp(6) NOT NULL
+);
+
+CREATE INDEX idx_inventory_movements_node_product ON inventory_movements (node_id, product_id, id);
+
+CREATE TABLE inventory_snapshots (
+    last_movement_id bigint PRIMARY KEY,
+    taken_at         timestamp(6) NOT NULL
+);
+
+CREATE INDEX idx_inventory_snapshots_taken_at ON inventory_snapshots (taken_at);
+
+CREATE TABLE inventory_snapshot_rows (
+    id          bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    snapshot_id bigint NOT NULL REFERENCES inventory_snapshots (last_movement_id),
+    node_id     bigint NOT NULL,
+    product_id  bigint NOT NULL,
+    quantity    integer NOT NULL,
+    CONSTRAINT uk_inventory_snapshot_rows_key UNIQUE (snapshot_id, node_id, product_id)
+);
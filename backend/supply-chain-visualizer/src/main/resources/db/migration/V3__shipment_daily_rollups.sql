@@ -0,0 +1,23 @@
+-- Daily shipment rollups for time-windowed analytics.
+-- One row per (day, lane, segment); rows are upserted as shipments change and
+-- back-filled from the shipments table at startup while the table is empty.
+
+CREATE TABLE shipment_daily_rollups (
+    id                 bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    rollup_day         date NOT NULL,
+    source_id          bigint NOT NULL,
+    destination_id     bigint NOT NULL,
+    source_type        varchar(255) NOT NULL,
+    destination_type   varchar(255) NOT NULL,
+    shipments          bigint NOT NULL DEFAULT 0,
+    delayed            bigint NOT NULL DEFAULT 0,
+    delivered          bigint NOT NULL DEFAULT 0,
+    on_time            bigint NOT NULL DEFAULT 0,
+    lead_time_count    bigint NOT NULL DEFAULT 0,
+    lead_time_days_sum bigint NOT NULL DEFAULT 0,
+    segment_count      bigint NOT NULL DEFAULT 0,
+    target_days_sum    bigint NOT NULL DEFAULT 0,
+    actual_days_sum    bigint NOT NULL DEFAULT 0,
+    CONSTRAINT uk_shipment_daily_rollups_key
+        UNIQUE (rollup_day, source_id, destination_id, source_type, destination_type)
+);
@@ -0,0 +1,6 @@
+-- Lead-time distribution per rollup row, encoded by LeadTimeHistogram.toBytes().
+-- Existing rows are cleared so the startup back-fill recomputes them with histograms.
+
+ALTER TABLE shipment_daily_rollups ADD COLUMN lead_time_histogram bytea;
+
+DELETE FROM shipment_daily_rollups;
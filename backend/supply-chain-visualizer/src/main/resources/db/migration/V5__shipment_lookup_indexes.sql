@@ -0,0 +1,7 @@
+-- Foreign-key lookups used by the shipment filters and analytics drill-downs.
+-- Postgres does not index referencing columns on its own.
+
+CREATE INDEX idx_shipments_source ON shipments (source_id);
+CREATE INDEX idx_shipments_destination ON shipments (destination_id);
+CREATE INDEX idx_shipment_items_shipment ON shipment_items (shipment_id);
+CREATE INDEX idx_shipment_items_product ON shipment_items (product_id, shipment_id);
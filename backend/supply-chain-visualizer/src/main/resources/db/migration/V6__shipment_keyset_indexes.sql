@@ -0,0 +1,5 @@
+-- Keyset pagination of shipment listings: the departure-ordered listing seeks on
+-- (departure_date, id), and status listings page in id order within a status.
+
+CREATE INDEX idx_shipments_departure ON shipments (departure_date, id);
+CREATE INDEX idx_shipments_status ON shipments (status, id);
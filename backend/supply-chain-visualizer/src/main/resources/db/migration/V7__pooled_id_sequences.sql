@@ -0,0 +1,38 @@
+-- Entity ids come from sequences that Hibernate reserves 50 at a time (pooled
+-- optimizer), so inserts can be sent in JDBC batches; identity columns force one
+-- round trip per row to read back the generated key.
+--
+-- Existing ids are untouched. Each identity is replaced by a sequence of the same
+-- <table>_id_seq name whose next value is MAX(id) + 50: the pooled optimizer reads
+-- a value as the top of its block, so Hibernate's first block starts at MAX(id) + 1.
+-- The column default keeps plain SQL inserts working.
+
+ALTER TABLE nodes ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE nodes_id_seq INCREMENT BY 50 OWNED BY nodes.id;
+SELECT setval('nodes_id_seq', (SELECT COALESCE(MAX(id), 0) FROM nodes) + 50, false);
+ALTER TABLE nodes ALTER COLUMN id SET DEFAULT nextval('nodes_id_seq');
+
+ALTER TABLE products ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE products_id_seq INCREMENT BY 50 OWNED BY products.id;
+SELECT setval('products_id_seq', (SELECT COALESCE(MAX(id), 0) FROM products) + 50, false);
+ALTER TABLE products ALTER COLUMN id SET DEFAULT nextval('products_id_seq');
+
+ALTER TABLE connections ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE connections_id_seq INCREMENT BY 50 OWNED BY connections.id;
+SELECT setval('connections_id_seq', (SELECT COALESCE(MAX(id), 0) FROM connections) + 50, false);
+ALTER TABLE connections ALTER COLUMN id SET DEFAULT nextval('connections_id_seq');
+
+ALTER TABLE inventory ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE inventory_id_seq INCREMENT BY 50 OWNED BY inventory.id;
+SELECT setval('inventory_id_seq', (SELECT COALESCE(MAX(id), 0) FROM inventory) + 50, false);
+ALTER TABLE inventory ALTER COLUMN id SET DEFAULT nextval('inventory_id_seq');
+
+ALTER TABLE shipments ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE shipments_id_seq INCREMENT BY 50 OWNED BY shipments.id;
+SELECT setval('shipments_id_seq', (SELECT COALESCE(MAX(id), 0) FROM shipments) + 50, false);
+ALTER TABLE shipments ALTER COLUMN id SET DEFAULT nextval('shipments_id_seq');
+
+ALTER TABLE shipment_items ALTER COLUMN id DROP IDENTITY;
+CREATE SEQUENCE shipment_items_id_seq INCREMENT BY 50 OWNED BY shipment_items.id;
+SELECT setval('shipment_items_id_seq', (SELECT COALESCE(MAX(id), 0) FROM shipment_items) + 50, false);
+ALTER TABLE shipment_items ALTER COLUMN id SET DEFAULT nextval('shipment_items_id_seq');
@@ -0,0 +1,23 @@
+-- One inventory row per (node, product), so quantity adjustments can be applied
+-- with a single atomic UPDATE and concurrent creators of a new row collide on the
+-- constraint instead of both inserting. Any duplicates are first folded into the
+-- oldest row. The constraint's index also serves the (node, product) lookups.
+
+UPDATE inventory keep
+SET quantity = dup.total
+FROM (SELECT MIN(id) AS id, SUM(quantity) AS total
+      FROM inventory
+      GROUP BY node_id, product_id
+      HAVING COUNT(*) > 1) dup
+WHERE keep.id = dup.id;
+
+DELETE FROM inventory newer
+USING inventory older
+WHERE newer.node_id = older.node_id
+  AND newer.product_id = older.product_id
+  AND newer.id > older.id;
+
+ALTER TABLE inventory ADD CONSTRAINT uq_inventory_node_product UNIQUE (node_id, product_id);
+
+-- Optimistic-lock version for manual edits
+ALTER TABLE inventory ADD COLUMN version bigint NOT NULL DEFAULT 0;
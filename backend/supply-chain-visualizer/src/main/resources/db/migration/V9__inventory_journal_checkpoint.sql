@@ -0,0 +1,11 @@
+-- Inventory changes are served from an in-process ledger, journaled to local
+-- disk and written to the inventory table in batches. Each batch records the
+-- last journal sequence it covers here, in the same transaction, so replaying
+-- the journal after a crash applies every change exactly once.
+
+CREATE TABLE inventory_journal_checkpoint (
+    id            integer PRIMARY KEY,
+    last_sequence bigint NOT NULL
+);
+
+INSERT INTO inventory_journal_checkpoint (id, last_sequence) VALUES (1, 0);
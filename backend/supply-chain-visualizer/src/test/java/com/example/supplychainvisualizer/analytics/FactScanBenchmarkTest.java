@@ -0,0 +1,66 @@
+package com.example.supplychainvisualizer.analytics;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Times a full-range {@link FactScan} over one million shipments sequentially and
+ * on dedicated pools of 1 up to the available cores (at least 2), printing each
+ * pool's time relative to the sequential scan. It checks only that every pool
+ * gets the sequential result, not that any is faster. Excluded from the default
+ * build; run with {@code mvn test -Pbenchmark}.
+ * <p>
+ * So far it has only run on a single core: sequential 49 ms, a 1-thread pool
+ * 47 ms (it takes the sequential path), 2 threads 73 ms (0.67x). That shows the
+ * cost of splitting and merging, not a speedup; how the scan scales on more
+ * cores is unmeasured, which is why {@code app.analytics.parallel-scan} is off
+ * by default.
+ */
+@Tag("benchmark")
+class FactScanBenchmarkTest {
+
+    private static final int ROWS = 1_000_000;
+    private static final int RUNS = 15;
+    private static final LocalDate FROM = LocalDate.of(1970, 1, 1);
+    private static final LocalDate TO = LocalDate.of(2026, 12, 31);
+
+    @Test
+    void scan_timedAtEachPoolParallelism() {
+        ShipmentFactStore store = FactScanTest.storeOf(ROWS, 50, 7);
+        FactScan expected = store.read(facts -> FactScan.over(facts, FROM, TO));
+
+        double sequential = medianMillis(store, null);
+        System.out.printf("FactScan over %,d rows: sequential %.1f ms%n", ROWS, sequential);
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= Math.max(cores, 2); threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                FactScanTest.assertSameScan(store.read(facts -> FactScan.over(facts, FROM, TO, pool)), expected);
+                double millis = medianMillis(store, pool);
+                System.out.printf("FactScan over %,d rows: %d thread(s) %.1f ms, speedup %.2fx%n",
+                        ROWS, threads, millis, sequential / millis);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private static double medianMillis(ShipmentFactStore store, ForkJoinPool pool) {
+        long[] nanos = new long[RUNS];
+        for (int warmup = 0; warmup < 5; warmup++) {
+            store.read(facts -> FactScan.over(facts, FROM, TO, pool));
+        }
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            store.read(facts -> FactScan.over(facts, FROM, TO, pool));
+            nanos[run] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[RUNS / 2] / 1e6;
+    }
+}
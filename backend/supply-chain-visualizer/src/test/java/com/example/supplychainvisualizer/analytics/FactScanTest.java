@@ -0,0 +1,65 @@
+package com.example.supplychainvisualizer.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FactScanTest {
+
+    private static final LocalDate JAN_1 = LocalDate.of(2026, 1, 1);
+    private static final String[] STATUSES = {"pending", "in_transit", "delayed", "delivered"};
+    private static final String[] TYPES = {"factory", "warehouse", "distribution", "store"};
+
+    /** Random shipments over {@code nodes * nodes} lanes, some departing centuries apart. */
+    static ShipmentFactStore storeOf(int rows, int nodes, long seed) {
+        Random random = new Random(seed);
+        List<ShipmentSnapshot> snapshots = new ArrayList<>(rows);
+        for (long id = 1; id <= rows; id++) {
+            long source = 1 + random.nextInt(nodes);
+            long destination = 1 + random.nextInt(nodes);
+            LocalDate departure = random.nextInt(10) == 0 ? null
+                    : random.nextInt(1000) == 0 ? JAN_1.plusYears(200 + random.nextInt(500))
+                    : JAN_1.plusDays(random.nextInt(365));
+            LocalDate estimated = departure == null ? null : departure.plusDays(2 + random.nextInt(5));
+            LocalDate actual = departure == null || random.nextBoolean() ? null
+                    : departure.plusDays(random.nextInt(20) == 0 ? 64 + random.nextInt(400) : random.nextInt(9));
+            snapshots.add(new ShipmentSnapshot(id, source, destination, TYPES[(int) source % TYPES.length],
+                    TYPES[(int) destination % TYPES.length], STATUSES[random.nextInt(STATUSES.length)],
+                    departure, estimated, actual, JAN_1));
+        }
+        ShipmentFactStore store = new ShipmentFactStore();
+        store.load(snapshots);
+        return store;
+    }
+
+    static void assertSameScan(FactScan actual, FactScan expected) {
+        assertThat(actual.getLanes()).isEqualTo(expected.getLanes());
+        assertThat(actual.getSegments()).isEqualTo(expected.getSegments());
+        assertThat(actual.getDays()).isEqualTo(expected.getDays());
+    }
+
+    @Test
+    void over_parallelPoolMatchesSequentialScan() {
+        ShipmentFactStore store = storeOf(4 * FactScan.MIN_CHUNK_ROWS, 40, 3);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // One dense window of days and one wide enough to need sparse day slots
+            for (LocalDate[] window : new LocalDate[][]{
+                    {JAN_1.plusDays(30), JAN_1.plusDays(200)}, {LocalDate.of(1970, 1, 1), LocalDate.of(9999, 12, 31)}}) {
+                FactScan sequential = store.read(facts -> FactScan.over(facts, window[0], window[1]));
+                FactScan parallel = store.read(facts -> FactScan.over(facts, window[0], window[1], pool));
+
+                assertSameScan(parallel, sequential);
+                assertThat(sequential.getLanes()).isNotEmpty();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
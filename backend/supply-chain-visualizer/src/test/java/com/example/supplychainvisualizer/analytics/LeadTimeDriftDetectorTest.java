@@ -0,0 +1,74 @@
+package com.example.supplychainvisualizer.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeadTimeDriftDetectorTest {
+
+    private static final LocalDate JAN_1 = LocalDate.of(2026, 1, 1);
+
+    private final LeadTimeDriftDetector detector = new LeadTimeDriftDetector(0.05, 0.3, 3.0, 10);
+
+    @Test
+    void flaggedLanes_flagsLaneOnlyAfterItsLeadTimeDrifts() {
+        Random random = new Random(5);
+        for (int i = 0; i < 200; i++) {
+            detector.observe(1, 2, 3 + random.nextInt(3));
+            detector.observe(2, 3, 6 + random.nextInt(3));
+        }
+        assertThat(detector.flaggedLanes()).isEmpty();
+
+        for (int i = 0; i < 8; i++) {
+            detector.observe(1, 2, 10 + random.nextInt(3));
+            detector.observe(2, 3, 6 + random.nextInt(3));
+        }
+
+        assertThat(detector.flaggedLanes()).singleElement().satisfies(drift -> {
+            assertThat(drift.sourceId()).isEqualTo(1);
+            assertThat(drift.destinationId()).isEqualTo(2);
+            assertThat(drift.zScore()).isGreaterThan(3.0);
+            assertThat(drift.recentDays()).isGreaterThan(drift.baselineDays());
+        });
+    }
+
+    @Test
+    void flaggedLanes_laneQualifiesAtExactlyMinSamples() {
+        for (int i = 0; i < 8; i++) {
+            detector.observe(1, 2, 3);
+        }
+        detector.observe(1, 2, 30);
+        assertThat(detector.flaggedLanes()).isEmpty();
+
+        detector.observe(1, 2, 30);
+        assertThat(detector.flaggedLanes()).extracting(LeadTimeDriftDetector.LaneDrift::samples).containsExactly(10L);
+    }
+
+    @Test
+    void onShipmentChanged_onlyCountsTransitionsIntoDelivered() {
+        ShipmentSnapshot inTransit = snapshot("in_transit", null);
+        ShipmentSnapshot delivered = snapshot("delivered", JAN_1.plusDays(20));
+        for (int i = 0; i < 20; i++) {
+            detector.observe(1, 2, 3);
+        }
+
+        // Edits to an already delivered shipment are not new deliveries
+        for (int i = 0; i < 5; i++) {
+            detector.onShipmentChanged(ShipmentChangedEvent.updated(delivered, delivered));
+        }
+        assertThat(detector.flaggedLanes()).isEmpty();
+
+        for (int i = 0; i < 5; i++) {
+            detector.onShipmentChanged(ShipmentChangedEvent.updated(inTransit, delivered));
+        }
+        assertThat(detector.flaggedLanes()).extracting(LeadTimeDriftDetector.LaneDrift::samples).containsExactly(25L);
+    }
+
+    private static ShipmentSnapshot snapshot(String status, LocalDate actual) {
+        return new ShipmentSnapshot(1L, 1L, 2L, "factory", "warehouse", status,
+                JAN_1, JAN_1.plusDays(4), actual, JAN_1);
+    }
+}
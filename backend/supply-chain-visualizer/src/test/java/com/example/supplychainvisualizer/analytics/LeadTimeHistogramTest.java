@@ -0,0 +1,71 @@
+package com.example.supplychainvisualizer.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LeadTimeHistogramTest {
+
+    @Test
+    void valueAtPercentile_smallValuesAreExact() {
+        LeadTimeHistogram h = new LeadTimeHistogram();
+        for (long days = 1; days <= 10; days++) {
+            h.add(days, 1);
+        }
+
+        assertThat(h.getCount()).isEqualTo(10);
+        assertThat(h.valueAtPercentile(50)).isEqualTo(5);
+        assertThat(h.valueAtPercentile(90)).isEqualTo(9);
+        assertThat(h.valueAtPercentile(99)).isEqualTo(10);
+    }
+
+    @Test
+    void valueAtPercentile_largeValuesStayWithinBucketError() {
+        LeadTimeHistogram h = new LeadTimeHistogram();
+        h.add(1000, 1);
+
+        assertThat(h.valueAtPercentile(50)).isBetween(1000L, 1000L + 1000L / 32);
+    }
+
+    @Test
+    void bucketIndex_roundTripsThroughHighestValue() {
+        for (long v = 0; v < 100_000; v++) {
+            int index = LeadTimeHistogram.bucketIndex(v);
+            assertThat(LeadTimeHistogram.highestValueIn(index)).isGreaterThanOrEqualTo(v);
+            assertThat(LeadTimeHistogram.bucketIndex(LeadTimeHistogram.highestValueIn(index))).isEqualTo(index);
+        }
+    }
+
+    @Test
+    void removalAndMerge_matchDirectRecording() {
+        LeadTimeHistogram a = new LeadTimeHistogram();
+        a.add(3, 1);
+        a.add(200, 1);
+        LeadTimeHistogram b = new LeadTimeHistogram();
+        b.add(7, 2);
+        b.add(200, -1);
+
+        a.merge(b);
+
+        LeadTimeHistogram expected = new LeadTimeHistogram();
+        expected.add(3, 1);
+        expected.add(7, 2);
+        assertThat(a).isEqualTo(expected);
+        assertThat(a.hashCode()).isEqualTo(expected.hashCode());
+        assertThat(a.getCount()).isEqualTo(3);
+    }
+
+    @Test
+    void toBytes_roundTrips() {
+        LeadTimeHistogram h = new LeadTimeHistogram();
+        h.add(0, 4);
+        h.add(12, 1);
+        h.add(5_000, 300);
+
+        LeadTimeHistogram decoded = LeadTimeHistogram.fromBytes(h.toBytes());
+
+        assertThat(decoded).isEqualTo(h);
+        assertThat(decoded.getCount()).isEqualTo(305);
+        assertThat(LeadTimeHistogram.fromBytes(new LeadTimeHistogram().toBytes()).isEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.supplychainvisualizer.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShipmentFactStoreTest {
+
+    private static final LocalDate JAN_1 = LocalDate.of(2026, 1, 1);
+    private static final String[] STATUSES = {"pending", "in_transit", "delayed", "delivered", "Delivered"};
+    private static final String[] TYPES = {"factory", "warehouse", "store"};
+
+    private static ShipmentSnapshot snapshot(long id, long source, long destination, String status,
+                                             LocalDate departure, LocalDate estimated, LocalDate actual) {
+        return new ShipmentSnapshot(id, source, destination, TYPES[(int) source % TYPES.length],
+                TYPES[(int) destination % TYPES.length], status, departure, estimated, actual, JAN_1);
+    }
+
+    @Test
+    void onShipmentChanged_updatesAndRemovesRowsInPlace() {
+        ShipmentFactStore store = new ShipmentFactStore();
+        ShipmentSnapshot first = snapshot(1, 1, 2, "in_transit", JAN_1, JAN_1.plusDays(4), null);
+        ShipmentSnapshot second = snapshot(2, 1, 2, "delayed", JAN_1, JAN_1.plusDays(4), null);
+        store.load(List.of(first, second));
+
+        ShipmentSnapshot delivered = snapshot(1, 1, 2, "DELIVERED", JAN_1, JAN_1.plusDays(4), JAN_1.plusDays(3));
+        store.onShipmentChanged(ShipmentChangedEvent.updated(first, delivered));
+        store.onShipmentChanged(ShipmentChangedEvent.deleted(second));
+        store.onShipmentChanged(ShipmentChangedEvent.created(
+                snapshot(3, 2, 1, "pending", null, null, null)));
+
+        assertThat(store.size()).isEqualTo(2);
+        store.read(facts -> {
+            assertThat(facts.ids()[0]).isEqualTo(1);
+            assertThat(facts.statuses()[0]).isEqualTo(ShipmentFactStore.STATUS_DELIVERED);
+            assertThat(facts.actualDays()[0]).isEqualTo((int) JAN_1.plusDays(3).toEpochDay());
+            assertThat(facts.ids()[1]).isEqualTo(3);
+            assertThat(facts.departureDays()[1]).isEqualTo(ShipmentFactStore.NO_DATE);
+            assertThat(facts.laneCount()).isEqualTo(2);
+            return null;
+        });
+    }
+
+    @Test
+    void scan_matchesPerSnapshotAggregation() {
+        Random random = new Random(11);
+        List<ShipmentSnapshot> snapshots = new ArrayList<>();
+        for (long id = 1; id <= 2_000; id++) {
+            LocalDate departure = random.nextInt(10) == 0 ? null : JAN_1.plusDays(random.nextInt(90));
+            LocalDate estimated = departure == null ? null : departure.plusDays(2 + random.nextInt(5));
+            LocalDate actual = departure == null || random.nextBoolean() ? null : departure.plusDays(random.nextInt(9));
+            snapshots.add(snapshot(id, 1 + random.nextInt(4), 1 + random.nextInt(4),
+                    STATUSES[random.nextInt(STATUSES.length)], departure, estimated, actual));
+        }
+        ShipmentFactStore store = new ShipmentFactStore();
+        store.load(snapshots);
+        LocalDate from = JAN_1.plusDays(10);
+        LocalDate to = JAN_1.plusDays(40);
+
+        FactScan scan = store.read(facts -> FactScan.over(facts, from, to));
+
+        for (LaneAggregate lane : scan.getLanes()) {
+            LaneAggregate expected = new LaneAggregate(lane.getSourceId(), lane.getDestinationId());
+            snapshots.stream()
+                    .filter(s -> s.sourceId() == lane.getSourceId() && s.destinationId() == lane.getDestinationId())
+                    .filter(s -> !s.rollupDay().isBefore(from) && !s.rollupDay().isAfter(to))
+                    .forEach(s -> expected.apply(s, 1));
+            assertThat(lane).isEqualTo(expected);
+        }
+        long inWindow = snapshots.stream()
+                .filter(s -> !s.rollupDay().isBefore(from) && !s.rollupDay().isAfter(to))
+                .count();
+        assertThat(scan.getLanes().stream().mapToLong(LaneAggregate::getShipments).sum()).isEqualTo(inWindow);
+        assertThat(scan.getDays().values().stream().mapToLong(LaneAggregate::getShipments).sum()).isEqualTo(inWindow);
+        assertThat(scan.getSegments().stream().mapToLong(s -> s.totals().getShipments()).sum()).isEqualTo(inWindow);
+        assertThat(scan.getDays().firstKey()).isAfterOrEqualTo(from);
+        assertThat(scan.getDays().lastKey()).isBeforeOrEqualTo(to);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.supplychainvisualizer.analytics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Drives the gate's transaction callbacks by hand, the way a transaction
+ * manager would around a shipment write's commit.
+ */
+class ShipmentWriteGateTest {
+
+    private static final ShipmentChangedEvent CREATED = ShipmentChangedEvent.created(
+            new ShipmentSnapshot(1L, 1L, 2L, "factory", "warehouse", "pending", null, null, null, null));
+
+    private final ShipmentWriteGate gate = new ShipmentWriteGate();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor();
+    private final ExecutorService writer = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        rebuilder.shutdownNow();
+        writer.shutdownNow();
+    }
+
+    @Test
+    void exclusively_waitsUntilACommittingWriteHasAppliedItsChanges() throws Exception {
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch complete = new CountDownLatch(1);
+        Future<?> write = writer.submit(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            gate.onShipmentChanged(CREATED);
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+            committing.countDown();
+            await(complete);
+            completeTransaction();
+        });
+        committing.await();
+
+        Future<Boolean> rebuild = rebuilder.submit(() -> gate.exclusively(() -> true));
+        assertThatThrownBy(() -> rebuild.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+        complete.countDown();
+        write.get(5, TimeUnit.SECONDS);
+        assertThat(rebuild.get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void commit_waitsUntilARebuildHasSwapped() throws Exception {
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch swap = new CountDownLatch(1);
+        Future<?> rebuild = rebuilder.submit(() -> gate.exclusively(() -> {
+            reading.countDown();
+            await(swap);
+        }));
+        reading.await();
+
+        Future<?> write = writer.submit(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            gate.onShipmentChanged(CREATED);
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+            completeTransaction();
+        });
+        assertThatThrownBy(() -> write.get(200, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+        swap.countDown();
+        rebuild.get(5, TimeUnit.SECONDS);
+        write.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void changesOutsideATransaction_doNotHoldTheGate() throws Exception {
+        gate.onShipmentChanged(CREATED);
+
+        assertThat(rebuilder.submit(() -> gate.exclusively(() -> true)).get(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static void completeTransaction() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_COMMITTED);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.supplychainvisualizer.analytics;
+
+import com.example.supplychainvisualizer.dto.AnalyticsSummaryDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SummaryCacheTest {
+
+    @Test
+    void get_concurrentMissesShareOneComputation() throws Exception {
+        SummaryCache cache = new SummaryCache();
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<AnalyticsSummaryDto>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> cache.get(SummaryCache.Key.ALL_TIME, 1, () -> {
+                    computations.incrementAndGet();
+                    await(release);
+                    return new AnalyticsSummaryDto();
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            AnalyticsSummaryDto first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<AnalyticsSummaryDto> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(first);
+            }
+            assertThat(computations).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void get_recomputesForNewVersionOrOtherKeyAndRetriesAfterFailure() {
+        SummaryCache cache = new SummaryCache();
+        SummaryCache.Key window = new SummaryCache.Key("all", LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 31), "DAY");
+        AnalyticsSummaryDto v1 = cache.get(SummaryCache.Key.ALL_TIME, 1, AnalyticsSummaryDto::new);
+
+        assertThat(cache.get(SummaryCache.Key.ALL_TIME, 1, AnalyticsSummaryDto::new)).isSameAs(v1);
+        assertThat(cache.get(SummaryCache.Key.ALL_TIME, 2, AnalyticsSummaryDto::new)).isNotSameAs(v1);
+        assertThat(cache.get(window, 2, AnalyticsSummaryDto::new)).isNotSameAs(v1);
+
+        assertThatThrownBy(() -> cache.get(window, 3, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(cache.get(window, 3, AnalyticsSummaryDto::new)).isNotNull();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
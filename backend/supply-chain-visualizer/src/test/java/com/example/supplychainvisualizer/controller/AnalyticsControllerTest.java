@@ -0,0 +1,109 @@
+package com.example.supplychainvisualizer.controller;
+
+import com.example.supplychainvisualizer.dto.AnalyticsSummaryDto;
+import com.example.supplychainvisualizer.dto.LaneDriftDto;
+import com.example.supplychainvisualizer.security.WebSecurityConfig;
+import com.example.supplychainvisualizer.security.jwt.AuthEntryPointJwt;
+import com.example.supplychainvisualizer.security.jwt.JwtUtils;
+import com.example.supplychainvisualizer.security.services.UserDetailsServiceImpl;
+import com.example.supplychainvisualizer.service.AnalyticsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AnalyticsController.class)
+@Import({WebSecurityConfig.class, AuthEntryPointJwt.class})
+class AnalyticsControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private AnalyticsService analyticsService;
+
+    @MockitoBean
+    private JwtUtils jwtUtils;
+
+    @MockitoBean
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void getSummaryReturnsStrongETag() throws Exception {
+        AnalyticsSummaryDto summary = new AnalyticsSummaryDto();
+        summary.setTotalShipments(3);
+        when(analyticsService.getSummaryVersionTag()).thenReturn("abc-7");
+        when(analyticsService.getSummary()).thenReturn(summary);
+
+        mockMvc.perform(get("/api/analytics/summary"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc-7\""))
+                .andExpect(jsonPath("$.totalShipments").value(3));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void getSummaryWithMatchingIfNoneMatchReturns304WithoutComputing() throws Exception {
+        when(analyticsService.getSummaryVersionTag()).thenReturn("abc-7");
+
+        mockMvc.perform(get("/api/analytics/summary").header(HttpHeaders.IF_NONE_MATCH, "\"abc-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc-7\""));
+
+        verify(analyticsService, never()).getSummary();
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void getLeadTimeDriftReturnsFlaggedLanes() throws Exception {
+        LaneDriftDto drift = new LaneDriftDto();
+        drift.setLane("Pacific Factory → Central Warehouse");
+        drift.setZScore(4.2);
+        when(analyticsService.getLeadTimeDrift()).thenReturn(List.of(drift));
+
+        mockMvc.perform(get("/api/analytics/lead-time-drift"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].lane").value("Pacific Factory → Central Warehouse"))
+                .andExpect(jsonPath("$[0].zScore").value(4.2));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void getSummaryByProductReturns404ForUnknownProduct() throws Exception {
+        when(analyticsService.getSummaryVersionTag()).thenReturn("abc-7");
+        when(analyticsService.getSummaryByProduct(5L)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/analytics/summary/product/5"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void getSummaryBySourceReturnsDrillDown() throws Exception {
+        AnalyticsSummaryDto summary = new AnalyticsSummaryDto();
+        summary.setTotalShipments(2);
+        when(analyticsService.getSummaryVersionTag()).thenReturn("abc-7");
+        when(analyticsService.getSummaryBySource(3L)).thenReturn(Optional.of(summary));
+
+        mockMvc.perform(get("/api/analytics/summary/source/3"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc-7\""))
+                .andExpect(jsonPath("$.totalShipments").value(2));
+    }
+}
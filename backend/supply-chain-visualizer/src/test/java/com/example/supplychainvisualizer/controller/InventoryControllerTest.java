@@ -0,0 +1,94 @@
+package com.example.supplychainvisualizer.controller;
+
+import com.example.supplychainvisualizer.inventory.InventoryLedger;
+import com.example.supplychainvisualizer.inventory.StockStatus;
+import com.example.supplychainvisualizer.inventory.StockStatusChangedEvent;
+import com.example.supplychainvisualizer.security.WebSecurityConfig;
+import com.example.supplychainvisualizer.security.jwt.AuthEntryPointJwt;
+import com.example.supplychainvisualizer.security.jwt.JwtUtils;
+import com.example.supplychainvisualizer.security.services.UserDetailsServiceImpl;
+import com.example.supplychainvisualizer.service.InventoryService;
+import com.example.supplychainvisualizer.service.impl.StockAlertServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(InventoryController.class)
+@Import({WebSecurityConfig.class, AuthEntryPointJwt.class, StockAlertServiceImpl.class})
+class InventoryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private StockAlertServiceImpl stockAlertService;
+
+    @MockitoBean
+    private InventoryService inventoryService;
+
+    @MockitoBean
+    private InventoryLedger inventoryLedger;
+
+    @MockitoBean
+    private JwtUtils jwtUtils;
+
+    @MockitoBean
+    private UserDetailsServiceImpl userDetailsService;
+
+    private static InventoryLedger.Row row(int quantity) {
+        return new InventoryLedger.Row(100L, 1L, "Central Warehouse", 2L, "Widget",
+                quantity, 5, 500, 3L, LocalDateTime.of(2026, 1, 1, 0, 0));
+    }
+
+    @Test
+    void alertsWithoutAuthReturns401() throws Exception {
+        mockMvc.perform(get("/api/inventory/alerts"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void alertsStreamSendsASnapshotThenEachStatusChange() throws Exception {
+        when(inventoryLedger.alerting()).thenReturn(List.of(row(0)));
+
+        MvcResult result = mockMvc.perform(get("/api/inventory/alerts"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockHttpServletResponse response = result.getResponse();
+        // An event's name and data lines can arrive as separate writes, so wait for the data itself
+        awaitContaining(response, "\"status\":\"critical\"");
+
+        stockAlertService.onStockStatusChanged(new StockStatusChangedEvent(List.of(
+                new StockStatusChangedEvent.Transition(row(4), StockStatus.OPTIMAL, StockStatus.LOW))));
+        awaitContaining(response, "\"quantity\":4");
+
+        String body = response.getContentAsString();
+        assertThat(body).contains("event:snapshot");
+        assertThat(body.substring(body.indexOf("event:low")))
+                .contains("\"previousStatus\":\"optimal\"", "\"quantity\":4");
+    }
+
+    private static void awaitContaining(MockHttpServletResponse response, String text) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!response.getContentAsString().contains(text)) {
+            assertThat(System.nanoTime()).as("waiting for " + text).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.supplychainvisualizer.inventory;
+
+import com.example.supplychainvisualizer.analytics.AnalyticsVersion;
+import com.example.supplychainvisualizer.config.JpaAuditingConfig;
+import com.example.supplychainvisualizer.dto.ReservationDto;
+import com.example.supplychainvisualizer.dto.ShipmentDto;
+import com.example.supplychainvisualizer.dto.ShipmentItemDto;
+import com.example.supplychainvisualizer.exception.ConflictException;
+import com.example.supplychainvisualizer.model.InventoryReservation;
+import com.example.supplychainvisualizer.model.Node;
+import com.example.supplychainvisualizer.model.Product;
+import com.example.supplychainvisualizer.repository.InventoryRepository;
+import com.example.supplychainvisualizer.repository.InventoryReservationRepository;
+import com.example.supplychainvisualizer.repository.NodeRepository;
+import com.example.supplychainvisualizer.repository.ProductRepository;
+import com.example.supplychainvisualizer.repository.ShipmentRepository;
+import com.example.supplychainvisualizer.service.impl.InventoryServiceImpl;
+import com.example.supplychainvisualizer.service.impl.ReservationServiceImpl;
+import com.example.supplychainvisualizer.service.impl.ShipmentServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Drives the index through the shipment and reservation services against
+ * embedded H2, outside a test transaction so shipment changes reach it the
+ * way they do in the application: once committed.
+ */
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "app.inventory.ledger.flush-interval-ms=3600000",
+        "app.inventory.reservations.expiry-interval-ms=3600000"})
+@Import({JpaAuditingConfig.class, AnalyticsVersion.class, InventoryLedger.class, InventoryServiceImpl.class,
+        ShipmentServiceImpl.class, AvailabilityIndex.class, ReservationServiceImpl.class,
+        TemporaryJournalDirectory.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AvailabilityIndexTest {
+
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private ReservationServiceImpl reservationService;
+
+    @Autowired
+    private ShipmentServiceImpl shipmentService;
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private InventoryReservationRepository reservationRepository;
+
+    @Autowired
+    private ShipmentRepository shipmentRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private NodeRepository nodeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Node plant;
+    private Node warehouse;
+    private Product widget;
+
+    @BeforeEach
+    void setUp() {
+        plant = nodeRepository.save(node("Plant"));
+        warehouse = nodeRepository.save(node("Central Warehouse"));
+        Product product = new Product();
+        product.setName("Widget");
+        product.setUnitPrice(1.0);
+        widget = productRepository.save(product);
+        inventoryLedger.update(plant.getId(), widget.getId(), 100, null, null, null);
+        inventoryLedger.update(warehouse.getId(), widget.getId(), 10, null, null, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.deleteAll();
+        shipmentRepository.deleteAll();
+        inventoryRepository.deleteAll();
+        productRepository.deleteAll();
+        nodeRepository.deleteAll();
+        inventoryLedger.reload();
+        availabilityIndex.reload();
+    }
+
+    @Test
+    void inbound_followsShipmentStatusUntilDelivery() {
+        Long shipmentId = shipmentService.createShipment(shipment("pending", 30)).getId();
+        assertThat(availabilityIndex.get(warehouse.getId(), widget.getId()).inbound()).isZero();
+
+        updateStatus(shipmentId, "in_transit");
+        assertThat(availabilityIndex.get(warehouse.getId(), widget.getId()).available()).isEqualTo(40);
+
+        updateStatus(shipmentId, "delayed");
+        assertThat(availabilityIndex.get(warehouse.getId(), widget.getId()).inbound()).isEqualTo(30);
+
+        updateStatus(shipmentId, "delivered");
+        AvailabilityIndex.Availability delivered = availabilityIndex.get(warehouse.getId(), widget.getId());
+        assertThat(delivered.inbound()).isZero();
+        assertThat(delivered.onHand()).isEqualTo(40);
+        assertThat(availabilityIndex.get(plant.getId(), widget.getId()).available()).isEqualTo(70);
+    }
+
+    @Test
+    void reservations_holdStockUntilCommittedOrReleased() {
+        ReservationDto first = reservationService.reserve(reservation(6));
+        assertThat(availabilityIndex.get(warehouse.getId(), widget.getId()).available()).isEqualTo(4);
+        assertThatThrownBy(() -> reservationService.reserve(reservation(5))).isInstanceOf(ConflictException.class);
+
+        reservationService.release(first.getId());
+        ReservationDto second = reservationService.reserve(reservation(8));
+        reservationService.commit(second.getId());
+
+        AvailabilityIndex.Availability after = availabilityIndex.get(warehouse.getId(), widget.getId());
+        assertThat(after.onHand()).isEqualTo(2);
+        assertThat(after.reserved()).isZero();
+        assertThat(reservationRepository.findById(second.getId()).orElseThrow().getStatus())
+                .isEqualTo(InventoryReservation.COMMITTED);
+        assertThatThrownBy(() -> reservationService.release(second.getId())).isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void expiredHolds_returnToAvailableStock_andHeldOnesSurviveAReload() {
+        ReservationDto overdue = reservationService.reserve(reservation(4));
+        reservationService.reserve(reservation(3));
+        InventoryReservation stored = reservationRepository.findById(overdue.getId()).orElseThrow();
+        stored.setExpiresAt(LocalDateTime.now().minusSeconds(1));
+        reservationRepository.save(stored);
+
+        assertThat(reservationService.expireOverdue()).isEqualTo(1);
+        assertThat(availabilityIndex.get(warehouse.getId(), widget.getId()).available()).isEqualTo(7);
+        availabilityIndex.reload();
+
+        assertThat(availabilityIndex.get(warehouse.getId(), widget.getId()).reserved()).isEqualTo(3);
+        assertThat(reservationRepository.findById(overdue.getId()).orElseThrow().getStatus())
+                .isEqualTo(InventoryReservation.EXPIRED);
+    }
+
+    @Test
+    void concurrentReservations_neverPromiseMoreThanIsAvailable() throws Exception {
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    int granted = 0;
+                    for (int i = 0; i < 50; i++) {
+                        if (availabilityIndex.tryReserve(plant.getId(), widget.getId(), 1)) {
+                            granted++;
+                        }
+                    }
+                    return granted;
+                }));
+            }
+            start.countDown();
+            int granted = 0;
+            for (Future<Integer> future : futures) {
+                granted += future.get();
+            }
+            assertThat(granted).isEqualTo(100);
+            assertThat(availabilityIndex.get(plant.getId(), widget.getId()).available()).isZero();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // In a transaction, as within a request's open session, so the index sees the change once it commits
+    private void updateStatus(Long shipmentId, String status) {
+        transactionTemplate.executeWithoutResult(tx -> shipmentService.updateShipmentStatus(shipmentId, status));
+    }
+
+    private ShipmentDto shipment(String status, int quantity) {
+        ShipmentItemDto item = new ShipmentItemDto();
+        item.setProductId(widget.getId());
+        item.setQuantity(quantity);
+        ShipmentDto dto = new ShipmentDto();
+        dto.setSourceId(plant.getId());
+        dto.setDestinationId(warehouse.getId());
+        dto.setStatus(status);
+        dto.setItems(List.of(item));
+        return dto;
+    }
+
+    private ReservationDto reservation(int quantity) {
+        ReservationDto dto = new ReservationDto();
+        dto.setNodeId(warehouse.getId());
+        dto.setProductId(widget.getId());
+        dto.setQuantity(quantity);
+        return dto;
+    }
+
+    private static Node node(String name) {
+        Node node = new Node();
+        node.setName(name);
+        node.setType("warehouse");
+        node.setLatitude(0.0);
+        node.setLongitude(0.0);
+        return node;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.supplychainvisualizer.inventory;
+
+import com.example.supplychainvisualizer.config.JpaAuditingConfig;
+import com.example.supplychainvisualizer.dto.InventoryHistoryDto;
+import com.example.supplychainvisualizer.exception.BadRequestException;
+import com.example.supplychainvisualizer.model.Node;
+import com.example.supplychainvisualizer.model.Product;
+import com.example.supplychainvisualizer.repository.InventoryRepository;
+import com.example.supplychainvisualizer.repository.NodeRepository;
+import com.example.supplychainvisualizer.repository.ProductRepository;
+import com.example.supplychainvisualizer.service.impl.InventoryHistoryServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Records changes through the ledger against embedded H2 and reads stock back
+ * at points in between, with a snapshot taken every three movements. Changes
+ * reach the table only on an explicit flush; until then reads take them from
+ * the ledger.
+ */
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "app.inventory.ledger.flush-interval-ms=3600000",
+        "app.inventory.history.snapshot-interval=3"})
+@Import({JpaAuditingConfig.class, InventoryLedger.class, InventoryHistoryServiceImpl.class,
+        TemporaryJournalDirectory.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryHistoryTest {
+
+    @Autowired
+    private InventoryHistoryServiceImpl historyService;
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private NodeRepository nodeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Node warehouse;
+    private Product widget;
+    private Product gadget;
+
+    @BeforeEach
+    void setUp() {
+        Node node = new Node();
+        node.setName("Central Warehouse");
+        node.setType("warehouse");
+        node.setLatitude(0.0);
+        node.setLongitude(0.0);
+        warehouse = nodeRepository.save(node);
+        widget = productRepository.save(product("Widget"));
+        gadget = productRepository.save(product("Gadget"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        inventoryRepository.deleteAll();
+        productRepository.deleteAll();
+        nodeRepository.deleteAll();
+        inventoryLedger.reload();
+    }
+
+    @Test
+    void stockAt_isTheNearestSnapshotPlusTheMovementsAfterIt() throws InterruptedException {
+        inventoryLedger.update(warehouse.getId(), widget.getId(), 10, 5, null, null);
+        LocalDateTime stocked = tick();
+        adjust(widget, 5);
+        LocalDateTime topped = tick();
+        assertThat(historyService.getStockAt(warehouse.getId(), widget.getId(), topped))
+                .extracting(InventoryHistoryDto::getQuantity).containsExactly(15);
+        // Read from the ledger's pending movements, without writing them
+        assertThat(inventoryRepository.findByNodeIdAndProductId(warehouse.getId(), widget.getId()).orElseThrow()
+                .getQuantity()).isZero();
+
+        inventoryLedger.adjust(List.of(
+                new InventoryLedger.Adjustment(warehouse.getId(), widget.getId(), -3),
+                new InventoryLedger.Adjustment(warehouse.getId(), gadget.getId(), 7)));
+        LocalDateTime mixed = tick();
+        // The flush passes three movements since the last snapshot and takes a new one
+        inventoryLedger.flush();
+        tick();
+        adjust(widget, 100);
+        LocalDateTime restocked = tick();
+
+        assertThat(historyService.getStockAt(warehouse.getId(), widget.getId(), stocked))
+                .extracting(InventoryHistoryDto::getQuantity).containsExactly(10);
+        assertThat(historyService.getStockAt(warehouse.getId(), null, mixed))
+                .extracting(InventoryHistoryDto::getProductName, InventoryHistoryDto::getQuantity)
+                .containsExactlyInAnyOrder(tuple("Widget", 12), tuple("Gadget", 7));
+        List<InventoryHistoryDto> latest = historyService.getStockAt(warehouse.getId(), null, restocked);
+        assertThat(latest)
+                .extracting(InventoryHistoryDto::getProductName, InventoryHistoryDto::getQuantity,
+                        InventoryHistoryDto::getMovements)
+                .containsExactlyInAnyOrder(tuple("Widget", 112, 1L), tuple("Gadget", 7, 0L));
+        assertThat(latest.get(0).getSnapshotTakenAt()).isAfter(mixed);
+    }
+
+    @Test
+    void stockAt_outsideTheHistory_throwsBadRequest() {
+        assertThatThrownBy(() -> historyService.getStockAt(warehouse.getId(), null, LocalDateTime.now().minusDays(1)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("history starts at");
+        assertThatThrownBy(() -> historyService.getStockAt(warehouse.getId(), null, LocalDateTime.now().plusDays(1)))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private void adjust(Product product, int delta) {
+        inventoryLedger.adjust(List.of(new InventoryLedger.Adjustment(warehouse.getId(), product.getId(), delta)));
+    }
+
+    // A moment strictly between the change before it and the one after
+    private static LocalDateTime tick() throws InterruptedException {
+        Thread.sleep(5);
+        LocalDateTime now = LocalDateTime.now();
+        Thread.sleep(5);
+        return now;
+    }
+
+    private static Product product(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setUnitPrice(1.0);
+        return product;
+    }
+}
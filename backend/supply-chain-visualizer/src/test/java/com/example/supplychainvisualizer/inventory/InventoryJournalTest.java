@@ -0,0 +1,103 @@
+package com.example.supplychainvisualizer.inventory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InventoryJournalTest {
+
+    @TempDir
+    Path directory;
+
+    private static InventoryJournal.Entry entry(long rowId, int delta) {
+        return new InventoryJournal.Entry(0, rowId, 1, 2, delta, 10, InventoryJournal.NO_THRESHOLD, 3, 1_700_000_000_000L);
+    }
+
+    @Test
+    void recover_readsRecordsInSequenceOrderAcrossSegments() {
+        InventoryJournal journal = new InventoryJournal(directory);
+        journal.start(41);
+        journal.append(List.of(entry(7, 5), entry(8, -2)));
+        journal.rotate();
+        journal.append(List.of(entry(7, 1)));
+        journal.close();
+
+        List<InventoryJournal.Entry> recovered = new InventoryJournal(directory).recover();
+
+        assertThat(recovered).extracting(InventoryJournal.Entry::sequence).containsExactly(41L, 42L, 43L);
+        assertThat(recovered).extracting(InventoryJournal.Entry::delta).containsExactly(5, -2, 1);
+        assertThat(recovered.get(0).minThreshold()).isEqualTo(10);
+        assertThat(recovered.get(0).maxThreshold()).isEqualTo(InventoryJournal.NO_THRESHOLD);
+    }
+
+    @Test
+    void recover_dropsARecordTornByACrash() throws IOException {
+        InventoryJournal journal = new InventoryJournal(directory);
+        journal.start(1);
+        journal.append(List.of(entry(7, 5), entry(7, 6)));
+        journal.close();
+        Path segment = onlySegment();
+        byte[] bytes = Files.readAllBytes(segment);
+        // Half of a third record, as left by a crash during the write
+        Files.write(segment, Arrays.copyOf(bytes, InventoryJournal.RECORD_BYTES / 2), StandardOpenOption.APPEND);
+
+        assertThat(new InventoryJournal(directory).recover()).extracting(InventoryJournal.Entry::delta)
+                .containsExactly(5, 6);
+
+        // A damaged second record ends the segment there
+        bytes[InventoryJournal.RECORD_BYTES + 20] ^= 1;
+        Files.write(segment, bytes);
+
+        assertThat(new InventoryJournal(directory).recover()).extracting(InventoryJournal.Entry::delta)
+                .containsExactly(5);
+    }
+
+    @Test
+    void deleteClosed_keepsTheSegmentStillBeingWritten() throws IOException {
+        InventoryJournal journal = new InventoryJournal(directory);
+        journal.start(1);
+        journal.append(List.of(entry(7, 5)));
+        journal.rotate();
+        journal.append(List.of(entry(7, 6)));
+        journal.deleteClosed();
+        journal.close();
+
+        assertThat(journal.lastSequence()).isEqualTo(2);
+        assertThat(new InventoryJournal(directory).recover()).extracting(InventoryJournal.Entry::sequence)
+                .containsExactly(2L);
+    }
+
+    @Test
+    void deleteClosed_forgetsTheRecordsEvenWhenASegmentCannotBeDeleted() throws IOException {
+        InventoryJournal journal = new InventoryJournal(directory);
+        journal.start(1);
+        journal.append(List.of(entry(7, 5)));
+        Path closed = onlySegment();
+        journal.rotate();
+        // A non-empty directory in the segment's place makes its deletion fail
+        Files.delete(closed);
+        Files.createDirectories(closed.resolve("blocker"));
+
+        journal.deleteClosed();
+
+        assertThat(journal.closedEntries()).isEmpty();
+        journal.close();
+    }
+
+    private Path onlySegment() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files.toList();
+            assertThat(segments).hasSize(1);
+            return segments.get(0);
+        }
+    }
+}
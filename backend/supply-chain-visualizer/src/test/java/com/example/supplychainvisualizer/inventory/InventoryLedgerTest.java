@@ -0,0 +1,357 @@
+package com.example.supplychainvisualizer.inventory;
+
+import com.example.supplychainvisualizer.config.JpaAuditingConfig;
+import com.example.supplychainvisualizer.model.Inventory;
+import com.example.supplychainvisualizer.model.Node;
+import com.example.supplychainvisualizer.model.Product;
+import com.example.supplychainvisualizer.repository.InventoryRepository;
+import com.example.supplychainvisualizer.repository.NodeRepository;
+import com.example.supplychainvisualizer.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Runs ledgers against embedded H2 and a journal directory, starting a second
+ * ledger over the same directory to stand in for a restart. A "crashed"
+ * ledger is simply abandoned without being stopped, so its pending changes
+ * exist only in the journal.
+ */
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "app.inventory.ledger.flush-interval-ms=3600000"})
+@Import({JpaAuditingConfig.class, TemporaryJournalDirectory.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@RecordApplicationEvents
+class InventoryLedgerTest {
+
+    @Value("${app.inventory.ledger.journal-dir}")
+    private Path journalDirectory;
+
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NodeRepository nodeRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final List<InventoryLedger> started = new ArrayList<>();
+    private Node warehouse;
+    private Product widget;
+    private Product gadget;
+    private Inventory widgets;
+
+    @BeforeEach
+    void setUp() {
+        warehouse = nodeRepository.save(node("Central Warehouse"));
+        widget = productRepository.save(product("Widget"));
+        gadget = productRepository.save(product("Gadget"));
+
+        Inventory inventory = new Inventory();
+        inventory.setNode(warehouse);
+        inventory.setProduct(widget);
+        inventory.setQuantity(10);
+        inventory.setMinThreshold(5);
+        widgets = inventoryRepository.save(inventory);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        started.forEach(beanFactory::destroyBean);
+        inventoryRepository.deleteAll();
+        productRepository.deleteAll();
+        nodeRepository.deleteAll();
+        try (Stream<Path> files = Files.list(journalDirectory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    void flush_writesTheNetChangeOfEachRow() {
+        InventoryLedger ledger = start();
+        for (int i = 0; i < 50; i++) {
+            ledger.adjust(List.of(new InventoryLedger.Adjustment(warehouse.getId(), widget.getId(), 2)));
+        }
+        ledger.update(warehouse.getId(), widget.getId(), 200, 20, 400, null);
+
+        assertThat(inventoryRepository.findById(widgets.getId()).orElseThrow().getQuantity()).isEqualTo(10);
+        ledger.flush();
+
+        Inventory row = inventoryRepository.findById(widgets.getId()).orElseThrow();
+        assertThat(row.getQuantity()).isEqualTo(200);
+        assertThat(row.getMinThreshold()).isEqualTo(20);
+        assertThat(row.getMaxThreshold()).isEqualTo(400);
+        assertThat(row.getVersion()).isEqualTo(51);
+        assertThat(ledger.byId(widgets.getId()).orElseThrow().version()).isEqualTo(51);
+    }
+
+    @Test
+    void restartAfterCrash_replaysEveryAcknowledgedChange() {
+        InventoryLedger crashed = start();
+        for (int i = 0; i < 10; i++) {
+            crashed.adjust(List.of(
+                    new InventoryLedger.Adjustment(warehouse.getId(), widget.getId(), 5),
+                    new InventoryLedger.Adjustment(warehouse.getId(), gadget.getId(), -1)));
+        }
+        crash(crashed);
+
+        InventoryLedger restarted = start();
+
+        assertThat(quantitiesByProduct(restarted)).containsExactlyInAnyOrderEntriesOf(
+                Map.of("Widget", 60, "Gadget", -10));
+        assertThat(inventoryRepository.findById(widgets.getId()).orElseThrow().getQuantity()).isEqualTo(60);
+        assertThat(restarted.lowStock()).isEmpty();
+    }
+
+    @Test
+    void restartAfterCrashBetweenCommitAndJournalCleanup_doesNotApplyChangesTwice() throws IOException {
+        InventoryLedger crashed = start();
+        crashed.adjust(List.of(new InventoryLedger.Adjustment(warehouse.getId(), widget.getId(), 7)));
+        Map<Path, byte[]> journal = readJournal();
+        crashed.flush();
+        // The flush committed, but the crash came before its journal segments were deleted
+        for (Map.Entry<Path, byte[]> segment : journal.entrySet()) {
+            Files.write(segment.getKey(), segment.getValue());
+        }
+        crashed.adjust(List.of(new InventoryLedger.Adjustment(warehouse.getId(), widget.getId(), -3)));
+        crash(crashed);
+
+        InventoryLedger restarted = start();
+
+        assertThat(restarted.byId(widgets.getId()).orElseThrow().quantity()).isEqualTo(14);
+        assertThat(inventoryRepository.findById(widgets.getId()).orElseThrow().getQuantity()).isEqualTo(14);
+    }
+
+    @Test
+    void flush_leavesAMovementAlreadyWrittenAlone() {
+        InventoryLedger ledger = start();
+        ledger.adjust(List.of(new InventoryLedger.Adjustment(warehouse.getId(), widget.getId(), 1)));
+        ledger.flush();
+        long next = jdbcTemplate.queryForObject("SELECT MAX(id) FROM inventory_movements", Long.class) + 1;
+        // As left by an earlier write of the same journal record
+        jdbcTemplate.update("INSERT INTO inventory_movements (id, node_id, product_id, delta, moved_at) " +
+                "VALUES (?, ?, ?, 2, ?)", next, warehouse.getId(), widget.getId(), LocalDateTime.now());
+
+        ledger.adjust(List.of(new InventoryLedger.Adjustment(warehouse.getId(), widget.getId(), 2)));
+        ledger.flush();
+
+        assertThat(inventoryRepository.findById(widgets.getId()).orElseThrow().getQuantity()).isEqualTo(13);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM inventory_movements WHERE id = ?",
+                Long.class, next)).isEqualTo(1);
+    }
+
+    @Test
+    void delete_dropsTheRowAndMovesItsStockOutOfTheHistory() {
+        InventoryLedger ledger = start();
+        ledger.adjust(List.of(new InventoryLedger.Adjustment(warehouse.getId(), widget.getId(), 4)));
+
+        assertThat(ledger.delete(widgets.getId())).isTrue();
+        ledger.flush();
+
+        assertThat(ledger.all()).isEmpty();
+        assertThat(inventoryRepository.findAll()).isEmpty();
+        assertThat(ledger.delete(widgets.getId())).isFalse();
+        // The starting 10 are in the first snapshot; the movements take them and the 4 back out
+        assertThat(jdbcTemplate.queryForList("SELECT delta FROM inventory_movements WHERE node_id = ? " +
+                "AND product_id = ? ORDER BY id", Integer.class, warehouse.getId(), widget.getId()))
+                .containsExactly(4, -14);
+    }
+
+    @Test
+    void delete_keepsTheLedgerServingWhileTheDatabaseDeleteWaits() throws Exception {
+        InventoryLedger ledger = start();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // Another transaction holds the row, so the delete blocks in the database
+            Future<?> holder = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.queryForList("SELECT id FROM inventory WHERE id = ? FOR UPDATE", widgets.getId());
+                locked.countDown();
+                await(release);
+            }));
+            locked.await();
+            Future<Boolean> delete = executor.submit(() -> ledger.delete(widgets.getId()));
+            Thread.sleep(100);
+
+            assertTimeoutPreemptively(Duration.ofMillis(500), () -> {
+                ledger.adjust(List.of(new InventoryLedger.Adjustment(warehouse.getId(), widget.getId(), 2)));
+                ledger.adjust(List.of(new InventoryLedger.Adjustment(warehouse.getId(), gadget.getId(), 3)));
+                assertThat(quantitiesByProduct(ledger)).containsExactlyInAnyOrderEntriesOf(
+                        Map.of("Widget", 12, "Gadget", 3));
+            });
+            release.countDown();
+
+            assertThat(delete.get(5, TimeUnit.SECONDS)).isTrue();
+            holder.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+        ledger.flush();
+        assertThat(quantitiesByProduct(ledger)).containsExactly(Map.entry("Gadget", 3));
+        assertThat(jdbcTemplate.queryForObject("SELECT SUM(delta) FROM inventory_movements WHERE node_id = ? " +
+                "AND product_id = ?", Integer.class, warehouse.getId(), widget.getId())).isEqualTo(-10);
+    }
+
+    @Test
+    void count_createsMissingRowsTogetherAndSetsEveryQuantity() {
+        InventoryLedger ledger = start();
+
+        int created = ledger.count(List.of(
+                new InventoryLedger.Count(warehouse.getId(), widget.getId(), 42, null, null),
+                new InventoryLedger.Count(warehouse.getId(), gadget.getId(), 7, 2, 50)));
+        ledger.flush();
+
+        assertThat(created).isEqualTo(1);
+        assertThat(quantitiesByProduct(ledger)).containsExactlyInAnyOrderEntriesOf(Map.of("Widget", 42, "Gadget", 7));
+        // A count without thresholds keeps the row's own
+        assertThat(ledger.byId(widgets.getId()).orElseThrow().minThreshold()).isEqualTo(5);
+        assertThat(inventoryRepository.findByNodeIdAndProductId(warehouse.getId(), gadget.getId()).orElseThrow())
+                .satisfies(row -> {
+                    assertThat(row.getQuantity()).isEqualTo(7);
+                    assertThat(row.getMaxThreshold()).isEqualTo(50);
+                });
+    }
+
+    @Test
+    void count_loadsOnlyTheRowsItCountsAndCountsOnlyThoseItCreated() {
+        InventoryLedger ledger = start();
+        Node depot = nodeRepository.save(node("Depot"));
+        // Created behind the ledger's back, as by another instance
+        inventoryRepository.save(inventory(warehouse, gadget));
+        inventoryRepository.save(inventory(depot, gadget));
+
+        int created = ledger.count(List.of(
+                new InventoryLedger.Count(warehouse.getId(), gadget.getId(), 3, null, null),
+                new InventoryLedger.Count(depot.getId(), widget.getId(), 4, null, null)));
+
+        assertThat(created).isEqualTo(1);
+        assertThat(ledger.all())
+                .extracting(InventoryLedger.Row::nodeName, InventoryLedger.Row::productName, InventoryLedger.Row::quantity)
+                .containsExactlyInAnyOrder(
+                        tuple("Central Warehouse", "Widget", 10),
+                        tuple("Central Warehouse", "Gadget", 3),
+                        tuple("Depot", "Widget", 4));
+    }
+
+    @Test
+    void changes_publishOnlyTransitionsBetweenStockStatuses() {
+        InventoryLedger ledger = start();
+        InventoryLedger.Adjustment shipTwo = new InventoryLedger.Adjustment(warehouse.getId(), widget.getId(), -2);
+
+        ledger.adjust(List.of(shipTwo));            // 8, still above the minimum of 5
+        ledger.adjust(List.of(shipTwo, shipTwo));   // 4
+        ledger.adjust(List.of(shipTwo));            // 2, still low
+        ledger.adjust(List.of(shipTwo));            // 0
+        ledger.update(warehouse.getId(), widget.getId(), 600, 5, 500, null);
+
+        assertThat(events.stream(StockStatusChangedEvent.class)
+                .flatMap(event -> event.getTransitions().stream())
+                .map(t -> t.previous() + "->" + t.current() + "@" + t.row().quantity()))
+                .containsExactly("OPTIMAL->LOW@4", "LOW->CRITICAL@0", "CRITICAL->EXCESS@600");
+    }
+
+    private InventoryLedger start() {
+        InventoryLedger ledger = beanFactory.createBean(InventoryLedger.class);
+        started.add(ledger);
+        return ledger;
+    }
+
+    // Leaves the ledger running with its pending changes but never stops it, so they aren't flushed
+    private void crash(InventoryLedger ledger) {
+        started.remove(ledger);
+    }
+
+    private static Map<String, Integer> quantitiesByProduct(InventoryLedger ledger) {
+        return ledger.all().stream().collect(Collectors.toMap(InventoryLedger.Row::productName, InventoryLedger.Row::quantity));
+    }
+
+    private Map<Path, byte[]> readJournal() throws IOException {
+        Map<Path, byte[]> segments = new HashMap<>();
+        try (Stream<Path> files = Files.list(journalDirectory)) {
+            for (Path file : files.toList()) {
+                segments.put(file, Files.readAllBytes(file));
+            }
+        }
+        return segments;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Node node(String name) {
+        Node node = new Node();
+        node.setName(name);
+        node.setType("warehouse");
+        node.setLatitude(0.0);
+        node.setLongitude(0.0);
+        return node;
+    }
+
+    private static Inventory inventory(Node node, Product product) {
+        Inventory inventory = new Inventory();
+        inventory.setNode(node);
+        inventory.setProduct(product);
+        inventory.setQuantity(0);
+        return inventory;
+    }
+
+    private static Product product(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setUnitPrice(1.0);
+        return product;
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.supplychainvisualizer.inventory;
+
+import com.example.supplychainvisualizer.analytics.AnalyticsVersion;
+import com.example.supplychainvisualizer.config.JpaAuditingConfig;
+import com.example.supplychainvisualizer.dto.ShipmentDto;
+import com.example.supplychainvisualizer.dto.ShipmentItemDto;
+import com.example.supplychainvisualizer.model.Node;
+import com.example.supplychainvisualizer.model.Product;
+import com.example.supplychainvisualizer.repository.InventoryRepository;
+import com.example.supplychainvisualizer.repository.NodeRepository;
+import com.example.supplychainvisualizer.repository.ProductRepository;
+import com.example.supplychainvisualizer.repository.ShipmentRepository;
+import com.example.supplychainvisualizer.service.impl.InventoryServiceImpl;
+import com.example.supplychainvisualizer.service.impl.ShipmentServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the projection through the shipment service against embedded H2,
+ * outside a test transaction so shipment changes reach it once committed.
+ */
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "app.inventory.ledger.flush-interval-ms=3600000"})
+@Import({JpaAuditingConfig.class, AnalyticsVersion.class, InventoryLedger.class, InventoryServiceImpl.class,
+        ShipmentServiceImpl.class, InventoryProjection.class, TemporaryJournalDirectory.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryProjectionTest {
+
+    @Autowired
+    private InventoryProjection inventoryProjection;
+
+    @Autowired
+    private ShipmentServiceImpl shipmentService;
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShipmentRepository shipmentRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private NodeRepository nodeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private final LocalDate today = LocalDate.now();
+    private Node plant;
+    private Node warehouse;
+    private Node store;
+    private Product widget;
+
+    @BeforeEach
+    void setUp() {
+        plant = nodeRepository.save(node("Plant"));
+        warehouse = nodeRepository.save(node("Central Warehouse"));
+        store = nodeRepository.save(node("Store"));
+        Product product = new Product();
+        product.setName("Widget");
+        product.setUnitPrice(1.0);
+        widget = productRepository.save(product);
+        inventoryLedger.update(plant.getId(), widget.getId(), 100, null, null, null);
+        inventoryLedger.update(warehouse.getId(), widget.getId(), 10, 5, null, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        shipmentRepository.deleteAll();
+        inventoryRepository.deleteAll();
+        productRepository.deleteAll();
+        nodeRepository.deleteAll();
+        inventoryLedger.reload();
+        inventoryProjection.reload();
+    }
+
+    @Test
+    void openShipments_arriveOnTheirEstimatedDay_untilDelivered() {
+        ShipmentDto created = shipmentService.createShipment(shipment(warehouse, today.plusDays(3), 30));
+        assertThat(balances(warehouse)).containsExactly(10, 10, 10, 40, 40);
+        assertThat(balances(plant)).containsExactly(70, 70, 70, 70, 70);
+
+        updateStatus(created.getId(), "in_transit");
+        created.setStatus("in_transit");
+        created.setEstimatedArrival(today.plusDays(1));
+        transactionTemplate.executeWithoutResult(tx -> shipmentService.updateShipment(created.getId(), created));
+        assertThat(balances(warehouse)).containsExactly(10, 40, 40, 40, 40);
+
+        updateStatus(created.getId(), "delivered");
+        assertThat(balances(warehouse)).containsExactly(40, 40, 40, 40, 40);
+    }
+
+    @Test
+    void overdueAndUnstockedArrivals_areProjected_andSurviveAReload() {
+        shipmentService.createShipment(shipment(warehouse, today.minusDays(2), 5));
+        shipmentService.createShipment(shipment(store, today.plusDays(2), 20));
+        shipmentService.createShipment(shipment(store, null, 15));
+        inventoryProjection.reload();
+
+        assertThat(balances(warehouse)).containsExactly(15, 15, 15, 15, 15);
+        List<InventoryProjection.Projection> atStore = inventoryProjection.project(today, 5, store.getId(), null);
+        assertThat(atStore).singleElement().satisfies(projection -> {
+            assertThat(projection.row()).isNull();
+            assertThat(projection.balances()).containsExactly(0, 0, 20, 20, 20);
+        });
+    }
+
+    private int[] balances(Node node) {
+        return inventoryProjection.project(today, 5, node.getId(), widget.getId()).get(0).balances();
+    }
+
+    // In a transaction, as within a request's open session, so the projection sees the change once it commits
+    private void updateStatus(Long shipmentId, String status) {
+        transactionTemplate.executeWithoutResult(tx -> shipmentService.updateShipmentStatus(shipmentId, status));
+    }
+
+    private ShipmentDto shipment(Node destination, LocalDate estimatedArrival, int quantity) {
+        ShipmentItemDto item = new ShipmentItemDto();
+        item.setProductId(widget.getId());
+        item.setQuantity(quantity);
+        ShipmentDto dto = new ShipmentDto();
+        dto.setSourceId(plant.getId());
+        dto.setDestinationId(destination.getId());
+        dto.setStatus("pending");
+        dto.setEstimatedArrival(estimatedArrival);
+        dto.setItems(List.of(item));
+        return dto;
+    }
+
+    private static Node node(String name) {
+        Node node = new Node();
+        node.setName(name);
+        node.setType("warehouse");
+        node.setLatitude(0.0);
+        node.setLongitude(0.0);
+        return node;
+    }
+}
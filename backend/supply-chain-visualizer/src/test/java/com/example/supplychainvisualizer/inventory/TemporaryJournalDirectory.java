@@ -0,0 +1,25 @@
+package com.example.supplychainvisualizer.inventory;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.DynamicPropertyRegistrar;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Points the inventory ledger of each test context that imports it at a new
+ * temporary journal directory, so no test replays another's journal. Every
+ * ledger in the context shares it; read it back as
+ * {@code app.inventory.ledger.journal-dir}.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class TemporaryJournalDirectory {
+
+    @Bean
+    DynamicPropertyRegistrar journalDirectory() throws IOException {
+        Path directory = Files.createTempDirectory("inventory-journal");
+        return registry -> registry.add("app.inventory.ledger.journal-dir", directory::toString);
+    }
+}
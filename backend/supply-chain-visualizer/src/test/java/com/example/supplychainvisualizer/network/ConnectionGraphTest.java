@@ -0,0 +1,83 @@
+package com.example.supplychainvisualizer.network;
+
+import com.example.supplychainvisualizer.repository.ConnectionRepository;
+import com.example.supplychainvisualizer.repository.NodeRepository;
+import com.example.supplychainvisualizer.repository.projection.ConnectionRow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionGraphTest {
+
+    @Mock
+    private ConnectionRepository connectionRepository;
+
+    @Mock
+    private NodeRepository nodeRepository;
+
+    @InjectMocks
+    private ConnectionGraph connectionGraph;
+
+    @Test
+    void reload_groupsEachNodesEdgesInIdOrder() {
+        when(connectionRepository.findAllRows()).thenReturn(List.of(
+                row(1L, 10L, 20L, 120.0, 3), row(2L, 20L, 30L, null, null),
+                row(3L, 10L, 30L, 400.0, 9), row(4L, 30L, 10L, 400.0, 9)));
+
+        connectionGraph.reload();
+        ConnectionGraph.Snapshot graph = connectionGraph.snapshot();
+
+        assertThat(graph.nodeCount()).isEqualTo(3);
+        assertThat(graph.outgoing(10L)).extracting(ConnectionGraph.Edge::id).containsExactly(1L, 3L);
+        assertThat(graph.incoming(30L)).extracting(ConnectionGraph.Edge::id).containsExactly(2L, 3L);
+        assertThat(graph.between(10L, 30L)).singleElement().extracting(ConnectionGraph.Edge::travelTime).isEqualTo(9);
+        assertThat(graph.byId(2L)).get().satisfies(edge -> {
+            assertThat(edge.distance()).isNull();
+            assertThat(edge.travelTime()).isNull();
+        });
+        assertThat(graph.outgoing(99L)).isEmpty();
+    }
+
+    @Test
+    void writes_inATransaction_arePublishedOnceItCommits() {
+        ConnectionGraph.Edge edge = new ConnectionGraph.Edge(5L, 10L, 20L, "truck", 50.0, 1, 2.5, "active");
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            connectionGraph.put(edge);
+            assertThat(connectionGraph.snapshot().byId(5L)).isEmpty();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(connectionGraph.snapshot().outgoing(10L)).containsExactly(edge);
+
+        connectionGraph.put(new ConnectionGraph.Edge(5L, 20L, 10L, "rail", 50.0, 2, 1.5, "active"));
+        assertThat(connectionGraph.snapshot().outgoing(10L)).isEmpty();
+        connectionGraph.remove(5L);
+        assertThat(connectionGraph.snapshot().edgeCount()).isZero();
+    }
+
+    private static ConnectionRow row(Long id, Long sourceId, Long targetId, Double distance, Integer travelTime) {
+        return new ConnectionRow() {
+            public Long getId() { return id; }
+            public Long getSourceId() { return sourceId; }
+            public Long getTargetId() { return targetId; }
+            public String getTransportationType() { return "truck"; }
+            public Double getDistance() { return distance; }
+            public Integer getTravelTime() { return travelTime; }
+            public Double getCostPerUnit() { return 1.0; }
+            public String getStatus() { return "active"; }
+        };
+    }
+}
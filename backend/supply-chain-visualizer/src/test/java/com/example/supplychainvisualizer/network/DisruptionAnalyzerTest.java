@@ -0,0 +1,77 @@
+package com.example.supplychainvisualizer.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DisruptionAnalyzerTest {
+
+    private final DisruptionAnalyzer disruptionAnalyzer = new DisruptionAnalyzer();
+
+    // Factory 1 supplies warehouses 2 and 3; store 4 only through 2, store 5 through 2 or 3
+    private final ConnectionGraph.Snapshot network = ConnectionGraph.Snapshot.build(List.of(
+            location(1L, "factory", "active"), location(2L, "warehouse", "active"),
+            location(3L, "warehouse", "active"), location(4L, "store", "active"),
+            location(5L, "store", "active"), location(6L, "store", "inactive")), List.of(
+            edge(10L, 1L, 2L, "active"), edge(11L, 1L, 3L, "active"), edge(12L, 2L, 4L, "active"),
+            edge(13L, 2L, 5L, "active"), edge(14L, 3L, 5L, "active"), edge(15L, 3L, 6L, "active"),
+            edge(16L, 3L, 4L, "suspended")));
+
+    @Test
+    void disconnected_listsOnlyNodesTheFailureCutsOff() {
+        assertThat(disruptionAnalyzer.disconnected(network, Set.of(2L), Set.of())).containsExactly(4L);
+        assertThat(disruptionAnalyzer.disconnected(network, Set.of(2L), Set.of(11L))).containsExactly(3L, 4L, 5L);
+        assertThat(disruptionAnalyzer.disconnected(network, Set.of(1L), Set.of())).containsExactly(2L, 3L, 4L, 5L);
+        assertThat(disruptionAnalyzer.disconnected(network, Set.of(3L), Set.of())).isEmpty();
+
+        boolean[] cut = disruptionAnalyzer.lanesCut(network, Set.of(), Set.of(13L),
+                new long[]{2L, 3L, 1L, 3L}, new long[]{5L, 5L, 5L, 4L});
+        assertThat(cut).containsExactly(true, false, false, false);
+    }
+
+    @Test
+    void sweep_agreesWithAnalyzingEachNodeOnItsOwn() {
+        Random random = new Random(3);
+        int nodes = 150;
+        List<ConnectionGraph.Location> locations = new ArrayList<>();
+        for (int n = 0; n < nodes; n++) {
+            locations.add(location(n + 1L, n < 3 ? "factory" : "warehouse", random.nextInt(15) == 0 ? "inactive" : "active"));
+        }
+        List<ConnectionGraph.Edge> edges = new ArrayList<>();
+        for (int e = 0; e < 220; e++) {
+            edges.add(edge(e + 1L, 1 + random.nextInt(nodes), 1 + random.nextInt(nodes), "active"));
+        }
+        ConnectionGraph.Snapshot graph = ConnectionGraph.Snapshot.build(locations, edges);
+
+        List<DisruptionAnalyzer.Criticality> ranking = disruptionAnalyzer.sweep(graph);
+
+        Map<Long, Integer> expected = new HashMap<>();
+        for (long id = 1; id <= nodes; id++) {
+            int lost = disruptionAnalyzer.disconnected(graph, Set.of(id), Set.of()).size();
+            if (lost > 0) {
+                expected.put(id, lost);
+            }
+        }
+        assertThat(ranking).hasSize(expected.size());
+        for (DisruptionAnalyzer.Criticality criticality : ranking) {
+            assertThat(criticality.disconnected()).isEqualTo(expected.get(criticality.nodeId()));
+        }
+        assertThat(ranking).isSortedAccordingTo((a, b) -> Integer.compare(b.disconnected(), a.disconnected()));
+        assertThat(disruptionAnalyzer.sweep(graph)).isSameAs(ranking);
+    }
+
+    private static ConnectionGraph.Location location(long id, String type, String status) {
+        return new ConnectionGraph.Location(id, type, status, 40.0, -75.0);
+    }
+
+    private static ConnectionGraph.Edge edge(long id, long sourceId, long targetId, String status) {
+        return new ConnectionGraph.Edge(id, sourceId, targetId, "truck", 100.0, 2, 1.0, status);
+    }
+}
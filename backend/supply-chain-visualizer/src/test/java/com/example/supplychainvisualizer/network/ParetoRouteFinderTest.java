@@ -0,0 +1,112 @@
+package com.example.supplychainvisualizer.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParetoRouteFinderTest {
+
+    private final ParetoRouteFinder paretoRouteFinder = new ParetoRouteFinder();
+
+    @Test
+    void frontier_isEveryNonDominatedLooplessRoute() {
+        Random random = new Random(11);
+        for (int round = 0; round < 30; round++) {
+            int nodes = 9;
+            List<ConnectionGraph.Location> locations = new ArrayList<>();
+            for (int n = 0; n < nodes; n++) {
+                locations.add(new ConnectionGraph.Location(n + 1L, "warehouse", "active",
+                        40 + random.nextDouble() * 0.1, -75 + random.nextDouble() * 0.1));
+            }
+            List<ConnectionGraph.Edge> edges = new ArrayList<>();
+            for (int e = 0; e < 26; e++) {
+                edges.add(new ConnectionGraph.Edge(e + 1L, 1 + random.nextInt(nodes), 1 + random.nextInt(nodes), "truck",
+                        20.0 + random.nextInt(30), 1 + random.nextInt(9), 1.0 + random.nextInt(9),
+                        random.nextInt(12) == 0 ? "closed" : "active"));
+            }
+            ConnectionGraph.Snapshot graph = ConnectionGraph.Snapshot.build(locations, edges);
+            List<double[]> all = new ArrayList<>();
+            simplePaths(graph, graph.nodeIndex(1L), graph.nodeIndex(2L), new boolean[nodes], new double[3], all);
+
+            ParetoRouteFinder.Frontier frontier = paretoRouteFinder.frontier(graph, 1L, 2L, 1000, 10_000);
+
+            assertThat(frontier.truncated()).isFalse();
+            assertThat(frontier.routes().stream().map(ParetoRouteFinderTest::totals).map(List::of).toList())
+                    .containsExactlyInAnyOrderElementsOf(nonDominated(all).stream().map(List::of).toList());
+        }
+    }
+
+    @Test
+    void frontier_cappedLabels_reportsTruncation() {
+        // Road is cheap and slow, air is dear and fast, rail sits between
+        List<ConnectionGraph.Location> locations = List.of(
+                new ConnectionGraph.Location(1L, "factory", "active", 40.7, -74.0),
+                new ConnectionGraph.Location(2L, "store", "active", 38.9, -77.0));
+        ConnectionGraph.Snapshot graph = ConnectionGraph.Snapshot.build(locations, List.of(
+                new ConnectionGraph.Edge(1L, 1L, 2L, "road", 360.0, 6, 1.0, "active"),
+                new ConnectionGraph.Edge(2L, 1L, 2L, "air", 330.0, 1, 9.0, "active"),
+                new ConnectionGraph.Edge(3L, 1L, 2L, "rail", 380.0, 4, 3.0, "active")));
+
+        ParetoRouteFinder.Frontier complete = paretoRouteFinder.frontier(graph, 1L, 2L, 20, 1000);
+        ParetoRouteFinder.Frontier capped = paretoRouteFinder.frontier(graph, 1L, 2L, 2, 1000);
+
+        assertThat(complete.truncated()).isFalse();
+        assertThat(complete.routes()).extracting(route -> route.get(0).id()).containsExactly(1L, 3L, 2L);
+        assertThat(capped.truncated()).isTrue();
+        assertThat(capped.routes()).hasSize(2);
+    }
+
+    private static Double[] totals(List<ConnectionGraph.Edge> route) {
+        double cost = 0;
+        double time = 0;
+        double distance = 0;
+        for (ConnectionGraph.Edge edge : route) {
+            cost += edge.costPerUnit();
+            time += edge.travelTime();
+            distance += edge.distance();
+        }
+        return new Double[]{cost, time, distance};
+    }
+
+    private static List<Double[]> nonDominated(List<double[]> all) {
+        List<Double[]> frontier = new ArrayList<>();
+        for (double[] a : all) {
+            boolean covered = false;
+            for (double[] b : all) {
+                boolean atLeastAsGood = b[0] <= a[0] && b[1] <= a[1] && b[2] <= a[2];
+                boolean better = b[0] < a[0] || b[1] < a[1] || b[2] < a[2];
+                covered |= atLeastAsGood && better;
+            }
+            Double[] boxed = {a[0], a[1], a[2]};
+            if (!covered && frontier.stream().noneMatch(f -> List.of(f).equals(List.of(boxed)))) {
+                frontier.add(boxed);
+            }
+        }
+        return frontier;
+    }
+
+    // Totals of every loopless route from node to target over edges with all three values
+    private static void simplePaths(ConnectionGraph.Snapshot graph, int node, int target, boolean[] onPath,
+                                    double[] totals, List<double[]> found) {
+        if (node == target) {
+            found.add(totals.clone());
+            return;
+        }
+        onPath[node] = true;
+        double[] cost = graph.weights(RouteWeight.COST);
+        double[] time = graph.weights(RouteWeight.TIME);
+        double[] distance = graph.weights(RouteWeight.DISTANCE);
+        for (int i = graph.outOffsets[node]; i < graph.outOffsets[node + 1]; i++) {
+            int edge = graph.outEdges[i];
+            if (!Double.isNaN(cost[edge]) && !onPath[graph.targets[edge]]) {
+                double[] next = {totals[0] + cost[edge], totals[1] + time[edge], totals[2] + distance[edge]};
+                simplePaths(graph, graph.targets[edge], target, onPath, next, found);
+            }
+        }
+        onPath[node] = false;
+    }
+}
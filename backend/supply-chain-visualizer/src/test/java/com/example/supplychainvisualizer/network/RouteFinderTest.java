@@ -0,0 +1,155 @@
+package com.example.supplychainvisualizer.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+class RouteFinderTest {
+
+    private final RouteFinder routeFinder = new RouteFinder();
+
+    @Test
+    void shortest_followsTheChosenWeightOverActiveConnections() {
+        // Plant 1 to store 3: direct is quick but dear, via warehouse 2 is cheap but slow
+        List<ConnectionGraph.Location> locations = List.of(
+                location(1L, 40.0, -75.0), location(2L, 41.0, -74.0), location(3L, 42.0, -73.0), location(4L, 10.0, 10.0));
+        ConnectionGraph.Snapshot graph = ConnectionGraph.Snapshot.build(locations, List.of(
+                edge(1L, 1L, 3L, 30.0, 5, 300.0, "active"),
+                edge(2L, 1L, 2L, 5.0, 8, 150.0, "active"),
+                edge(3L, 2L, 3L, 5.0, 8, 150.0, "active"),
+                edge(4L, 1L, 3L, 1.0, 1, 100.0, "inactive")));
+
+        assertThat(routeFinder.shortest(graph, 1L, 3L, RouteWeight.COST)).get().satisfies(route -> {
+            assertThat(route.edges()).extracting(ConnectionGraph.Edge::id).containsExactly(2L, 3L);
+            assertThat(route.weight()).isEqualTo(10.0);
+        });
+        assertThat(routeFinder.shortest(graph, 1L, 3L, RouteWeight.TIME)).get()
+                .extracting(route -> route.edges().get(0).id()).isEqualTo(1L);
+        assertThat(routeFinder.shortest(graph, 3L, 1L, RouteWeight.COST)).isEmpty();
+        assertThat(routeFinder.shortest(graph, 1L, 4L, RouteWeight.COST)).isEmpty();
+        assertThat(routeFinder.shortest(graph, 2L, 2L, RouteWeight.DISTANCE)).get()
+                .satisfies(route -> assertThat(route.edges()).isEmpty());
+    }
+
+    @Test
+    void shortest_matchesPlainDijkstraOnARandomNetwork() {
+        Random random = new Random(42);
+        int nodes = 400;
+        List<ConnectionGraph.Location> locations = new ArrayList<>();
+        for (int n = 0; n < nodes; n++) {
+            locations.add(location(n + 1L, 25 + random.nextDouble() * 20, -120 + random.nextDouble() * 45));
+        }
+        List<ConnectionGraph.Edge> edges = new ArrayList<>();
+        for (int e = 0; e < nodes * 4; e++) {
+            ConnectionGraph.Location from = locations.get(random.nextInt(nodes));
+            ConnectionGraph.Location to = locations.get(random.nextInt(nodes));
+            double km = ConnectionGraph.greatCircleKm(from.latitude(), from.longitude(), to.latitude(), to.longitude());
+            // Road distance at least the great-circle one, cost and time loosely tied to it
+            edges.add(edge(e + 1L, from.id(), to.id(), km * (0.5 + random.nextDouble()) / 100,
+                    1 + (int) (km / (40 + random.nextInt(60))), km * (1 + random.nextDouble() * 0.4),
+                    random.nextInt(20) == 0 ? "inactive" : "active"));
+        }
+        ConnectionGraph.Snapshot graph = ConnectionGraph.Snapshot.build(locations, edges);
+
+        for (RouteWeight weight : RouteWeight.values()) {
+            assertThat(graph.heuristicScale(weight)).isPositive();
+            for (int query = 0; query < 50; query++) {
+                long source = 1 + random.nextInt(nodes);
+                long target = 1 + random.nextInt(nodes);
+                double expected = dijkstra(graph, graph.nodeIndex(source), graph.nodeIndex(target), graph.weights(weight));
+                double actual = routeFinder.shortest(graph, source, target, weight)
+                        .map(RouteFinder.Route::weight).orElse(Double.POSITIVE_INFINITY);
+                assertThat(actual).isCloseTo(expected, offset(1e-6));
+            }
+        }
+    }
+
+    @Test
+    void alternatives_areTheKLightestLooplessRoutes() {
+        Random random = new Random(7);
+        for (int round = 0; round < 20; round++) {
+            int nodes = 10;
+            List<ConnectionGraph.Location> locations = new ArrayList<>();
+            for (int n = 0; n < nodes; n++) {
+                locations.add(location(n + 1L, 40 + random.nextDouble(), -75 + random.nextDouble()));
+            }
+            List<ConnectionGraph.Edge> edges = new ArrayList<>();
+            for (int e = 0; e < 28; e++) {
+                edges.add(edge(e + 1L, 1 + random.nextInt(nodes), 1 + random.nextInt(nodes), 1 + random.nextInt(9),
+                        1, 1.0, random.nextInt(10) == 0 ? "closed" : "active"));
+            }
+            ConnectionGraph.Snapshot graph = ConnectionGraph.Snapshot.build(locations, edges);
+            List<Double> expected = new ArrayList<>();
+            simplePaths(graph, graph.nodeIndex(1L), graph.nodeIndex(2L), graph.weights(RouteWeight.COST),
+                    new boolean[nodes], 0, expected);
+            expected.sort(null);
+
+            List<RouteFinder.Route> routes = routeFinder.alternatives(graph, 1L, 2L, RouteWeight.COST, 6);
+
+            assertThat(routes).extracting(RouteFinder.Route::weight)
+                    .containsExactlyElementsOf(expected.subList(0, Math.min(6, expected.size())));
+            for (RouteFinder.Route route : routes) {
+                assertThat(route.edges()).allMatch(edge -> edge.status().equals("active"));
+                assertThat(route.edges().stream().map(ConnectionGraph.Edge::targetId).distinct().count())
+                        .isEqualTo(route.edges().size());
+            }
+            assertThat(routes.stream().map(RouteFinder.Route::edges).distinct().count()).isEqualTo(routes.size());
+        }
+    }
+
+    // Weight of every loopless path from node to target, by depth-first enumeration
+    private static void simplePaths(ConnectionGraph.Snapshot graph, int node, int target, double[] weights,
+                                    boolean[] onPath, double weight, List<Double> found) {
+        if (node == target) {
+            found.add(weight);
+            return;
+        }
+        onPath[node] = true;
+        for (int i = graph.outOffsets[node]; i < graph.outOffsets[node + 1]; i++) {
+            int edge = graph.outEdges[i];
+            if (!Double.isNaN(weights[edge]) && !onPath[graph.targets[edge]]) {
+                simplePaths(graph, graph.targets[edge], target, weights, onPath, weight + weights[edge], found);
+            }
+        }
+        onPath[node] = false;
+    }
+
+    private static double dijkstra(ConnectionGraph.Snapshot graph, int source, int target, double[] weights) {
+        double[] distance = new double[graph.nodeCount()];
+        Arrays.fill(distance, Double.POSITIVE_INFINITY);
+        distance[source] = 0;
+        PriorityQueue<double[]> queue = new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+        queue.add(new double[]{0, source});
+        while (!queue.isEmpty()) {
+            double[] top = queue.poll();
+            int node = (int) top[1];
+            if (top[0] > distance[node]) {
+                continue;
+            }
+            for (int i = graph.outOffsets[node]; i < graph.outOffsets[node + 1]; i++) {
+                int edge = graph.outEdges[i];
+                if (!Double.isNaN(weights[edge]) && distance[node] + weights[edge] < distance[graph.targets[edge]]) {
+                    distance[graph.targets[edge]] = distance[node] + weights[edge];
+                    queue.add(new double[]{distance[graph.targets[edge]], graph.targets[edge]});
+                }
+            }
+        }
+        return distance[target];
+    }
+
+    private static ConnectionGraph.Location location(long id, double latitude, double longitude) {
+        return new ConnectionGraph.Location(id, "warehouse", "active", latitude, longitude);
+    }
+
+    private static ConnectionGraph.Edge edge(long id, long sourceId, long targetId, double cost, int travelTime,
+                                             double distance, String status) {
+        return new ConnectionGraph.Edge(id, sourceId, targetId, "truck", distance, travelTime, cost, status);
+    }
+}
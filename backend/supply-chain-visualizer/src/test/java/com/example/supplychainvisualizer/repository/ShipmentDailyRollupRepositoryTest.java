@@ -0,0 +1,138 @@
+package com.example.supplychainvisualizer.repository;
+
+import com.example.supplychainvisualizer.analytics.DailyRollupRecorder;
+import com.example.supplychainvisualizer.analytics.LeadTimeHistogram;
+import com.example.supplychainvisualizer.analytics.ShipmentChangedEvent;
+import com.example.supplychainvisualizer.analytics.ShipmentSnapshot;
+import com.example.supplychainvisualizer.analytics.ShipmentWriteGate;
+import com.example.supplychainvisualizer.config.JpaAuditingConfig;
+import com.example.supplychainvisualizer.model.Node;
+import com.example.supplychainvisualizer.model.Shipment;
+import com.example.supplychainvisualizer.model.ShipmentDailyRollup;
+import com.example.supplychainvisualizer.repository.projection.DailyStatsRow;
+import com.example.supplychainvisualizer.repository.projection.LaneStatsRow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives {@link DailyRollupRecorder} against embedded H2 and checks the
+ * windowed rollup queries it feeds. Outside a test transaction, as the
+ * recorder commits its upserts in a transaction of its own.
+ */
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+@Import({JpaAuditingConfig.class, DailyRollupRecorder.class, ShipmentWriteGate.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ShipmentDailyRollupRepositoryTest {
+
+    private static final LocalDate JAN_1 = LocalDate.of(2026, 1, 1);
+
+    @Autowired
+    private ShipmentDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private ShipmentRepository shipmentRepository;
+
+    @Autowired
+    private NodeRepository nodeRepository;
+
+    @Autowired
+    private DailyRollupRecorder recorder;
+
+    private Node factory;
+    private Node warehouse;
+
+    @BeforeEach
+    void setUp() {
+        factory = nodeRepository.save(node("Pacific Factory", "factory"));
+        warehouse = nodeRepository.save(node("Central Warehouse", "warehouse"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        rollupRepository.deleteAll();
+        shipmentRepository.deleteAll();
+        nodeRepository.deleteAll();
+    }
+
+    private Node node(String name, String type) {
+        Node n = new Node();
+        n.setName(name);
+        n.setType(type);
+        n.setLatitude(0.0);
+        n.setLongitude(0.0);
+        return n;
+    }
+
+    private Shipment shipment(String status, LocalDate departure, LocalDate estimated, LocalDate actual) {
+        Shipment s = new Shipment();
+        s.setSource(factory);
+        s.setDestination(warehouse);
+        s.setStatus(status);
+        s.setDepartureDate(departure);
+        s.setEstimatedArrival(estimated);
+        s.setActualArrival(actual);
+        return shipmentRepository.save(s);
+    }
+
+    @Test
+    void onShipmentChanged_upsertsAndRemovesContributions() {
+        Shipment s = shipment("in_transit", JAN_1, JAN_1.plusDays(4), null);
+        recorder.onShipmentChanged(ShipmentChangedEvent.created(ShipmentSnapshot.of(s)));
+        recorder.onShipmentChanged(ShipmentChangedEvent.created(ShipmentSnapshot.of(
+                shipment("delayed", JAN_1, JAN_1.plusDays(4), null))));
+
+        ShipmentSnapshot before = ShipmentSnapshot.of(s);
+        s.setStatus("delivered");
+        s.setActualArrival(JAN_1.plusDays(3));
+        recorder.onShipmentChanged(ShipmentChangedEvent.updated(before, ShipmentSnapshot.of(s)));
+
+        List<LaneStatsRow> lanes = rollupRepository.summarizeLanesBetween(JAN_1, JAN_1);
+        assertThat(rollupRepository.count()).isEqualTo(1);
+        assertThat(lanes).hasSize(1);
+        assertThat(lanes.get(0).getShipments()).isEqualTo(2);
+        assertThat(lanes.get(0).getDelayed()).isEqualTo(1);
+        assertThat(lanes.get(0).getOnTime()).isEqualTo(1);
+        assertThat(lanes.get(0).getLeadTimeDaysSum()).isEqualTo(3);
+
+        ShipmentDailyRollup row = rollupRepository.findAll().get(0);
+        assertThat(LeadTimeHistogram.fromBytes(row.getLeadTimeHistogram()).valueAtPercentile(50)).isEqualTo(3);
+
+        recorder.onShipmentChanged(ShipmentChangedEvent.deleted(ShipmentSnapshot.of(s)));
+        assertThat(rollupRepository.findAll().get(0).getLeadTimeHistogram()).isNull();
+        assertThat(rollupRepository.summarizeLanesBetween(JAN_1, JAN_1).get(0).getShipments()).isEqualTo(1);
+    }
+
+    @Test
+    void rebuild_bucketsShipmentsByDepartureDay() {
+        shipment("delivered", JAN_1, JAN_1.plusDays(4), JAN_1.plusDays(3));
+        shipment("delayed", JAN_1.plusDays(1), JAN_1.plusDays(5), null);
+        shipment("in_transit", JAN_1.plusDays(40), JAN_1.plusDays(45), null);
+        // No departure date yet: bucketed under the day it was recorded
+        shipment("pending", null, null, null);
+
+        recorder.rebuild();
+
+        List<DailyStatsRow> january = rollupRepository.summarizeDaysBetween(JAN_1, JAN_1.plusDays(30));
+        assertThat(january).extracting(DailyStatsRow::getDay).containsExactly(JAN_1, JAN_1.plusDays(1));
+        assertThat(january.get(0).getDelivered()).isEqualTo(1);
+        assertThat(january.get(1).getDelayed()).isEqualTo(1);
+
+        long total = rollupRepository.summarizeDaysBetween(LocalDate.of(1970, 1, 1), LocalDate.of(9999, 12, 31))
+                .stream().mapToLong(DailyStatsRow::getShipments).sum();
+        assertThat(total).isEqualTo(4);
+        assertThat(rollupRepository.summarizeSegmentsBetween(JAN_1, JAN_1.plusDays(30)))
+                .singleElement()
+                .satisfies(row -> assertThat(row.getDelivered()).isEqualTo(1));
+    }
+}
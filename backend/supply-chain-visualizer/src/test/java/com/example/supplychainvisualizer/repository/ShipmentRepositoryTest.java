@@ -0,0 +1,237 @@
+package com.example.supplychainvisualizer.repository;
+
+import com.example.supplychainvisualizer.analytics.LaneAggregate;
+import com.example.supplychainvisualizer.analytics.ShipmentSnapshot;
+import com.example.supplychainvisualizer.config.JpaAuditingConfig;
+import com.example.supplychainvisualizer.dto.ShipmentFilter;
+import com.example.supplychainvisualizer.model.Node;
+import com.example.supplychainvisualizer.model.Product;
+import com.example.supplychainvisualizer.model.Shipment;
+import com.example.supplychainvisualizer.model.ShipmentItem;
+import com.example.supplychainvisualizer.repository.projection.LaneStatsRow;
+import com.example.supplychainvisualizer.repository.projection.LeadTimeCountRow;
+import com.example.supplychainvisualizer.repository.projection.SegmentStatsRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Runs the repository's aggregate queries against embedded H2, the same
+ * engine the h2 profile uses. Flyway is off because the migrations are
+ * Postgres-specific; Hibernate creates the schema from the entities.
+ */
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+@Import(JpaAuditingConfig.class)
+class ShipmentRepositoryTest {
+
+    @Autowired
+    private ShipmentRepository shipmentRepository;
+
+    @Autowired
+    private NodeRepository nodeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Node factory;
+    private Node warehouse;
+    private Node store;
+
+    @BeforeEach
+    void setUp() {
+        factory = nodeRepository.save(node("Pacific Factory", "factory"));
+        warehouse = nodeRepository.save(node("Central Warehouse", "warehouse"));
+        store = nodeRepository.save(node("Corner Store", "store"));
+    }
+
+    private Node node(String name, String type) {
+        Node n = new Node();
+        n.setName(name);
+        n.setType(type);
+        n.setLatitude(0.0);
+        n.setLongitude(0.0);
+        return n;
+    }
+
+    private Shipment shipment(Node source, Node destination, String status,
+                              LocalDate departure, LocalDate estimated, LocalDate actual) {
+        Shipment s = new Shipment();
+        s.setSource(source);
+        s.setDestination(destination);
+        s.setStatus(status);
+        s.setDepartureDate(departure);
+        s.setEstimatedArrival(estimated);
+        s.setActualArrival(actual);
+        return shipmentRepository.save(s);
+    }
+
+    private Shipment carrying(Shipment shipment, Product... products) {
+        for (Product product : products) {
+            ShipmentItem item = new ShipmentItem();
+            item.setShipment(shipment);
+            item.setProduct(product);
+            item.setQuantity(1);
+            shipment.getItems().add(item);
+        }
+        return shipmentRepository.save(shipment);
+    }
+
+    private Product product(String name) {
+        Product p = new Product();
+        p.setName(name);
+        p.setUnitPrice(1.0);
+        return productRepository.save(p);
+    }
+
+    @Test
+    void summarizeLanes_matchesInMemoryAggregation() {
+        LocalDate jan1 = LocalDate.of(2026, 1, 1);
+        List<Shipment> shipments = List.of(
+                shipment(factory, warehouse, "delivered", jan1, jan1.plusDays(4), jan1.plusDays(3)),
+                shipment(factory, warehouse, "Delivered", jan1, jan1.plusDays(4), jan1.plusDays(6)),
+                shipment(factory, warehouse, "delivered", null, jan1.plusDays(4), jan1.plusDays(2)),
+                shipment(factory, warehouse, "delayed", jan1, jan1.plusDays(4), null),
+                shipment(warehouse, store, "in_transit", jan1, jan1.plusDays(2), null));
+
+        List<LaneStatsRow> rows = shipmentRepository.summarizeLanes();
+        List<LeadTimeCountRow> leadTimes = shipmentRepository.countLeadTimesByLane();
+
+        assertThat(rows).hasSize(2);
+        for (LaneStatsRow row : rows) {
+            LaneAggregate expected = new LaneAggregate(row.getSourceId(), row.getDestinationId());
+            shipments.stream()
+                    .filter(s -> s.getSource().getId().equals(row.getSourceId())
+                            && s.getDestination().getId().equals(row.getDestinationId()))
+                    .forEach(s -> expected.apply(ShipmentSnapshot.of(s), 1));
+            LaneAggregate actual = LaneAggregate.of(row);
+            leadTimes.stream()
+                    .filter(l -> l.getSourceId().equals(row.getSourceId())
+                            && l.getDestinationId().equals(row.getDestinationId()))
+                    .forEach(l -> actual.getLeadTimes().add(l.getLeadTimeDays(), l.getShipments()));
+            assertThat(actual).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void summarizeSegments_groupsDeliveredShipmentsByNodeType() {
+        LocalDate jan1 = LocalDate.of(2026, 1, 1);
+        shipment(factory, warehouse, "delivered", jan1, jan1.plusDays(4), jan1.plusDays(3));
+        shipment(factory, warehouse, "delivered", jan1, jan1.plusDays(4), jan1.plusDays(7));
+        shipment(factory, warehouse, "in_transit", jan1, jan1.plusDays(4), null);
+
+        List<SegmentStatsRow> rows = shipmentRepository.summarizeSegments();
+
+        assertThat(rows).hasSize(1);
+        SegmentStatsRow row = rows.get(0);
+        assertThat(row.getSourceType()).isEqualTo("factory");
+        assertThat(row.getDestinationType()).isEqualTo("warehouse");
+        assertThat(row.getDelivered()).isEqualTo(2);
+        assertThat(row.getOnTime()).isEqualTo(1);
+        assertThat(row.getTargetDaysSum()).isEqualTo(8);
+        assertThat(row.getActualDaysSum()).isEqualTo(10);
+    }
+
+    @Test
+    void summarizeLanesForProduct_countsEachShipmentCarryingTheProductOnce() {
+        LocalDate jan1 = LocalDate.of(2026, 1, 1);
+        Product bolts = product("Bolts");
+        Product nuts = product("Nuts");
+        carrying(shipment(factory, warehouse, "delivered", jan1, jan1.plusDays(4), jan1.plusDays(3)), bolts, nuts);
+        carrying(shipment(factory, warehouse, "delayed", jan1, jan1.plusDays(4), null), bolts);
+        carrying(shipment(warehouse, store, "delivered", jan1, jan1.plusDays(2), jan1.plusDays(2)), nuts);
+
+        List<LaneStatsRow> rows = shipmentRepository.summarizeLanesForProduct(bolts.getId());
+        List<LeadTimeCountRow> leadTimes = shipmentRepository.countLeadTimesByLaneForProduct(bolts.getId());
+
+        assertThat(rows).singleElement().satisfies(row -> {
+            assertThat(row.getSourceId()).isEqualTo(factory.getId());
+            assertThat(row.getShipments()).isEqualTo(2);
+            assertThat(row.getDelayed()).isEqualTo(1);
+            assertThat(row.getOnTime()).isEqualTo(1);
+        });
+        assertThat(leadTimes).extracting(LeadTimeCountRow::getLeadTimeDays, LeadTimeCountRow::getShipments)
+                .containsExactly(tuple(3L, 1L));
+    }
+
+    @Test
+    void countLeadTimesByLane_groupsDeliveredShipmentsByDays() {
+        LocalDate jan1 = LocalDate.of(2026, 1, 1);
+        shipment(factory, warehouse, "delivered", jan1, jan1.plusDays(4), jan1.plusDays(3));
+        shipment(factory, warehouse, "Delivered", jan1.plusDays(2), jan1.plusDays(6), jan1.plusDays(5));
+        shipment(factory, warehouse, "delivered", jan1, jan1.plusDays(4), jan1.plusDays(9));
+        shipment(factory, warehouse, "in_transit", jan1, jan1.plusDays(4), null);
+
+        List<LeadTimeCountRow> rows = shipmentRepository.countLeadTimesByLane();
+
+        assertThat(rows).extracting(LeadTimeCountRow::getLeadTimeDays, LeadTimeCountRow::getShipments)
+                .containsExactlyInAnyOrder(tuple(3L, 2L), tuple(9L, 1L));
+    }
+
+    @Test
+    void keysetPages_byDeparture_visitEachMatchingRowOnceInOrder() {
+        LocalDate day = LocalDate.of(2026, 3, 1);
+        Shipment unscheduled1 = shipment(factory, warehouse, "pending", null, null, null);
+        Shipment sameDay1 = shipment(factory, warehouse, "in_transit", day, null, null);
+        Shipment earlier = shipment(factory, warehouse, "in_transit", day.minusDays(1), null, null);
+        Shipment sameDay2 = shipment(factory, warehouse, "in_transit", day, null, null);
+        Shipment unscheduled2 = shipment(factory, warehouse, "pending", null, null, null);
+        Shipment later = shipment(factory, warehouse, "delivered", day.plusDays(5), null, null);
+        shipment(warehouse, store, "in_transit", day, null, null);
+
+        ShipmentFilter filter = new ShipmentFilter();
+        filter.setSourceId(factory.getId());
+        Specification<Shipment> matching = ShipmentSpecifications.matching(filter, "departureDate")
+                .and(ShipmentSpecifications.orderedByDeparture());
+
+        List<Long> visited = new ArrayList<>();
+        Specification<Shipment> spec = matching;
+        while (true) {
+            List<Shipment> page = shipmentRepository.findBy(spec,
+                    q -> q.limit(2).all());
+            page.forEach(s -> visited.add(s.getId()));
+            if (page.size() < 2) {
+                break;
+            }
+            Shipment last = page.get(page.size() - 1);
+            spec = matching.and(ShipmentSpecifications.afterDeparture(last.getDepartureDate(), last.getId()));
+        }
+
+        assertThat(visited).containsExactly(earlier.getId(), sameDay1.getId(), sameDay2.getId(),
+                later.getId(), unscheduled1.getId(), unscheduled2.getId());
+    }
+
+    @Test
+    void keysetPages_byId_combineFiltersAndResumeAfterCursor() {
+        LocalDate day = LocalDate.of(2026, 3, 1);
+        Shipment first = shipment(factory, warehouse, "in_transit", day, null, null);
+        shipment(factory, warehouse, "delivered", day, null, null);
+        shipment(factory, store, "in_transit", day, null, null);
+        shipment(factory, warehouse, "in_transit", day.plusDays(30), null, null);
+        Shipment second = shipment(factory, warehouse, "in_transit", day.plusDays(2), null, null);
+
+        ShipmentFilter filter = new ShipmentFilter();
+        filter.setStatus("in_transit");
+        filter.setDestinationId(warehouse.getId());
+        filter.setStartDate(day);
+        filter.setEndDate(day.plusDays(7));
+        Specification<Shipment> matching = ShipmentSpecifications.matching(filter, "departureDate");
+
+        List<Shipment> all = shipmentRepository.findAll(matching, ShipmentSpecifications.BY_ID);
+        List<Shipment> resumed = shipmentRepository.findAll(
+                matching.and(ShipmentSpecifications.afterId(first.getId())), ShipmentSpecifications.BY_ID);
+
+        assertThat(all).extracting(Shipment::getId).containsExactly(first.getId(), second.getId());
+        assertThat(resumed).extracting(Shipment::getId).containsExactly(second.getId());
+    }
+}
@@ -1,20 +1,46 @@
 package com.example.supplychainvisualizer.service.impl;
 
+import com.example.supplychainvisualizer.analytics.AnalyticsAggregates;
+import com.example.supplychainvisualizer.analytics.AnalyticsVersion;
+import com.example.supplychainvisualizer.analytics.DailyRollupRecorder;
+import com.example.supplychainvisualizer.analytics.LaneAggregate;
+import com.example.supplychainvisualizer.analytics.ShipmentChangedEvent;
+import com.example.supplychainvisualizer.analytics.ShipmentFactStore;
+import com.example.supplychainvisualizer.analytics.ShipmentSnapshot;
+import com.example.supplychainvisualizer.analytics.ShipmentWriteGate;
+import com.example.supplychainvisualizer.analytics.SummaryCache;
 import com.example.supplychainvisualizer.dto.AnalyticsSummaryDto;
+import com.example.supplychainvisualizer.exception.BadRequestException;
 import com.example.supplychainvisualizer.model.Node;
 import com.example.supplychainvisualizer.model.Shipment;
+import com.example.supplychainvisualizer.repository.NodeRepository;
+import com.example.supplychainvisualizer.repository.ProductRepository;
+import com.example.supplychainvisualizer.repository.ShipmentDailyRollupRepository;
 import com.example.supplychainvisualizer.repository.ShipmentRepository;
+import com.example.supplychainvisualizer.repository.projection.DailyStatsRow;
+import com.example.supplychainvisualizer.repository.projection.LaneStatsRow;
+import com.example.supplychainvisualizer.repository.projection.LeadTimeCountRow;
+import com.example.supplychainvisualizer.repository.projection.SegmentStatsRow;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,6 +49,33 @@ class AnalyticsServiceImplTest {
     @Mock
     private ShipmentRepository shipmentRepository;
 
+    @Mock
+    private ShipmentDailyRollupRepository rollupRepository;
+
+    @Mock
+    private NodeRepository nodeRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private DailyRollupRecorder rollupRecorder;
+
+    @Spy
+    private AnalyticsAggregates aggregates = new AnalyticsAggregates();
+
+    @Spy
+    private ShipmentFactStore factStore = new ShipmentFactStore();
+
+    @Spy
+    private ShipmentWriteGate writeGate = new ShipmentWriteGate();
+
+    @Spy
+    private AnalyticsVersion analyticsVersion = new AnalyticsVersion();
+
+    @Spy
+    private SummaryCache summaryCache = new SummaryCache();
+
     @InjectMocks
     private AnalyticsServiceImpl analyticsService;
 
@@ -40,6 +93,30 @@ class AnalyticsServiceImplTest {
         warehouse.setId(2L);
         warehouse.setName("Central Warehouse");
         warehouse.setType("warehouse");
+
+        lenient().when(nodeRepository.findAllById(any())).thenReturn(List.of(factory, warehouse));
+    }
+
+    private void givenShipments(Shipment... shipments) {
+        for (Shipment s : shipments) {
+            aggregates.onShipmentChanged(ShipmentChangedEvent.created(ShipmentSnapshot.of(s)));
+        }
+    }
+
+    // What ShipmentRepository.summarizeLanes() would return for these shipments
+    private List<LaneStatsRow> laneRows(Shipment... shipments) {
+        LaneAggregate lane = new LaneAggregate(factory.getId(), warehouse.getId());
+        for (Shipment s : shipments) {
+            lane.apply(ShipmentSnapshot.of(s), 1);
+        }
+        return List.of(new SpelAwareProxyProjectionFactory().createProjection(LaneStatsRow.class, lane));
+    }
+
+    private static DailyStatsRow dayRow(LocalDate day, long shipments, long delayed, long delivered,
+                                        long onTime, long leadTimeCount, long leadTimeDaysSum) {
+        return new SpelAwareProxyProjectionFactory().createProjection(DailyStatsRow.class, Map.of(
+                "day", day, "shipments", shipments, "delayed", delayed, "delivered", delivered,
+                "onTime", onTime, "leadTimeCount", leadTimeCount, "leadTimeDaysSum", leadTimeDaysSum));
     }
 
     private Shipment deliveredOnTime(LocalDate departure, LocalDate estimated, LocalDate actual) {
@@ -63,7 +140,7 @@ class AnalyticsServiceImplTest {
 
     @Test
     void getSummary_noShipments_returnsAllZeros() {
-        when(shipmentRepository.findAll()).thenReturn(List.of());
+        givenShipments();
 
         AnalyticsSummaryDto result = analyticsService.getSummary();
 
@@ -83,7 +160,7 @@ class AnalyticsServiceImplTest {
         LocalDate act = LocalDate.of(2026, 1, 4);
 
         Shipment s = deliveredOnTime(dep, est, act);
-        when(shipmentRepository.findAll()).thenReturn(List.of(s));
+        givenShipments(s);
 
         AnalyticsSummaryDto result = analyticsService.getSummary();
 
@@ -100,7 +177,7 @@ class AnalyticsServiceImplTest {
         LocalDate act = LocalDate.of(2026, 1, 7);
 
         Shipment s = deliveredOnTime(dep, est, act);
-        when(shipmentRepository.findAll()).thenReturn(List.of(s));
+        givenShipments(s);
 
         AnalyticsSummaryDto result = analyticsService.getSummary();
 
@@ -114,7 +191,7 @@ class AnalyticsServiceImplTest {
                 LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 5), LocalDate.of(2026, 1, 4));
         Shipment late = delayed();
 
-        when(shipmentRepository.findAll()).thenReturn(List.of(onTime, late));
+        givenShipments(onTime, late);
 
         AnalyticsSummaryDto result = analyticsService.getSummary();
 
@@ -129,7 +206,7 @@ class AnalyticsServiceImplTest {
         Shipment s2 = deliveredOnTime(
                 LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 9), LocalDate.of(2026, 1, 9));
 
-        when(shipmentRepository.findAll()).thenReturn(List.of(s1, s2));
+        givenShipments(s1, s2);
 
         AnalyticsSummaryDto result = analyticsService.getSummary();
 
@@ -144,7 +221,7 @@ class AnalyticsServiceImplTest {
         Shipment late = deliveredOnTime(
                 LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 5), LocalDate.of(2026, 1, 7));
 
-        when(shipmentRepository.findAll()).thenReturn(List.of(onTime, late));
+        givenShipments(onTime, late);
 
         AnalyticsSummaryDto result = analyticsService.getSummary();
 
@@ -160,7 +237,7 @@ class AnalyticsServiceImplTest {
         Shipment s = deliveredOnTime(
                 LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 5), LocalDate.of(2026, 1, 7));
 
-        when(shipmentRepository.findAll()).thenReturn(List.of(s));
+        givenShipments(s);
 
         AnalyticsSummaryDto result = analyticsService.getSummary();
 
@@ -175,7 +252,7 @@ class AnalyticsServiceImplTest {
     @Test
     void getSummary_onlyDelayedShipments_onTimeRateIsZero() {
         Shipment late = delayed();
-        when(shipmentRepository.findAll()).thenReturn(List.of(late));
+        givenShipments(late);
 
         AnalyticsSummaryDto result = analyticsService.getSummary();
 
@@ -183,4 +260,250 @@ class AnalyticsServiceImplTest {
         assertThat(result.getDeliveredShipments()).isZero();
         assertThat(result.getExceptionRate()).isEqualTo(100.0);
     }
+
+    @Test
+    void getSummary_reflectsStatusChangeWithoutRereadingShipments() {
+        Shipment s = delayed();
+        s.setId(1L);
+        s.setDepartureDate(LocalDate.of(2026, 1, 1));
+        s.setEstimatedArrival(LocalDate.of(2026, 1, 5));
+        givenShipments(s);
+
+        ShipmentSnapshot before = ShipmentSnapshot.of(s);
+        s.setStatus("delivered");
+        s.setActualArrival(LocalDate.of(2026, 1, 4));
+        aggregates.onShipmentChanged(ShipmentChangedEvent.updated(before, ShipmentSnapshot.of(s)));
+
+        AnalyticsSummaryDto result = analyticsService.getSummary();
+
+        assertThat(result.getTotalShipments()).isEqualTo(1);
+        assertThat(result.getDeliveredShipments()).isEqualTo(1);
+        assertThat(result.getOnTimeDeliveryRate()).isEqualTo(100.0);
+        assertThat(result.getExceptionRate()).isZero();
+        assertThat(result.getAvgLeadTimeDays()).isEqualTo(3.0);
+    }
+
+    @Test
+    void getSummary_deletedShipmentDropsItsLane() {
+        Shipment s = deliveredOnTime(
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 5), LocalDate.of(2026, 1, 4));
+        givenShipments(s);
+
+        aggregates.onShipmentChanged(ShipmentChangedEvent.deleted(ShipmentSnapshot.of(s)));
+
+        AnalyticsSummaryDto result = analyticsService.getSummary();
+
+        assertThat(result.getTotalShipments()).isZero();
+        assertThat(result.getSlaByLane()).isEmpty();
+    }
+
+    @Test
+    void loadAggregates_buildsSummaryFromDatabaseLaneRows() {
+        Shipment onTime = deliveredOnTime(
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 5), LocalDate.of(2026, 1, 4));
+        Shipment late = delayed();
+        when(shipmentRepository.summarizeLanes()).thenReturn(laneRows(onTime, late));
+
+        analyticsService.loadAggregates();
+        AnalyticsSummaryDto result = analyticsService.getSummary();
+
+        assertThat(result.getTotalShipments()).isEqualTo(2);
+        assertThat(result.getDeliveredShipments()).isEqualTo(1);
+        assertThat(result.getExceptionRate()).isEqualTo(50.0);
+        assertThat(result.getSlaByLane()).extracting(AnalyticsSummaryDto.LaneSlaDto::getSlaRate).containsExactly(100.0);
+    }
+
+    @Test
+    void rebuildAggregates_reportsDriftAndRestoresDatabaseState() {
+        Shipment s = delayed();
+        givenShipments(s);
+        when(shipmentRepository.summarizeLanes()).thenReturn(laneRows(s));
+        assertThat(analyticsService.rebuildAggregates()).isTrue();
+
+        // A write the aggregates never saw
+        aggregates.onShipmentChanged(ShipmentChangedEvent.deleted(ShipmentSnapshot.of(s)));
+
+        assertThat(analyticsService.rebuildAggregates()).isFalse();
+        assertThat(analyticsService.getSummary().getTotalShipments()).isEqualTo(1);
+    }
+
+    @Test
+    void rebuildAggregates_alsoRebuildsDailyRollups() {
+        when(shipmentRepository.summarizeLanes()).thenReturn(List.of());
+
+        analyticsService.rebuildAggregates();
+
+        verify(rollupRecorder).rebuild();
+    }
+
+    @Test
+    void getSummaryWindow_readsRollupsAndBucketsSeriesByWeek() {
+        LocalDate from = LocalDate.of(2026, 1, 1);
+        LocalDate to = LocalDate.of(2026, 1, 31);
+        Shipment onTime = deliveredOnTime(from, from.plusDays(4), from.plusDays(3));
+        Shipment late = delayed();
+        SegmentStatsRow segment = new SpelAwareProxyProjectionFactory().createProjection(SegmentStatsRow.class, Map.of(
+                "sourceType", "factory", "destinationType", "warehouse",
+                "delivered", 1L, "onTime", 1L, "targetDaysSum", 4L, "actualDaysSum", 3L));
+        when(rollupRepository.summarizeLanesBetween(from, to)).thenReturn(laneRows(onTime, late));
+        when(rollupRepository.summarizeSegmentsBetween(from, to)).thenReturn(List.of(segment));
+        // Thu 1 Jan and Sun 4 Jan share the week starting Mon 29 Dec; Mon 5 Jan starts the next
+        when(rollupRepository.summarizeDaysBetween(from, to)).thenReturn(List.of(
+                dayRow(from, 1, 0, 1, 1, 1, 3),
+                dayRow(LocalDate.of(2026, 1, 4), 1, 1, 0, 0, 0, 0),
+                dayRow(LocalDate.of(2026, 1, 5), 2, 0, 0, 0, 0, 0)));
+
+        AnalyticsSummaryDto result = analyticsService.getSummary(from, to, "week");
+
+        assertThat(result.getTotalShipments()).isEqualTo(2);
+        assertThat(result.getExceptionRate()).isEqualTo(50.0);
+        assertThat(result.getLeadTimeBySegment()).extracting(AnalyticsSummaryDto.SegmentLeadTimeDto::getSegment)
+                .containsExactly("Factory → Warehouse");
+        assertThat(result.getSeries()).hasSize(2);
+        AnalyticsSummaryDto.PeriodDto first = result.getSeries().get(0);
+        assertThat(first.getPeriodStart()).isEqualTo(LocalDate.of(2025, 12, 29));
+        assertThat(first.getTotalShipments()).isEqualTo(2);
+        assertThat(first.getOnTimeDeliveryRate()).isEqualTo(100.0);
+        assertThat(first.getExceptionRate()).isEqualTo(50.0);
+        assertThat(result.getSeries().get(1).getTotalShipments()).isEqualTo(2);
+    }
+
+    @Test
+    void getSummaryWindow_rejectsInvertedRangeAndUnknownGranularity() {
+        assertThatThrownBy(() -> analyticsService.getSummary(
+                LocalDate.of(2026, 2, 1), LocalDate.of(2026, 1, 1), null))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> analyticsService.getSummary(null, null, "fortnight"))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void getSummary_reportsLeadTimePercentilesPerLaneSegmentAndGlobally() {
+        LocalDate dep = LocalDate.of(2026, 1, 1);
+        Shipment[] shipments = new Shipment[10];
+        for (int i = 0; i < 10; i++) {
+            // lead times 1..9 days plus one 30-day outlier
+            int days = i < 9 ? i + 1 : 30;
+            shipments[i] = deliveredOnTime(dep, dep.plusDays(5), dep.plusDays(days));
+        }
+        givenShipments(shipments);
+
+        AnalyticsSummaryDto result = analyticsService.getSummary();
+
+        AnalyticsSummaryDto.LeadTimePercentilesDto global = result.getLeadTimePercentiles();
+        assertThat(global.getCount()).isEqualTo(10);
+        assertThat(global.getP50()).isEqualTo(5);
+        assertThat(global.getP90()).isEqualTo(9);
+        assertThat(global.getP99()).isEqualTo(30);
+        assertThat(result.getLeadTimePercentilesByLane()).singleElement().satisfies(lane -> {
+            assertThat(lane.getLabel()).isEqualTo("Pacific Factory → Central Warehouse");
+            assertThat(lane.getP99()).isEqualTo(30);
+        });
+        assertThat(result.getLeadTimePercentilesBySegment()).singleElement().satisfies(segment -> {
+            assertThat(segment.getLabel()).isEqualTo("Factory → Warehouse");
+            assertThat(segment.getP50()).isEqualTo(5);
+        });
+    }
+
+    @Test
+    void rebuildAggregates_detectsDriftInLeadTimeDistribution() {
+        Shipment s = deliveredOnTime(
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 5), LocalDate.of(2026, 1, 4));
+        givenShipments(s);
+        // Same counters and day sums, but the database only knows of a 3-day trip
+        when(shipmentRepository.summarizeLanes()).thenReturn(laneRows(s));
+        LeadTimeCountRow wrongDays = new SpelAwareProxyProjectionFactory().createProjection(LeadTimeCountRow.class, Map.of(
+                "sourceId", 1L, "destinationId", 2L, "leadTimeDays", 4L, "shipments", 1L));
+        when(shipmentRepository.countLeadTimesByLane()).thenReturn(List.of(wrongDays));
+
+        assertThat(analyticsService.rebuildAggregates()).isFalse();
+        assertThat(analyticsService.getSummary().getLeadTimePercentiles().getP50()).isEqualTo(4);
+    }
+
+    @Test
+    void getSummary_servesCachedResultUntilVersionBumps() {
+        Shipment s = delayed();
+        givenShipments(s);
+        String tag = analyticsService.getSummaryVersionTag();
+
+        AnalyticsSummaryDto first = analyticsService.getSummary();
+        assertThat(analyticsService.getSummary()).isSameAs(first);
+        verify(nodeRepository, times(1)).findAllById(any());
+
+        // As ShipmentServiceImpl does after publishing the change
+        aggregates.onShipmentChanged(ShipmentChangedEvent.deleted(ShipmentSnapshot.of(s)));
+        analyticsVersion.bump();
+
+        assertThat(analyticsService.getSummaryVersionTag()).isNotEqualTo(tag);
+        assertThat(analyticsService.getSummary().getTotalShipments()).isZero();
+    }
+
+    @Test
+    void getSummaryBySource_onlyCountsLanesLeavingTheNode() {
+        Shipment outbound = deliveredOnTime(
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 5), LocalDate.of(2026, 1, 4));
+        Shipment inbound = delayed();
+        inbound.setSource(warehouse);
+        inbound.setDestination(factory);
+        givenShipments(outbound, inbound);
+        when(nodeRepository.existsById(1L)).thenReturn(true);
+        when(nodeRepository.existsById(9L)).thenReturn(false);
+
+        AnalyticsSummaryDto result = analyticsService.getSummaryBySource(1L).orElseThrow();
+
+        assertThat(result.getTotalShipments()).isEqualTo(1);
+        assertThat(result.getOnTimeDeliveryRate()).isEqualTo(100.0);
+        assertThat(result.getSlaByLane()).extracting(AnalyticsSummaryDto.LaneSlaDto::getLane)
+                .containsExactly("Pacific Factory → Central Warehouse");
+        assertThat(analyticsService.getSummaryBySource(9L)).isEmpty();
+        verifyNoInteractions(shipmentRepository);
+    }
+
+    @Test
+    void getSummaryByProduct_summarizesLanesGroupedInSql() {
+        Shipment s = deliveredOnTime(
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 1, 5), LocalDate.of(2026, 1, 4));
+        LeadTimeCountRow threeDays = new SpelAwareProxyProjectionFactory().createProjection(LeadTimeCountRow.class, Map.of(
+                "sourceId", 1L, "destinationId", 2L, "leadTimeDays", 3L, "shipments", 1L));
+        when(productRepository.existsById(7L)).thenReturn(true);
+        when(shipmentRepository.summarizeLanesForProduct(7L)).thenReturn(laneRows(s));
+        when(shipmentRepository.countLeadTimesByLaneForProduct(7L)).thenReturn(List.of(threeDays));
+
+        AnalyticsSummaryDto result = analyticsService.getSummaryByProduct(7L).orElseThrow();
+
+        assertThat(result.getTotalShipments()).isEqualTo(1);
+        assertThat(result.getAvgLeadTimeDays()).isEqualTo(3.0);
+        assertThat(result.getLeadTimePercentiles().getP50()).isEqualTo(3);
+        assertThat(analyticsService.getSummaryByProduct(8L)).isEmpty();
+    }
+
+    @Test
+    void getSummaryWindow_scansFactStoreOnceLoaded() {
+        LocalDate jan1 = LocalDate.of(2026, 1, 1);
+        Shipment inWindow = deliveredOnTime(jan1, jan1.plusDays(4), jan1.plusDays(3));
+        inWindow.setId(1L);
+        Shipment late = delayed();
+        late.setId(2L);
+        late.setDepartureDate(jan1.plusDays(1));
+        Shipment outside = delayed();
+        outside.setId(3L);
+        outside.setDepartureDate(jan1.plusDays(60));
+        when(shipmentRepository.findAllSnapshots()).thenReturn(
+                List.of(ShipmentSnapshot.of(inWindow), ShipmentSnapshot.of(late), ShipmentSnapshot.of(outside)));
+        analyticsService.loadAggregates();
+
+        AnalyticsSummaryDto result = analyticsService.getSummary(jan1, jan1.plusDays(30), "month");
+
+        assertThat(result.getTotalShipments()).isEqualTo(2);
+        assertThat(result.getDeliveredShipments()).isEqualTo(1);
+        assertThat(result.getExceptionRate()).isEqualTo(50.0);
+        assertThat(result.getLeadTimeBySegment()).extracting(AnalyticsSummaryDto.SegmentLeadTimeDto::getSegment)
+                .containsExactly("Factory → Warehouse");
+        assertThat(result.getLeadTimePercentiles().getP50()).isEqualTo(3);
+        assertThat(result.getSeries()).singleElement().satisfies(period -> {
+            assertThat(period.getPeriodStart()).isEqualTo(jan1);
+            assertThat(period.getTotalShipments()).isEqualTo(2);
+        });
+        verifyNoInteractions(rollupRepository);
+    }
 }
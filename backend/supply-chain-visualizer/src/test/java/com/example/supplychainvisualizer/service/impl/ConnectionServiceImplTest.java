@@ -0,0 +1,121 @@
+package com.example.supplychainvisualizer.service.impl;
+
+import com.example.supplychainvisualizer.dto.ConnectionDto;
+import com.example.supplychainvisualizer.exception.BadRequestException;
+import com.example.supplychainvisualizer.model.Connection;
+import com.example.supplychainvisualizer.model.Node;
+import com.example.supplychainvisualizer.network.ConnectionGraph;
+import com.example.supplychainvisualizer.repository.ConnectionRepository;
+import com.example.supplychainvisualizer.repository.NodeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionServiceImplTest {
+
+    @Mock private ConnectionRepository connectionRepository;
+    @Mock private NodeRepository nodeRepository;
+    @Spy private ConnectionGraph connectionGraph = new ConnectionGraph();
+
+    @InjectMocks
+    private ConnectionServiceImpl connectionService;
+
+    private Node plant;
+    private Node warehouse;
+
+    @BeforeEach
+    void setUp() {
+        plant = node(1L);
+        warehouse = node(2L);
+    }
+
+    private static Node node(Long id) {
+        Node node = new Node();
+        node.setId(id);
+        return node;
+    }
+
+    private ConnectionDto request(Long sourceId, Long targetId) {
+        ConnectionDto dto = new ConnectionDto();
+        dto.setSourceId(sourceId);
+        dto.setTargetId(targetId);
+        dto.setTransportationType("truck");
+        dto.setDistance(120.0);
+        dto.setTravelTime(3);
+        dto.setCostPerUnit(1.5);
+        return dto;
+    }
+
+    private void saveAssigningId(long id) {
+        when(connectionRepository.save(any(Connection.class))).thenAnswer(inv -> {
+            Connection saved = inv.getArgument(0);
+            saved.setId(id);
+            return saved;
+        });
+    }
+
+    @Test
+    void createConnection_isListedFromTheGraphWithoutQueries() {
+        when(nodeRepository.findById(1L)).thenReturn(Optional.of(plant));
+        when(nodeRepository.findById(2L)).thenReturn(Optional.of(warehouse));
+        saveAssigningId(7L);
+
+        ConnectionDto created = connectionService.createConnection(request(1L, 2L));
+
+        assertThat(created.getId()).isEqualTo(7L);
+        assertThat(created.getStatus()).isEqualTo("active");
+        assertThat(connectionService.getConnectionsBySource(1L)).extracting(ConnectionDto::getId).containsExactly(7L);
+        assertThat(connectionService.getConnectionsByTarget(2L)).extracting(ConnectionDto::getDistance).containsExactly(120.0);
+        assertThat(connectionService.getConnectionsBySourceAndTarget(1L, 2L)).hasSize(1);
+        assertThat(connectionService.getConnectionsBySourceAndTarget(2L, 1L)).isEmpty();
+        verify(connectionRepository, never()).findBySource(any());
+        verify(connectionRepository, never()).findAll();
+    }
+
+    @Test
+    void updateConnection_movesItInTheGraph_andDeleteRemovesIt() {
+        when(nodeRepository.findById(1L)).thenReturn(Optional.of(plant));
+        when(nodeRepository.findById(2L)).thenReturn(Optional.of(warehouse));
+        saveAssigningId(7L);
+        connectionService.createConnection(request(1L, 2L));
+        Connection stored = new Connection();
+        stored.setId(7L);
+        stored.setSource(plant);
+        stored.setTarget(warehouse);
+        when(connectionRepository.findById(7L)).thenReturn(Optional.of(stored));
+
+        Optional<ConnectionDto> updated = connectionService.updateConnection(7L, request(2L, 1L));
+
+        assertThat(updated).get().extracting(ConnectionDto::getSourceId).isEqualTo(2L);
+        assertThat(connectionService.getConnectionsBySource(1L)).isEmpty();
+        assertThat(connectionService.getConnectionsBySource(2L)).extracting(ConnectionDto::getTargetId).containsExactly(1L);
+
+        assertThat(connectionService.deleteConnection(7L)).isTrue();
+        verify(connectionRepository).delete(stored);
+        assertThat(connectionService.getAllConnections()).isEmpty();
+        assertThat(connectionService.getConnectionById(7L)).isEmpty();
+    }
+
+    @Test
+    void createConnection_unknownNode_throwsBadRequest() {
+        when(nodeRepository.findById(1L)).thenReturn(Optional.of(plant));
+        when(nodeRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> connectionService.createConnection(request(1L, 9L)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Unknown node 9");
+        verify(connectionRepository, never()).save(any());
+    }
+}
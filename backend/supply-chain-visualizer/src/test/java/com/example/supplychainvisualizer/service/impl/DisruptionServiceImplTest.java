@@ -0,0 +1,99 @@
+package com.example.supplychainvisualizer.service.impl;
+
+import com.example.supplychainvisualizer.analytics.ShipmentSnapshot;
+import com.example.supplychainvisualizer.dto.AffectedShipmentDto;
+import com.example.supplychainvisualizer.dto.DisruptionImpactDto;
+import com.example.supplychainvisualizer.dto.NodeCriticalityDto;
+import com.example.supplychainvisualizer.dto.NodeDto;
+import com.example.supplychainvisualizer.exception.BadRequestException;
+import com.example.supplychainvisualizer.model.Node;
+import com.example.supplychainvisualizer.network.ConnectionGraph;
+import com.example.supplychainvisualizer.network.DisruptionAnalyzer;
+import com.example.supplychainvisualizer.repository.NodeRepository;
+import com.example.supplychainvisualizer.repository.ShipmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DisruptionServiceImplTest {
+
+    @Mock private NodeRepository nodeRepository;
+    @Mock private ShipmentRepository shipmentRepository;
+    @Spy private ConnectionGraph connectionGraph = new ConnectionGraph();
+    @Spy private DisruptionAnalyzer disruptionAnalyzer = new DisruptionAnalyzer();
+
+    @InjectMocks
+    private DisruptionServiceImpl disruptionService;
+
+    @BeforeEach
+    void setUp() {
+        // Factory 1 ships to store 3 through warehouse 2 or directly by air
+        connectionGraph.putNode(new ConnectionGraph.Location(1L, "factory", "active", 40.7, -74.0));
+        connectionGraph.putNode(new ConnectionGraph.Location(2L, "warehouse", "active", 39.9, -75.1));
+        connectionGraph.putNode(new ConnectionGraph.Location(3L, "store", "active", 38.9, -77.0));
+        connectionGraph.put(new ConnectionGraph.Edge(10L, 1L, 2L, "truck", 150.0, 3, 2.0, "active"));
+        connectionGraph.put(new ConnectionGraph.Edge(11L, 2L, 3L, "truck", 200.0, 4, 1.5, "active"));
+        connectionGraph.put(new ConnectionGraph.Edge(12L, 1L, 3L, "air", 330.0, 1, 9.0, "active"));
+    }
+
+    private static ShipmentSnapshot shipment(Long id, Long sourceId, Long destinationId) {
+        return new ShipmentSnapshot(id, sourceId, destinationId, null, null, "in_transit",
+                null, LocalDate.of(2026, 11, 2), null, null);
+    }
+
+    private static Node node(Long id, String name) {
+        Node node = new Node();
+        node.setId(id);
+        node.setName(name);
+        node.setType("store");
+        return node;
+    }
+
+    @Test
+    void analyze_listsCutOffNodesAndTheShipmentsHit() {
+        when(nodeRepository.findAllById(List.of(3L))).thenReturn(List.of(node(3L, "Downtown Store")));
+        when(shipmentRepository.findSnapshotsByStatus(any())).thenReturn(List.of(
+                shipment(100L, 1L, 3L), shipment(101L, 2L, 3L), shipment(102L, 1L, 2L)));
+
+        DisruptionImpactDto result = disruptionService.analyze(List.of(2L), List.of(12L));
+
+        assertThat(result.getDisconnectedNodes()).extracting(NodeDto::getName).containsExactly("Downtown Store");
+        assertThat(result.getAffectedShipments())
+                .extracting(AffectedShipmentDto::getShipmentId, AffectedShipmentDto::getReason)
+                .containsExactly(tuple(100L, "no_route"), tuple(101L, "source_failed"), tuple(102L, "destination_failed"));
+    }
+
+    @Test
+    void analyze_unknownConnection_throwsBadRequest() {
+        assertThatThrownBy(() -> disruptionService.analyze(null, List.of(99L)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Unknown connection 99");
+        verifyNoInteractions(shipmentRepository);
+    }
+
+    @Test
+    void rankCriticalNodes_putsTheOnlyFactoryFirst() {
+        when(nodeRepository.findAllById(List.of(1L))).thenReturn(List.of(node(1L, "Plant")));
+
+        List<NodeCriticalityDto> result = disruptionService.rankCriticalNodes(1);
+
+        assertThat(result).singleElement().satisfies(critical -> {
+            assertThat(critical.getNodeName()).isEqualTo("Plant");
+            assertThat(critical.getDisconnectedCount()).isEqualTo(2);
+        });
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.supplychainvisualizer.service.impl;
+
+import com.example.supplychainvisualizer.config.JpaAuditingConfig;
+import com.example.supplychainvisualizer.inventory.InventoryLedger;
+import com.example.supplychainvisualizer.inventory.TemporaryJournalDirectory;
+import com.example.supplychainvisualizer.model.Inventory;
+import com.example.supplychainvisualizer.model.Node;
+import com.example.supplychainvisualizer.model.Product;
+import com.example.supplychainvisualizer.repository.InventoryRepository;
+import com.example.supplychainvisualizer.repository.NodeRepository;
+import com.example.supplychainvisualizer.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntUnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Adjusts one (node, product) row from many threads at once and checks that
+ * no adjustment is lost, in the ledger and once flushed to embedded H2. Runs
+ * outside a test transaction so each adjustment applies like it would in the
+ * application.
+ */
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "app.inventory.ledger.flush-interval-ms=3600000"})
+@Import({JpaAuditingConfig.class, InventoryLedger.class, InventoryServiceImpl.class,
+        TemporaryJournalDirectory.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InventoryConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int ADJUSTMENTS_PER_THREAD = 100;
+
+    @Autowired
+    private InventoryServiceImpl inventoryService;
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private NodeRepository nodeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Node warehouse;
+    private Product widget;
+
+    @BeforeEach
+    void setUp() {
+        Node node = new Node();
+        node.setName("Central Warehouse");
+        node.setType("warehouse");
+        node.setLatitude(0.0);
+        node.setLongitude(0.0);
+        warehouse = nodeRepository.save(node);
+
+        Product product = new Product();
+        product.setName("Widget");
+        product.setUnitPrice(1.0);
+        widget = productRepository.save(product);
+    }
+
+    @AfterEach
+    void tearDown() {
+        inventoryRepository.deleteAll();
+        productRepository.deleteAll();
+        nodeRepository.deleteAll();
+        inventoryLedger.reload();
+    }
+
+    @Test
+    void concurrentAdjustments_ofANewRow_createItOnceAndLoseNothing() throws Exception {
+        hammer(thread -> -1);
+
+        assertThat(inventoryLedger.all()).singleElement()
+                .satisfies(row -> assertThat(row.quantity()).isEqualTo(-THREADS * ADJUSTMENTS_PER_THREAD));
+        inventoryLedger.flush();
+        List<Inventory> rows = inventoryRepository.findAll();
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).getQuantity()).isEqualTo(-THREADS * ADJUSTMENTS_PER_THREAD);
+    }
+
+    @Test
+    void concurrentIncrementsAndDecrements_ofAnExistingRow_addUp() throws Exception {
+        Inventory stock = new Inventory();
+        stock.setNode(warehouse);
+        stock.setProduct(widget);
+        stock.setQuantity(1000);
+        inventoryRepository.save(stock);
+        inventoryLedger.reload();
+
+        // Half the threads receive 3 units per adjustment, the other half ship 1
+        hammer(thread -> thread % 2 == 0 ? 3 : -1);
+        inventoryLedger.flush();
+
+        Inventory row = inventoryRepository.findByNodeAndProduct(warehouse, widget).orElseThrow();
+        int expected = 1000 + (THREADS / 2) * ADJUSTMENTS_PER_THREAD * 3 - (THREADS / 2) * ADJUSTMENTS_PER_THREAD;
+        assertThat(row.getQuantity()).isEqualTo(expected);
+        assertThat(row.getVersion()).isEqualTo((long) THREADS * ADJUSTMENTS_PER_THREAD);
+    }
+
+    private void hammer(IntUnaryOperator deltaForThread) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int delta = deltaForThread.applyAsInt(t);
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ADJUSTMENTS_PER_THREAD; i++) {
+                        inventoryService.adjustQuantity(warehouse.getId(), widget.getId(), delta);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
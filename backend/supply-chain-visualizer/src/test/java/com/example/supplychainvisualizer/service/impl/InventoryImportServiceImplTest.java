@@ -0,0 +1,126 @@
+package com.example.supplychainvisualizer.service.impl;
+
+import com.example.supplychainvisualizer.dto.InventoryImportResultDto;
+import com.example.supplychainvisualizer.exception.BadRequestException;
+import com.example.supplychainvisualizer.inventory.InventoryLedger;
+import com.example.supplychainvisualizer.model.Node;
+import com.example.supplychainvisualizer.model.Product;
+import com.example.supplychainvisualizer.repository.NodeRepository;
+import com.example.supplychainvisualizer.repository.ProductRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.StringReader;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryImportServiceImplTest {
+
+    @Mock private InventoryLedger inventoryLedger;
+    @Mock private NodeRepository nodeRepository;
+    @Mock private ProductRepository productRepository;
+    @Spy private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private InventoryImportServiceImpl inventoryImportService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(inventoryImportService, "chunkSize", 2);
+        ReflectionTestUtils.setField(inventoryImportService, "maxReportedRejections", 100);
+    }
+
+    // Nodes 1 and 2 and products 10 and 11 exist
+    private void knownNodesAndProducts() {
+        when(nodeRepository.findAllById(any())).thenAnswer(inv -> ids(inv.getArgument(0)).stream()
+                .filter(id -> id <= 2).map(id -> {
+                    Node node = new Node();
+                    node.setId(id);
+                    return node;
+                }).toList());
+        when(productRepository.findAllById(any())).thenAnswer(inv -> ids(inv.getArgument(0)).stream()
+                .filter(id -> id == 10 || id == 11).map(id -> {
+                    Product product = new Product();
+                    product.setId(id);
+                    return product;
+                }).toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Collection<Long> ids(Object argument) {
+        return (Collection<Long>) argument;
+    }
+
+    @Test
+    void importCsv_appliesValidRowsInChunks_andReportsTheRest() {
+        knownNodesAndProducts();
+        when(inventoryLedger.count(anyList())).thenReturn(1);
+        String csv = """
+                product_id,NodeId,quantity,min_threshold
+                10,1,40,5
+                11,1,abc,
+                10,9,3,
+                11,2,8,
+
+                10,2,-1,
+                11,1,12,
+                """;
+
+        InventoryImportResultDto result = inventoryImportService.importCsv(new StringReader(csv));
+
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(3);
+        assertThat(result.getRejections()).extracting(InventoryImportResultDto.Rejection::getLine)
+                .containsExactly(3L, 4L, 7L);
+        assertThat(result.getRejections().get(1).getError()).isEqualTo("Unknown node 9");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<InventoryLedger.Count>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(inventoryLedger, times(2)).count(chunks.capture());
+        assertThat(chunks.getAllValues().get(0)).containsExactly(new InventoryLedger.Count(1, 10, 40, 5, null));
+        assertThat(chunks.getAllValues().get(1)).containsExactly(
+                new InventoryLedger.Count(2, 11, 8, null, null), new InventoryLedger.Count(1, 11, 12, null, null));
+    }
+
+    @Test
+    void importNdjson_repeatedRow_isAppliedInOrderAcrossChunks() {
+        knownNodesAndProducts();
+        when(inventoryLedger.count(anyList())).thenReturn(0);
+        String ndjson = """
+                {"nodeId": 1, "productId": 10, "quantity": 40}
+                {"nodeId": 1, "productId": 10, "quantity": 35, "maxThreshold": 90}
+                not json
+                """;
+
+        InventoryImportResultDto result = inventoryImportService.importNdjson(new StringReader(ndjson));
+
+        assertThat(result.getUpdated()).isEqualTo(2);
+        assertThat(result.getRejections()).singleElement()
+                .extracting(InventoryImportResultDto.Rejection::getLine).isEqualTo(3L);
+        verify(inventoryLedger).count(List.of(new InventoryLedger.Count(1, 10, 40, null, null)));
+        verify(inventoryLedger).count(List.of(new InventoryLedger.Count(1, 10, 35, null, 90)));
+    }
+
+    @Test
+    void importCsv_headerWithoutQuantity_throwsBadRequest() {
+        assertThatThrownBy(() -> inventoryImportService.importCsv(new StringReader("nodeId,productId\n1,10\n")))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(inventoryLedger);
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.supplychainvisualizer.service.impl;
+
+import com.example.supplychainvisualizer.dto.ProjectedInventoryDto;
+import com.example.supplychainvisualizer.exception.BadRequestException;
+import com.example.supplychainvisualizer.inventory.InventoryLedger;
+import com.example.supplychainvisualizer.inventory.InventoryProjection;
+import com.example.supplychainvisualizer.model.Node;
+import com.example.supplychainvisualizer.model.Product;
+import com.example.supplychainvisualizer.repository.NodeRepository;
+import com.example.supplychainvisualizer.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryProjectionServiceImplTest {
+
+    @Mock private InventoryProjection inventoryProjection;
+    @Mock private NodeRepository nodeRepository;
+    @Mock private ProductRepository productRepository;
+
+    @InjectMocks
+    private InventoryProjectionServiceImpl inventoryProjectionService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(inventoryProjectionService, "defaultDays", 14);
+        ReflectionTestUtils.setField(inventoryProjectionService, "maxDays", 90);
+    }
+
+    @Test
+    void getProjection_flagsTheFirstDayAtOrBelowMinimum() {
+        InventoryLedger.Row row = new InventoryLedger.Row(3L, 1L, "Central Warehouse", 2L, "Widget",
+                30, 20, null, 0L, LocalDateTime.now());
+        when(inventoryProjection.project(LocalDate.now(), 4, 1L, null))
+                .thenReturn(List.of(new InventoryProjection.Projection(1L, 2L, row, new int[]{30, 25, 20, 45})));
+
+        List<ProjectedInventoryDto> result = inventoryProjectionService.getProjection(4, 1L, null);
+
+        assertThat(result).singleElement().satisfies(dto -> {
+            assertThat(dto.getNodeName()).isEqualTo("Central Warehouse");
+            assertThat(dto.getOnHand()).isEqualTo(30);
+            assertThat(dto.getBalances()).containsExactly(30, 25, 20, 45);
+            assertThat(dto.getBelowMinimumOn()).isEqualTo(LocalDate.now().plusDays(2));
+        });
+        verifyNoInteractions(nodeRepository, productRepository);
+    }
+
+    @Test
+    void getProjection_stockOnlyOnItsWay_takesNamesFromTheRepositories() {
+        Node store = new Node();
+        store.setId(4L);
+        store.setName("Store");
+        Product widget = new Product();
+        widget.setId(2L);
+        widget.setName("Widget");
+        when(inventoryProjection.project(LocalDate.now(), 14, null, null))
+                .thenReturn(List.of(new InventoryProjection.Projection(4L, 2L, null, new int[14])));
+        when(nodeRepository.findAllById(Set.of(4L))).thenReturn(List.of(store));
+        when(productRepository.findAllById(Set.of(2L))).thenReturn(List.of(widget));
+
+        List<ProjectedInventoryDto> result = inventoryProjectionService.getProjection(null, null, null);
+
+        assertThat(result).singleElement().satisfies(dto -> {
+            assertThat(dto.getNodeName()).isEqualTo("Store");
+            assertThat(dto.getProductName()).isEqualTo("Widget");
+            assertThat(dto.getOnHand()).isZero();
+        });
+    }
+
+    @Test
+    void getProjection_daysOutOfRange_throwsBadRequest() {
+        assertThatThrownBy(() -> inventoryProjectionService.getProjection(91, null, null))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> inventoryProjectionService.getProjection(0, null, null))
+                .isInstanceOf(BadRequestException.class);
+        verify(inventoryProjection, never()).project(any(), anyInt(), any(), any());
+    }
+}
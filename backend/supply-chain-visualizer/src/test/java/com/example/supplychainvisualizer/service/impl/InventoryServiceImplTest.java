@@ -1,63 +1,53 @@
 package com.example.supplychainvisualizer.service.impl;
 
 import com.example.supplychainvisualizer.dto.InventoryDto;
+import com.example.supplychainvisualizer.inventory.InventoryLedger;
 import com.example.supplychainvisualizer.model.Inventory;
-import com.example.supplychainvisualizer.model.Node;
-import com.example.supplychainvisualizer.model.Product;
-import com.example.supplychainvisualizer.repository.InventoryRepository;
 import com.example.supplychainvisualizer.repository.NodeRepository;
 import com.example.supplychainvisualizer.repository.ProductRepository;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class InventoryServiceImplTest {
 
-    @Mock private InventoryRepository inventoryRepository;
+    @Mock private InventoryLedger inventoryLedger;
     @Mock private NodeRepository nodeRepository;
     @Mock private ProductRepository productRepository;
 
     @InjectMocks
     private InventoryServiceImpl inventoryService;
 
-    private Node node;
-    private Product product;
-    private Inventory inventory;
-
-    @BeforeEach
-    void setUp() {
-        node = new Node();
-        node.setId(1L);
-        node.setName("Central Warehouse");
-        node.setType("warehouse");
-
-        product = new Product();
-        product.setId(2L);
-        product.setName("Widget");
+    // Central Warehouse (node 1) holding Widgets (product 2), min 100, max 500
+    private static InventoryLedger.Row row(int quantity, Integer min, Integer max) {
+        return new InventoryLedger.Row(100L, 1L, "Central Warehouse", 2L, "Widget",
+                quantity, min, max, 4L, LocalDateTime.of(2026, 1, 1, 0, 0));
+    }
 
-        inventory = new Inventory();
-        inventory.setId(100L);
-        inventory.setNode(node);
-        inventory.setProduct(product);
-        inventory.setQuantity(50);
-        inventory.setMinThreshold(100);
-        inventory.setMaxThreshold(500);
+    private static InventoryLedger.Row row(int quantity) {
+        return row(quantity, 100, 500);
     }
 
     @Test
     void getAllInventory_returnsMappedDtos() {
-        when(inventoryRepository.findAll()).thenReturn(List.of(inventory));
+        when(inventoryLedger.all()).thenReturn(List.of(row(50)));
 
         List<InventoryDto> result = inventoryService.getAllInventory();
 
@@ -71,7 +61,7 @@ class InventoryServiceImplTest {
 
     @Test
     void getInventoryById_found_returnsDto() {
-        when(inventoryRepository.findById(100L)).thenReturn(Optional.of(inventory));
+        when(inventoryLedger.byId(100L)).thenReturn(Optional.of(row(50)));
 
         Optional<InventoryDto> result = inventoryService.getInventoryById(100L);
 
@@ -81,7 +71,7 @@ class InventoryServiceImplTest {
 
     @Test
     void getInventoryById_notFound_returnsEmpty() {
-        when(inventoryRepository.findById(999L)).thenReturn(Optional.empty());
+        when(inventoryLedger.byId(999L)).thenReturn(Optional.empty());
 
         Optional<InventoryDto> result = inventoryService.getInventoryById(999L);
 
@@ -90,7 +80,7 @@ class InventoryServiceImplTest {
 
     @Test
     void getLowStockInventory_returnsItemsBelowThreshold() {
-        when(inventoryRepository.findLowStock()).thenReturn(List.of(inventory));
+        when(inventoryLedger.lowStock()).thenReturn(List.of(row(50)));
 
         List<InventoryDto> result = inventoryService.getLowStockInventory();
 
@@ -100,9 +90,7 @@ class InventoryServiceImplTest {
 
     @Test
     void computeStatus_belowMin_returnsLow() {
-        inventory.setQuantity(80);
-        inventory.setMinThreshold(100);
-        when(inventoryRepository.findAll()).thenReturn(List.of(inventory));
+        when(inventoryLedger.all()).thenReturn(List.of(row(80, 100, null)));
 
         List<InventoryDto> result = inventoryService.getAllInventory();
 
@@ -111,8 +99,7 @@ class InventoryServiceImplTest {
 
     @Test
     void computeStatus_atOrBelowZero_returnsCritical() {
-        inventory.setQuantity(0);
-        when(inventoryRepository.findAll()).thenReturn(List.of(inventory));
+        when(inventoryLedger.all()).thenReturn(List.of(row(0)));
 
         List<InventoryDto> result = inventoryService.getAllInventory();
 
@@ -121,9 +108,7 @@ class InventoryServiceImplTest {
 
     @Test
     void computeStatus_aboveMax_returnsExcess() {
-        inventory.setQuantity(600);
-        inventory.setMaxThreshold(500);
-        when(inventoryRepository.findAll()).thenReturn(List.of(inventory));
+        when(inventoryLedger.all()).thenReturn(List.of(row(600, 100, 500)));
 
         List<InventoryDto> result = inventoryService.getAllInventory();
 
@@ -132,8 +117,7 @@ class InventoryServiceImplTest {
 
     @Test
     void computeStatus_withinBounds_returnsOptimal() {
-        inventory.setQuantity(200);
-        when(inventoryRepository.findAll()).thenReturn(List.of(inventory));
+        when(inventoryLedger.all()).thenReturn(List.of(row(200)));
 
         List<InventoryDto> result = inventoryService.getAllInventory();
 
@@ -149,32 +133,82 @@ class InventoryServiceImplTest {
         dto.setMinThreshold(100);
         dto.setMaxThreshold(500);
 
-        when(nodeRepository.findById(1L)).thenReturn(Optional.of(node));
-        when(productRepository.findById(2L)).thenReturn(Optional.of(product));
-        when(inventoryRepository.findByNodeAndProduct(node, product)).thenReturn(Optional.of(inventory));
-        when(inventoryRepository.save(any())).thenReturn(inventory);
+        when(nodeRepository.existsById(1L)).thenReturn(true);
+        when(productRepository.existsById(2L)).thenReturn(true);
+        when(inventoryLedger.update(1L, 2L, 300, 100, 500, null)).thenReturn(row(300));
+
+        InventoryDto result = inventoryService.createOrUpdateInventory(dto);
+
+        assertThat(result.getQuantity()).isEqualTo(300);
+        assertThat(result.getStatus()).isEqualTo("optimal");
+    }
+
+    @Test
+    void createOrUpdateInventory_staleVersion_isRejected() {
+        InventoryDto dto = new InventoryDto();
+        dto.setNodeId(1L);
+        dto.setProductId(2L);
+        dto.setQuantity(300);
+        dto.setVersion(3L);
 
-        inventoryService.createOrUpdateInventory(dto);
+        when(nodeRepository.existsById(1L)).thenReturn(true);
+        when(productRepository.existsById(2L)).thenReturn(true);
+        when(inventoryLedger.update(1L, 2L, 300, null, null, 3L))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Inventory.class, 100L));
 
-        verify(inventoryRepository).save(argThat(inv -> inv.getQuantity() == 300));
+        assertThatThrownBy(() -> inventoryService.createOrUpdateInventory(dto))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
     }
 
     @Test
     void deleteInventory_found_returnsTrue() {
-        when(inventoryRepository.findById(100L)).thenReturn(Optional.of(inventory));
+        when(inventoryLedger.delete(100L)).thenReturn(true);
 
         boolean result = inventoryService.deleteInventory(100L);
 
         assertThat(result).isTrue();
-        verify(inventoryRepository).delete(inventory);
     }
 
     @Test
     void deleteInventory_notFound_returnsFalse() {
-        when(inventoryRepository.findById(999L)).thenReturn(Optional.empty());
+        when(inventoryLedger.delete(999L)).thenReturn(false);
 
         boolean result = inventoryService.deleteInventory(999L);
 
         assertThat(result).isFalse();
     }
+
+    @Test
+    void createOrUpdateInventory_unknownNode_leavesLedgerAlone() {
+        InventoryDto dto = new InventoryDto();
+        dto.setNodeId(9L);
+        dto.setProductId(2L);
+        dto.setQuantity(300);
+        when(nodeRepository.existsById(9L)).thenReturn(false);
+
+        InventoryDto result = inventoryService.createOrUpdateInventory(dto);
+
+        assertThat(result).isSameAs(dto);
+        verify(inventoryLedger, never()).update(anyLong(), anyLong(), anyInt(), any(), any(), any());
+    }
+
+    @Test
+    void adjustQuantities_inTransaction_journalsBeforeCommitAndCompensatesARollback() {
+        List<InventoryLedger.Adjustment> shipTen = List.of(new InventoryLedger.Adjustment(1L, 2L, -10));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            inventoryService.adjustQuantities(shipTen);
+            verifyNoInteractions(inventoryLedger);
+
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(s -> s.beforeCommit(false));
+            verify(inventoryLedger).adjust(shipTen);
+
+            // The commit failed after the ledger had moved the stock
+            synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            verify(inventoryLedger).adjust(List.of(new InventoryLedger.Adjustment(1L, 2L, 10)));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
 }
@@ -0,0 +1,160 @@
+package com.example.supplychainvisualizer.service.impl;
+
+import com.example.supplychainvisualizer.analytics.AnalyticsVersion;
+import com.example.supplychainvisualizer.config.JpaAuditingConfig;
+import com.example.supplychainvisualizer.dto.InventoryDto;
+import com.example.supplychainvisualizer.dto.ShipmentDto;
+import com.example.supplychainvisualizer.dto.ShipmentFilter;
+import com.example.supplychainvisualizer.dto.ShipmentPageDto;
+import com.example.supplychainvisualizer.inventory.InventoryLedger;
+import com.example.supplychainvisualizer.inventory.TemporaryJournalDirectory;
+import com.example.supplychainvisualizer.model.Inventory;
+import com.example.supplychainvisualizer.model.Node;
+import com.example.supplychainvisualizer.model.Product;
+import com.example.supplychainvisualizer.model.Shipment;
+import com.example.supplychainvisualizer.model.ShipmentItem;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the SQL statements behind the list endpoints' service calls against
+ * embedded H2. Mapping each row to a DTO reads its nodes, products and items,
+ * so a listing must load those with the rows rather than one select per row.
+ * Inventory listings are served by the in-memory ledger without any SQL.
+ */
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "spring.jpa.properties.hibernate.generate_statistics=true"})
+@Import({JpaAuditingConfig.class, AnalyticsVersion.class, ShipmentServiceImpl.class, InventoryLedger.class,
+        InventoryServiceImpl.class, TemporaryJournalDirectory.class})
+class ListingStatementCountTest {
+
+    private static final int SHIPMENTS = 1000;
+
+    @Autowired
+    private ShipmentServiceImpl shipmentService;
+
+    @Autowired
+    private InventoryServiceImpl inventoryService;
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Node node = new Node();
+            node.setName("Node " + i);
+            node.setType(i % 2 == 0 ? "factory" : "warehouse");
+            node.setLatitude(0.0);
+            node.setLongitude(0.0);
+            nodes.add(entityManager.persist(node));
+        }
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setSku("SKU-" + i);
+            product.setUnitPrice(1.0);
+            products.add(entityManager.persist(product));
+        }
+        for (int i = 0; i < SHIPMENTS; i++) {
+            Shipment shipment = new Shipment();
+            shipment.setSource(nodes.get(i % nodes.size()));
+            shipment.setDestination(nodes.get((i + 1) % nodes.size()));
+            shipment.setStatus("in_transit");
+            shipment.setDepartureDate(LocalDate.of(2026, 1, 1).plusDays(i % 90));
+            for (int j = 0; j < 2; j++) {
+                ShipmentItem item = new ShipmentItem();
+                item.setShipment(shipment);
+                item.setProduct(products.get((i + j) % products.size()));
+                item.setQuantity(1 + j);
+                shipment.getItems().add(item);
+            }
+            entityManager.persist(shipment);
+        }
+        for (Node node : nodes) {
+            for (Product product : products) {
+                Inventory inventory = new Inventory();
+                inventory.setNode(node);
+                inventory.setProduct(product);
+                inventory.setQuantity(5);
+                inventory.setMinThreshold(10);
+                entityManager.persist(inventory);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        inventoryLedger.reload();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void listingShipments_usesSameStatementCountForTenAndAThousandRows() {
+        long small = statementsFor(() -> shipmentService.getShipments(new ShipmentFilter(), null, 10));
+        entityManager.clear();
+
+        ShipmentPageDto[] page = new ShipmentPageDto[1];
+        long large = statementsFor(() -> page[0] = shipmentService.getShipments(new ShipmentFilter(), null, SHIPMENTS));
+
+        assertThat(page[0].getItems()).hasSize(SHIPMENTS);
+        assertThat(page[0].getItems()).allSatisfy(dto -> {
+            assertThat(dto.getSourceName()).isNotNull();
+            assertThat(dto.getItems()).hasSize(2).allSatisfy(item -> assertThat(item.getProductName()).isNotNull());
+        });
+        assertThat(large).isEqualTo(small).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void listingShipmentsByDeparture_loadsItemsInOneExtraStatement() {
+        ShipmentFilter filter = new ShipmentFilter();
+        filter.setSort("departureDate");
+
+        ShipmentPageDto[] page = new ShipmentPageDto[1];
+        long statements = statementsFor(() -> page[0] = shipmentService.getShipments(filter, null, SHIPMENTS));
+
+        assertThat(page[0].getItems()).extracting(ShipmentDto::getDepartureDate).isSorted();
+        assertThat(statements).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void listingInventory_issuesNoStatements() {
+        List<List<InventoryDto>> results = new ArrayList<>();
+
+        long all = statementsFor(() -> results.add(inventoryService.getAllInventory()));
+        entityManager.clear();
+        long lowStock = statementsFor(() -> results.add(inventoryService.getLowStockInventory()));
+
+        assertThat(results).allSatisfy(rows -> assertThat(rows).hasSize(160)
+                .allSatisfy(dto -> assertThat(dto.getProductName()).isNotNull()));
+        assertThat(all).isZero();
+        assertThat(lowStock).isZero();
+    }
+
+    private long statementsFor(Supplier<?> call) {
+        statistics.clear();
+        call.get();
+        return statistics.getPrepareStatementCount();
+    }
+}
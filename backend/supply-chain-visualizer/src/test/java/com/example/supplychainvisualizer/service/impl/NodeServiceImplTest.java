@@ -1,7 +1,10 @@
 package com.example.supplychainvisualizer.service.impl;
 
+import com.example.supplychainvisualizer.analytics.AnalyticsVersion;
 import com.example.supplychainvisualizer.dto.NodeDto;
+import com.example.supplychainvisualizer.inventory.InventoryLedger;
 import com.example.supplychainvisualizer.model.Node;
+import com.example.supplychainvisualizer.network.ConnectionGraph;
 import com.example.supplychainvisualizer.repository.NodeRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,6 +26,15 @@ class NodeServiceImplTest {
     @Mock
     private NodeRepository nodeRepository;
 
+    @Mock
+    private AnalyticsVersion analyticsVersion;
+
+    @Mock
+    private InventoryLedger inventoryLedger;
+
+    @Mock
+    private ConnectionGraph connectionGraph;
+
     @InjectMocks
     private NodeServiceImpl nodeService;
 
@@ -125,6 +137,8 @@ class NodeServiceImplTest {
 
         assertThat(result).isPresent();
         verify(nodeRepository).save(node);
+        verify(inventoryLedger).renameNode(1L, "Updated Warehouse");
+        verify(connectionGraph).putNode(new ConnectionGraph.Location(1L, "warehouse", "inactive", 25.7617, -80.1918));
     }
 
     @Test
@@ -145,6 +159,7 @@ class NodeServiceImplTest {
 
         assertThat(result).isTrue();
         verify(nodeRepository).delete(node);
+        verify(connectionGraph).removeNode(1L);
     }
 
     @Test
@@ -1,6 +1,7 @@
 package com.example.supplychainvisualizer.service.impl;
 
 import com.example.supplychainvisualizer.dto.ProductDto;
+import com.example.supplychainvisualizer.inventory.InventoryLedger;
 import com.example.supplychainvisualizer.model.Product;
 import com.example.supplychainvisualizer.repository.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -23,6 +24,9 @@ class ProductServiceImplTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private InventoryLedger inventoryLedger;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -123,6 +127,7 @@ class ProductServiceImplTest {
 
         assertThat(result).isPresent();
         verify(productRepository).save(product);
+        verify(inventoryLedger).renameProduct(1L, "Laptop Model X v2");
     }
 
     @Test
@@ -0,0 +1,208 @@
+package com.example.supplychainvisualizer.service.impl;
+
+import com.example.supplychainvisualizer.dto.AvailabilityDto;
+import com.example.supplychainvisualizer.dto.ReservationDto;
+import com.example.supplychainvisualizer.exception.BadRequestException;
+import com.example.supplychainvisualizer.exception.ConflictException;
+import com.example.supplychainvisualizer.inventory.AvailabilityIndex;
+import com.example.supplychainvisualizer.model.InventoryReservation;
+import com.example.supplychainvisualizer.model.Node;
+import com.example.supplychainvisualizer.model.Product;
+import com.example.supplychainvisualizer.repository.InventoryReservationRepository;
+import com.example.supplychainvisualizer.repository.NodeRepository;
+import com.example.supplychainvisualizer.repository.ProductRepository;
+import com.example.supplychainvisualizer.service.InventoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationServiceImplTest {
+
+    @Mock private InventoryReservationRepository reservationRepository;
+    @Mock private NodeRepository nodeRepository;
+    @Mock private ProductRepository productRepository;
+    @Mock private InventoryService inventoryService;
+    @Mock private AvailabilityIndex availabilityIndex;
+
+    @InjectMocks
+    private ReservationServiceImpl reservationService;
+
+    private Node warehouse;
+    private Product widget;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(reservationService, "defaultTtlSeconds", 900L);
+        ReflectionTestUtils.setField(reservationService, "maxTtlSeconds", 3600L);
+
+        warehouse = new Node();
+        warehouse.setId(1L);
+        warehouse.setName("Central Warehouse");
+        widget = new Product();
+        widget.setId(2L);
+        widget.setName("Widget");
+    }
+
+    private ReservationDto request(int quantity) {
+        ReservationDto dto = new ReservationDto();
+        dto.setNodeId(1L);
+        dto.setProductId(2L);
+        dto.setQuantity(quantity);
+        dto.setReference("SO-1001");
+        return dto;
+    }
+
+    private InventoryReservation held(int quantity, LocalDateTime expiresAt) {
+        InventoryReservation reservation = new InventoryReservation();
+        reservation.setId(7L);
+        reservation.setNode(warehouse);
+        reservation.setProduct(widget);
+        reservation.setQuantity(quantity);
+        reservation.setExpiresAt(expiresAt);
+        return reservation;
+    }
+
+    @Test
+    void getAvailability_combinesOnHandReservedAndInbound() {
+        when(availabilityIndex.get(1L, 2L)).thenReturn(new AvailabilityIndex.Availability(1L, 2L, 100, 30, 20));
+
+        AvailabilityDto result = reservationService.getAvailability(1L, 2L);
+
+        assertThat(result.getOnHand()).isEqualTo(100);
+        assertThat(result.getReserved()).isEqualTo(30);
+        assertThat(result.getInbound()).isEqualTo(20);
+        assertThat(result.getAvailable()).isEqualTo(90);
+    }
+
+    @Test
+    void reserve_available_holdsStockUntilTheDefaultExpiry() {
+        when(nodeRepository.findById(1L)).thenReturn(Optional.of(warehouse));
+        when(productRepository.findById(2L)).thenReturn(Optional.of(widget));
+        when(availabilityIndex.tryReserve(1L, 2L, 40)).thenReturn(true);
+        when(reservationRepository.save(any(InventoryReservation.class))).thenAnswer(inv -> {
+            InventoryReservation saved = inv.getArgument(0);
+            saved.setId(7L);
+            return saved;
+        });
+
+        ReservationDto result = reservationService.reserve(request(40));
+
+        assertThat(result.getId()).isEqualTo(7L);
+        assertThat(result.getStatus()).isEqualTo(InventoryReservation.HELD);
+        assertThat(result.getReference()).isEqualTo("SO-1001");
+        assertThat(result.getExpiresAt()).isBetween(
+                LocalDateTime.now().plusSeconds(890), LocalDateTime.now().plusSeconds(900));
+    }
+
+    @Test
+    void reserve_insufficient_throwsConflictWithoutSaving() {
+        when(nodeRepository.findById(1L)).thenReturn(Optional.of(warehouse));
+        when(productRepository.findById(2L)).thenReturn(Optional.of(widget));
+        when(availabilityIndex.tryReserve(1L, 2L, 40)).thenReturn(false);
+        when(availabilityIndex.get(1L, 2L)).thenReturn(new AvailabilityIndex.Availability(1L, 2L, 25, 0, 0));
+
+        assertThatThrownBy(() -> reservationService.reserve(request(40)))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("Only 25 of Widget");
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    void reserve_saveFails_releasesTheHold() {
+        when(nodeRepository.findById(1L)).thenReturn(Optional.of(warehouse));
+        when(productRepository.findById(2L)).thenReturn(Optional.of(widget));
+        when(availabilityIndex.tryReserve(1L, 2L, 40)).thenReturn(true);
+        when(reservationRepository.save(any(InventoryReservation.class)))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+
+        assertThatThrownBy(() -> reservationService.reserve(request(40)))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+        verify(availabilityIndex).release(1L, 2L, 40);
+    }
+
+    @Test
+    void reserve_ttlAboveMaximum_throwsBadRequest() {
+        ReservationDto dto = request(40);
+        dto.setTtlSeconds(7200L);
+
+        assertThatThrownBy(() -> reservationService.reserve(dto)).isInstanceOf(BadRequestException.class);
+        verify(availabilityIndex, never()).tryReserve(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void commit_held_takesStockOutOfInventoryAndLiftsTheHold() {
+        when(reservationRepository.findById(7L)).thenReturn(Optional.of(held(40, LocalDateTime.now().plusMinutes(5))));
+        when(reservationRepository.finishHeld(eq(7L), eq(InventoryReservation.COMMITTED), any())).thenReturn(1);
+
+        Optional<ReservationDto> result = reservationService.commit(7L);
+
+        assertThat(result).get().extracting(ReservationDto::getStatus).isEqualTo(InventoryReservation.COMMITTED);
+        verify(inventoryService).adjustQuantity(1L, 2L, -40);
+        verify(availabilityIndex).release(1L, 2L, 40);
+    }
+
+    @Test
+    void commit_noLongerHeld_throwsConflictAndLeavesStockAlone() {
+        when(reservationRepository.findById(7L)).thenReturn(Optional.of(held(40, LocalDateTime.now().plusMinutes(5))));
+        when(reservationRepository.finishHeld(eq(7L), eq(InventoryReservation.COMMITTED), any())).thenReturn(0);
+
+        assertThatThrownBy(() -> reservationService.commit(7L)).isInstanceOf(ConflictException.class);
+        verifyNoInteractions(inventoryService);
+        verify(availabilityIndex, never()).release(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void commit_pastExpiry_throwsConflict() {
+        when(reservationRepository.findById(7L)).thenReturn(Optional.of(held(40, LocalDateTime.now().minusSeconds(1))));
+
+        assertThatThrownBy(() -> reservationService.commit(7L))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("expired");
+        verify(reservationRepository, never()).finishHeld(anyLong(), any(), any());
+    }
+
+    @Test
+    void release_held_liftsTheHold() {
+        when(reservationRepository.findById(7L)).thenReturn(Optional.of(held(40, LocalDateTime.now().plusMinutes(5))));
+        when(reservationRepository.finishHeld(eq(7L), eq(InventoryReservation.RELEASED), any())).thenReturn(1);
+
+        Optional<ReservationDto> result = reservationService.release(7L);
+
+        assertThat(result).get().extracting(ReservationDto::getStatus).isEqualTo(InventoryReservation.RELEASED);
+        verify(availabilityIndex).release(1L, 2L, 40);
+        verifyNoInteractions(inventoryService);
+    }
+
+    @Test
+    void expireOverdue_liftsOnlyHoldsItExpired() {
+        InventoryReservation overdue = held(40, LocalDateTime.now().minusMinutes(1));
+        InventoryReservation committedMeanwhile = held(10, LocalDateTime.now().minusMinutes(1));
+        committedMeanwhile.setId(8L);
+        when(reservationRepository.findByStatusAndExpiresAtLessThanEqual(eq(InventoryReservation.HELD), any()))
+                .thenReturn(List.of(overdue, committedMeanwhile));
+        when(reservationRepository.finishHeld(eq(7L), eq(InventoryReservation.EXPIRED), any())).thenReturn(1);
+        when(reservationRepository.finishHeld(eq(8L), eq(InventoryReservation.EXPIRED), any())).thenReturn(0);
+
+        assertThat(reservationService.expireOverdue()).isEqualTo(1);
+        verify(availabilityIndex).release(1L, 2L, 40);
+        verify(availabilityIndex, never()).release(1L, 2L, 10);
+    }
+}
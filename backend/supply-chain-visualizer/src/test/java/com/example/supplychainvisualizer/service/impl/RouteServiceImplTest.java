@@ -0,0 +1,98 @@
+package com.example.supplychainvisualizer.service.impl;
+
+import com.example.supplychainvisualizer.dto.ConnectionDto;
+import com.example.supplychainvisualizer.dto.ParetoRoutesDto;
+import com.example.supplychainvisualizer.dto.RouteDto;
+import com.example.supplychainvisualizer.exception.BadRequestException;
+import com.example.supplychainvisualizer.network.ConnectionGraph;
+import com.example.supplychainvisualizer.network.ParetoRouteFinder;
+import com.example.supplychainvisualizer.network.RouteFinder;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@ExtendWith(MockitoExtension.class)
+class RouteServiceImplTest {
+
+    @Spy private ConnectionGraph connectionGraph = new ConnectionGraph();
+    @Spy private RouteFinder routeFinder = new RouteFinder();
+    @Spy private ParetoRouteFinder paretoRouteFinder = new ParetoRouteFinder();
+
+    @InjectMocks
+    private RouteServiceImpl routeService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(routeService, "defaultAlternatives", 3);
+        ReflectionTestUtils.setField(routeService, "maxAlternatives", 10);
+        ReflectionTestUtils.setField(routeService, "maxLabelsPerNode", 20);
+        ReflectionTestUtils.setField(routeService, "paretoBudgetMs", 1000L);
+        connectionGraph.putNode(new ConnectionGraph.Location(1L, "factory", "active", 40.71, -74.01));
+        connectionGraph.putNode(new ConnectionGraph.Location(2L, "warehouse", "active", 39.95, -75.17));
+        connectionGraph.putNode(new ConnectionGraph.Location(3L, "store", "active", 38.90, -77.04));
+        connectionGraph.put(new ConnectionGraph.Edge(10L, 1L, 2L, "truck", 150.0, 3, 2.0, "active"));
+        connectionGraph.put(new ConnectionGraph.Edge(11L, 2L, 3L, "rail", null, 4, 1.5, "active"));
+        connectionGraph.put(new ConnectionGraph.Edge(12L, 1L, 3L, "air", 330.0, 2, 9.0, "active"));
+    }
+
+    @Test
+    void findRoute_byCost_listsLegsAndTotalsWhatEveryLegRecords() {
+        Optional<RouteDto> result = routeService.findRoute(1L, 3L, null);
+
+        assertThat(result).get().satisfies(route -> {
+            assertThat(route.getWeight()).isEqualTo("cost");
+            assertThat(route.getNodeIds()).containsExactly(1L, 2L, 3L);
+            assertThat(route.getConnections()).extracting(ConnectionDto::getId).containsExactly(10L, 11L);
+            assertThat(route.getTotalWeight()).isEqualTo(3.5);
+            assertThat(route.getTotalTravelTime()).isEqualTo(7);
+            assertThat(route.getTotalDistance()).isNull();
+        });
+        assertThat(routeService.findRoute(1L, 3L, "TIME")).get()
+                .extracting(RouteDto::getNodeIds).asInstanceOf(InstanceOfAssertFactories.LIST).containsExactly(1L, 3L);
+        assertThat(routeService.findRoute(3L, 1L, "time")).isEmpty();
+    }
+
+    @Test
+    void findRoute_unknownWeightOrNode_throwsBadRequest() {
+        assertThatThrownBy(() -> routeService.findRoute(1L, 3L, "carbon"))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> routeService.findRoute(1L, 99L, "cost"))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("Unknown node 99");
+    }
+
+    @Test
+    void findAlternatives_listsRoutesBestFirst_andRejectsKOutOfRange() {
+        List<RouteDto> routes = routeService.findAlternatives(1L, 3L, "cost", null);
+
+        assertThat(routes).extracting(RouteDto::getTotalWeight).containsExactly(3.5, 9.0);
+        assertThat(routes.get(1).getNodeIds()).containsExactly(1L, 3L);
+        assertThatThrownBy(() -> routeService.findAlternatives(1L, 3L, "cost", 11))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("between 1 and 10");
+    }
+
+    @Test
+    void findParetoRoutes_keepsTheRouteThatIsCheapAndTheOneThatIsFast() {
+        connectionGraph.put(new ConnectionGraph.Edge(11L, 2L, 3L, "rail", 200.0, 4, 1.5, "active"));
+
+        ParetoRoutesDto result = routeService.findParetoRoutes(1L, 3L);
+
+        assertThat(result.isTruncated()).isFalse();
+        assertThat(result.getRoutes()).extracting(RouteDto::getNodeIds)
+                .containsExactly(List.of(1L, 2L, 3L), List.of(1L, 3L));
+        assertThat(result.getRoutes()).extracting(RouteDto::getTotalCost).containsExactly(3.5, 9.0);
+        assertThat(result.getRoutes().get(0).getWeight()).isNull();
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.supplychainvisualizer.service.impl;
+
+import com.example.supplychainvisualizer.analytics.AnalyticsVersion;
+import com.example.supplychainvisualizer.analytics.DailyRollupRecorder;
+import com.example.supplychainvisualizer.analytics.ShipmentWriteGate;
+import com.example.supplychainvisualizer.config.JpaAuditingConfig;
+import com.example.supplychainvisualizer.dto.ShipmentBatchResultDto;
+import com.example.supplychainvisualizer.dto.ShipmentDto;
+import com.example.supplychainvisualizer.dto.ShipmentItemDto;
+import com.example.supplychainvisualizer.inventory.InventoryLedger;
+import com.example.supplychainvisualizer.inventory.TemporaryJournalDirectory;
+import com.example.supplychainvisualizer.model.Node;
+import com.example.supplychainvisualizer.model.Product;
+import com.example.supplychainvisualizer.repository.InventoryRepository;
+import com.example.supplychainvisualizer.repository.NodeRepository;
+import com.example.supplychainvisualizer.repository.ProductRepository;
+import com.example.supplychainvisualizer.repository.ShipmentDailyRollupRepository;
+import com.example.supplychainvisualizer.repository.ShipmentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs shipment writes against embedded H2 outside a test transaction, so
+ * stock and derived analytics see a write only when, and if, it commits.
+ */
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "app.inventory.ledger.flush-interval-ms=3600000"})
+@Import({JpaAuditingConfig.class, AnalyticsVersion.class, ShipmentServiceImpl.class, InventoryLedger.class,
+        InventoryServiceImpl.class, DailyRollupRecorder.class, ShipmentWriteGate.class,
+        TemporaryJournalDirectory.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ShipmentBatchCommitTest {
+
+    @Autowired
+    private ShipmentServiceImpl shipmentService;
+
+    @Autowired
+    private AnalyticsVersion analyticsVersion;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ShipmentRepository shipmentRepository;
+
+    @Autowired
+    private NodeRepository nodeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @MockitoSpyBean
+    private ShipmentDailyRollupRepository rollupRepository;
+
+    private Node plant;
+    private Node warehouse;
+
+    @BeforeEach
+    void setUp() {
+        plant = nodeRepository.save(node("Plant", "factory"));
+        warehouse = nodeRepository.save(node("Central Warehouse", "warehouse"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        rollupRepository.deleteAll();
+        shipmentRepository.deleteAll();
+        inventoryRepository.deleteAll();
+        productRepository.deleteAll();
+        nodeRepository.deleteAll();
+        inventoryLedger.reload();
+    }
+
+    @Test
+    void createShipments_rollupUpsertFails_stillCommitsTheBatch() {
+        doThrow(new DataIntegrityViolationException("duplicate rollup key")).when(rollupRepository).saveAndFlush(any());
+        long version = analyticsVersion.current();
+
+        ShipmentBatchResultDto result = shipmentService.createShipments(List.of(shipment(), shipment()));
+
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(shipmentRepository.count()).isEqualTo(2);
+        assertThat(analyticsVersion.current()).isEqualTo(version + 1);
+        // Retried once, then left for a rebuild
+        verify(rollupRepository, times(2)).saveAndFlush(any());
+        assertThat(rollupRepository.count()).isZero();
+    }
+
+    @Test
+    void createShipments_rolledBack_leavesRollupsAndVersionAlone() {
+        long version = analyticsVersion.current();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            shipmentService.createShipments(List.of(shipment()));
+            assertThat(analyticsVersion.current()).isEqualTo(version);
+            status.setRollbackOnly();
+        });
+
+        assertThat(shipmentRepository.count()).isZero();
+        assertThat(rollupRepository.count()).isZero();
+        assertThat(analyticsVersion.current()).isEqualTo(version);
+    }
+
+    @Test
+    void createShipment_saveFails_leavesSourceStockAlone() {
+        Product product = new Product();
+        product.setName("Widget");
+        product.setUnitPrice(1.0);
+        Long widgetId = productRepository.save(product).getId();
+        inventoryLedger.update(plant.getId(), widgetId, 100, null, null, null);
+        ShipmentItemDto item = new ShipmentItemDto();
+        item.setProductId(widgetId);
+        item.setQuantity(30);
+        ShipmentDto dto = shipment();
+        dto.setStatus(null);
+        dto.setItems(List.of(item));
+
+        assertThatThrownBy(() -> shipmentService.createShipment(dto)).isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(inventoryLedger.quantity(plant.getId(), widgetId)).isEqualTo(100);
+        assertThat(shipmentRepository.count()).isZero();
+    }
+
+    private ShipmentDto shipment() {
+        ShipmentDto dto = new ShipmentDto();
+        dto.setSourceId(plant.getId());
+        dto.setDestinationId(warehouse.getId());
+        dto.setStatus("in_transit");
+        dto.setDepartureDate(LocalDate.of(2026, 1, 1));
+        dto.setEstimatedArrival(LocalDate.of(2026, 1, 5));
+        return dto;
+    }
+
+    private static Node node(String name, String type) {
+        Node node = new Node();
+        node.setName(name);
+        node.setType(type);
+        node.setLatitude(0.0);
+        node.setLongitude(0.0);
+        return node;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.supplychainvisualizer.service.impl;
+
+import com.example.supplychainvisualizer.analytics.AnalyticsVersion;
+import com.example.supplychainvisualizer.config.JpaAuditingConfig;
+import com.example.supplychainvisualizer.dto.ShipmentBatchResultDto;
+import com.example.supplychainvisualizer.dto.ShipmentDto;
+import com.example.supplychainvisualizer.dto.ShipmentItemDto;
+import com.example.supplychainvisualizer.inventory.InventoryLedger;
+import com.example.supplychainvisualizer.inventory.TemporaryJournalDirectory;
+import com.example.supplychainvisualizer.model.Node;
+import com.example.supplychainvisualizer.model.Product;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Times {@code createShipments} ingesting batches of shipments with ten items
+ * each into embedded H2, with the JDBC batching settings of the application
+ * profiles, and reports the statements prepared per batch. Excluded from the
+ * default build; run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.order_updates=true"})
+@Import({JpaAuditingConfig.class, AnalyticsVersion.class, ShipmentServiceImpl.class, InventoryLedger.class,
+        InventoryServiceImpl.class, TemporaryJournalDirectory.class})
+class ShipmentIngestBenchmarkTest {
+
+    private static final int SHIPMENTS = 1000;
+    private static final int ITEMS = 10;
+    private static final int RUNS = 7;
+
+    @Autowired
+    private ShipmentServiceImpl shipmentService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void bulkIngest() {
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Node node = new Node();
+            node.setName("Node " + i);
+            node.setType("warehouse");
+            node.setLatitude(0.0);
+            node.setLongitude(0.0);
+            nodes.add(entityManager.persist(node));
+        }
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Product product = new Product();
+            product.setName("Product " + i);
+            product.setUnitPrice(1.0);
+            products.add(entityManager.persist(product));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        List<ShipmentDto> batch = batch(nodes, products);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        for (int warmup = 0; warmup < 3; warmup++) {
+            ingest(batch);
+        }
+        long[] nanos = new long[RUNS];
+        long statements = 0;
+        for (int run = 0; run < RUNS; run++) {
+            statistics.clear();
+            long start = System.nanoTime();
+            ShipmentBatchResultDto result = ingest(batch);
+            nanos[run] = System.nanoTime() - start;
+            statements = statistics.getPrepareStatementCount();
+            assertThat(result.getCreated()).isEqualTo(SHIPMENTS);
+        }
+        Arrays.sort(nanos);
+        System.out.printf("Ingest of %,d shipments x %d items: median %.1f ms, %,d statements prepared%n",
+                SHIPMENTS, ITEMS, nanos[RUNS / 2] / 1e6, statements);
+    }
+
+    private ShipmentBatchResultDto ingest(List<ShipmentDto> batch) {
+        ShipmentBatchResultDto result = shipmentService.createShipments(batch);
+        entityManager.clear();
+        return result;
+    }
+
+    private static List<ShipmentDto> batch(List<Node> nodes, List<Product> products) {
+        List<ShipmentDto> batch = new ArrayList<>(SHIPMENTS);
+        for (int i = 0; i < SHIPMENTS; i++) {
+            ShipmentDto dto = new ShipmentDto();
+            dto.setSourceId(nodes.get(i % nodes.size()).getId());
+            dto.setDestinationId(nodes.get((i + 1) % nodes.size()).getId());
+            List<ShipmentItemDto> items = new ArrayList<>(ITEMS);
+            for (int j = 0; j < ITEMS; j++) {
+                ShipmentItemDto item = new ShipmentItemDto();
+                item.setProductId(products.get((i + j) % products.size()).getId());
+                item.setQuantity(1);
+                items.add(item);
+            }
+            dto.setItems(items);
+            batch.add(dto);
+        }
+        return batch;
+    }
+}
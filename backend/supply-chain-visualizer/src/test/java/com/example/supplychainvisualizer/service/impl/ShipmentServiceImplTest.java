@@ -1,30 +1,45 @@
 package com.example.supplychainvisualizer.service.impl;
 
+import com.example.supplychainvisualizer.analytics.AnalyticsVersion;
+import com.example.supplychainvisualizer.analytics.ShipmentChangedEvent;
+import com.example.supplychainvisualizer.dto.ShipmentBatchResultDto;
 import com.example.supplychainvisualizer.dto.ShipmentDto;
-import com.example.supplychainvisualizer.model.Inventory;
+import com.example.supplychainvisualizer.dto.ShipmentFilter;
+import com.example.supplychainvisualizer.dto.ShipmentItemDto;
+import com.example.supplychainvisualizer.dto.ShipmentPageDto;
+import com.example.supplychainvisualizer.exception.BadRequestException;
+import com.example.supplychainvisualizer.inventory.InventoryLedger;
 import com.example.supplychainvisualizer.model.Node;
 import com.example.supplychainvisualizer.model.Product;
 import com.example.supplychainvisualizer.model.Shipment;
 import com.example.supplychainvisualizer.model.ShipmentItem;
-import com.example.supplychainvisualizer.repository.InventoryRepository;
 import com.example.supplychainvisualizer.repository.NodeRepository;
 import com.example.supplychainvisualizer.repository.ProductRepository;
 import com.example.supplychainvisualizer.repository.ShipmentRepository;
+import com.example.supplychainvisualizer.service.InventoryService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.Base64;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,7 +48,9 @@ class ShipmentServiceImplTest {
     @Mock private ShipmentRepository shipmentRepository;
     @Mock private NodeRepository nodeRepository;
     @Mock private ProductRepository productRepository;
-    @Mock private InventoryRepository inventoryRepository;
+    @Mock private InventoryService inventoryService;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private AnalyticsVersion analyticsVersion;
 
     @InjectMocks
     private ShipmentServiceImpl shipmentService;
@@ -62,16 +79,21 @@ class ShipmentServiceImplTest {
         shipment.setDepartureDate(LocalDate.of(2026, 1, 1));
         shipment.setEstimatedArrival(LocalDate.of(2026, 1, 10));
         shipment.setItems(new HashSet<>());
+
+        ReflectionTestUtils.setField(shipmentService, "defaultPageSize", 500);
+        ReflectionTestUtils.setField(shipmentService, "maxPageSize", 1000);
+        ReflectionTestUtils.setField(shipmentService, "maxBatchSize", 5000);
     }
 
     @Test
-    void getAllShipments_returnsMappedDtos() {
-        when(shipmentRepository.findAll()).thenReturn(List.of(shipment));
+    void getShipments_lastPage_returnsMappedDtosWithoutCursor() {
+        when(shipmentRepository.findBy(ArgumentMatchers.<Specification<Shipment>>any(), any())).thenReturn(List.of(shipment));
 
-        List<ShipmentDto> result = shipmentService.getAllShipments();
+        ShipmentPageDto page = shipmentService.getShipments(new ShipmentFilter(), null, null);
 
-        assertThat(result).hasSize(1);
-        ShipmentDto dto = result.get(0);
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(page.getItems()).hasSize(1);
+        ShipmentDto dto = page.getItems().get(0);
         assertThat(dto.getId()).isEqualTo(10L);
         assertThat(dto.getSourceId()).isEqualTo(1L);
         assertThat(dto.getSourceName()).isEqualTo("Factory A");
@@ -113,20 +135,15 @@ class ShipmentServiceImplTest {
         shipment.setItems(items);
         shipment.setStatus("in_transit");
 
-        Inventory existingInventory = new Inventory();
-        existingInventory.setNode(destination);
-        existingInventory.setProduct(product);
-        existingInventory.setQuantity(100);
-
         when(shipmentRepository.findById(10L)).thenReturn(Optional.of(shipment));
-        when(inventoryRepository.findByNodeAndProduct(destination, product))
-                .thenReturn(Optional.of(existingInventory));
         when(shipmentRepository.save(any())).thenReturn(shipment);
-        when(inventoryRepository.save(any())).thenReturn(existingInventory);
 
         shipmentService.updateShipmentStatus(10L, "delivered");
 
-        verify(inventoryRepository).save(argThat(inv -> inv.getQuantity() == 150));
+        verify(inventoryService).adjustQuantity(2L, 5L, 50);
+        verify(eventPublisher).publishEvent(argThat((Object e) -> e instanceof ShipmentChangedEvent changed
+                && "in_transit".equals(changed.getChanges().get(0).before().status())
+                && "delivered".equals(changed.getChanges().get(0).after().status())));
     }
 
     @Test
@@ -139,7 +156,7 @@ class ShipmentServiceImplTest {
 
         shipmentService.updateShipmentStatus(10L, "delivered");
 
-        verify(inventoryRepository, never()).save(any());
+        verify(inventoryService, never()).adjustQuantity(any(), any(), anyInt());
     }
 
     @Test
@@ -150,6 +167,9 @@ class ShipmentServiceImplTest {
 
         assertThat(result).isTrue();
         verify(shipmentRepository).delete(shipment);
+        verify(eventPublisher).publishEvent(argThat((Object e) -> e instanceof ShipmentChangedEvent changed
+                && changed.getChanges().get(0).after() == null));
+        verify(analyticsVersion).bump();
     }
 
     @Test
@@ -159,15 +179,85 @@ class ShipmentServiceImplTest {
         boolean result = shipmentService.deleteShipment(99L);
 
         assertThat(result).isFalse();
-        verify(shipmentRepository, never()).delete(any());
+        verify(shipmentRepository, never()).delete(any(Shipment.class));
+    }
+
+    @Test
+    void getShipments_extraRowFetched_trimsPageAndReturnsCursor() {
+        Shipment next = new Shipment();
+        next.setId(11L);
+        next.setSource(source);
+        next.setDestination(destination);
+        next.setItems(new HashSet<>());
+        when(shipmentRepository.findBy(ArgumentMatchers.<Specification<Shipment>>any(), any())).thenReturn(List.of(shipment, next));
+
+        ShipmentPageDto page = shipmentService.getShipments(new ShipmentFilter(), null, 1);
+
+        assertThat(page.getItems()).extracting(ShipmentDto::getId).containsExactly(10L);
+        assertThat(page.getNextCursor()).isNotNull();
     }
 
     @Test
-    void getShipmentsByStatus_returnsFilteredList() {
-        when(shipmentRepository.findByStatus("delayed")).thenReturn(List.of(shipment));
+    void getShipments_invalidArguments_throwBadRequest() {
+        ShipmentFilter badDateType = new ShipmentFilter();
+        badDateType.setDateType("shipped");
+        ShipmentFilter departureSort = new ShipmentFilter();
+        departureSort.setSort("departureDate");
+        String idCursor = Base64.getUrlEncoder().withoutPadding().encodeToString("i.10".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> shipmentService.getShipments(new ShipmentFilter(), null, 1001))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> shipmentService.getShipments(badDateType, null, null))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> shipmentService.getShipments(new ShipmentFilter(), "not a cursor", null))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> shipmentService.getShipments(departureSort, idCursor, null))
+                .isInstanceOf(BadRequestException.class);
+        verifyNoInteractions(shipmentRepository);
+    }
 
-        List<ShipmentDto> result = shipmentService.getShipmentsByStatus("delayed");
+    @Test
+    void createShipments_reportsBadRowsAndAppliesSummedInventoryDeltasOnce() {
+        Product product = new Product();
+        product.setId(5L);
+        product.setName("Widget");
+        when(nodeRepository.findAllById(any())).thenReturn(List.of(source, destination));
+        when(productRepository.findAllById(any())).thenReturn(List.of(product));
+        when(shipmentRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Shipment> saved = invocation.getArgument(0);
+            long id = 100;
+            for (Shipment s : saved) {
+                s.setId(id++);
+            }
+            return saved;
+        });
+
+        ShipmentBatchResultDto result = shipmentService.createShipments(List.of(
+                batchRow(1L, 2L, 5L, 10),
+                batchRow(1L, 99L, 5L, 10),
+                batchRow(1L, 2L, 6L, 10),
+                batchRow(1L, 2L, 5L, 15)));
+
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getResults()).extracting(ShipmentBatchResultDto.RowResult::getId)
+                .containsExactly(100L, null, null, 101L);
+        assertThat(result.getResults().get(1).getError()).contains("99");
+        assertThat(result.getResults().get(2).getError()).contains("product 6");
+        verify(inventoryService).adjustQuantities(List.of(new InventoryLedger.Adjustment(1L, 5L, -25)));
+        verifyNoMoreInteractions(inventoryService);
+        verify(eventPublisher).publishEvent(argThat((Object e) -> e instanceof ShipmentChangedEvent changed
+                && changed.getChanges().size() == 2));
+    }
 
-        assertThat(result).hasSize(1);
+    private static ShipmentDto batchRow(Long sourceId, Long destinationId, Long productId, int quantity) {
+        ShipmentItemDto item = new ShipmentItemDto();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        ShipmentDto dto = new ShipmentDto();
+        dto.setSourceId(sourceId);
+        dto.setDestinationId(destinationId);
+        dto.setItems(List.of(item));
+        return dto;
     }
 }
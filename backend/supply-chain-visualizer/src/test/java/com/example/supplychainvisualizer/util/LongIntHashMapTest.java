@@ -0,0 +1,62 @@
+package com.example.supplychainvisualizer.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LongIntHashMapTest {
+
+    @Test
+    void putGetRemove_basicOperations() {
+        LongIntHashMap map = new LongIntHashMap(4, -1);
+
+        assertThat(map.put(42L, 7)).isEqualTo(-1);
+        assertThat(map.put(42L, 8)).isEqualTo(7);
+        assertThat(map.get(42L)).isEqualTo(8);
+        assertThat(map.get(43L)).isEqualTo(-1);
+        assertThat(map.addTo(43L, 5)).isEqualTo(5);
+        assertThat(map.size()).isEqualTo(2);
+
+        assertThat(map.remove(42L)).isEqualTo(8);
+        assertThat(map.containsKey(42L)).isFalse();
+        assertThat(map.size()).isEqualTo(1);
+    }
+
+    @Test
+    void put_rejectsReservedKey() {
+        LongIntHashMap map = new LongIntHashMap(4, -1);
+
+        assertThatThrownBy(() -> map.put(Long.MIN_VALUE, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void randomOperations_matchHashMap() {
+        Random random = new Random(7);
+        LongIntHashMap map = new LongIntHashMap(16, -1);
+        Map<Long, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 200_000; i++) {
+            // A small key range forces collisions, growth and backward-shift deletes
+            long key = random.nextInt(5_000) - 2_500L;
+            if (random.nextInt(3) == 0) {
+                Integer previous = expected.remove(key);
+                assertThat(map.remove(key)).isEqualTo(previous == null ? -1 : previous);
+            } else {
+                int value = random.nextInt(1_000_000);
+                Integer previous = expected.put(key, value);
+                assertThat(map.put(key, value)).isEqualTo(previous == null ? -1 : previous);
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(expected.size());
+        expected.forEach((key, value) -> assertThat(map.get(key)).isEqualTo(value));
+        Map<Long, Integer> visited = new HashMap<>();
+        map.forEach(visited::put);
+        assertThat(visited).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,28 @@
+import { describe, it, expect, beforeEach, vi } from 'vitest';
+import axios from 'axios';
+import ShipmentService from '../shipment.service';
+
+vi.mock('axios');
+
+describe('ShipmentService', () => {
+  beforeEach(() => {
+    localStorage.clear();
+    vi.clearAllMocks();
+  });
+
+  it('follows the next-page cursor until the last page', async () => {
+    localStorage.setItem('user', JSON.stringify({ username: 'maria', token: 'jwt-123' }));
+    axios.get
+      .mockResolvedValueOnce({ data: [{ id: 1 }, { id: 2 }], headers: { 'x-next-cursor': 'abc' } })
+      .mockResolvedValueOnce({ data: [{ id: 3 }], headers: {} });
+
+    const response = await ShipmentService.getShipmentsByStatus('delayed');
+
+    expect(response.data).toEqual([{ id: 1 }, { id: 2 }, { id: 3 }]);
+    expect(axios.get).toHaveBeenCalledTimes(2);
+    expect(axios.get).toHaveBeenLastCalledWith(
+      expect.stringContaining('/api/shipments/status/delayed'),
+      expect.objectContaining({ params: { cursor: 'abc' } })
+    );
+  });
+});
@@ -5,11 +5,27 @@ import { guestDataApi } from '../data/guestData';
 
 const API_URL = (import.meta.env.VITE_API_URL || '') + '/api/shipments/';
 
+// Listings are paged; follow the X-Next-Cursor header until the last page so
+// callers still receive every matching shipment in response.data.
+async function getAllPages(url, config = {}) {
+  const items = [];
+  let cursor;
+  do {
+    const response = await axios.get(url, {
+      ...config,
+      params: { ...config.params, cursor }
+    });
+    items.push(...response.data);
+    cursor = response.headers?.['x-next-cursor'];
+  } while (cursor);
+  return { data: items };
+}
+
 class ShipmentService {
   getAllShipments() {
     return guestOr(
       () => guestDataApi.getShipments(),
-      () => axios.get(API_URL, { headers: authHeader() })
+      () => getAllPages(API_URL, { headers: authHeader() })
     );
   }
 
@@ -58,7 +74,7 @@ class ShipmentService {
         guestDataApi
           .getShipments()
           .filter((shipment) => shipment.sourceId === Number(sourceId)),
-      () => axios.get(API_URL + 'source/' + sourceId, { headers: authHeader() })
+      () => getAllPages(API_URL + 'source/' + sourceId, { headers: authHeader() })
     );
   }
 
@@ -68,14 +84,14 @@ class ShipmentService {
         guestDataApi
           .getShipments()
           .filter((shipment) => shipment.destinationId === Number(destinationId)),
-      () => axios.get(API_URL + 'destination/' + destinationId, { headers: authHeader() })
+      () => getAllPages(API_URL + 'destination/' + destinationId, { headers: authHeader() })
     );
   }
 
   getShipmentsByStatus(status) {
     return guestOr(
       () => guestDataApi.getShipments().filter((shipment) => shipment.status === status),
-      () => axios.get(API_URL + 'status/' + status, { headers: authHeader() })
+      () => getAllPages(API_URL + 'status/' + status, { headers: authHeader() })
     );
   }
 
@@ -91,7 +107,7 @@ class ShipmentService {
         });
       },
       () =>
-        axios.get(API_URL + 'date-range', {
+        getAllPages(API_URL + 'date-range', {
           params: {
             startDate: startDate.toISOString(),
             endDate: endDate.toISOString(),